@@ -4,15 +4,26 @@ import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
 import de.ollie.dbtools.cli.CLI.Command;
 import de.ollie.dbtools.cli.CLI.MainParameters;
+import de.ollie.dbtools.connections.ConnectionFactory;
+import de.ollie.dbtools.connections.JDBCConnectionFactory;
+import de.ollie.dbtools.connections.ReplicaConnectionFactory;
+import de.ollie.dbtools.connections.ReplicaSelection;
+import de.ollie.dbtools.connections.dto.JDBCConnection;
+import de.ollie.dbtools.copier.ClearStrategy;
+import de.ollie.dbtools.copier.CopyOptions;
 import de.ollie.dbtools.copier.DataCopier;
+import de.ollie.dbtools.copier.WriteMode;
 import de.ollie.dbtools.utils.StatementBuilder;
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.SQLException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -44,6 +55,22 @@ public class CopyCommand implements Command {
 	@Parameter(names = { "--sourceURL" }, required = true, description = "The URL of the source database.")
 	private String sourceURL;
 
+	@Parameter(
+		names = { "--sourceReplicaURLs" },
+		required = false,
+		description = "The URLs of read replicas of the source database (comma separated; same driver and user). If " +
+		"set, the tables are read from the replicas while the meta data are read from the source URL."
+	)
+	private String sourceReplicaURLs;
+
+	@Parameter(
+		names = { "--replicaSelection" },
+		required = false,
+		description = "The strategy for selecting the replica of a table or slice read: ROUND_ROBIN or LEAST_LOADED " +
+		"(the replica with the least open connections). Default is LEAST_LOADED."
+	)
+	private ReplicaSelection replicaSelection = ReplicaSelection.LEAST_LOADED;
+
 	@Parameter(
 		names = { "--sourceUser" },
 		required = true,
@@ -115,6 +142,381 @@ public class CopyCommand implements Command {
 	)
 	private boolean deleteBeforeCopy;
 
+	@Parameter(
+		names = { "--clearStrategy" },
+		required = false,
+		description = "The strategy for removing the data of the target tables before copy: AUTO (TRUNCATE with a " +
+		"fallback to a chunked DELETE), TRUNCATE, TRUNCATE_CASCADE, DELETE or CHUNKED_DELETE (by primary key pages " +
+		"of the chunk size with a commit after each chunk). Default is DELETE."
+	)
+	private ClearStrategy clearStrategy = ClearStrategy.DELETE;
+
+	@Parameter(
+		names = { "--writeMode" },
+		required = false,
+		description = "The mode for writing the records to the target tables: INSERT, UPSERT (by the primary key with " +
+		"MERGE, ON CONFLICT or ON DUPLICATE KEY UPDATE), UPSERT_CHANGED (an upsert which skips the update of " +
+		"identical records) or INSERT_MISSING (inserts of the records whose primary key is not in the target, the " +
+		"target keys are read into memory). Tables without primary key are refused by the upsert modes and written by " +
+		"inserts in the INSERT_MISSING mode. Default is INSERT."
+	)
+	private WriteMode writeMode = WriteMode.INSERT;
+
+	@Parameter(
+		names = { "--batchSize" },
+		required = false,
+		description = "The number of records which are sent to the target database with one JDBC batch (default is " +
+		CopyOptions.DEFAULT_BATCH_SIZE +
+		")."
+	)
+	private int batchSize = CopyOptions.DEFAULT_BATCH_SIZE;
+
+	@Parameter(
+		names = { "--adaptive" },
+		required = false,
+		description = "Set this flag to adjust the batch size, the fetch size and the number of the active workers of " +
+		"each table copy by the measured batch latencies and throughputs. The chosen values are printed per table."
+	)
+	private boolean adaptive;
+
+	@Parameter(
+		names = { "--minBatchSize" },
+		required = false,
+		description = "The lower bound of the batch size in adaptive mode (default is " +
+		CopyOptions.DEFAULT_MIN_BATCH_SIZE +
+		")."
+	)
+	private int minBatchSize = CopyOptions.DEFAULT_MIN_BATCH_SIZE;
+
+	@Parameter(
+		names = { "--maxBatchSize" },
+		required = false,
+		description = "The upper bound of the batch size in adaptive mode (default is " +
+		CopyOptions.DEFAULT_MAX_BATCH_SIZE +
+		")."
+	)
+	private int maxBatchSize = CopyOptions.DEFAULT_MAX_BATCH_SIZE;
+
+	@Parameter(
+		names = { "--maxBatchLatencyMillis" },
+		required = false,
+		description = "The maximum latency of a batch in adaptive mode (default is " +
+		CopyOptions.DEFAULT_MAX_BATCH_LATENCY_MILLIS +
+		" ms)."
+	)
+	private int maxBatchLatencyMillis = CopyOptions.DEFAULT_MAX_BATCH_LATENCY_MILLIS;
+
+	@Parameter(
+		names = { "--commitInterval" },
+		required = false,
+		description = "The number of records after which the target transaction is committed. If not set, each batch " +
+		"is committed in its own transaction."
+	)
+	private int commitInterval = 0;
+
+	@Parameter(
+		names = { "--exactCount" },
+		required = false,
+		description = "Set this flag to count the records of the source tables by SELECT COUNT(*) instead of reading " +
+		"the estimated counts from the catalog statistics (PostgreSQL, Oracle, MySQL)."
+	)
+	private boolean exactCount;
+
+	@Parameter(
+		names = { "--threads" },
+		required = false,
+		description = "The number of tables which are copied in parallel, each on its own source and target " +
+		"connection (default is 1). The largest tables are started first."
+	)
+	private int threads = 1;
+
+	@Parameter(
+		names = { "--virtualThreads" },
+		required = false,
+		description = "Set this flag to run the parallel table copies in virtual threads."
+	)
+	private boolean virtualThreads;
+
+	@Parameter(
+		names = { "--partitionThreads" },
+		required = false,
+		description = "The number of workers which are copying a single table in slices, each on its own source and " +
+		"target connection (default is 1). Tables are split by primary key ranges, by physical location " +
+		"(PostgreSQL, Oracle) or by the hash of a column."
+	)
+	private int partitionThreads = 1;
+
+	@Parameter(
+		names = { "--chunkSize" },
+		required = false,
+		description = "The number of records which are read with one select while copying key ranges (default is " +
+		CopyOptions.DEFAULT_CHUNK_SIZE +
+		")."
+	)
+	private int chunkSize = CopyOptions.DEFAULT_CHUNK_SIZE;
+
+	@Parameter(
+		names = { "--streaming" },
+		required = false,
+		arity = 1,
+		description = "Set this option to 'false' to read the source data with the default statements of the driver " +
+		"instead of streaming cursors (default is 'true')."
+	)
+	private boolean streaming = true;
+
+	@Parameter(
+		names = { "--fetchSize" },
+		required = false,
+		description = "The number of records which are fetched with one round trip from the source database (default " +
+		"is " +
+		CopyOptions.DEFAULT_FETCH_SIZE +
+		"; ignored for MySQL which streams row by row)."
+	)
+	private int fetchSize = CopyOptions.DEFAULT_FETCH_SIZE;
+
+	@Parameter(
+		names = { "--pipelined" },
+		required = false,
+		description = "Set this flag to read the source and write the target in separate threads connected by a " +
+		"bounded buffer of row batches."
+	)
+	private boolean pipelined;
+
+	@Parameter(
+		names = { "--pipelineBuffers" },
+		required = false,
+		description = "The number of row batches which are buffered between reader and writer of a pipelined copy " +
+		"(default is " +
+		CopyOptions.DEFAULT_PIPELINE_BUFFERS +
+		")."
+	)
+	private int pipelineBuffers = CopyOptions.DEFAULT_PIPELINE_BUFFERS;
+
+	@Parameter(
+		names = { "--maxBufferMemory" },
+		required = false,
+		description = "The budget for the row data in flight of pipelined and fanned out copies in MiB. If set, the " +
+		"records are held in pooled off-heap buffers and the readers are blocking while the budget is used up."
+	)
+	private long maxBufferMemory = 0;
+
+	@Parameter(
+		names = { "--spool" },
+		required = false,
+		description = "Set this flag to stream the records of each table into local spool files first. " +
+		"The source transaction is ended before the target is loaded from the spool."
+	)
+	private boolean spool;
+
+	@Parameter(
+		names = { "--spoolDirectory" },
+		required = false,
+		description = "The directory for the spool files (default is the temporary directory)."
+	)
+	private String spoolDirectory;
+
+	@Parameter(
+		names = { "--shadowLoad" },
+		required = false,
+		description = "Set this flag to load each table into a shadow table without indices which is swapped in by a " +
+		"rename after its indices are built (atomic for PostgreSQL and MySQL only)."
+	)
+	private boolean shadowLoad;
+
+	@Parameter(
+		names = { "--serverSideCopy" },
+		required = false,
+		description = "Set this flag to copy the tables by INSERT ... SELECT on the server if source and target are " +
+		"the same database or a source database link is set (not throttled and not read from replicas)."
+	)
+	private boolean serverSideCopy;
+
+	@Parameter(
+		names = { "--sourceDbLink" },
+		required = false,
+		description = "The name of a database link from the target to the source database (table@link). If set with " +
+		"--serverSideCopy, the tables are copied by INSERT ... SELECT on the target server."
+	)
+	private String sourceDbLink;
+
+	@Parameter(
+		names = { "--consistentSnapshot" },
+		required = false,
+		description = "Set this flag to read all source tables in one consistent snapshot (shared by the parallel " +
+		"readers for PostgreSQL and Oracle, a single read transaction for the others)."
+	)
+	private boolean consistentSnapshot;
+
+	@Parameter(
+		names = { "--maxRowsPerSecond" },
+		required = false,
+		description = "The maximum number of rows which are read from the source per second (all tables together)."
+	)
+	private long maxRowsPerSecond = 0;
+
+	@Parameter(
+		names = { "--maxBytesPerSecond" },
+		required = false,
+		description = "The maximum number of bytes which are read from the source per second (all tables together)."
+	)
+	private long maxBytesPerSecond = 0;
+
+	@Parameter(
+		names = { "--tableRowsPerSecond" },
+		required = false,
+		description = "Maximum numbers of rows per second for single tables. Type a comma separated list of " +
+		"'tableName=rowsPerSecond' with this parameter."
+	)
+	private String tableRowsPerSecond;
+
+	@Parameter(
+		names = { "--tableBytesPerSecond" },
+		required = false,
+		description = "Maximum numbers of bytes per second for single tables. Type a comma separated list of " +
+		"'tableName=bytesPerSecond' with this parameter."
+	)
+	private String tableBytesPerSecond;
+
+	@Parameter(
+		names = { "--maxSourceLatencyMillis" },
+		required = false,
+		description = "The maximum latency of the fetches from the source. The reads are backing off while the fetches " +
+		"take longer."
+	)
+	private long maxSourceLatencyMillis = 0;
+
+	@Parameter(
+		names = { "--throttleFile" },
+		required = false,
+		description = "A properties file with throttle limits which is reloaded after each change while the copy is " +
+		"running (rowsPerSecond, bytesPerSecond, maxSourceLatencyMillis, table.<name>.rowsPerSecond, " +
+		"table.<name>.bytesPerSecond)."
+	)
+	private String throttleFile;
+
+	@Parameter(
+		names = { "--writers" },
+		required = false,
+		description = "The number of target connections which are writing the records of a table read by a single " +
+		"source cursor (default is 1)."
+	)
+	private int writers = 1;
+
+	@Parameter(
+		names = { "--tableWriters" },
+		required = false,
+		description = "Numbers of writers for single tables. Type a comma separated list of 'tableName=writers' with " +
+		"this parameter."
+	)
+	private String tableWriters;
+
+	@Parameter(
+		names = { "--watermarkColumns" },
+		required = false,
+		description = "Watermark columns for the tables which are to copy incrementally. Type a comma separated list " +
+		"of 'tableName=columnName' with this parameter. Only records with a watermark greater than the one of the " +
+		"last copy are written as upserts to these tables (requires a primary key; the tables are not deleted " +
+		"before copy)."
+	)
+	private String watermarkColumns;
+
+	@Parameter(
+		names = { "--tableFilters" },
+		required = false,
+		description = "SQL conditions for the records of single tables which are to copy. Type a semicolon separated " +
+		"list of 'tableName=condition' with this parameter. The conditions are pushed into the selects of the source " +
+		"database."
+	)
+	private String tableFilters;
+
+	@Parameter(
+		names = { "--tableFilterFile" },
+		required = false,
+		description = "A properties file with SQL conditions for the records of single tables (tableName=condition). " +
+		"The conditions of the file are overridden by the ones of --tableFilters."
+	)
+	private String tableFilterFile;
+
+	@Parameter(
+		names = { "--samplePercent" },
+		required = false,
+		description = "The percentage of the records of each table which is to copy as a sample (by TABLESAMPLE for " +
+		"PostgreSQL, SAMPLE for Oracle and by the modulo of an integral primary key for the others)."
+	)
+	private double samplePercent = 0;
+
+	@Parameter(
+		names = { "--tableSamplePercents" },
+		required = false,
+		description = "Sample percentages for single tables. Type a comma separated list of 'tableName=percent' with " +
+		"this parameter."
+	)
+	private String tableSamplePercents;
+
+	@Parameter(
+		names = { "--stateFile" },
+		required = false,
+		description = "The file which keeps the watermarks of the incremental copies and the checkpoints between the " +
+		"runs (default is '" +
+		CopyOptions.DEFAULT_STATE_FILE +
+		"')."
+	)
+	private String stateFile = CopyOptions.DEFAULT_STATE_FILE;
+
+	@Parameter(
+		names = { "--deadLetterFile" },
+		required = false,
+		description = "A file for the records which could not be written to the target (JSON lines with the SQL " +
+		"error). Failing batches are bisected to find these records while the other records are copied. If not set, " +
+		"a failing record stops the copy."
+	)
+	private String deadLetterFile;
+
+	@Parameter(
+		names = { "--checkpoints" },
+		required = false,
+		description = "Set this flag to write checkpoints (completed tables and the last committed key of the table in " +
+		"progress) to the state file."
+	)
+	private boolean checkpoints;
+
+	@Parameter(
+		names = { "--resume" },
+		required = false,
+		description = "Set this flag to resume a failed copy from the checkpoints of the state file. Completed tables " +
+		"are skipped and the table in progress is continued after its last committed key. Tables in progress without " +
+		"a checkpoint (partitioned, fanned-out, spooled or server side copies) are cleared (write mode INSERT) and " +
+		"copied again."
+	)
+	private boolean resume;
+
+	@Parameter(
+		names = { "--twoPhaseLobs" },
+		required = false,
+		description = "Set this flag to copy tables with LOB columns (BLOB, CLOB, LONG) and a primary key in two phases: " +
+		"The records are written without their LOB columns first, then the LOBs are streamed in parallel by updates " +
+		"(the LOB columns of the target have to be nullable)."
+	)
+	private boolean twoPhaseLobs;
+
+	private ConnectionFactory getSourceConnectionFactory() throws ClassNotFoundException {
+		ConnectionFactory primary = createSourceConnectionFactory(sourceURL);
+		if (StringUtils.isBlank(sourceReplicaURLs)) {
+			return primary;
+		}
+		List<ConnectionFactory> replicas = new ArrayList<>();
+		for (String replicaURL : StringUtils.split(sourceReplicaURLs, ',')) {
+			replicas.add(createSourceConnectionFactory(replicaURL.trim()));
+		}
+		return new ReplicaConnectionFactory(primary, replicas, replicaSelection);
+	}
+
+	private ConnectionFactory createSourceConnectionFactory(String url) throws ClassNotFoundException {
+		return new JDBCConnectionFactory(
+			new JDBCConnection(sourceDriverClassName, sourceUserPassword, sourceUserName, url)
+		);
+	}
+
 	@Override
 	public String getCommand() {
 		return "copy";
@@ -126,17 +528,61 @@ public class CopyCommand implements Command {
 			List<String> excludeTableNames = getExcludes(excludeTables);
 			List<String> includeTableNamePatterns = getIncludes(tableNamePattern);
 			Map<String, String> mapTableNameMappings = getTableNameMappings(tableNameMappings);
-			Connection sourceConnection = getConnection(sourceDriverClassName, sourceURL, sourceUserName, sourceUserPassword);
-			Connection targetConnection = getConnection(targetDriverClassName, targetURL, targetUserName, targetUserPassword);
+			ConnectionFactory sourceConnectionFactory = getSourceConnectionFactory();
+			ConnectionFactory targetConnectionFactory = new JDBCConnectionFactory(
+				new JDBCConnection(targetDriverClassName, targetUserPassword, targetUserName, targetURL)
+			);
 			new DataCopier(new StatementBuilder())
 				.copy(
-					sourceConnection,
-					targetConnection,
+					sourceConnectionFactory,
+					targetConnectionFactory,
 					deleteBeforeCopy,
 					includeTableNamePatterns,
 					excludeTableNames,
 					mapTableNameMappings,
-					schemeName
+					schemeName,
+					new CopyOptions()
+						.setClearStrategy(clearStrategy)
+						.setWriteMode(writeMode)
+						.setBatchSize(batchSize)
+						.setAdaptive(adaptive)
+						.setMinBatchSize(minBatchSize)
+						.setMaxBatchSize(maxBatchSize)
+						.setMaxBatchLatencyMillis(maxBatchLatencyMillis)
+						.setCommitInterval(commitInterval)
+						.setExactCount(exactCount)
+						.setThreads(threads)
+						.setVirtualThreads(virtualThreads)
+						.setPartitionThreads(partitionThreads)
+						.setChunkSize(chunkSize)
+						.setStreaming(streaming)
+						.setFetchSize(fetchSize)
+						.setPipelined(pipelined)
+						.setPipelineBuffers(pipelineBuffers)
+						.setMaxBufferMemory(maxBufferMemory)
+						.setSpool(spool)
+						.setSpoolDirectory(spoolDirectory)
+						.setShadowLoad(shadowLoad)
+						.setServerSideCopy(serverSideCopy)
+						.setSourceDbLink(sourceDbLink)
+						.setConsistentSnapshot(consistentSnapshot)
+						.setMaxRowsPerSecond(maxRowsPerSecond)
+						.setMaxBytesPerSecond(maxBytesPerSecond)
+						.setTableRowsPerSecond(getTableLimits(tableRowsPerSecond))
+						.setTableBytesPerSecond(getTableLimits(tableBytesPerSecond))
+						.setMaxSourceLatencyMillis(maxSourceLatencyMillis)
+						.setThrottleFile(throttleFile)
+						.setWriters(writers)
+						.setTableWriters(getTableWriters(tableWriters))
+						.setWatermarkColumns(getWatermarkColumns(watermarkColumns))
+						.setTableFilters(getTableFilters(tableFilters, tableFilterFile))
+						.setSamplePercent(samplePercent)
+						.setTableSamplePercents(getTableSamplePercents(tableSamplePercents))
+						.setStateFile(stateFile)
+						.setDeadLetterFile(deadLetterFile)
+						.setCheckpoints(checkpoints)
+						.setResume(resume)
+						.setTwoPhaseLobs(twoPhaseLobs)
 				);
 		} catch (Exception e) {
 			log.error("error while copying data: " + e.getMessage(), e);
@@ -158,6 +604,87 @@ public class CopyCommand implements Command {
 		return Arrays.asList(StringUtils.split(excludeTableNames, ','));
 	}
 
+	private Map<String, Integer> getTableWriters(String s) {
+		Map<String, Integer> m = new HashMap<>();
+		if (s != null) {
+			for (String tableWriter : StringUtils.split(s, ',')) {
+				String[] tableNameAndWriters = StringUtils.split(tableWriter, '=');
+				if ((tableNameAndWriters.length != 2) || !StringUtils.isNumeric(tableNameAndWriters[1].trim())) {
+					throw new IllegalStateException("'" + tableWriter + "' is not a valid number of writers for a table.");
+				}
+				m.put(tableNameAndWriters[0].trim(), Integer.valueOf(tableNameAndWriters[1].trim()));
+			}
+		}
+		return m;
+	}
+
+	private Map<String, Long> getTableLimits(String s) {
+		Map<String, Long> m = new HashMap<>();
+		if (s != null) {
+			for (String tableLimit : StringUtils.split(s, ',')) {
+				String[] tableNameAndLimit = StringUtils.split(tableLimit, '=');
+				if ((tableNameAndLimit.length != 2) || !StringUtils.isNumeric(tableNameAndLimit[1].trim())) {
+					throw new IllegalStateException("'" + tableLimit + "' is not a valid limit for a table.");
+				}
+				m.put(tableNameAndLimit[0].trim(), Long.valueOf(tableNameAndLimit[1].trim()));
+			}
+		}
+		return m;
+	}
+
+	private Map<String, String> getWatermarkColumns(String s) {
+		Map<String, String> m = new HashMap<>();
+		if (s != null) {
+			for (String watermarkColumn : StringUtils.split(s, ',')) {
+				String[] tableAndColumnName = StringUtils.split(watermarkColumn, '=');
+				if (tableAndColumnName.length != 2) {
+					throw new IllegalStateException("'" + watermarkColumn + "' is not a valid watermark column.");
+				}
+				m.put(tableAndColumnName[0].trim(), tableAndColumnName[1].trim());
+			}
+		}
+		return m;
+	}
+
+	private Map<String, String> getTableFilters(String s, String fileName) throws IOException {
+		Map<String, String> m = new HashMap<>();
+		if (fileName != null) {
+			Properties properties = new Properties();
+			try (Reader reader = Files.newBufferedReader(Path.of(fileName))) {
+				properties.load(reader);
+			}
+			properties.forEach((tableName, condition) -> m.put(tableName.toString().trim(), condition.toString().trim()));
+		}
+		if (s != null) {
+			for (String tableFilter : StringUtils.split(s, ';')) {
+				int index = tableFilter.indexOf('=');
+				if (index < 1) {
+					throw new IllegalStateException("'" + tableFilter + "' is not a valid filter for a table.");
+				}
+				m.put(tableFilter.substring(0, index).trim(), tableFilter.substring(index + 1).trim());
+			}
+		}
+		return m;
+	}
+
+	private Map<String, Double> getTableSamplePercents(String s) {
+		Map<String, Double> m = new HashMap<>();
+		if (s != null) {
+			for (String tableSamplePercent : StringUtils.split(s, ',')) {
+				String[] tableNameAndPercent = StringUtils.split(tableSamplePercent, '=');
+				try {
+					if (tableNameAndPercent.length != 2) {
+						throw new NumberFormatException();
+					}
+					m.put(tableNameAndPercent[0].trim(), Double.valueOf(tableNameAndPercent[1].trim()));
+				} catch (NumberFormatException e) {
+					throw new IllegalStateException("'" + tableSamplePercent + "' is not a valid sample percentage for a table.");
+				}
+			}
+		}
+		return m;
+	}
+
 	private Map<String, String> getTableNameMappings(String s) {
 		Map<String, String> m = new HashMap<>();
 		if (s != null) {
@@ -171,10 +698,4 @@ public class CopyCommand implements Command {
 		}
 		return m;
 	}
-
-	private Connection getConnection(String driverClassName, String url, String userName, String userPassword)
-		throws ClassNotFoundException, SQLException {
-		Class.forName(driverClassName);
-		return DriverManager.getConnection(url, userName, userPassword);
-	}
 }
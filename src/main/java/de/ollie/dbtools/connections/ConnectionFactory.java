@@ -0,0 +1,41 @@
+package de.ollie.dbtools.connections;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * An interface for factories which are able to open new connections to a database.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+@FunctionalInterface
+public interface ConnectionFactory {
+	/**
+	 * Opens a new connection to the database. The caller is responsible for closing the connection.
+	 *
+	 * @return A new connection to the database.
+	 * @throws SQLException If an error occurs while opening the connection.
+	 */
+	Connection createConnection() throws SQLException;
+
+	/**
+	 * Opens a new connection to the primary database for reading the meta data. The caller is responsible for closing
+	 * the connection.
+	 *
+	 * @return A new connection to the primary database (the same as a new connection if there are no replicas).
+	 * @throws SQLException If an error occurs while opening the connection.
+	 */
+	default Connection createPrimaryConnection() throws SQLException {
+		return createConnection();
+	}
+
+	/**
+	 * Returns true if the new connections of the factory are routed to replicas of the primary database.
+	 *
+	 * @return true if the new connections are routed to replicas.
+	 */
+	default boolean hasReplicas() {
+		return false;
+	}
+}
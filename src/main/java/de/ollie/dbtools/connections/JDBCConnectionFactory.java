@@ -0,0 +1,41 @@
+package de.ollie.dbtools.connections;
+
+import static de.ollie.dbtools.utils.Check.ensure;
+
+import de.ollie.dbtools.connections.dto.JDBCConnection;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * A connection factory which opens the connections by the data of a JDBC connection container.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+public class JDBCConnectionFactory implements ConnectionFactory {
+
+	private final JDBCConnection jdbcConnection;
+
+	/**
+	 * Creates a new connection factory for the passed connection data. The driver class is loaded immediately.
+	 *
+	 * @param jdbcConnection The data of the connections to open.
+	 * @throws ClassNotFoundException   If the driver class could not be loaded.
+	 * @throws IllegalArgumentException Passing a null value.
+	 */
+	public JDBCConnectionFactory(JDBCConnection jdbcConnection) throws ClassNotFoundException {
+		ensure(jdbcConnection != null, "jdbc connection cannot be null!");
+		Class.forName(jdbcConnection.getDriver());
+		this.jdbcConnection = jdbcConnection;
+	}
+
+	@Override
+	public Connection createConnection() throws SQLException {
+		return DriverManager.getConnection(
+			jdbcConnection.getUrl(),
+			jdbcConnection.getUsername(),
+			jdbcConnection.getPassword()
+		);
+	}
+}
@@ -0,0 +1,118 @@
+package de.ollie.dbtools.connections;
+
+import static de.ollie.dbtools.utils.Check.ensure;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A connection factory which routes the read connections to replicas of a primary database: New connections are opened
+ * to one of the replicas (selected by the passed strategy), while connections for meta data reads are opened to the
+ * primary database. The factory counts the open connections of each replica until they are closed.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+public class ReplicaConnectionFactory implements ConnectionFactory {
+
+	private final ConnectionFactory primary;
+	private final List<ConnectionFactory> replicas;
+	private final ReplicaSelection selection;
+	private final int[] openConnections;
+
+	private int next = 0;
+
+	/**
+	 * Creates a new replica connection factory.
+	 *
+	 * @param primary   A factory for connections to the primary database.
+	 * @param replicas  Factories for connections to the replicas.
+	 * @param selection The strategy for selecting the replica of a new connection.
+	 * @throws IllegalArgumentException Passing a null value or no replicas.
+	 */
+	public ReplicaConnectionFactory(
+		ConnectionFactory primary,
+		List<ConnectionFactory> replicas,
+		ReplicaSelection selection
+	) {
+		ensure(primary != null, "primary connection factory cannot be null!");
+		ensure((replicas != null) && !replicas.isEmpty(), "replica connection factories cannot be empty!");
+		ensure(selection != null, "replica selection cannot be null!");
+		this.primary = primary;
+		this.replicas = List.copyOf(replicas);
+		this.selection = selection;
+		this.openConnections = new int[replicas.size()];
+	}
+
+	@Override
+	public Connection createConnection() throws SQLException {
+		int replica = selectReplica();
+		try {
+			return track(replicas.get(replica).createConnection(), replica);
+		} catch (SQLException | RuntimeException e) {
+			released(replica);
+			throw e;
+		}
+	}
+
+	@Override
+	public Connection createPrimaryConnection() throws SQLException {
+		return primary.createConnection();
+	}
+
+	@Override
+	public boolean hasReplicas() {
+		return true;
+	}
+
+	/**
+	 * Returns the number of the connections of the passed replica which are not closed yet.
+	 *
+	 * @param replica The index of the replica.
+	 * @return The number of the open connections of the replica.
+	 */
+	public synchronized int getOpenConnections(int replica) {
+		return openConnections[replica];
+	}
+
+	private synchronized int selectReplica() {
+		int selected = next;
+		next = (next + 1) % replicas.size();
+		if (selection == ReplicaSelection.LEAST_LOADED) {
+			for (int i = 1; i < replicas.size(); i++) {
+				int replica = (selected + i) % replicas.size();
+				if (openConnections[replica] < openConnections[selected]) {
+					selected = replica;
+				}
+			}
+		}
+		openConnections[selected]++;
+		return selected;
+	}
+
+	private synchronized void released(int replica) {
+		openConnections[replica]--;
+	}
+
+	private Connection track(Connection connection, int replica) {
+		AtomicBoolean closed = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(
+			Connection.class.getClassLoader(),
+			new Class<?>[] { Connection.class },
+			(proxy, method, args) -> {
+				if (method.getName().equals("close") && !closed.getAndSet(true)) {
+					released(replica);
+				}
+				try {
+					return method.invoke(connection, args);
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			}
+		);
+	}
+}
@@ -0,0 +1,18 @@
+package de.ollie.dbtools.connections;
+
+/**
+ * The strategies for selecting the replica of a new read connection.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+public enum ReplicaSelection {
+	/**
+	 * The replicas are used one after the other.
+	 */
+	ROUND_ROBIN,
+	/**
+	 * The replica with the least open connections of the factory is used (round robin for equal numbers).
+	 */
+	LEAST_LOADED;
+}
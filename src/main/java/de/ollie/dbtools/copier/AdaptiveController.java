@@ -0,0 +1,200 @@
+package de.ollie.dbtools.copier;
+
+import java.util.concurrent.Semaphore;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A feedback controller which adjusts the batch size, the fetch size and the number of the active workers of a table
+ * copy while it is running:
+ * <ul>
+ * <li>Batch size (AIMD): The size is increased by a constant step after each batch whose latency is in bounds and
+ * whose throughput is not lower than the smoothed throughput of the former batches. Otherwise it is halved.</li>
+ * <li>Fetch size: Follows the batch size.</li>
+ * <li>Workers (hill climbing): The throughput of all workers is measured in intervals. The number of the active
+ * workers is changed by one in the current direction as long as the throughput grows, else the direction is
+ * reversed.</li>
+ * </ul>
+ * The controller is shared by the workers of a table.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class AdaptiveController {
+
+	static Logger log = LogManager.getLogger(AdaptiveController.class);
+
+	/**
+	 * The number of batches per worker which are measured before the number of the workers is adjusted.
+	 */
+	static final int EVALUATION_BATCHES = 8;
+	/**
+	 * The factor of the smoothed throughput which a batch has to reach to increase the batch size.
+	 */
+	static final double DECREASE_THRESHOLD = 0.8;
+	/**
+	 * The weight of the throughput of the last batch in the smoothed throughput.
+	 */
+	static final double SMOOTHING = 0.3;
+
+	private final String tableName;
+	private final int minBatchSize;
+	private final int maxBatchSize;
+	private final int increaseStep;
+	private final long maxLatencyNanos;
+	private final int maxWorkers;
+	private final WorkerGate gate;
+
+	private int batchSize;
+	private double smoothedThroughput = 0;
+	private int workers;
+	private int workerDirection = -1;
+	private double lastIntervalThroughput = 0;
+	private long intervalRecords = 0;
+	private int intervalBatches = 0;
+	private long intervalStart = System.nanoTime();
+
+	/**
+	 * Creates a controller for the passed table if the adaptive mode is set in the options.
+	 *
+	 * @param tableName The name of the table whose copy is to control.
+	 * @param options   The options of the copy.
+	 * @param workers   The number of the workers of the table copy.
+	 * @return A new controller or null if the adaptive mode is not set.
+	 */
+	static AdaptiveController create(String tableName, CopyOptions options, int workers) {
+		return options.isAdaptive() ? new AdaptiveController(tableName, options, workers) : null;
+	}
+
+	/**
+	 * Creates a new controller.
+	 *
+	 * @param tableName The name of the table whose copy is controlled.
+	 * @param options   The options with the bounds of the controller.
+	 * @param workers   The number of the workers (upper bound of the active workers).
+	 */
+	AdaptiveController(String tableName, CopyOptions options, int workers) {
+		this.tableName = tableName;
+		this.minBatchSize = Math.max(1, options.getMinBatchSize());
+		this.maxBatchSize = Math.max(minBatchSize, options.getMaxBatchSize());
+		this.increaseStep = minBatchSize;
+		this.maxLatencyNanos = Math.max(1, options.getMaxBatchLatencyMillis()) * 1_000_000L;
+		this.maxWorkers = Math.max(1, workers);
+		this.workers = maxWorkers;
+		this.batchSize = Math.min(maxBatchSize, Math.max(minBatchSize, options.getEffectiveBatchSize()));
+		this.gate = new WorkerGate(maxWorkers);
+	}
+
+	synchronized int getBatchSize() {
+		return batchSize;
+	}
+
+	int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	synchronized int getFetchSize() {
+		return batchSize;
+	}
+
+	synchronized int getWorkers() {
+		return workers;
+	}
+
+	/**
+	 * Reports the execution of a batch to the controller.
+	 *
+	 * @param records The number of the records of the batch.
+	 * @param nanos   The latency of the batch in nanoseconds.
+	 */
+	synchronized void batchExecuted(int records, long nanos) {
+		double throughput = records * 1_000_000_000.0 / Math.max(1, nanos);
+		int newBatchSize = (nanos > maxLatencyNanos) || (throughput < smoothedThroughput * DECREASE_THRESHOLD)
+			? Math.max(minBatchSize, batchSize / 2)
+			: Math.min(maxBatchSize, batchSize + increaseStep);
+		if (newBatchSize != batchSize) {
+			log.debug("adaptive: " + tableName + " batch size " + batchSize + " -> " + newBatchSize);
+			batchSize = newBatchSize;
+		}
+		smoothedThroughput = smoothedThroughput == 0
+			? throughput
+			: (1 - SMOOTHING) * smoothedThroughput + SMOOTHING * throughput;
+		intervalRecords += records;
+		intervalBatches++;
+		if ((maxWorkers > 1) && (intervalBatches >= EVALUATION_BATCHES * workers)) {
+			adjustWorkers();
+		}
+	}
+
+	private void adjustWorkers() {
+		long now = System.nanoTime();
+		double throughput = intervalRecords * 1_000_000_000.0 / Math.max(1, now - intervalStart);
+		if (throughput < lastIntervalThroughput) {
+			workerDirection = -workerDirection;
+		}
+		int newWorkers = Math.min(maxWorkers, Math.max(1, workers + workerDirection));
+		if (newWorkers == workers) {
+			workerDirection = -workerDirection;
+		} else {
+			log.info("adaptive: " + tableName + " active workers " + workers + " -> " + newWorkers);
+			gate.resize(newWorkers - workers);
+			workers = newWorkers;
+		}
+		lastIntervalThroughput = throughput;
+		intervalRecords = 0;
+		intervalBatches = 0;
+		intervalStart = now;
+	}
+
+	/**
+	 * Blocks the calling worker until it is allowed to be active.
+	 *
+	 * @throws InterruptedException If the worker is interrupted while waiting.
+	 */
+	void acquireWorker() throws InterruptedException {
+		gate.acquire();
+	}
+
+	void releaseWorker() {
+		gate.release();
+	}
+
+	/**
+	 * Prints the values which are chosen by the controller (to pin them for later copies).
+	 */
+	synchronized void printChosenValues() {
+		System.out.println(
+			"adaptive: " +
+			tableName +
+			" chosen values: batch size " +
+			batchSize +
+			", fetch size " +
+			getFetchSize() +
+			", workers " +
+			workers +
+			" (" +
+			Math.round(smoothedThroughput) +
+			" records/s per batch)."
+		);
+	}
+
+	/**
+	 * A semaphore whose number of permits could be reduced.
+	 */
+	static class WorkerGate extends Semaphore {
+
+		private static final long serialVersionUID = 1L;
+
+		WorkerGate(int permits) {
+			super(permits, true);
+		}
+
+		void resize(int delta) {
+			if (delta > 0) {
+				release(delta);
+			} else if (delta < 0) {
+				reducePermits(-delta);
+			}
+		}
+	}
+}
@@ -0,0 +1,421 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.utils.Dialect;
+import de.ollie.dbtools.utils.StatementBuilder;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Savepoint;
+
+/**
+ * A writer which sends the records of a table to the target database using JDBC batches. The target connection is
+ * switched to manual commit while the writer is open and the transaction is committed after each commit interval.
+ * <p>
+ * If a dead letter writer is set, the values of the records of the current batch are kept and each batch is executed
+ * after a savepoint. A failed batch is rolled back to the savepoint and bisected recursively until the failing records
+ * are found. These are written to the dead letter writer while the other records are written to the target.
+ * <p>
+ * The records of tables with LOB columns are kept in the same way, because their LOB values have to be released after
+ * the batch is executed.
+ * <p>
+ * If an adaptive controller is set, the batch size is taken from the controller and the latency of each batch is
+ * reported to it.
+ * <p>
+ * If a key filter is set, the records whose key exists in the target already are skipped. If the keys have to be looked
+ * up in the target, the records are collected as candidates and the keys of a batch are looked up together before
+ * the remaining records are added to the statement.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class BatchWriter implements AutoCloseable {
+
+	private final Connection connection;
+	private final PreparedStatement statement;
+	private final int batchSize;
+	private final int commitInterval;
+	private final boolean commitEachBatch;
+	private final boolean autoCommit;
+
+	private TransferPlan plan = null;
+	private DBTable table = null;
+	private DeadLetterWriter deadLetters = null;
+	private RowBatch pending = null;
+	private AdaptiveController controller = null;
+	private KeyFilter keyFilter = null;
+	private PreparedStatement keyLookup = null;
+	private RowBatch candidates = null;
+	private Runnable commitListener = () -> {};
+	private boolean failed = false;
+	private int recordsInBatch = 0;
+	private long recordsSinceCommit = 0;
+	private long recordsWritten = 0;
+	private long recordsFailed = 0;
+
+	BatchWriter(Connection connection, String insert, CopyOptions options) throws SQLException {
+		this.connection = connection;
+		this.batchSize = options.getEffectiveBatchSize();
+		this.commitInterval = options.getEffectiveCommitInterval();
+		this.commitEachBatch = options.getCommitInterval() < 1;
+		this.autoCommit = connection.getAutoCommit();
+		connection.setAutoCommit(false);
+		this.statement = connection.prepareStatement(insert);
+	}
+
+	/**
+	 * Creates a new batch writer which writes records by the passed transfer plan.
+	 *
+	 * @param connection  The connection to write the records to.
+	 * @param insert      The statement which writes a record.
+	 * @param options     The options of the copy.
+	 * @param table       The table whose records are written.
+	 * @param plan        The transfer plan of the table.
+	 * @param deadLetters A writer for the records which could not be written or null if a failing record is to fail
+	 *                    the copy.
+	 * @throws SQLException If an error occurs while preparing the statement.
+	 */
+	BatchWriter(
+		Connection connection,
+		String insert,
+		CopyOptions options,
+		DBTable table,
+		TransferPlan plan,
+		DeadLetterWriter deadLetters
+	) throws SQLException {
+		this(connection, insert, options);
+		this.table = table;
+		this.plan = plan;
+		this.deadLetters = deadLetters;
+		if ((deadLetters != null) || plan.hasLobs()) {
+			this.pending = new RowBatch(batchSize, plan);
+		}
+	}
+
+	/**
+	 * Creates the statement which writes a record of the table of the passed task by the write mode of the options.
+	 * Shadow tables are written by inserts. Tables without a primary key are refused by an upsert write mode.
+	 *
+	 * @param statementBuilder A reference to a statement builder.
+	 * @param task             The task with the table to write.
+	 * @param options          The options of the copy.
+	 * @param connection       The connection which the statement is for.
+	 * @return The statement which writes a record (the parameters are in the order of the columns of the table).
+	 * @throws SQLException If an error occurs while reading the dialect of the connection.
+	 */
+	static String createWriteStatementString(
+		StatementBuilder statementBuilder,
+		TableCopyTask task,
+		CopyOptions options,
+		Connection connection
+	) throws SQLException {
+		DBTable table = task.getTable();
+		if (
+			(options.getWriteMode() == WriteMode.INSERT) ||
+			(options.getWriteMode() == WriteMode.INSERT_MISSING) ||
+			options.isShadowLoad()
+		) {
+			return statementBuilder.createInsertStatementString(table, task.getTargetTableName());
+		}
+		return statementBuilder.createUpsertStatementString(
+			table,
+			task.getTargetTableName(),
+			Dialect.of(connection),
+			options.getWriteMode() == WriteMode.UPSERT_CHANGED
+		);
+	}
+
+	/**
+	 * Returns the statement whose parameters are to set for the next record.
+	 *
+	 * @return The statement whose parameters are to set for the next record.
+	 */
+	PreparedStatement getStatement() {
+		return statement;
+	}
+
+	/**
+	 * Adds the current record of the passed result set to the current batch (requires a transfer plan).
+	 *
+	 * @param rs The result set to read the record from.
+	 * @throws SQLException If an error occurs while reading the record or executing the batch.
+	 */
+	void addRecord(ResultSet rs) throws SQLException {
+		if (candidates != null) {
+			plan.read(rs, candidates);
+			addCandidate();
+			return;
+		}
+		if ((keyFilter != null) && keyFilter.contains(rs)) {
+			return;
+		}
+		if (pending != null) {
+			plan.read(rs, pending);
+			plan.bind(pending, pending.getSize() - 1, statement);
+		} else {
+			plan.transfer(rs, statement);
+		}
+		addRecord();
+	}
+
+	/**
+	 * Adds the passed row of the passed batch to the current batch (requires a transfer plan). The LOB values of a
+	 * skipped row are released.
+	 *
+	 * @param batch The batch which contains the record.
+	 * @param row   The index of the record in the batch.
+	 * @throws SQLException If an error occurs while executing the batch.
+	 */
+	void addRecord(RowBatch batch, int row) throws SQLException {
+		if (candidates != null) {
+			candidates.addRow(batch, row);
+			addCandidate();
+			return;
+		}
+		if ((keyFilter != null) && keyFilter.contains(plan, batch, row)) {
+			plan.release(batch, row);
+			return;
+		}
+		if (pending != null) {
+			pending.addRow(batch, row);
+		}
+		plan.bind(batch, row, statement);
+		addRecord();
+	}
+
+	/**
+	 * Adds the record whose parameters are set to the statement to the current batch. The batch is executed if the
+	 * batch size is reached.
+	 *
+	 * @throws SQLException If an error occurs while executing the batch.
+	 */
+	void addRecord() throws SQLException {
+		statement.addBatch();
+		recordsInBatch++;
+		if (recordsInBatch >= getCurrentBatchSize()) {
+			flush();
+		}
+	}
+
+	private int getCurrentBatchSize() {
+		return controller != null ? controller.getBatchSize() : batchSize;
+	}
+
+	private void addCandidate() throws SQLException {
+		if (candidates.getSize() >= getCurrentBatchSize()) {
+			flush();
+		}
+	}
+
+	/**
+	 * Looks up the keys of the candidates and adds the records whose keys do not exist in the target to the statement.
+	 * The LOB values of the skipped records are released.
+	 */
+	private void addCandidates() throws SQLException {
+		boolean[] contained = keyFilter.contains(plan, candidates, keyLookup);
+		for (int row = 0; row < contained.length; row++) {
+			if (contained[row]) {
+				plan.release(candidates, row);
+			} else {
+				if (pending != null) {
+					pending.addRow(candidates, row);
+				}
+				plan.bind(candidates, row, statement);
+				statement.addBatch();
+				recordsInBatch++;
+			}
+		}
+		candidates.clear();
+	}
+
+	/**
+	 * Executes the current batch and commits the transaction if the commit interval is reached.
+	 *
+	 * @throws SQLException If an error occurs while executing the batch.
+	 */
+	void flush() throws SQLException {
+		if ((candidates != null) && (candidates.getSize() > 0)) {
+			addCandidates();
+		}
+		if (recordsInBatch == 0) {
+			return;
+		}
+		try {
+			long start = System.nanoTime();
+			if (deadLetters != null) {
+				executeIsolated(0, pending.getSize());
+				release();
+			} else if (pending != null) {
+				statement.executeBatch();
+				recordsWritten += recordsInBatch;
+				release();
+			} else {
+				statement.executeBatch();
+				recordsWritten += recordsInBatch;
+			}
+			if (controller != null) {
+				controller.batchExecuted(recordsInBatch, System.nanoTime() - start);
+			}
+		} catch (SQLException e) {
+			failed = true;
+			throw e;
+		}
+		recordsSinceCommit += recordsInBatch;
+		recordsInBatch = 0;
+		if ((recordsSinceCommit >= commitInterval) || ((controller != null) && commitEachBatch)) {
+			commit();
+		}
+	}
+
+	/**
+	 * Executes the records from "from" (inclusive) to "to" (exclusive) of the pending batch which are added to the
+	 * statement already. If the execution fails, the records are bisected.
+	 */
+	private void executeIsolated(int from, int to) throws SQLException {
+		Savepoint savepoint = connection.setSavepoint();
+		try {
+			statement.executeBatch();
+			releaseSavepoint(savepoint);
+			recordsWritten += to - from;
+		} catch (SQLException e) {
+			if (isConnectionError(e)) {
+				throw e;
+			}
+			connection.rollback(savepoint);
+			statement.clearBatch();
+			if (to - from == 1) {
+				deadLetters.write(table, plan, pending, from, e);
+				recordsFailed++;
+			} else {
+				int middle = (from + to) >>> 1;
+				bisect(from, middle);
+				bisect(middle, to);
+			}
+		}
+	}
+
+	private void release() {
+		plan.release(pending);
+		pending.clear();
+	}
+
+	private void bisect(int from, int to) throws SQLException {
+		for (int row = from; row < to; row++) {
+			plan.bind(pending, row, statement);
+			statement.addBatch();
+		}
+		executeIsolated(from, to);
+	}
+
+	private void releaseSavepoint(Savepoint savepoint) throws SQLException {
+		try {
+			connection.releaseSavepoint(savepoint);
+		} catch (SQLFeatureNotSupportedException e) {
+			// NOP - the savepoint is released with the commit.
+		}
+	}
+
+	private boolean isConnectionError(SQLException e) {
+		return (e.getSQLState() != null) && e.getSQLState().startsWith("08");
+	}
+
+	private void commit() throws SQLException {
+		connection.commit();
+		recordsSinceCommit = 0;
+		commitListener.run();
+	}
+
+	/**
+	 * Sets a listener which is called after each commit of the writer.
+	 *
+	 * @param commitListener The listener to call after each commit.
+	 */
+	void setCommitListener(Runnable commitListener) {
+		this.commitListener = commitListener;
+	}
+
+	/**
+	 * Sets an adaptive controller which is providing the batch size of the writer. Has to be called before the first
+	 * record is added.
+	 *
+	 * @param controller The controller of the table copy or null to use the batch size of the options.
+	 */
+	void setController(AdaptiveController controller) {
+		this.controller = controller;
+		if ((pending != null) && (controller != null)) {
+			pending = new RowBatch(getMaxBatchSize(), plan);
+		}
+		if ((candidates != null) && (controller != null)) {
+			candidates = new RowBatch(getMaxBatchSize(), plan);
+		}
+	}
+
+	private int getMaxBatchSize() {
+		return controller != null ? Math.max(batchSize, controller.getMaxBatchSize()) : batchSize;
+	}
+
+	/**
+	 * Sets a filter with the keys of the records which are to skip (requires a transfer plan). Has to be called before
+	 * the first record is added.
+	 *
+	 * @param keyFilter The filter with the keys of the target table or null if all records are to write.
+	 * @throws SQLException If an error occurs while preparing the key lookup of the filter.
+	 */
+	void setKeyFilter(KeyFilter keyFilter) throws SQLException {
+		this.keyFilter = keyFilter;
+		if (keyFilter != null) {
+			keyLookup = keyFilter.prepareLookup(connection);
+			if (keyLookup != null) {
+				candidates = new RowBatch(getMaxBatchSize(), plan);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of records which have been sent to the target database.
+	 *
+	 * @return The number of records which have been sent to the target database.
+	 */
+	long getRecordsWritten() {
+		return recordsWritten;
+	}
+
+	/**
+	 * Returns the number of records which have been written to the dead letter writer.
+	 *
+	 * @return The number of records which have been written to the dead letter writer.
+	 */
+	long getRecordsFailed() {
+		return recordsFailed;
+	}
+
+	@Override
+	public void close() throws SQLException {
+		try {
+			if (failed) {
+				connection.rollback();
+			} else {
+				flush();
+				commit();
+			}
+		} catch (SQLException e) {
+			connection.rollback();
+			throw e;
+		} finally {
+			if (pending != null) {
+				release();
+			}
+			if (candidates != null) {
+				plan.release(candidates);
+				candidates.clear();
+			}
+			if (keyLookup != null) {
+				keyLookup.close();
+			}
+			statement.close();
+			connection.setAutoCommit(autoCommit);
+		}
+	}
+}
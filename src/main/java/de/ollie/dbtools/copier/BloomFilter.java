@@ -0,0 +1,94 @@
+package de.ollie.dbtools.copier;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A Bloom filter for string keys: Each key sets a number of bits of a bit array which are chosen by double hashing of
+ * a 64 bit hash of the key. A key whose bits are not all set has never been added. A key whose bits are set might have
+ * been added (false positives are possible).
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class BloomFilter {
+
+	private static final long MIN_BITS = 1024;
+	private static final long MAX_BITS = 1L << 33;
+
+	private final long[] words;
+	private final long bitCount;
+	private final int hashCount;
+
+	/**
+	 * Creates a new Bloom filter for the passed number of keys and false positive probability.
+	 *
+	 * @param expectedKeys              The expected number of keys.
+	 * @param falsePositiveProbability The probability of false positives with the expected number of keys.
+	 */
+	BloomFilter(long expectedKeys, double falsePositiveProbability) {
+		long keys = Math.max(1, expectedKeys);
+		double bitsPerKey = -Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2));
+		long bits = Math.min(MAX_BITS, Math.max(MIN_BITS, (long) Math.ceil(keys * bitsPerKey)));
+		this.words = new long[(int) ((bits + 63) / 64)];
+		this.bitCount = words.length * 64L;
+		this.hashCount = Math.max(1, (int) Math.round(bitsPerKey * Math.log(2)));
+	}
+
+	/**
+	 * Adds the passed key to the filter.
+	 *
+	 * @param key The key to add.
+	 */
+	void add(String key) {
+		long hash = hash(key);
+		long h1 = hash;
+		long h2 = (hash >>> 32) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(h1 + i * h2, bitCount);
+			words[(int) (bit >>> 6)] |= 1L << bit;
+		}
+	}
+
+	/**
+	 * Checks if the passed key might have been added to the filter.
+	 *
+	 * @param key The key to check.
+	 * @return "false" if the key has never been added, "true" if it might have been added.
+	 */
+	boolean mightContain(String key) {
+		long hash = hash(key);
+		long h1 = hash;
+		long h2 = (hash >>> 32) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(h1 + i * h2, bitCount);
+			if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the size of the bit array in bytes.
+	 *
+	 * @return The size of the bit array in bytes.
+	 */
+	long getMemoryBytes() {
+		return words.length * (long) Long.BYTES;
+	}
+
+	/**
+	 * A 64 bit FNV-1a hash of the UTF-8 bytes of the key with a final avalanche step.
+	 */
+	private static long hash(String key) {
+		long h = 0xCBF29CE484222325L;
+		for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+			h ^= b & 0xFF;
+			h *= 0x100000001B3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -0,0 +1,89 @@
+package de.ollie.dbtools.copier;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A pool of direct byte buffers (segments of a fixed size) which limits the memory of the row data in flight to a
+ * budget. A caller which acquires a segment while the budget is used up blocks until another segment is released.
+ * Released segments are reused, so no more direct memory than the budget is allocated.
+ * <p>
+ * The copies of a JVM which are using the same budget share one pool (and so the budget).
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class BufferPool {
+
+	/**
+	 * The size of a segment (1 MiB). The budget is counted in segments.
+	 */
+	static final int SEGMENT_SIZE = 1024 * 1024;
+
+	private static final Map<Long, BufferPool> SHARED_POOLS = new HashMap<>();
+
+	private final Semaphore budget;
+	private final Queue<ByteBuffer> freeSegments = new ConcurrentLinkedQueue<>();
+	private final int segmentSize;
+
+	BufferPool(int segments, int segmentSize) {
+		this.budget = new Semaphore(Math.max(1, segments), true);
+		this.segmentSize = segmentSize;
+	}
+
+	/**
+	 * Returns the pool of the JVM for the memory budget of the passed options.
+	 *
+	 * @param options The options of the copy.
+	 * @return The pool for the budget of the options or null if no budget is set.
+	 */
+	static BufferPool of(CopyOptions options) {
+		return options.getMaxBufferMemory() > 0 ? shared(options.getMaxBufferMemory()) : null;
+	}
+
+	/**
+	 * Returns the pool of the JVM for the passed budget.
+	 *
+	 * @param maxBufferMemory The budget in MiB.
+	 * @return The pool for the passed budget.
+	 */
+	static synchronized BufferPool shared(long maxBufferMemory) {
+		return SHARED_POOLS.computeIfAbsent(
+			maxBufferMemory,
+			megabytes -> new BufferPool((int) Math.min(Integer.MAX_VALUE, megabytes), SEGMENT_SIZE)
+		);
+	}
+
+	/**
+	 * Returns a cleared segment. Blocks while the budget is used up.
+	 *
+	 * @return A cleared segment.
+	 * @throws InterruptedException If the thread is interrupted while waiting for a segment.
+	 */
+	ByteBuffer acquire() throws InterruptedException {
+		budget.acquire();
+		ByteBuffer segment = freeSegments.poll();
+		if (segment == null) {
+			segment = ByteBuffer.allocateDirect(segmentSize);
+		}
+		return segment.clear();
+	}
+
+	/**
+	 * Returns the passed segment to the pool.
+	 *
+	 * @param segment The segment to return.
+	 */
+	void release(ByteBuffer segment) {
+		freeSegments.add(segment);
+		budget.release();
+	}
+
+	int getAvailableSegments() {
+		return budget.availablePermits();
+	}
+}
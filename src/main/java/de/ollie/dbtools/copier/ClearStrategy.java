@@ -0,0 +1,32 @@
+package de.ollie.dbtools.copier;
+
+/**
+ * The strategies for clearing the target tables before the copy.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+public enum ClearStrategy {
+	/**
+	 * TRUNCATE for the known databases with a fallback to a chunked DELETE if the truncate is not allowed, DELETE for
+	 * the others.
+	 */
+	AUTO,
+	/**
+	 * TRUNCATE TABLE.
+	 */
+	TRUNCATE,
+	/**
+	 * TRUNCATE TABLE ... CASCADE (PostgreSQL, Oracle) which removes the records of referencing tables too.
+	 */
+	TRUNCATE_CASCADE,
+	/**
+	 * A single DELETE FROM per table (the default).
+	 */
+	DELETE,
+	/**
+	 * DELETE ... WHERE key &gt; ? AND key &lt;= ? in key order in chunks of the chunk size with a commit after each
+	 * chunk. Tables without a single column primary key are cleared by a single DELETE.
+	 */
+	CHUNKED_DELETE;
+}
@@ -0,0 +1,21 @@
+package de.ollie.dbtools.copier;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A table slice which is defined by a SQL condition. The records of the slice are read by a single select.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+@AllArgsConstructor
+@EqualsAndHashCode
+@Getter
+@ToString
+final class ConditionSlice implements TableSlice {
+
+	private String condition;
+}
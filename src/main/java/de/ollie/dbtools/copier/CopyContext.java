@@ -0,0 +1,43 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.connections.ConnectionFactory;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A container for the settings of a running copy which are needed by the table copies.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+@AllArgsConstructor
+@Getter
+class CopyContext {
+
+	/**
+	 * A factory for additional source connections or null if only the passed connection is to use.
+	 */
+	private ConnectionFactory sourceConnectionFactory;
+	/**
+	 * A factory for additional target connections or null if only the passed connection is to use.
+	 */
+	private ConnectionFactory targetConnectionFactory;
+
+	private CopyOptions options;
+	/**
+	 * The state of the copies which is kept between the runs or null if no state is needed.
+	 */
+	private CopyState state;
+	/**
+	 * A writer for the records which could not be written or null if a failing record is to fail the copy.
+	 */
+	private DeadLetterWriter deadLetters;
+	/**
+	 * The name of the source scheme or null if the default scheme of the source connection is used.
+	 */
+	private String schemeName;
+
+	boolean hasConnectionFactories() {
+		return (sourceConnectionFactory != null) && (targetConnectionFactory != null);
+	}
+}
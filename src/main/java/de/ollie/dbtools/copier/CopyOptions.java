@@ -0,0 +1,333 @@
+package de.ollie.dbtools.copier;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+/**
+ * A container for the options which are controlling a data copy.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+@Accessors(chain = true)
+@Data
+public class CopyOptions {
+
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+	public static final int DEFAULT_CHUNK_SIZE = 10000;
+	public static final int DEFAULT_FETCH_SIZE = 1000;
+	public static final int DEFAULT_MAX_BATCH_LATENCY_MILLIS = 2000;
+	public static final int DEFAULT_MAX_BATCH_SIZE = 10000;
+	public static final int DEFAULT_MIN_BATCH_SIZE = 100;
+	public static final int DEFAULT_PIPELINE_BUFFERS = 4;
+	public static final String DEFAULT_STATE_FILE = "dbtools-copy.state";
+
+	/**
+	 * The number of records which are sent to the target database with one JDBC batch.
+	 */
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	/**
+	 * Set this flag to let a feedback controller adjust the batch size, the fetch size and the number of the active
+	 * workers of each table copy by the measured batch latencies and throughputs. The batch size is starting from the
+	 * configured batch size and the number of the workers from the configured number. The chosen values are printed
+	 * for each table.
+	 */
+	private boolean adaptive = false;
+	/**
+	 * The lower bound of the batch size in adaptive mode (also the step of the increase of the batch size).
+	 */
+	private int minBatchSize = DEFAULT_MIN_BATCH_SIZE;
+	/**
+	 * The upper bound of the batch size in adaptive mode.
+	 */
+	private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+	/**
+	 * The maximum latency of a batch in adaptive mode. The batch size is halved after a batch which takes longer.
+	 */
+	private int maxBatchLatencyMillis = DEFAULT_MAX_BATCH_LATENCY_MILLIS;
+	/**
+	 * The number of records after which the target transaction is committed. The commit is done after the batch which
+	 * reaches the interval. A value less than one means that each batch is committed in its own transaction.
+	 */
+	private int commitInterval = 0;
+	/**
+	 * Set this flag to count the records of the source tables by SELECT COUNT(*) instead of reading estimates from the
+	 * catalog statistics of the database (PostgreSQL, Oracle, MySQL).
+	 */
+	private boolean exactCount = false;
+	/**
+	 * The number of tables which are copied at the same time. Values greater than one require connection factories to
+	 * open a pair of connections for each table copy.
+	 */
+	private int threads = 1;
+	/**
+	 * Set this flag to run the parallel table copies in virtual threads.
+	 */
+	private boolean virtualThreads = false;
+	/**
+	 * The number of workers which are copying the slices of a single table at the same time. Values greater than one
+	 * require connection factories.
+	 */
+	private int partitionThreads = 1;
+	/**
+	 * The maximum number of records which are read with one keyset paginated select of a key range. Tables with less
+	 * records are not split into slices.
+	 */
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	/**
+	 * Set this flag to read the source data by streaming cursors which are configured for the driver of the source
+	 * connection.
+	 */
+	private boolean streaming = true;
+	/**
+	 * The number of records which are fetched with one round trip from the source database in streaming mode (ignored
+	 * for MySQL which is streaming row by row).
+	 */
+	private int fetchSize = DEFAULT_FETCH_SIZE;
+	/**
+	 * Set this flag to overlap reading and writing: A reader thread fills row batches into a bounded ring buffer which
+	 * is drained into the target by the copying thread.
+	 */
+	private boolean pipelined = false;
+	/**
+	 * The number of row batches (of batch size records) in the ring buffer of a pipelined copy.
+	 */
+	private int pipelineBuffers = DEFAULT_PIPELINE_BUFFERS;
+	/**
+	 * The budget for the row data in flight between the readers and the writers of pipelined and fanned out copies in
+	 * MiB. If set, the records are encoded into pooled direct buffers (off the heap) and the readers are blocking while
+	 * the budget is used up. The budget is shared by all copies of the JVM which are using the same value. Tables with
+	 * LOB columns or columns of unknown types are held in the heap. A value less than one means no budget.
+	 */
+	private long maxBufferMemory = 0;
+	/**
+	 * Set this flag to copy the tables over a local spool: The records of a table are streamed from the source into
+	 * local spool files and the read transaction of the source is ended. Then the target is loaded from the
+	 * spool. Tables with LOB columns or columns of unknown types are copied directly.
+	 */
+	private boolean spool = false;
+	/**
+	 * The directory for the spool files (the temporary directory of the JVM if not set).
+	 */
+	private String spoolDirectory = null;
+	/**
+	 * Set this flag to copy the tables by INSERT ... SELECT statements on the target server if the source and the
+	 * target connection are connected to the same database (equal URLs without parameters, but different schemes or
+	 * table names) or a source database link is set. So the data are not transferred through the network. Not used for
+	 * resumed tables, with a dead letter file, with other write modes than INSERT, with a consistent snapshot, with a
+	 * throttle and with source replicas. The server side copies are not controlled by the adaptive controller and the
+	 * buffer memory budget.
+	 */
+	private boolean serverSideCopy = false;
+	/**
+	 * The name of a database link from the target to the source database (Oracle style: the source tables are accessed
+	 * by "table@link" from the target connection). If set, all tables are copied on the target server (requires the
+	 * server side copy flag).
+	 */
+	private String sourceDbLink = null;
+	/**
+	 * Set this flag to load each table into a shadow table ("&lt;name&gt;__load") without indices which is swapped in
+	 * after its indices are built (by renames or by a partition exchange). So the target table keeps its old records
+	 * until the swap. The swap is atomic for PostgreSQL and MySQL only, the other databases have a short time without
+	 * the table between the renames. The target tables are not cleared before the copy and tables with watermark
+	 * columns are copied directly. Resumed tables are loaded from the start and LOB columns are copied in one phase.
+	 */
+	private boolean shadowLoad = false;
+	/**
+	 * The maximum number of rows which are read from the source database per second (by all tables together). A value
+	 * less than one means no limit. The limits are taken by the throttle when the first source reader is created, use
+	 * a throttle file to change them while a copy is running.
+	 */
+	private long maxRowsPerSecond = 0;
+	/**
+	 * The maximum number of bytes which are read from the source database per second (by all tables together, estimated
+	 * by the read values without LOB streams). A value less than one means no limit.
+	 */
+	private long maxBytesPerSecond = 0;
+	/**
+	 * Maximum numbers of rows per second for single tables (table name -&gt; rows per second).
+	 */
+	private Map<String, Long> tableRowsPerSecond = new HashMap<>();
+	/**
+	 * Maximum numbers of bytes per second for single tables (table name -&gt; bytes per second).
+	 */
+	private Map<String, Long> tableBytesPerSecond = new HashMap<>();
+	/**
+	 * The maximum latency of the fetches from the source database. The readers are backing off while the fetches are
+	 * taking longer. A value less than one means no latency guard.
+	 */
+	private long maxSourceLatencyMillis = 0;
+	/**
+	 * The name of a properties file with the throttle limits which is reloaded after each change while the copy is
+	 * running (keys: rowsPerSecond, bytesPerSecond, maxSourceLatencyMillis, table.&lt;name&gt;.rowsPerSecond and
+	 * table.&lt;name&gt;.bytesPerSecond).
+	 */
+	private String throttleFile = null;
+	/**
+	 * Set this flag to read all source tables in one consistent snapshot: The snapshot is shared by the parallel source
+	 * connections for PostgreSQL (exported snapshot) and Oracle (flashback at one SCN). The other databases are read in
+	 * a single repeatable read (MySQL) or serializable transaction and their tables are read one after the other.
+	 */
+	private boolean consistentSnapshot = false;
+	/**
+	 * The mode for writing the records to the target tables (inserts, inserts of the records which are missing in the
+	 * target or batched upserts by the primary key).
+	 */
+	private WriteMode writeMode = WriteMode.INSERT;
+	/**
+	 * The strategy for clearing the target tables if the data are to delete before the copy. Note that a TRUNCATE
+	 * commits implicitly on some databases (e.g. Oracle, MySQL) and fails for tables which are referenced by foreign
+	 * keys of tables which are not copied.
+	 */
+	private ClearStrategy clearStrategy = ClearStrategy.DELETE;
+	/**
+	 * The number of target connections which are writing the records of a single table read by one source cursor.
+	 * Values greater than one require connection factories.
+	 */
+	private int writers = 1;
+	/**
+	 * Numbers of writers for single tables (table name -&gt; number of writers) which are overriding the number of
+	 * writers.
+	 */
+	private Map<String, Integer> tableWriters = new HashMap<>();
+	/**
+	 * The watermark columns (e.g. an update timestamp or an increasing id) of the tables which are to copy
+	 * incrementally (table name -&gt; column name). Only the records which have been changed since the last copy are
+	 * written to these tables as upserts.
+	 */
+	private Map<String, String> watermarkColumns = new HashMap<>();
+	/**
+	 * SQL conditions for the records of single tables which are to copy (table name -&gt; condition). The conditions
+	 * are pushed into the selects of the source database, so only the matching records are read.
+	 */
+	private Map<String, String> tableFilters = new HashMap<>();
+	/**
+	 * The percentage of the records of each table which is to copy as a sample. The sample is selected by the table
+	 * sampling of the source database (PostgreSQL: TABLESAMPLE BERNOULLI, Oracle: SAMPLE) or by the modulo of an
+	 * integral single column primary key. Tables without both are copied completely. A value less than or equal to
+	 * zero or not less than 100 means no sampling.
+	 */
+	private double samplePercent = 0;
+	/**
+	 * Sample percentages for single tables (table name -&gt; percentage) which are overriding the sample percentage.
+	 */
+	private Map<String, Double> tableSamplePercents = new HashMap<>();
+	/**
+	 * The name of the file which keeps the state of the copies between the runs.
+	 */
+	private String stateFile = DEFAULT_STATE_FILE;
+	/**
+	 * The name of a file which the records are written to (as JSON lines with the SQL error) which could not be written
+	 * to the target. Failing batches are bisected to find these records while the other records are written. If not
+	 * set, a failing record fails the copy.
+	 */
+	private String deadLetterFile = null;
+	/**
+	 * Set this flag to write the completed tables and the key of the last committed record of the tables in progress
+	 * to the state file.
+	 */
+	private boolean checkpoints = false;
+	/**
+	 * Set this flag to resume a failed copy from the checkpoints of the state file: Completed tables are skipped and
+	 * the table in progress is continued after the last committed key (implies checkpoints). Tables in progress without
+	 * a checkpoint (partitioned, fanned-out, spooled and server side copies) are copied from the start again, their
+	 * target tables are cleared before for the write mode INSERT.
+	 */
+	private boolean resume = false;
+	/**
+	 * Set this flag to copy the tables with LOB columns and a primary key in two phases: The records are written
+	 * without their LOB columns in fast batches first. Then the LOB values are streamed to the records by updates (in
+	 * parallel by the partition threads if connection factories are passed). The LOB columns of the target tables have
+	 * to be nullable.
+	 */
+	private boolean twoPhaseLobs = false;
+
+	@EqualsAndHashCode.Exclude
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	@ToString.Exclude
+	private SourceThrottle sourceThrottle = null;
+
+	/**
+	 * Returns the throttle for the source reads of the copies with these options.
+	 *
+	 * @return The throttle for the source reads.
+	 */
+	synchronized SourceThrottle getSourceThrottle() {
+		if (sourceThrottle == null) {
+			sourceThrottle = new SourceThrottle(this);
+		}
+		return sourceThrottle;
+	}
+
+	/**
+	 * Returns the number of writers for the passed table (the table name is compared case insensitive).
+	 *
+	 * @param tableName The name of the table.
+	 * @return The number of writers for the table.
+	 */
+	int getWriters(String tableName) {
+		return Math.max(1, getIgnoreCase(tableWriters, tableName, writers));
+	}
+
+	/**
+	 * Returns the name of the watermark column of the passed table (the table name is compared case insensitive).
+	 *
+	 * @param tableName The name of the table.
+	 * @return The name of the watermark column or null if the table is not to copy incrementally.
+	 */
+	String getWatermarkColumnName(String tableName) {
+		return getIgnoreCase(watermarkColumns, tableName, null);
+	}
+
+	/**
+	 * Returns the filter condition of the passed table (the table name is compared case insensitive).
+	 *
+	 * @param tableName The name of the table.
+	 * @return The filter condition of the table or null if all records are to copy.
+	 */
+	String getTableFilter(String tableName) {
+		return getIgnoreCase(tableFilters, tableName, null);
+	}
+
+	double getSamplePercent(String tableName) {
+		return getIgnoreCase(tableSamplePercents, tableName, samplePercent);
+	}
+
+	long getRowsPerSecond(String tableName) {
+		return getIgnoreCase(tableRowsPerSecond, tableName, 0L);
+	}
+
+	long getBytesPerSecond(String tableName) {
+		return getIgnoreCase(tableBytesPerSecond, tableName, 0L);
+	}
+
+	private <T> T getIgnoreCase(Map<String, T> map, String tableName, T defaultValue) {
+		return map
+			.entrySet()
+			.stream()
+			.filter(entry -> entry.getKey().equalsIgnoreCase(tableName))
+			.map(Map.Entry::getValue)
+			.findFirst()
+			.orElse(defaultValue);
+	}
+
+	boolean isCheckpointing() {
+		return checkpoints || resume;
+	}
+
+	int getEffectiveBatchSize() {
+		return Math.max(1, batchSize);
+	}
+
+	int getEffectiveCommitInterval() {
+		return commitInterval < 1 ? getEffectiveBatchSize() : commitInterval;
+	}
+}
@@ -0,0 +1,187 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.modelreader.DBColumn;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Properties;
+
+/**
+ * The state of the copies which is kept in a local properties file between the runs (the watermarks of the
+ * incremental table copies and the checkpoints of resumable copies). The file is replaced atomically on each save.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class CopyState {
+
+	static final long SAVE_INTERVAL_MILLIS = 1000;
+
+	private static final String CHECKPOINT_PREFIX = "checkpoint.";
+	private static final String COMPLETED_PREFIX = "completed.";
+	private static final String STARTED_PREFIX = "started.";
+	private static final String WATERMARK_PREFIX = "watermark.";
+
+	private final Path file;
+	private final Properties properties = new Properties();
+
+	private long lastSave = 0;
+
+	private CopyState(Path file) {
+		this.file = file;
+	}
+
+	/**
+	 * Loads the state from the passed file. An empty state is returned if the file does not exist.
+	 *
+	 * @param file The file to load the state from.
+	 * @return The state which is stored in the passed file.
+	 */
+	static CopyState load(Path file) {
+		CopyState state = new CopyState(file);
+		if (Files.exists(file)) {
+			try (Reader reader = Files.newBufferedReader(file)) {
+				state.properties.load(reader);
+			} catch (IOException e) {
+				throw new UncheckedIOException("error while reading copy state file: " + file, e);
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * Returns the watermark which has been stored for the passed table.
+	 *
+	 * @param tableName The name of the table.
+	 * @return The watermark of the last copy of the table or null if the table has not been copied yet.
+	 */
+	synchronized String getWatermark(String tableName) {
+		return properties.getProperty(WATERMARK_PREFIX + tableName);
+	}
+
+	synchronized void setWatermark(String tableName, String watermark) {
+		properties.setProperty(WATERMARK_PREFIX + tableName, watermark);
+	}
+
+	/**
+	 * Returns the key of the last committed record of the passed table whose copy has not been completed.
+	 *
+	 * @param tableName The name of the table.
+	 * @return The key of the last committed record or null if there is no checkpoint for the table.
+	 */
+	synchronized String getCheckpoint(String tableName) {
+		return properties.getProperty(CHECKPOINT_PREFIX + tableName);
+	}
+
+	synchronized void setCheckpoint(String tableName, String key) {
+		properties.setProperty(CHECKPOINT_PREFIX + tableName, key);
+	}
+
+	synchronized boolean isCompleted(String tableName) {
+		return properties.containsKey(COMPLETED_PREFIX + tableName);
+	}
+
+	/**
+	 * Checks if the copy of the passed table has been started, but not completed.
+	 *
+	 * @param tableName The name of the table.
+	 * @return true if the copy of the table has been started, but not completed.
+	 */
+	synchronized boolean isStarted(String tableName) {
+		return properties.containsKey(STARTED_PREFIX + tableName);
+	}
+
+	synchronized void setStarted(String tableName) {
+		properties.setProperty(STARTED_PREFIX + tableName, "true");
+	}
+
+	/**
+	 * Marks the copy of the passed table as completed and removes its checkpoint and its start mark.
+	 *
+	 * @param tableName The name of the table.
+	 */
+	synchronized void setCompleted(String tableName) {
+		properties.remove(CHECKPOINT_PREFIX + tableName);
+		properties.remove(STARTED_PREFIX + tableName);
+		properties.setProperty(COMPLETED_PREFIX + tableName, "true");
+	}
+
+	/**
+	 * Removes the checkpoints, the start marks and the completion marks of all tables (the watermarks are kept).
+	 */
+	synchronized void clearCheckpoints() {
+		properties
+			.keySet()
+			.removeIf(key ->
+				((String) key).startsWith(CHECKPOINT_PREFIX) ||
+				((String) key).startsWith(COMPLETED_PREFIX) ||
+				((String) key).startsWith(STARTED_PREFIX)
+			);
+	}
+
+	/**
+	 * Writes the state to its file if the last write is longer ago than the save interval. This keeps the costs of
+	 * frequent checkpoints low.
+	 */
+	synchronized void saveThrottled() {
+		if (System.currentTimeMillis() - lastSave >= SAVE_INTERVAL_MILLIS) {
+			save();
+		}
+	}
+
+	/**
+	 * Writes the state to its file.
+	 */
+	synchronized void save() {
+		lastSave = System.currentTimeMillis();
+		try {
+			Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+			try (Writer writer = Files.newBufferedWriter(temp)) {
+				properties.store(writer, "dbtools copy state");
+			}
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new UncheckedIOException("error while writing copy state file: " + file, e);
+		}
+	}
+
+	/**
+	 * Converts the passed value into a string which could be stored in the state.
+	 *
+	 * @param value The value to convert.
+	 * @return A string representation of the value.
+	 */
+	static String encode(Object value) {
+		return value instanceof LocalDateTime localDateTime
+			? Timestamp.valueOf(localDateTime).toString()
+			: String.valueOf(value);
+	}
+
+	/**
+	 * Converts the passed string which is stored in the state into a value of the type of the passed column.
+	 *
+	 * @param value  The string to convert.
+	 * @param column The column which the value belongs to.
+	 * @return A value of the type of the column.
+	 */
+	static Object decode(String value, DBColumn column) {
+		if (column.getType() == null) {
+			return value;
+		}
+		return switch (column.getType()) {
+			case BIGINT, INTEGER -> Long.valueOf(value);
+			case DECIMAL, NUMERIC -> new BigDecimal(value);
+			case DATE -> Date.valueOf(value);
+			case TIMESTAMP -> Timestamp.valueOf(value);
+			default -> value;
+		};
+	}
+}
@@ -1,5 +1,7 @@
 package de.ollie.dbtools.copier;
 
+import de.ollie.dbtools.connections.ConnectionFactory;
+import de.ollie.dbtools.modelreader.DBColumn;
 import de.ollie.dbtools.modelreader.DBDataScheme;
 import de.ollie.dbtools.modelreader.DBForeignKey;
 import de.ollie.dbtools.modelreader.DBTable;
@@ -7,12 +9,15 @@ import de.ollie.dbtools.modelreader.DBTypeConverter;
 import de.ollie.dbtools.modelreader.DefaultDBObjectFactory;
 import de.ollie.dbtools.modelreader.jdbc.JDBCForeignKeyReader;
 import de.ollie.dbtools.modelreader.jdbc.JDBCModelReader;
+import de.ollie.dbtools.utils.Dialect;
 import de.ollie.dbtools.utils.StatementBuilder;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import org.apache.logging.log4j.LogManager;
@@ -31,6 +36,10 @@ public class DataCopier {
 	static ForeignKeyRemover foreignKeyRemover = new ForeignKeyRemover();
 	static ForeignKeyRestorer foreignKeyRestorer = new ForeignKeyRestorer();
 	static SequenceUpdater sequenceUpater = new SequenceUpdater();
+	static TableCopyScheduler tableCopyScheduler = new TableCopyScheduler();
+	static TablePartitioner tablePartitioner = new TablePartitioner();
+	static KeyRangePartitioner keyRangePartitioner = new KeyRangePartitioner();
+	static RowCountEstimator rowCountEstimator = new RowCountEstimator();
 
 	private StatementBuilder statementBuilder;
 
@@ -52,6 +61,132 @@ public class DataCopier {
 		List<String> excludeTableNames,
 		Map<String, String> tableNameMappings,
 		String schemeName
+	) throws Exception {
+		copy(
+			sourceConnection,
+			targetConnection,
+			deleteBeforeCopy,
+			includeTableNamePatterns,
+			excludeTableNames,
+			tableNameMappings,
+			schemeName,
+			new CopyOptions()
+		);
+	}
+
+	public void copy(
+		Connection sourceConnection,
+		Connection targetConnection,
+		boolean deleteBeforeCopy,
+		List<String> includeTableNamePatterns,
+		List<String> excludeTableNames,
+		Map<String, String> tableNameMappings,
+		String schemeName,
+		CopyOptions options
+	) throws Exception {
+		copy(
+			sourceConnection,
+			targetConnection,
+			null,
+			null,
+			deleteBeforeCopy,
+			includeTableNamePatterns,
+			excludeTableNames,
+			tableNameMappings,
+			schemeName,
+			options
+		);
+	}
+
+	/**
+	 * Copies the data using connections of the passed factories. If the options are defining more than one thread, the
+	 * tables are copied in parallel, each on its own pair of source and target connection. If the source connection
+	 * factory routes its connections to replicas, the meta data are read from the primary database while the tables
+	 * and their slices are read from the replicas.
+	 */
+	public void copy(
+		ConnectionFactory sourceConnectionFactory,
+		ConnectionFactory targetConnectionFactory,
+		boolean deleteBeforeCopy,
+		List<String> includeTableNamePatterns,
+		List<String> excludeTableNames,
+		Map<String, String> tableNameMappings,
+		String schemeName,
+		CopyOptions options
+	) throws Exception {
+		try (
+			Connection sourceConnection = sourceConnectionFactory.createPrimaryConnection();
+			Connection targetConnection = targetConnectionFactory.createConnection()
+		) {
+			copy(
+				sourceConnection,
+				targetConnection,
+				sourceConnectionFactory,
+				targetConnectionFactory,
+				deleteBeforeCopy,
+				includeTableNamePatterns,
+				excludeTableNames,
+				tableNameMappings,
+				schemeName,
+				options
+			);
+		}
+	}
+
+	private void copy(
+		Connection sourceConnection,
+		Connection targetConnection,
+		ConnectionFactory sourceConnectionFactory,
+		ConnectionFactory targetConnectionFactory,
+		boolean deleteBeforeCopy,
+		List<String> includeTableNamePatterns,
+		List<String> excludeTableNames,
+		Map<String, String> tableNameMappings,
+		String schemeName,
+		CopyOptions options
+	) throws Exception {
+		if (!options.isConsistentSnapshot()) {
+			copyScheme(
+				sourceConnection,
+				targetConnection,
+				sourceConnectionFactory,
+				targetConnectionFactory,
+				deleteBeforeCopy,
+				includeTableNamePatterns,
+				excludeTableNames,
+				tableNameMappings,
+				schemeName,
+				options
+			);
+			return;
+		}
+		try (SourceSnapshot snapshot = SourceSnapshot.begin(sourceConnection, sourceConnectionFactory)) {
+			copyScheme(
+				sourceConnection,
+				targetConnection,
+				snapshot.getConnectionFactory(),
+				targetConnectionFactory,
+				deleteBeforeCopy,
+				includeTableNamePatterns,
+				excludeTableNames,
+				tableNameMappings,
+				schemeName,
+				options
+			);
+		}
+	}
+
+	private void copyScheme(
+		Connection sourceConnection,
+		Connection targetConnection,
+		ConnectionFactory sourceConnectionFactory,
+		ConnectionFactory targetConnectionFactory,
+		boolean deleteBeforeCopy,
+		List<String> includeTableNamePatterns,
+		List<String> excludeTableNames,
+		Map<String, String> tableNameMappings,
+		String schemeName,
+		CopyOptions options
 	) throws Exception {
 		DBDataScheme model = new JDBCModelReader(
 			new DefaultDBObjectFactory(),
@@ -62,72 +197,467 @@ public class DataCopier {
 			excludeTableNames
 		)
 			.readModel();
+		checkPrimaryKeys(model.getTables(), options);
 		List<DBForeignKey<?>> fksTargetDb = new JDBCForeignKeyReader()
 			.getForeignKeys(targetConnection.getMetaData(), schemeName, model.getTables());
 		foreignKeyRemover.remove(fksTargetDb, targetConnection, statementBuilder);
-		for (DBTable table : model.getTables()) {
-			if (deleteBeforeCopy) {
-				deleteTableData(table, targetConnection, tableNameMappings);
+		CopyState state = createState(options);
+		List<TableCopyTask> tasks = createTasks(
+			getTablesToCopy(model.getTables(), state, options),
+			sourceConnection,
+			tableNameMappings,
+			schemeName,
+			options
+		);
+		List<TableCopyTask> tasksToClear = getTasksToClear(tasks, deleteBeforeCopy, state, options);
+		if (!tasksToClear.isEmpty()) {
+			new TargetCleaner(statementBuilder, options)
+				.clear(tasksToClear, fksTargetDb, targetConnection, targetConnectionFactory);
+		}
+		try (DeadLetterWriter deadLetters = createDeadLetterWriter(options)) {
+			copyTables(
+				tasks,
+				sourceConnection,
+				targetConnection,
+				new CopyContext(
+					sourceConnectionFactory,
+					targetConnectionFactory,
+					options,
+					state,
+					deadLetters,
+					schemeName
+				)
+			);
+			if ((deadLetters != null) && (deadLetters.getCount() > 0)) {
+				System.out.println(
+					deadLetters.getCount() + " record(s) could not be written - see: " + options.getDeadLetterFile()
+				);
 			}
-			copyTableData(table, sourceConnection, targetConnection, tableNameMappings);
 		}
 		foreignKeyRestorer.restore(fksTargetDb, targetConnection, statementBuilder);
 		sequenceUpater.update(schemeName, targetConnection);
+		if (options.isCheckpointing()) {
+			state.clearCheckpoints();
+			state.save();
+		}
 	}
 
-	private void deleteTableData(DBTable table, Connection connection, Map<String, String> tableNameMappings)
-		throws Exception {
-		try (Statement statement = connection.createStatement()) {
-			String stmt = "DELETE FROM " + getMappedTableName(table, tableNameMappings);
-			System.out.println("running: " + stmt);
-			statement.executeUpdate(stmt);
+	private void copyTables(
+		List<TableCopyTask> tasks,
+		Connection sourceConnection,
+		Connection targetConnection,
+		CopyContext context
+	) throws Exception {
+		CopyOptions options = context.getOptions();
+		ConnectionFactory sourceConnectionFactory = context.getSourceConnectionFactory();
+		ConnectionFactory targetConnectionFactory = context.getTargetConnectionFactory();
+		boolean parallel = (options.getThreads() > 1) && context.hasConnectionFactories();
+		if ((options.getThreads() > 1) && !parallel) {
+			System.out.println("no connection factories passed - tables are copied serially.");
+		}
+		TableCopier tableCopier = new TableCopier(statementBuilder, options, !parallel, context.getDeadLetters());
+		if (parallel) {
+			tableCopyScheduler.run(
+				tasks,
+				options.getThreads(),
+				options.isVirtualThreads(),
+				task -> {
+					try (
+						Connection source = sourceConnectionFactory.createConnection();
+						Connection target = targetConnectionFactory.createConnection()
+					) {
+						copyTable(task, source, target, context, tableCopier);
+					}
+				}
+			);
+		} else if ((sourceConnectionFactory != null) && sourceConnectionFactory.hasReplicas()) {
+			for (TableCopyTask task : tasks) {
+				try (Connection source = sourceConnectionFactory.createConnection()) {
+					copyTable(task, source, targetConnection, context, tableCopier);
+				}
+			}
+		} else {
+			for (TableCopyTask task : tasks) {
+				copyTable(task, sourceConnection, targetConnection, context, tableCopier);
+			}
 		}
 	}
 
-	private String getMappedTableName(DBTable table, Map<String, String> tableNameMappings) {
-		return (tableNameMappings != null) && tableNameMappings.containsKey(table.getName())
-			? tableNameMappings.get(table.getName())
-			: table.getName();
+	/**
+	 * Refuses the copy before anything is written, if tables without a primary key are to upsert. These are the tables
+	 * with a watermark column and all tables of an upsert write mode (except for a shadow load which inserts).
+	 */
+	private void checkPrimaryKeys(List<DBTable> tables, CopyOptions options) {
+		boolean upsert =
+			!options.isShadowLoad() &&
+			((options.getWriteMode() == WriteMode.UPSERT) || (options.getWriteMode() == WriteMode.UPSERT_CHANGED));
+		List<String> tableNames = tables
+			.stream()
+			.filter(table -> table.getPrimaryKeyColumns().isEmpty())
+			.filter(table -> upsert || (getWatermarkColumn(table, options) != null))
+			.map(DBTable::getName)
+			.toList();
+		if (!tableNames.isEmpty()) {
+			throw new IllegalStateException(
+				"tables without primary key cannot be upserted (exclude them from the copy): " + String.join(", ", tableNames)
+			);
+		}
 	}
 
-	private void copyTableData(
-		DBTable table,
+	/**
+	 * Returns the tasks whose target tables are to clear before the copy (none for a shadow load). If the target is to
+	 * delete before the copy, these are all except the incremental copied tables and the tables which are resumed after
+	 * a checkpoint. Otherwise these are the restarted tables only.
+	 */
+	private List<TableCopyTask> getTasksToClear(
+		List<TableCopyTask> tasks,
+		boolean deleteBeforeCopy,
+		CopyState state,
+		CopyOptions options
+	) {
+		if (options.isShadowLoad()) {
+			return List.of();
+		}
+		return tasks
+			.stream()
+			.filter(task -> getWatermarkColumn(task.getTable(), options) == null)
+			.filter(task ->
+				deleteBeforeCopy
+					? !options.isResume() || (state.getCheckpoint(task.getTable().getName()) == null)
+					: isRestarted(task, state, options)
+			)
+			.toList();
+	}
+
+	/**
+	 * Checks if the table of the passed task is copied from the start again, because a previous run has started its
+	 * copy without leaving a checkpoint (partitioned, fanned-out, spooled and server side copies or tables without a
+	 * single column key). The records of the previous run would fail the inserts of the write mode INSERT. The other
+	 * write modes are skipping or updating them.
+	 */
+	private boolean isRestarted(TableCopyTask task, CopyState state, CopyOptions options) {
+		String tableName = task.getTable().getName();
+		return (
+			options.isResume() &&
+			(options.getWriteMode() == WriteMode.INSERT) &&
+			state.isStarted(tableName) &&
+			(state.getCheckpoint(tableName) == null)
+		);
+	}
+
+	private DeadLetterWriter createDeadLetterWriter(CopyOptions options) {
+		return options.getDeadLetterFile() != null ? new DeadLetterWriter(Path.of(options.getDeadLetterFile())) : null;
+	}
+
+	private CopyState createState(CopyOptions options) {
+		if (options.getWatermarkColumns().isEmpty() && !options.isCheckpointing()) {
+			return null;
+		}
+		CopyState state = CopyState.load(Path.of(options.getStateFile()));
+		if (options.isCheckpointing() && !options.isResume()) {
+			state.clearCheckpoints();
+		}
+		return state;
+	}
+
+	private List<DBTable> getTablesToCopy(List<DBTable> tables, CopyState state, CopyOptions options) {
+		if (!options.isResume()) {
+			return tables;
+		}
+		List<DBTable> tablesToCopy = new ArrayList<>();
+		for (DBTable table : tables) {
+			if (state.isCompleted(table.getName())) {
+				System.out.println("copying: " + table.getName() + " skipped (completed by a previous run).");
+			} else {
+				tablesToCopy.add(table);
+			}
+		}
+		return tablesToCopy;
+	}
+
+	/**
+	 * Creates the tasks for the passed tables. The record counts are estimated by the catalog statistics of the source
+	 * database, if available and no exact count is requested by the options. The other tables are counted. The records
+	 * of filtered tables are counted by the filter (sampled tables are estimated by the sample percentage).
+	 */
+	private List<TableCopyTask> createTasks(
+		List<DBTable> tables,
 		Connection sourceConnection,
-		Connection targetConnection,
-		Map<String, String> tableNameMappings
+		Map<String, String> tableNameMappings,
+		String schemeName,
+		CopyOptions options
 	) throws SQLException {
-		String tableName = getMappedTableName(table, tableNameMappings);
-		String select = statementBuilder.createSelectStatementString(table);
-		String insert = statementBuilder.createInsertStatementString(table, tableName);
-		Statement sourceStatement = sourceConnection.createStatement();
-		PreparedStatement targetStatement = targetConnection.prepareStatement(insert);
-		long count = count(table.getName(), sourceConnection);
-		System.out.print("copying: " + tableName + " with " + count + " record(s) ");
-		ResultSet rs = sourceStatement.executeQuery(select);
-		long current = 0;
-		while (rs.next()) {
-			for (int i = 0, leni = rs.getMetaData().getColumnCount(); i < leni; i++) {
-				targetStatement.setObject(i + 1, rs.getObject(i + 1));
+		Map<String, Long> estimates = options.isExactCount()
+			? Map.of()
+			: rowCountEstimator.estimate(sourceConnection, schemeName);
+		Dialect dialect = Dialect.of(sourceConnection);
+		List<TableCopyTask> tasks = new ArrayList<>();
+		for (DBTable table : tables) {
+			Long estimate = estimates.get(table.getName());
+			SourceFilter sourceFilter = SourceFilter.create(
+				table,
+				keyRangePartitioner.getPartitionKey(table).filter(keyRangePartitioner::isIntegral).orElse(null),
+				options,
+				dialect,
+				statementBuilder
+			);
+			long recordCount;
+			if (sourceFilter == null) {
+				recordCount = estimate != null ? estimate : count(table.getName(), sourceConnection);
+			} else {
+				System.out.println("selecting: " + table.getName() + " from " + sourceFilter.getSourceTableName());
+				recordCount = sourceFilter.isTableSampleOnly() && (estimate != null)
+					? (long) (estimate * options.getSamplePercent(table.getName()) / 100)
+					: count(sourceFilter.getSourceTableName(), sourceConnection);
+			}
+			tasks.add(
+				new TableCopyTask(table, getMappedTableName(table, tableNameMappings), recordCount, null, sourceFilter)
+			);
+		}
+		return tasks;
+	}
+
+	private void copyTable(
+		TableCopyTask task,
+		Connection sourceConnection,
+		Connection targetConnection,
+		CopyContext context,
+		TableCopier tableCopier
+	) throws Exception {
+		if (context.getOptions().isCheckpointing()) {
+			context.getState().setStarted(task.getTable().getName());
+			context.getState().save();
+		}
+		DBColumn watermarkColumn = getWatermarkColumn(task.getTable(), context.getOptions());
+		if (watermarkColumn != null) {
+			new WatermarkTableCopier(statementBuilder, context.getOptions(), context.getDeadLetters())
+				.copy(task, watermarkColumn, context.getState(), sourceConnection, targetConnection);
+		} else {
+			ShadowTableLoader shadowTableLoader = context.getOptions().isShadowLoad()
+				? new ShadowTableLoader(statementBuilder)
+				: null;
+			TableCopyTask loadTask = shadowTableLoader != null ? shadowTableLoader.prepare(task, targetConnection) : task;
+			// The updates of a second LOB phase would have to find the records in the shadow table without an index, would
+			// overwrite the LOB values of the existing records if only the missing records are to insert and would read
+			// the LOB values of all source records if the source records are filtered.
+			boolean lobsInOnePhase =
+				(shadowTableLoader != null) ||
+				isInsertMissing(task.getTable(), context.getOptions()) ||
+				(task.getSourceFilter() != null);
+			List<DBColumn> lobColumns = lobsInOnePhase
+				? List.of()
+				: LobTableCopier.getDeferredLobColumns(task.getTable(), context.getOptions());
+			TableCopyTask copyTask = lobColumns.isEmpty()
+				? loadTask
+				: task.withTable(LobTableCopier.withoutColumns(task.getTable(), lobColumns));
+			copyRecords(copyTask, sourceConnection, targetConnection, context, tableCopier);
+			if (!lobColumns.isEmpty()) {
+				new LobTableCopier(statementBuilder, context.getOptions(), context.getDeadLetters())
+					.copy(
+						task,
+						lobColumns,
+						sourceConnection,
+						targetConnection,
+						context.getSourceConnectionFactory(),
+						context.getTargetConnectionFactory()
+					);
+			}
+			if (shadowTableLoader != null) {
+				shadowTableLoader.swap(task, targetConnection);
 			}
-			targetStatement.executeUpdate();
-			current++;
-			if (current % 100 == 0) {
-				System.out.print(".");
+		}
+		if (context.getOptions().isCheckpointing()) {
+			context.getState().setCompleted(task.getTable().getName());
+			context.getState().save();
+		}
+	}
+
+	private void copyRecords(
+		TableCopyTask task,
+		Connection sourceConnection,
+		Connection targetConnection,
+		CopyContext context,
+		TableCopier tableCopier
+	) throws Exception {
+		TableCheckpoint checkpoint = getResumedCheckpoint(task, context);
+		if (checkpoint != null) {
+			deleteRecordsAfterCheckpoint(task.getTargetTableName(), checkpoint, targetConnection);
+		}
+		KeyFilter keyFilter = isInsertMissing(task.getTable(), context.getOptions())
+			? loadKeyFilter(task, targetConnection, context.getOptions())
+			: null;
+		TableCopyTask writeTask = keyFilter != null ? task.withKeyFilter(keyFilter) : task;
+		ServerSideTableCopier serverSideCopier = new ServerSideTableCopier(statementBuilder, context.getOptions());
+		String serverSideSourceTableName = (checkpoint == null) && (context.getDeadLetters() == null)
+			? serverSideCopier.getSourceTableName(
+				task.getTable(),
+				task.getTargetTableName(),
+				context.getSchemeName(),
+				sourceConnection,
+				context.getSourceConnectionFactory(),
+				targetConnection
+			)
+			: null;
+		if ((serverSideSourceTableName != null) && (task.getSourceFilter() != null)) {
+			serverSideSourceTableName = task.getSourceFilter().apply(serverSideSourceTableName);
+		}
+		boolean spool =
+			(serverSideSourceTableName == null) &&
+			(checkpoint == null) &&
+			context.getOptions().isSpool() &&
+			SpoolTableCopier.isSpoolable(task.getTable());
+		TablePartitioning partitioning = (checkpoint != null) || spool
+			? TablePartitioning.NONE
+			: getPartitioning(task, sourceConnection, context);
+		if (serverSideSourceTableName != null) {
+			serverSideCopier.copy(
+				task,
+				serverSideSourceTableName,
+				partitioning,
+				targetConnection,
+				context.getTargetConnectionFactory()
+			);
+		} else if (spool) {
+			new SpoolTableCopier(statementBuilder, context.getOptions(), context.getDeadLetters())
+				.copy(writeTask, sourceConnection, targetConnection);
+		} else if (partitioning.isPartitioned()) {
+			new PartitionedTableCopier(statementBuilder, context.getOptions(), context.getDeadLetters())
+				.copy(writeTask, partitioning, context.getSourceConnectionFactory(), context.getTargetConnectionFactory());
+		} else if ((checkpoint == null) && (getWriters(task, context) > 1)) {
+			new FanOutTableCopier(statementBuilder, context.getOptions(), context.getDeadLetters())
+				.copy(writeTask, getWriters(task, context), sourceConnection, context.getTargetConnectionFactory());
+		} else {
+			if ((checkpoint == null) && context.getOptions().isCheckpointing()) {
+				checkpoint = createCheckpoint(task, context.getState(), null);
 			}
-			log.info(
-				"copied record number " +
-				current +
-				" (" +
-				count +
-				") for table: " +
-				table.getName() +
-				(tableName.equals(table.getName()) ? "" : " -> " + tableName)
+			tableCopier.copy(writeTask, sourceConnection, targetConnection, checkpoint);
+		}
+		if (keyFilter != null) {
+			System.out.println(
+				"copying: " +
+				task.getTargetTableName() +
+				" " +
+				keyFilter.getSkipped() +
+				" record(s) skipped (key exists in target)."
 			);
 		}
-		rs.close();
-		sourceStatement.close();
-		targetStatement.close();
-		System.out.println(" ready.");
+	}
+
+	/**
+	 * Checks if only the records are to write whose key does not exist in the target table (not for shadow loads which
+	 * are replacing the target table and for tables without a primary key).
+	 */
+	private static boolean isInsertMissing(DBTable table, CopyOptions options) {
+		return (
+			(options.getWriteMode() == WriteMode.INSERT_MISSING) &&
+			!options.isShadowLoad() &&
+			!table.getPrimaryKeyColumns().isEmpty()
+		);
+	}
+
+	private KeyFilter loadKeyFilter(TableCopyTask task, Connection targetConnection, CopyOptions options)
+		throws SQLException {
+		long start = System.currentTimeMillis();
+		KeyFilter keyFilter = KeyFilter.load(statementBuilder, task, options, targetConnection);
+		System.out.println(
+			"copying: " +
+			task.getTargetTableName() +
+			" " +
+			keyFilter.getKeyCount() +
+			" target key(s) loaded into a " +
+			keyFilter.getDescription() +
+			" (" +
+			((keyFilter.getMemoryBytes() + 1023) / 1024) +
+			" KiB, " +
+			(System.currentTimeMillis() - start) +
+			" ms)."
+		);
+		return keyFilter;
+	}
+
+	private int getWriters(TableCopyTask task, CopyContext context) {
+		return context.getTargetConnectionFactory() != null
+			? context.getOptions().getWriters(task.getTable().getName())
+			: 1;
+	}
+
+	private TableCheckpoint getResumedCheckpoint(TableCopyTask task, CopyContext context) {
+		if (!context.getOptions().isResume() || context.getOptions().isShadowLoad()) {
+			return null;
+		}
+		String key = context.getState().getCheckpoint(task.getTable().getName());
+		return key != null ? createCheckpoint(task, context.getState(), key) : null;
+	}
+
+	private TableCheckpoint createCheckpoint(TableCopyTask task, CopyState state, String resumeKey) {
+		return keyRangePartitioner
+			.getPartitionKey(task.getTable())
+			.map(keyColumn ->
+				new TableCheckpoint(
+					state,
+					task.getTable().getName(),
+					keyColumn,
+					resumeKey != null ? CopyState.decode(resumeKey, keyColumn) : null
+				)
+			)
+			.orElse(null);
+	}
+
+	private void deleteRecordsAfterCheckpoint(String tableName, TableCheckpoint checkpoint, Connection connection)
+		throws SQLException {
+		String stmt = statementBuilder.createDeleteAfterKeyStatementString(tableName, checkpoint.getKeyColumn());
+		System.out.println("running: " + stmt + " (" + checkpoint.getResumeKey() + ")");
+		try (PreparedStatement statement = connection.prepareStatement(stmt)) {
+			statement.setObject(1, checkpoint.getResumeKey());
+			statement.executeUpdate();
+		}
+	}
+
+	private DBColumn getWatermarkColumn(DBTable table, CopyOptions options) {
+		String columnName = options.getWatermarkColumnName(table.getName());
+		if (columnName == null) {
+			return null;
+		}
+		return table
+			.getColumns()
+			.stream()
+			.filter(column -> column.getName().equalsIgnoreCase(columnName))
+			.findFirst()
+			.orElseThrow(() ->
+				new IllegalArgumentException(
+					"watermark column '" + columnName + "' not found in table: " + table.getName()
+				)
+			);
+	}
+
+	private TablePartitioning getPartitioning(TableCopyTask task, Connection sourceConnection, CopyContext context)
+		throws SQLException {
+		CopyOptions options = context.getOptions();
+		if (
+			(options.getPartitionThreads() < 2) ||
+			!context.hasConnectionFactories() ||
+			(task.getRecordCount() <= options.getChunkSize())
+		) {
+			return TablePartitioning.NONE;
+		}
+		// Each slice of a table sample would scan the whole table.
+		if ((task.getSourceFilter() != null) && task.getSourceFilter().isTableSample()) {
+			return TablePartitioning.NONE;
+		}
+		return tablePartitioner.partition(
+			task.getSourceTable(),
+			context.getSchemeName(),
+			options.getPartitionThreads() * PartitionedTableCopier.SLICES_PER_WORKER,
+			sourceConnection,
+			statementBuilder,
+			task.getSourceFilter() != null
+		);
+	}
+
+	private String getMappedTableName(DBTable table, Map<String, String> tableNameMappings) {
+		return (tableNameMappings != null) && tableNameMappings.containsKey(table.getName())
+			? tableNameMappings.get(table.getName())
+			: table.getName();
 	}
 
 	private long count(String tableName, Connection connection) throws SQLException {
@@ -0,0 +1,117 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.modelreader.DBColumn;
+import de.ollie.dbtools.modelreader.DBTable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * A writer for the records which could not be written to the target database (dead letters). Each record is written
+ * as a JSON line with the table name, the SQL error and the values of the record. The file is created with the first
+ * dead letter.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class DeadLetterWriter implements AutoCloseable {
+
+	private final Path file;
+
+	private Writer writer = null;
+	private long count = 0;
+
+	DeadLetterWriter(Path file) {
+		this.file = file;
+	}
+
+	/**
+	 * Writes the passed row of the batch as dead letter.
+	 *
+	 * @param table The table of the record.
+	 * @param plan  The transfer plan of the table.
+	 * @param batch The batch which contains the record.
+	 * @param row   The index of the record in the batch.
+	 * @param e     The exception which has occurred while writing the record.
+	 */
+	synchronized void write(DBTable table, TransferPlan plan, RowBatch batch, int row, SQLException e) {
+		List<DBColumn> columns = table.getColumns();
+		StringBuilder sb = new StringBuilder("{\"table\":")
+			.append(quote(table.getName()))
+			.append(",\"sqlState\":")
+			.append(quote(e.getSQLState()))
+			.append(",\"error\":")
+			.append(quote(e.getMessage()))
+			.append(",\"values\":{");
+		for (int c = 0; c < columns.size(); c++) {
+			Object value = plan.getValue(batch, c, row);
+			sb
+				.append(c > 0 ? "," : "")
+				.append(quote(columns.get(c).getName()))
+				.append(":")
+				.append(
+					(value == null) || (value instanceof Number) || (value instanceof Boolean)
+						? String.valueOf(value)
+						: quote(String.valueOf(value))
+				);
+		}
+		sb.append("}}\n");
+		try {
+			if (writer == null) {
+				writer =
+					Files.newBufferedWriter(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+			}
+			writer.write(sb.toString());
+			writer.flush();
+			count++;
+		} catch (IOException ioe) {
+			throw new UncheckedIOException("error while writing dead letter file: " + file, ioe);
+		}
+	}
+
+	/**
+	 * Returns the number of the dead letters which have been written.
+	 *
+	 * @return The number of the dead letters which have been written.
+	 */
+	synchronized long getCount() {
+		return count;
+	}
+
+	static String quote(String s) {
+		if (s == null) {
+			return "null";
+		}
+		StringBuilder sb = new StringBuilder("\"");
+		for (char c : s.toCharArray()) {
+			switch (c) {
+				case '"' -> sb.append("\\\"");
+				case '\\' -> sb.append("\\\\");
+				case '\n' -> sb.append("\\n");
+				case '\r' -> sb.append("\\r");
+				case '\t' -> sb.append("\\t");
+				default -> {
+					if (c < 0x20) {
+						sb.append(String.format("\\u%04x", (int) c));
+					} else {
+						sb.append(c);
+					}
+				}
+			}
+		}
+		return sb.append("\"").toString();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (writer != null) {
+			writer.close();
+			writer = null;
+		}
+	}
+}
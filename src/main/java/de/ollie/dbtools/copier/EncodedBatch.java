@@ -0,0 +1,146 @@
+package de.ollie.dbtools.copier;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A batch of records which are encoded into a direct byte buffer of a buffer pool (see
+ * {@link TransferPlan#encode(ResultSet, ByteBuffer)}). So the values of the batch are held off the heap while they are
+ * in flight. The records are decoded one by one while the batch is written.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class EncodedBatch {
+
+	private final ByteBuffer buffer;
+	private final int capacity;
+
+	private boolean full = false;
+	private int size = 0;
+	private int decoded = 0;
+
+	/**
+	 * Creates a new batch.
+	 *
+	 * @param buffer   The buffer to encode the records into.
+	 * @param capacity The maximum number of records of the batch.
+	 */
+	EncodedBatch(ByteBuffer buffer, int capacity) {
+		this.buffer = buffer;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Reads all records of the passed result set into batches of the passed pool which are put into the passed queue.
+	 * Blocks while the budget of the pool is used up.
+	 *
+	 * @param rs        The result set to read the records from.
+	 * @param plan      The transfer plan of the table.
+	 * @param pool      The pool to take the buffers of the batches from.
+	 * @param batchSize The maximum number of records of a batch.
+	 * @param queue     The queue to put the filled batches into.
+	 * @throws Exception If an error occurs while reading the records or the thread is interrupted.
+	 */
+	static void readAll(
+		ResultSet rs,
+		TransferPlan plan,
+		BufferPool pool,
+		int batchSize,
+		BlockingQueue<EncodedBatch> queue
+	) throws Exception {
+		EncodedBatch batch = new EncodedBatch(pool.acquire(), batchSize);
+		try {
+			while (rs.next()) {
+				if (!batch.add(rs, plan)) {
+					queue.put(batch);
+					batch = null;
+					batch = new EncodedBatch(pool.acquire(), batchSize);
+					batch.add(rs, plan);
+				}
+			}
+			if (batch.getSize() > 0) {
+				queue.put(batch);
+				batch = null;
+			}
+		} finally {
+			if (batch != null) {
+				pool.release(batch.getBuffer());
+			}
+		}
+	}
+
+	/**
+	 * Removes all batches from the passed queue and returns their buffers to the passed pool (e.g. after a failure).
+	 *
+	 * @param queue The queue to clear.
+	 * @param pool  The pool to return the buffers to.
+	 */
+	static void releaseAll(BlockingQueue<EncodedBatch> queue, BufferPool pool) {
+		List<EncodedBatch> batches = new ArrayList<>();
+		queue.drainTo(batches);
+		for (EncodedBatch batch : batches) {
+			if (batch.getBuffer().capacity() > 0) {
+				pool.release(batch.getBuffer());
+			}
+		}
+	}
+
+	/**
+	 * Adds the current record of the passed result set to the batch.
+	 *
+	 * @param rs   The result set to read the record from.
+	 * @param plan The transfer plan of the table.
+	 * @return "true" if the record is added, "false" if the batch is full. The record has to be added to the next
+	 *         batch in this case.
+	 * @throws SQLException If an error occurs while reading the record.
+	 */
+	boolean add(ResultSet rs, TransferPlan plan) throws SQLException {
+		if (isFull()) {
+			return false;
+		}
+		int start = buffer.position();
+		try {
+			plan.encode(rs, buffer);
+		} catch (BufferOverflowException e) {
+			buffer.position(start);
+			if (size == 0) {
+				throw new IllegalStateException("record is larger than a buffer segment (" + buffer.capacity() + " bytes).");
+			}
+			full = true;
+			return false;
+		}
+		size++;
+		return true;
+	}
+
+	/**
+	 * Decodes the next record of the batch into a new row of the passed row batch.
+	 *
+	 * @param plan  The transfer plan of the table.
+	 * @param batch The row batch to decode the record into.
+	 */
+	void next(TransferPlan plan, RowBatch batch) {
+		if (decoded++ == 0) {
+			buffer.flip();
+		}
+		plan.decode(buffer, batch);
+	}
+
+	ByteBuffer getBuffer() {
+		return buffer;
+	}
+
+	int getSize() {
+		return size;
+	}
+
+	boolean isFull() {
+		return full || (size == capacity);
+	}
+}
@@ -0,0 +1,295 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.connections.ConnectionFactory;
+import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.utils.StatementBuilder;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A class which copies a table by a single streaming reader whose records are written by more than one writer, each on
+ * its own target connection with its own insert statement and batches. The reader fills pre-allocated row batches
+ * which are handed to the writers by a bounded queue; the written batches are returned to the reader by a second
+ * queue. The copy fails fast if the reader or one of the writers fails.
+ * <p>
+ * If a memory budget is set, the records are encoded into the direct buffers of the buffer pool instead of the row
+ * batches and the reader blocks while the budget is used up.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class FanOutTableCopier {
+
+	static Logger log = LogManager.getLogger(FanOutTableCopier.class);
+	static ParallelExecutor parallelExecutor = new ParallelExecutor();
+
+	private final StatementBuilder statementBuilder;
+	private final CopyOptions options;
+	private final DeadLetterWriter deadLetters;
+
+	FanOutTableCopier(StatementBuilder statementBuilder, CopyOptions options, DeadLetterWriter deadLetters) {
+		this.statementBuilder = statementBuilder;
+		this.options = options;
+		this.deadLetters = deadLetters;
+	}
+
+	/**
+	 * Copies the data of the table of the passed task.
+	 *
+	 * @param task                    The task with the table to copy.
+	 * @param writers                 The number of the writers.
+	 * @param sourceConnection        The connection to read the data from.
+	 * @param targetConnectionFactory A factory for the target connections of the writers.
+	 * @return The number of copied records.
+	 * @throws Exception If an error occurs while copying the data.
+	 */
+	long copy(
+		TableCopyTask task,
+		int writers,
+		Connection sourceConnection,
+		ConnectionFactory targetConnectionFactory
+	) throws Exception {
+		DBTable table = task.getTable();
+		String tableName = task.getTargetTableName();
+		System.out.println(
+			"copying: " + tableName + " with " + task.getRecordCount() + " record(s) by " + writers + " writer(s) started."
+		);
+		TransferPlan plan = TransferPlan.compile(table);
+		BufferPool pool = plan.isEncodable() ? BufferPool.of(options) : null;
+		AtomicLong copied = new AtomicLong();
+		AdaptiveController controller = AdaptiveController.create(tableName, options, writers);
+		long start = System.currentTimeMillis();
+		if (pool != null) {
+			BlockingQueue<EncodedBatch> filledBatches = new LinkedBlockingQueue<>();
+			try {
+				parallelExecutor.run(
+					"fan-out-copy",
+					writers + 1,
+					options.isVirtualThreads(),
+					createEncodedJobs(
+						task,
+						writers,
+						plan,
+						pool,
+						filledBatches,
+						sourceConnection,
+						targetConnectionFactory,
+						copied,
+						controller
+					)
+				);
+			} finally {
+				EncodedBatch.releaseAll(filledBatches, pool);
+			}
+		} else {
+			parallelExecutor.run(
+				"fan-out-copy",
+				writers + 1,
+				options.isVirtualThreads(),
+				createJobs(task, writers, plan, sourceConnection, targetConnectionFactory, copied, controller)
+			);
+		}
+		long millis = Math.max(1, System.currentTimeMillis() - start);
+		long current = copied.get();
+		System.out.println(
+			"copying: " +
+			tableName +
+			" ready (" +
+			current +
+			" record(s) in " +
+			millis +
+			" ms, " +
+			(current * 1000 / millis) +
+			" records/s)."
+		);
+		if (controller != null) {
+			controller.printChosenValues();
+		}
+		return current;
+	}
+
+	private List<Callable<Void>> createJobs(
+		TableCopyTask task,
+		int writers,
+		TransferPlan plan,
+		Connection sourceConnection,
+		ConnectionFactory targetConnectionFactory,
+		AtomicLong copied,
+		AdaptiveController controller
+	) {
+		DBTable table = task.getTable();
+		int buffers = Math.max(options.getPipelineBuffers(), writers * 2);
+		BlockingQueue<RowBatch> freeBatches = new ArrayBlockingQueue<>(buffers);
+		BlockingQueue<RowBatch> filledBatches = new ArrayBlockingQueue<>(buffers + writers);
+		for (int i = 0; i < buffers; i++) {
+			freeBatches.add(new RowBatch(options.getEffectiveBatchSize(), plan));
+		}
+		RowBatch end = new RowBatch(0, plan);
+		List<Callable<Void>> jobs = new ArrayList<>();
+		jobs.add(() -> {
+			read(task, plan, sourceConnection, freeBatches, filledBatches, controller);
+			for (int i = 0; i < writers; i++) {
+				filledBatches.put(end);
+			}
+			return null;
+		});
+		for (int i = 0; i < writers; i++) {
+			jobs.add(() -> {
+				try (
+					Connection target = targetConnectionFactory.createConnection();
+					BatchWriter writer = new BatchWriter(
+						target,
+						BatchWriter.createWriteStatementString(statementBuilder, task, options, target),
+						options,
+						table,
+						plan,
+						deadLetters
+					)
+				) {
+					writer.setController(controller);
+					writer.setKeyFilter(task.getKeyFilter());
+					for (RowBatch batch = filledBatches.take(); batch != end; batch = filledBatches.take()) {
+						if (controller != null) {
+							controller.acquireWorker();
+						}
+						try {
+							for (int row = 0, leni = batch.getSize(); row < leni; row++) {
+								writer.addRecord(batch, row);
+							}
+						} finally {
+							if (controller != null) {
+								controller.releaseWorker();
+							}
+						}
+						logProgress(task, copied.addAndGet(batch.getSize()));
+						freeBatches.put(batch);
+					}
+				}
+				return null;
+			});
+		}
+		return jobs;
+	}
+
+	/**
+	 * Creates the jobs of a copy whose records are encoded into the direct buffers of the passed pool. The writers are
+	 * decoding the records one by one and return the buffers to the pool.
+	 */
+	private List<Callable<Void>> createEncodedJobs(
+		TableCopyTask task,
+		int writers,
+		TransferPlan plan,
+		BufferPool pool,
+		BlockingQueue<EncodedBatch> filledBatches,
+		Connection sourceConnection,
+		ConnectionFactory targetConnectionFactory,
+		AtomicLong copied,
+		AdaptiveController controller
+	) {
+		DBTable table = task.getTable();
+		EncodedBatch end = new EncodedBatch(ByteBuffer.allocate(0), 0);
+		List<Callable<Void>> jobs = new ArrayList<>();
+		jobs.add(() -> {
+			try (
+				SourceReader reader = new SourceReader(sourceConnection, options, table.getName());
+				Statement statement = reader.createStatement();
+				ResultSet rs = statement.executeQuery(statementBuilder.createSelectStatementString(task.getSourceTable()))
+			) {
+				EncodedBatch.readAll(rs, plan, pool, options.getEffectiveBatchSize(), filledBatches);
+			}
+			for (int i = 0; i < writers; i++) {
+				filledBatches.put(end);
+			}
+			return null;
+		});
+		for (int i = 0; i < writers; i++) {
+			jobs.add(() -> {
+				RowBatch row = new RowBatch(1, plan);
+				try (
+					Connection target = targetConnectionFactory.createConnection();
+					BatchWriter writer = new BatchWriter(
+						target,
+						BatchWriter.createWriteStatementString(statementBuilder, task, options, target),
+						options,
+						table,
+						plan,
+						deadLetters
+					)
+				) {
+					writer.setController(controller);
+					writer.setKeyFilter(task.getKeyFilter());
+					for (EncodedBatch batch = filledBatches.take(); batch != end; batch = filledBatches.take()) {
+						if (controller != null) {
+							controller.acquireWorker();
+						}
+						try {
+							for (int r = 0, leni = batch.getSize(); r < leni; r++) {
+								row.clear();
+								batch.next(plan, row);
+								writer.addRecord(row, 0);
+							}
+						} finally {
+							pool.release(batch.getBuffer());
+							if (controller != null) {
+								controller.releaseWorker();
+							}
+						}
+						logProgress(task, copied.addAndGet(batch.getSize()));
+					}
+				}
+				return null;
+			});
+		}
+		return jobs;
+	}
+
+	private void logProgress(TableCopyTask task, long current) {
+		log.info(
+			"copied record number " + current + " (" + task.getRecordCount() + ") for table: " + task.getTargetTableName()
+		);
+	}
+
+	private void read(
+		TableCopyTask task,
+		TransferPlan plan,
+		Connection sourceConnection,
+		BlockingQueue<RowBatch> freeBatches,
+		BlockingQueue<RowBatch> filledBatches,
+		AdaptiveController controller
+	) throws Exception {
+		DBTable table = task.getTable();
+		try (
+			SourceReader reader = new SourceReader(sourceConnection, options, table.getName());
+			Statement statement = reader.createStatement();
+			ResultSet rs = statement.executeQuery(statementBuilder.createSelectStatementString(task.getSourceTable()))
+		) {
+			RowBatch batch = freeBatches.take();
+			batch.clear();
+			while (rs.next()) {
+				plan.read(rs, batch);
+				if (batch.isFull()) {
+					if (controller != null) {
+						reader.adjustFetchSize(rs, controller.getFetchSize());
+					}
+					filledBatches.put(batch);
+					batch = freeBatches.take();
+					batch.clear();
+				}
+			}
+			if (batch.getSize() > 0) {
+				filledBatches.put(batch);
+			}
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.modelreader.DBColumn;
+import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.modelreader.DBType;
+import de.ollie.dbtools.utils.Dialect;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A class which splits a table into buckets of the hash value of a column. Integral columns are split by their modulo
+ * on all databases, other columns by a dialect specific hash function. Each slice is read by a full scan which is
+ * filtered by the database.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class HashPartitioner {
+
+	static KeyRangePartitioner keyRangePartitioner = new KeyRangePartitioner();
+
+	/**
+	 * Splits the passed table into the passed number of slices.
+	 *
+	 * @param table   The table to split.
+	 * @param slices  The number of slices to create.
+	 * @param dialect The dialect of the database which contains the table.
+	 * @return The slices of the table or an empty list if the table has no column which could be hashed.
+	 */
+	List<TableSlice> partition(DBTable table, int slices, Dialect dialect) {
+		List<TableSlice> result = new ArrayList<>();
+		for (DBColumn column : table.getColumns()) {
+			if (keyRangePartitioner.isIntegral(column)) {
+				return createSlices(column, "MOD(ABS(" + column.getName() + "), " + slices + ")", slices);
+			}
+		}
+		Optional<DBColumn> column = table.getColumns().stream().filter(this::isHashable).findFirst();
+		if (column.isEmpty()) {
+			return result;
+		}
+		String name = column.get().getName();
+		if (dialect == Dialect.ORACLE) {
+			return createSlices(column.get(), "ORA_HASH(" + name + ", " + (slices - 1) + ")", slices);
+		} else if (dialect == Dialect.POSTGRESQL) {
+			return createSlices(
+				column.get(),
+				"MOD(ABS(CAST(HASHTEXT(CAST(" + name + " AS TEXT)) AS BIGINT)), " + slices + ")",
+				slices
+			);
+		} else if (dialect == Dialect.MYSQL) {
+			return createSlices(column.get(), "MOD(CRC32(" + name + "), " + slices + ")", slices);
+		}
+		return result;
+	}
+
+	private boolean isHashable(DBColumn column) {
+		DBType type = column.getType();
+		return (
+			(type == DBType.CHAR) ||
+			(type == DBType.DATE) ||
+			(type == DBType.DECIMAL) ||
+			(type == DBType.NUMERIC) ||
+			(type == DBType.TIMESTAMP) ||
+			(type == DBType.VARCHAR)
+		);
+	}
+
+	private List<TableSlice> createSlices(DBColumn column, String bucketExpression, int slices) {
+		List<TableSlice> result = new ArrayList<>();
+		for (int i = 0; i < slices; i++) {
+			String condition = bucketExpression + " = " + i;
+			if (i == 0) {
+				condition = "(" + condition + " OR " + column.getName() + " IS NULL)";
+			}
+			result.add(new ConditionSlice(condition));
+		}
+		return result;
+	}
+}
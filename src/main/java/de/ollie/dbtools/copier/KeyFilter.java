@@ -0,0 +1,281 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.modelreader.DBColumn;
+import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.modelreader.DBType;
+import de.ollie.dbtools.utils.StatementBuilder;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * A filter with the primary keys of a target table which is used to skip the source records whose key exists in the
+ * target already. The keys are streamed from the target into memory before the copy:
+ * <ul>
+ * <li>A single integral key column is held in a set of primitive long values which is checked exactly.</li>
+ * <li>Other keys are added to a Bloom filter. The keys of a batch which might be contained are checked exactly by
+ * lookups of up to {@value #LOOKUP_SIZE} keys per query in the target table.</li>
+ * </ul>
+ * The keys are read by a transfer plan of the key columns and compared by their encoded values (see
+ * {@link TransferPlan#getKey(RowBatch, int, int[])}). The structures are sized by the record count of the target
+ * table. The filter is read only while the copy is running, so it can be shared by the writers of a table.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class KeyFilter {
+
+	static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+	static final int LOOKUP_SIZE = 100;
+
+	private static final int MAX_LONG_DIGITS = 18;
+
+	private final StatementBuilder statementBuilder;
+	private final String targetTableName;
+	private final List<DBColumn> keyColumns;
+	private final int[] keyIndices;
+	private final TransferPlan keyPlan;
+	private final int[] keyPlanIndices;
+	private final LongHashSet longKeys;
+	private final BloomFilter bloomFilter;
+	private final AtomicLong skipped = new AtomicLong();
+
+	private long keyCount = 0;
+
+	private KeyFilter(StatementBuilder statementBuilder, DBTable table, String targetTableName, long expectedKeys) {
+		this.statementBuilder = statementBuilder;
+		this.targetTableName = targetTableName;
+		this.keyColumns = table.getPrimaryKeyColumns();
+		this.keyIndices = keyColumns.stream().mapToInt(column -> table.getColumns().indexOf(column)).toArray();
+		this.keyPlan = TransferPlan.compile(keyColumns);
+		this.keyPlanIndices = IntStream.range(0, keyColumns.size()).toArray();
+		boolean integral = isIntegral(keyColumns);
+		this.longKeys = integral ? new LongHashSet(expectedKeys) : null;
+		this.bloomFilter = integral ? null : new BloomFilter(expectedKeys, FALSE_POSITIVE_PROBABILITY);
+	}
+
+	/**
+	 * Checks if the key is a single column whose values could be held as long values.
+	 */
+	private static boolean isIntegral(List<DBColumn> keyColumns) {
+		if (keyColumns.size() != 1) {
+			return false;
+		}
+		DBColumn column = keyColumns.get(0);
+		return (
+			(column.getType() == DBType.BIGINT) ||
+			(column.getType() == DBType.INTEGER) ||
+			(((column.getType() == DBType.DECIMAL) || (column.getType() == DBType.NUMERIC)) &&
+				(column.getDecimalDigits() == 0) &&
+				(column.getColumnSize() > 0) &&
+				(column.getColumnSize() <= MAX_LONG_DIGITS))
+		);
+	}
+
+	/**
+	 * Reads the primary keys of the target table of the passed task into a new filter.
+	 *
+	 * @param statementBuilder A reference to a statement builder.
+	 * @param task             The task whose target table keys are to read (the table needs a primary key).
+	 * @param options          The options of the copy.
+	 * @param targetConnection The connection to the target database.
+	 * @return A filter with the keys of the target table.
+	 * @throws SQLException If an error occurs while reading the keys.
+	 */
+	static KeyFilter load(
+		StatementBuilder statementBuilder,
+		TableCopyTask task,
+		CopyOptions options,
+		Connection targetConnection
+	) throws SQLException {
+		KeyFilter filter = new KeyFilter(
+			statementBuilder,
+			task.getTable(),
+			task.getTargetTableName(),
+			Math.max(1, count(task.getTargetTableName(), targetConnection))
+		);
+		String select = statementBuilder.createKeySelectStatementString(task.getTargetTableName(), filter.keyColumns);
+		// The cursors of PostgreSQL are streaming in a transaction only.
+		boolean autoCommit = targetConnection.getAutoCommit();
+		targetConnection.setAutoCommit(false);
+		try (
+			Statement statement = targetConnection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)
+		) {
+			statement.setFetchSize(Math.max(1, options.getFetchSize()));
+			try (ResultSet rs = statement.executeQuery(select)) {
+				RowBatch keys = new RowBatch(1, filter.keyPlan);
+				while (rs.next()) {
+					if (filter.longKeys != null) {
+						filter.longKeys.add(rs.getLong(1));
+					} else {
+						filter.bloomFilter.add(filter.readKey(rs, keys));
+					}
+					filter.keyCount++;
+				}
+			}
+		} finally {
+			if (autoCommit) {
+				targetConnection.commit();
+				targetConnection.setAutoCommit(true);
+			}
+		}
+		return filter;
+	}
+
+	private static long count(String tableName, Connection connection) throws SQLException {
+		try (
+			Statement statement = connection.createStatement();
+			ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + tableName)
+		) {
+			return rs.next() ? rs.getLong(1) : 0;
+		}
+	}
+
+	/**
+	 * Prepares the statement which checks the keys which might be contained exactly.
+	 *
+	 * @param connection The connection to the target database of the writer which uses the statement.
+	 * @return The statement which looks up {@value #LOOKUP_SIZE} keys in the target table or null if no lookups are
+	 *         needed (the keys are checked record by record then).
+	 * @throws SQLException If an error occurs while preparing the statement.
+	 */
+	PreparedStatement prepareLookup(Connection connection) throws SQLException {
+		if (bloomFilter == null) {
+			return null;
+		}
+		return connection.prepareStatement(
+			statementBuilder.createKeysExistStatementString(targetTableName, keyColumns, LOOKUP_SIZE)
+		);
+	}
+
+	/**
+	 * Checks if the integral key of the current record of the passed result set exists in the target (for filters
+	 * without lookups only). Contained keys are counted as skipped records.
+	 *
+	 * @param rs The result set of the source records (with the columns of the table).
+	 * @return "true" if the key exists in the target.
+	 * @throws SQLException If an error occurs while reading the key.
+	 */
+	boolean contains(ResultSet rs) throws SQLException {
+		return count(longKeys.contains(rs.getLong(keyIndices[0] + 1)));
+	}
+
+	/**
+	 * Checks if the integral key of the passed row of the batch exists in the target (for filters without lookups
+	 * only). Contained keys are counted as skipped records.
+	 *
+	 * @param plan  The transfer plan of the table.
+	 * @param batch The batch which contains the record.
+	 * @param row   The index of the record in the batch.
+	 * @return "true" if the key exists in the target.
+	 */
+	boolean contains(TransferPlan plan, RowBatch batch, int row) {
+		return count(longKeys.contains(((Number) plan.getValue(batch, keyIndices[0], row)).longValue()));
+	}
+
+	/**
+	 * Checks which keys of the rows of the passed batch exist in the target. The keys which might be contained are
+	 * looked up by the passed statement. Contained keys are counted as skipped records.
+	 *
+	 * @param plan   The transfer plan of the table.
+	 * @param batch  The batch with the records to check.
+	 * @param lookup The statement of the writer which looks up the keys in the target table.
+	 * @return An array with a flag for each row of the batch which is "true" if the key of the row exists in the target.
+	 * @throws SQLException If an error occurs while checking the keys.
+	 */
+	boolean[] contains(TransferPlan plan, RowBatch batch, PreparedStatement lookup) throws SQLException {
+		boolean[] contained = new boolean[batch.getSize()];
+		List<Object[]> candidates = new ArrayList<>();
+		Map<String, Integer> candidateRows = new HashMap<>();
+		for (int row = 0; row < contained.length; row++) {
+			String key = plan.getKey(batch, row, keyIndices);
+			if (bloomFilter.mightContain(key)) {
+				Object[] values = new Object[keyIndices.length];
+				for (int i = 0; i < keyIndices.length; i++) {
+					values[i] = plan.getValue(batch, keyIndices[i], row);
+				}
+				candidates.add(values);
+				candidateRows.put(key, row);
+			}
+		}
+		for (int from = 0; from < candidates.size(); from += LOOKUP_SIZE) {
+			int index = 1;
+			for (int i = 0; i < LOOKUP_SIZE; i++) {
+				// The last key is repeated to fill the parameters of the last lookup.
+				for (Object value : candidates.get(Math.min(from + i, candidates.size() - 1))) {
+					lookup.setObject(index++, value);
+				}
+			}
+			try (ResultSet rs = lookup.executeQuery()) {
+				RowBatch keys = new RowBatch(1, keyPlan);
+				while (rs.next()) {
+					Integer row = candidateRows.get(readKey(rs, keys));
+					if ((row != null) && !contained[row]) {
+						contained[row] = count(true);
+					}
+				}
+			}
+		}
+		return contained;
+	}
+
+	private boolean count(boolean contained) {
+		if (contained) {
+			skipped.incrementAndGet();
+		}
+		return contained;
+	}
+
+	/**
+	 * Reads the key of the current record of the passed result set (with the key columns) by the key plan.
+	 */
+	private String readKey(ResultSet rs, RowBatch keys) throws SQLException {
+		keys.clear();
+		keyPlan.read(rs, keys);
+		return keyPlan.getKey(keys, 0, keyPlanIndices);
+	}
+
+	/**
+	 * Returns the number of the keys which have been read from the target table.
+	 *
+	 * @return The number of the keys which have been read from the target table.
+	 */
+	long getKeyCount() {
+		return keyCount;
+	}
+
+	/**
+	 * Returns the number of the source records which have been skipped, because their key exists in the target.
+	 *
+	 * @return The number of the skipped source records.
+	 */
+	long getSkipped() {
+		return skipped.get();
+	}
+
+	/**
+	 * Returns the size of the key structure in bytes.
+	 *
+	 * @return The size of the key structure in bytes.
+	 */
+	long getMemoryBytes() {
+		return longKeys != null ? longKeys.getMemoryBytes() : bloomFilter.getMemoryBytes();
+	}
+
+	/**
+	 * Returns a description of the key structure.
+	 *
+	 * @return A description of the key structure.
+	 */
+	String getDescription() {
+		return longKeys != null ? "long hash set" : "Bloom filter with key lookups";
+	}
+}
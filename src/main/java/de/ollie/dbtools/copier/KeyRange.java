@@ -0,0 +1,29 @@
+package de.ollie.dbtools.copier;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A container for a range of primary key values. A null value as bound means that the range is not limited at this
+ * side.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+@AllArgsConstructor
+@EqualsAndHashCode
+@Getter
+@ToString
+final class KeyRange implements TableSlice {
+
+	/**
+	 * The exclusive lower bound of the range.
+	 */
+	private Object lowerBound;
+	/**
+	 * The inclusive upper bound of the range.
+	 */
+	private Object upperBound;
+}
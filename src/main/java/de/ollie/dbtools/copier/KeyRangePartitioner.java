@@ -0,0 +1,139 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.modelreader.DBColumn;
+import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.modelreader.DBType;
+import de.ollie.dbtools.utils.Dialect;
+import de.ollie.dbtools.utils.StatementBuilder;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A class which splits the primary key values of a table into ranges. Numeric keys are split linear between their
+ * minimum and maximum value, bounds beyond the range of a long are kept as big decimals. Other ordered keys are split
+ * by bucket bounds, if the database supports window functions.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class KeyRangePartitioner {
+
+	/**
+	 * Returns the column which could be used to split the table into key ranges.
+	 *
+	 * @param table The table to check.
+	 * @return The column of a single column primary key or an empty optional if the table has no such key.
+	 */
+	Optional<DBColumn> getPartitionKey(DBTable table) {
+		List<DBColumn> keyColumns = table.getPrimaryKeyColumns();
+		return keyColumns.size() == 1 ? Optional.of(keyColumns.get(0)) : Optional.empty();
+	}
+
+	/**
+	 * Splits the values of the passed key column into the passed number of ranges. The first and the last range are
+	 * open to cover records which are added while copying.
+	 *
+	 * @param table            The table whose key values are to split.
+	 * @param keyColumn        The key column of the table.
+	 * @param partitions       The number of the ranges to create.
+	 * @param connection       The connection to the database which contains the table.
+	 * @param statementBuilder A statement builder.
+	 * @return A list with the ranges in key order or an empty list if the key could not be split.
+	 * @throws SQLException If an error occurs while reading the key bounds.
+	 */
+	List<KeyRange> partition(
+		DBTable table,
+		DBColumn keyColumn,
+		int partitions,
+		Connection connection,
+		StatementBuilder statementBuilder
+	) throws SQLException {
+		List<Object> bounds;
+		if (isIntegral(keyColumn)) {
+			bounds = getLinearBounds(table, keyColumn, partitions, connection, statementBuilder);
+		} else if (isWindowFunctionSupported(Dialect.of(connection))) {
+			bounds = getBucketBounds(table, keyColumn, partitions, connection, statementBuilder);
+		} else {
+			return List.of();
+		}
+		List<KeyRange> ranges = new ArrayList<>();
+		Object lowerBound = null;
+		for (Object upperBound : bounds) {
+			ranges.add(new KeyRange(lowerBound, upperBound));
+			lowerBound = upperBound;
+		}
+		ranges.add(new KeyRange(lowerBound, null));
+		return ranges;
+	}
+
+	boolean isIntegral(DBColumn column) {
+		DBType type = column.getType();
+		return (
+			(type == DBType.BIGINT) ||
+			(type == DBType.INTEGER) ||
+			(((type == DBType.NUMERIC) || (type == DBType.DECIMAL)) && (column.getDecimalDigits() <= 0))
+		);
+	}
+
+	private boolean isWindowFunctionSupported(Dialect dialect) {
+		return (dialect == Dialect.MYSQL) || (dialect == Dialect.ORACLE) || (dialect == Dialect.POSTGRESQL);
+	}
+
+	private List<Object> getLinearBounds(
+		DBTable table,
+		DBColumn keyColumn,
+		int partitions,
+		Connection connection,
+		StatementBuilder statementBuilder
+	) throws SQLException {
+		List<Object> bounds = new ArrayList<>();
+		try (
+			Statement stmt = connection.createStatement();
+			ResultSet rs = stmt.executeQuery(statementBuilder.createMinMaxStatementString(table, keyColumn))
+		) {
+			if (!rs.next() || (rs.getObject(1) == null)) {
+				return bounds;
+			}
+			BigInteger min = rs.getBigDecimal(1).toBigInteger();
+			BigInteger max = rs.getBigDecimal(2).toBigInteger();
+			BigInteger step = max.subtract(min).divide(BigInteger.valueOf(partitions)).add(BigInteger.ONE);
+			for (int i = 1; i < partitions; i++) {
+				BigInteger bound = min.add(step.multiply(BigInteger.valueOf(i))).subtract(BigInteger.ONE);
+				if (bound.compareTo(max) >= 0) {
+					break;
+				}
+				bounds.add(bound.bitLength() < Long.SIZE ? (Object) bound.longValue() : new BigDecimal(bound));
+			}
+		}
+		return bounds;
+	}
+
+	private List<Object> getBucketBounds(
+		DBTable table,
+		DBColumn keyColumn,
+		int partitions,
+		Connection connection,
+		StatementBuilder statementBuilder
+	) throws SQLException {
+		List<Object> bounds = new ArrayList<>();
+		try (
+			Statement stmt = connection.createStatement();
+			ResultSet rs = stmt.executeQuery(statementBuilder.createBucketBoundsStatementString(table, keyColumn, partitions))
+		) {
+			while (rs.next()) {
+				bounds.add(rs.getObject(1));
+			}
+		}
+		if (!bounds.isEmpty()) {
+			bounds.remove(bounds.size() - 1);
+		}
+		return bounds;
+	}
+}
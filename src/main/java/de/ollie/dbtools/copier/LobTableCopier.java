@@ -0,0 +1,173 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.connections.ConnectionFactory;
+import de.ollie.dbtools.modelreader.DBColumn;
+import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.modelreader.models.DBTableModel;
+import de.ollie.dbtools.utils.Dialect;
+import de.ollie.dbtools.utils.StatementBuilder;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A class which copies the LOB columns of a table in the second phase of a two-phase copy: The records have been
+ * written without their LOB columns in the first phase. Now the LOB values are read by streams together with the
+ * primary key and are written by an UPDATE ... WHERE pk = ?. If connection factories are passed, the table is split
+ * into hash buckets which are copied by the partition threads in parallel.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class LobTableCopier {
+
+	static Logger log = LogManager.getLogger(LobTableCopier.class);
+	static ParallelExecutor parallelExecutor = new ParallelExecutor();
+	static HashPartitioner hashPartitioner = new HashPartitioner();
+
+	private final StatementBuilder statementBuilder;
+	private final CopyOptions options;
+	private final DeadLetterWriter deadLetters;
+
+	LobTableCopier(StatementBuilder statementBuilder, CopyOptions options, DeadLetterWriter deadLetters) {
+		this.statementBuilder = statementBuilder;
+		this.options = options;
+		this.deadLetters = deadLetters;
+	}
+
+	/**
+	 * Returns the LOB columns of the passed table which are to copy in a second phase (only if two-phase LOB copies are
+	 * set in the options and the table has a primary key).
+	 *
+	 * @param table   The table to check.
+	 * @param options The options of the copy.
+	 * @return The LOB columns to copy in a second phase or an empty list.
+	 */
+	static List<DBColumn> getDeferredLobColumns(DBTable table, CopyOptions options) {
+		if (!options.isTwoPhaseLobs() || table.getPrimaryKeyColumns().isEmpty()) {
+			return Collections.emptyList();
+		}
+		return table.getColumns().stream().filter(TransferPlan::isLob).toList();
+	}
+
+	/**
+	 * Returns a view of the passed table without the passed columns.
+	 *
+	 * @param table   The table to create the view for.
+	 * @param columns The columns to remove.
+	 * @return A view of the passed table without the passed columns.
+	 */
+	static DBTable withoutColumns(DBTable table, List<DBColumn> columns) {
+		List<DBColumn> remaining = new ArrayList<>(table.getColumns());
+		remaining.removeAll(columns);
+		return new DBTableModel(table.getName(), remaining, table.getIndices(), table.getPrimaryKeyColumns());
+	}
+
+	/**
+	 * Copies the passed LOB columns of the table of the passed task to the already written records.
+	 *
+	 * @param task                    The task with the table to copy.
+	 * @param lobColumns              The LOB columns to copy.
+	 * @param sourceConnection        The connection to read the data from (if no factories are passed).
+	 * @param targetConnection        The connection to write the data to (if no factories are passed).
+	 * @param sourceConnectionFactory A factory for the source connections of the workers or null.
+	 * @param targetConnectionFactory A factory for the target connections of the workers or null.
+	 * @return The number of updated records.
+	 * @throws Exception If an error occurs while copying the data.
+	 */
+	long copy(
+		TableCopyTask task,
+		List<DBColumn> lobColumns,
+		Connection sourceConnection,
+		Connection targetConnection,
+		ConnectionFactory sourceConnectionFactory,
+		ConnectionFactory targetConnectionFactory
+	) throws Exception {
+		DBTable table = task.getTable();
+		String tableName = task.getTargetTableName();
+		List<DBColumn> columns = new ArrayList<>(lobColumns);
+		columns.addAll(table.getPrimaryKeyColumns());
+		DBTable lobTable = new DBTableModel(table.getName(), columns, List.of(), table.getPrimaryKeyColumns());
+		String update = statementBuilder.createUpdateStatementString(tableName, lobColumns, table.getPrimaryKeyColumns());
+		TransferPlan plan = TransferPlan.compile(lobTable);
+		int workers = (sourceConnectionFactory != null) && (targetConnectionFactory != null)
+			? Math.max(1, options.getPartitionThreads())
+			: 1;
+		List<TableSlice> slices = workers > 1
+			? hashPartitioner.partition(
+				new DBTableModel(table.getName(), table.getPrimaryKeyColumns(), List.of()),
+				workers,
+				Dialect.of(sourceConnection)
+			)
+			: List.of();
+		System.out.println(
+			"copying: " +
+			tableName +
+			" LOB columns of " +
+			task.getRecordCount() +
+			" record(s) by " +
+			Math.max(1, slices.size()) +
+			" worker(s) started."
+		);
+		long start = System.currentTimeMillis();
+		AtomicLong copied = new AtomicLong();
+		if (slices.isEmpty()) {
+			copySlice(lobTable, plan, update, null, sourceConnection, targetConnection, copied);
+		} else {
+			List<Callable<Void>> jobs = new ArrayList<>();
+			for (TableSlice slice : slices) {
+				jobs.add(() -> {
+					try (
+						Connection source = sourceConnectionFactory.createConnection();
+						Connection target = targetConnectionFactory.createConnection()
+					) {
+						copySlice(lobTable, plan, update, ((ConditionSlice) slice).getCondition(), source, target, copied);
+					}
+					return null;
+				});
+			}
+			parallelExecutor.run("lob-copy", workers, options.isVirtualThreads(), jobs);
+		}
+		long millis = Math.max(1, System.currentTimeMillis() - start);
+		long current = copied.get();
+		System.out.println(
+			"copying: " + tableName + " LOB columns ready (" + current + " record(s) in " + millis + " ms)."
+		);
+		return current;
+	}
+
+	private void copySlice(
+		DBTable lobTable,
+		TransferPlan plan,
+		String update,
+		String condition,
+		Connection sourceConnection,
+		Connection targetConnection,
+		AtomicLong copied
+	) throws Exception {
+		String select = condition != null
+			? statementBuilder.createSelectStatementString(lobTable, condition)
+			: statementBuilder.createSelectStatementString(lobTable);
+		try (
+			SourceReader reader = new SourceReader(sourceConnection, options, lobTable.getName());
+			Statement statement = reader.createStatement();
+			ResultSet rs = statement.executeQuery(select);
+			BatchWriter writer = new BatchWriter(targetConnection, update, options, lobTable, plan, deadLetters)
+		) {
+			while (rs.next()) {
+				writer.addRecord(rs);
+				long current = copied.incrementAndGet();
+				if (current % options.getEffectiveBatchSize() == 0) {
+					log.info("copied LOB columns of record number " + current + " for table: " + lobTable.getName());
+				}
+			}
+		}
+	}
+}
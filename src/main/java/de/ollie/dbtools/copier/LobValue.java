@@ -0,0 +1,178 @@
+package de.ollie.dbtools.copier;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The value of a LOB column which has been read by a stream through a buffer of a fixed size. Values which are fitting
+ * into the buffer are kept in the heap. Larger values are spooled to a temporary file which is streamed to the
+ * parameter of the target statement. So the heap usage of a LOB is limited by the buffer size.
+ * <p>
+ * The value has to be released after the statement is executed to close the streams and delete the temporary file.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class LobValue {
+
+	private final boolean binary;
+	private final byte[] bytes;
+	private final String text;
+	private final Path file;
+	private final long length;
+	private final List<Closeable> streams = new ArrayList<>();
+
+	private LobValue(boolean binary, byte[] bytes, String text, Path file, long length) {
+		this.binary = binary;
+		this.bytes = bytes;
+		this.text = text;
+		this.file = file;
+		this.length = length;
+	}
+
+	/**
+	 * Reads a binary LOB from the passed stream.
+	 *
+	 * @param in         The stream to read the value from.
+	 * @param bufferSize The size of the buffer (and the maximum size of a value which is kept in the heap).
+	 * @return The read value.
+	 * @throws IOException If an error occurs while reading or spooling the value.
+	 */
+	static LobValue readBinary(InputStream in, int bufferSize) throws IOException {
+		byte[] buffer = new byte[bufferSize];
+		int read = in.readNBytes(buffer, 0, bufferSize);
+		if (read < bufferSize) {
+			return new LobValue(true, Arrays.copyOf(buffer, read), null, null, read);
+		}
+		Path file = createTempFile();
+		long length = 0;
+		try (OutputStream out = Files.newOutputStream(file)) {
+			for (; read > 0; read = in.read(buffer)) {
+				out.write(buffer, 0, read);
+				length += read;
+			}
+		} catch (IOException e) {
+			Files.deleteIfExists(file);
+			throw e;
+		}
+		return new LobValue(true, null, null, file, length);
+	}
+
+	/**
+	 * Reads a character LOB from the passed reader.
+	 *
+	 * @param in         The reader to read the value from.
+	 * @param bufferSize The size of the buffer (and the maximum number of characters of a value which is kept in the
+	 *                   heap).
+	 * @return The read value.
+	 * @throws IOException If an error occurs while reading or spooling the value.
+	 */
+	static LobValue readCharacters(Reader in, int bufferSize) throws IOException {
+		char[] buffer = new char[bufferSize];
+		int read = fill(in, buffer);
+		if (read < bufferSize) {
+			return new LobValue(false, null, new String(buffer, 0, read), null, read);
+		}
+		Path file = createTempFile();
+		long length = 0;
+		try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			for (; read > 0; read = in.read(buffer)) {
+				out.write(buffer, 0, read);
+				length += read;
+			}
+		} catch (IOException e) {
+			Files.deleteIfExists(file);
+			throw e;
+		}
+		return new LobValue(false, null, null, file, length);
+	}
+
+	private static int fill(Reader in, char[] buffer) throws IOException {
+		int read = 0;
+		for (int n = 0; (read < buffer.length) && (n >= 0); read += Math.max(0, n)) {
+			n = in.read(buffer, read, buffer.length - read);
+		}
+		return read;
+	}
+
+	private static Path createTempFile() throws IOException {
+		return Files.createTempFile("dbtools-lob-", ".tmp");
+	}
+
+	/**
+	 * Sets the value as parameter of the passed statement. Spooled values are set as streams of the temporary file.
+	 *
+	 * @param statement The statement whose parameter is to set.
+	 * @param index     The index of the parameter.
+	 * @throws SQLException If an error occurs while setting the parameter.
+	 */
+	void bind(PreparedStatement statement, int index) throws SQLException {
+		if (file == null) {
+			if (binary) {
+				statement.setBytes(index, bytes);
+			} else {
+				statement.setString(index, text);
+			}
+			return;
+		}
+		try {
+			if (binary) {
+				InputStream in = Files.newInputStream(file);
+				streams.add(in);
+				statement.setBinaryStream(index, in, length);
+			} else {
+				Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+				streams.add(in);
+				statement.setCharacterStream(index, in, length);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("error while opening LOB spool file: " + file, e);
+		}
+	}
+
+	boolean isSpooled() {
+		return file != null;
+	}
+
+	long getLength() {
+		return length;
+	}
+
+	/**
+	 * Closes the streams which have been opened for the value and deletes the temporary file.
+	 */
+	void release() {
+		try {
+			for (Closeable stream : streams) {
+				stream.close();
+			}
+			streams.clear();
+			if (file != null) {
+				Files.deleteIfExists(file);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("error while releasing LOB spool file: " + file, e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		if (file != null) {
+			return "<" + length + (binary ? " bytes" : " characters") + " spooled>";
+		}
+		return binary ? "<" + length + " bytes>" : text;
+	}
+}
@@ -0,0 +1,122 @@
+package de.ollie.dbtools.copier;
+
+/**
+ * A set of primitive long values with open addressing (linear probing) in a single array. The array is doubled when it
+ * is filled by half. The value zero marks a free slot, so its membership is kept in a flag.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class LongHashSet {
+
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] slots;
+	private int mask;
+	private int size = 0;
+	private boolean containsZero = false;
+
+	/**
+	 * Creates a new set for the passed number of values (the set grows if more values are added).
+	 *
+	 * @param expectedSize The expected number of values.
+	 */
+	LongHashSet(long expectedSize) {
+		long capacity = MIN_CAPACITY;
+		while ((capacity < (1 << 30)) && (capacity < expectedSize * 2)) {
+			capacity <<= 1;
+		}
+		slots = new long[(int) capacity];
+		mask = slots.length - 1;
+	}
+
+	/**
+	 * Adds the passed value to the set.
+	 *
+	 * @param value The value to add.
+	 * @return "true" if the value has been added, "false" if it is contained already.
+	 */
+	boolean add(long value) {
+		if (value == 0) {
+			boolean added = !containsZero;
+			containsZero = true;
+			return added;
+		}
+		int slot = find(slots, mask, value);
+		if (slots[slot] == value) {
+			return false;
+		}
+		slots[slot] = value;
+		size++;
+		if (size * 2 > slots.length) {
+			grow();
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if the passed value is contained in the set.
+	 *
+	 * @param value The value to check.
+	 * @return "true" if the value is contained in the set.
+	 */
+	boolean contains(long value) {
+		if (value == 0) {
+			return containsZero;
+		}
+		return slots[find(slots, mask, value)] == value;
+	}
+
+	/**
+	 * Returns the number of values in the set.
+	 *
+	 * @return The number of values in the set.
+	 */
+	long size() {
+		return size + (containsZero ? 1 : 0);
+	}
+
+	/**
+	 * Returns the size of the slot array in bytes.
+	 *
+	 * @return The size of the slot array in bytes.
+	 */
+	long getMemoryBytes() {
+		return slots.length * (long) Long.BYTES;
+	}
+
+	/**
+	 * Returns the slot of the passed value or the free slot which the value is to store in.
+	 */
+	private static int find(long[] slots, int mask, long value) {
+		int slot = hash(value) & mask;
+		while ((slots[slot] != 0) && (slots[slot] != value)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private static int hash(long value) {
+		long h = value * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private void grow() {
+		ensureCapacity();
+		long[] grown = new long[slots.length * 2];
+		int grownMask = grown.length - 1;
+		for (long value : slots) {
+			if (value != 0) {
+				grown[find(grown, grownMask, value)] = value;
+			}
+		}
+		slots = grown;
+		mask = grownMask;
+	}
+
+	private void ensureCapacity() {
+		if (slots.length >= (1 << 30)) {
+			throw new IllegalStateException("too many values for a long hash set: " + size);
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package de.ollie.dbtools.copier;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A class which runs jobs in a limited number of threads and fails fast: If a job fails, all other jobs are cancelled
+ * and the exception of the failed job is thrown.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class ParallelExecutor {
+
+	/**
+	 * Runs the passed jobs in the passed order and returns when all jobs are finished.
+	 *
+	 * @param name           A name for the threads.
+	 * @param threads        The maximum number of jobs to run at the same time.
+	 * @param virtualThreads Set this flag to run the jobs in virtual threads.
+	 * @param jobs           The jobs to run.
+	 * @throws Exception If a job fails.
+	 */
+	void run(String name, int threads, boolean virtualThreads, List<Callable<Void>> jobs) throws Exception {
+		ThreadFactory threadFactory = virtualThreads
+			? Thread.ofVirtual().name(name + "-", 0).factory()
+			: Thread.ofPlatform().name(name + "-", 0).factory();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), threadFactory);
+		try {
+			CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+			for (Callable<Void> job : jobs) {
+				completionService.submit(job);
+			}
+			for (int i = 0; i < jobs.size(); i++) {
+				try {
+					completionService.take().get();
+				} catch (ExecutionException e) {
+					throw e.getCause() instanceof Exception cause ? cause : e;
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package de.ollie.dbtools.copier;
+
+/**
+ * An enum with the strategies which are used to split a table into slices.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+enum PartitionStrategy {
+	/**
+	 * Ranges of a single column primary key which are read by keyset pagination.
+	 */
+	KEY_RANGE,
+	/**
+	 * Ranges of the physical location of the records (PostgreSQL ctid pages, Oracle ROWID extents).
+	 */
+	PHYSICAL_LOCATION,
+	/**
+	 * Buckets of the hash value (or the modulo) of a column.
+	 */
+	HASH,
+	/**
+	 * The table is not split.
+	 */
+	NONE,
+}
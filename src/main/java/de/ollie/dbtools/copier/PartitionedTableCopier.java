@@ -0,0 +1,222 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.connections.ConnectionFactory;
+import de.ollie.dbtools.modelreader.DBColumn;
+import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.utils.StatementBuilder;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A class which copies the data of a single table with a pool of workers. The table is split into slices. Key ranges
+ * are read by keyset pagination in key order, all other slices by a single select with the condition of the slice. The
+ * workers are stealing slices from each other when their own slices are copied. Each worker uses its own source and
+ * target connection.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class PartitionedTableCopier {
+
+	static Logger log = LogManager.getLogger(PartitionedTableCopier.class);
+	static ParallelExecutor parallelExecutor = new ParallelExecutor();
+
+	/**
+	 * The number of slices which are created for each worker to balance unequal filled slices.
+	 */
+	static final int SLICES_PER_WORKER = 4;
+
+	private final StatementBuilder statementBuilder;
+	private final CopyOptions options;
+	private final DeadLetterWriter deadLetters;
+
+	PartitionedTableCopier(StatementBuilder statementBuilder, CopyOptions options, DeadLetterWriter deadLetters) {
+		this.statementBuilder = statementBuilder;
+		this.options = options;
+		this.deadLetters = deadLetters;
+	}
+
+	/**
+	 * Copies the data of the table of the passed task slice by slice.
+	 *
+	 * @param task                    The task with the table to copy.
+	 * @param partitioning            The slices of the table.
+	 * @param sourceConnectionFactory A factory for the source connections of the workers.
+	 * @param targetConnectionFactory A factory for the target connections of the workers.
+	 * @return The number of copied records.
+	 * @throws Exception If an error occurs while copying the data.
+	 */
+	long copy(
+		TableCopyTask task,
+		TablePartitioning partitioning,
+		ConnectionFactory sourceConnectionFactory,
+		ConnectionFactory targetConnectionFactory
+	) throws Exception {
+		String tableName = task.getTargetTableName();
+		List<TableSlice> slices = partitioning.getSlices();
+		int workers = Math.min(options.getPartitionThreads(), slices.size());
+		System.out.println(
+			"copying: " +
+			tableName +
+			" with " +
+			task.getRecordCount() +
+			" record(s) in " +
+			slices.size() +
+			" slice(s) (" +
+			partitioning.getStrategy() +
+			") by " +
+			workers +
+			" worker(s) started."
+		);
+		long start = System.currentTimeMillis();
+		WorkStealingQueues<TableSlice> queues = new WorkStealingQueues<>(slices, workers);
+		AtomicLong copied = new AtomicLong();
+		TransferPlan plan = TransferPlan.compile(task.getTable());
+		AdaptiveController controller = AdaptiveController.create(tableName, options, workers);
+		List<Callable<Void>> jobs = new ArrayList<>();
+		for (int i = 0; i < workers; i++) {
+			int worker = i;
+			jobs.add(() -> {
+				try (
+					Connection source = sourceConnectionFactory.createConnection();
+					Connection target = targetConnectionFactory.createConnection()
+				) {
+					copySlices(task, partitioning.getKeyColumn(), plan, queues, worker, source, target, copied, controller);
+				}
+				return null;
+			});
+		}
+		parallelExecutor.run("slice-copy", workers, options.isVirtualThreads(), jobs);
+		long millis = Math.max(1, System.currentTimeMillis() - start);
+		long current = copied.get();
+		System.out.println(
+			"copying: " +
+			tableName +
+			" ready (" +
+			current +
+			" record(s) in " +
+			millis +
+			" ms, " +
+			(current * 1000 / millis) +
+			" records/s)."
+		);
+		if (controller != null) {
+			controller.printChosenValues();
+		}
+		return current;
+	}
+
+	private void copySlices(
+		TableCopyTask task,
+		DBColumn keyColumn,
+		TransferPlan plan,
+		WorkStealingQueues<TableSlice> queues,
+		int worker,
+		Connection sourceConnection,
+		Connection targetConnection,
+		AtomicLong copied,
+		AdaptiveController controller
+	) throws Exception {
+		DBTable table = task.getTable();
+		String insert = BatchWriter.createWriteStatementString(statementBuilder, task, options, targetConnection);
+		try (
+			SourceReader reader = new SourceReader(sourceConnection, options, table.getName());
+			BatchWriter writer = new BatchWriter(targetConnection, insert, options, table, plan, deadLetters)
+		) {
+			writer.setController(controller);
+			writer.setKeyFilter(task.getKeyFilter());
+			for (TableSlice slice = queues.next(worker); slice != null; slice = queues.next(worker)) {
+				if (controller != null) {
+					controller.acquireWorker();
+				}
+				try {
+					if (slice instanceof KeyRange range) {
+						copyRange(task, keyColumn, range, plan, reader, writer, copied);
+					} else if (slice instanceof ConditionSlice conditionSlice) {
+						copyConditionSlice(task, conditionSlice, plan, reader, writer, copied);
+					}
+				} finally {
+					if (controller != null) {
+						controller.releaseWorker();
+					}
+				}
+			}
+		}
+	}
+
+	private void copyRange(
+		TableCopyTask task,
+		DBColumn keyColumn,
+		KeyRange range,
+		TransferPlan plan,
+		SourceReader reader,
+		BatchWriter writer,
+		AtomicLong copied
+	) throws SQLException {
+		DBTable table = task.getTable();
+		int pageSize = Math.max(1, options.getChunkSize());
+		int keyIndex = table.getColumns().indexOf(keyColumn) + 1;
+		Object lastKey = range.getLowerBound();
+		boolean upperBound = range.getUpperBound() != null;
+		int pageRecords;
+		do {
+			String select = statementBuilder.createKeysetSelectStatementString(
+				task.getSourceTable(),
+				keyColumn,
+				lastKey != null,
+				upperBound,
+				pageSize,
+				reader.getDialect()
+			);
+			pageRecords = 0;
+			try (PreparedStatement stmt = reader.prepareStatement(select)) {
+				int parameterIndex = 1;
+				if (lastKey != null) {
+					stmt.setObject(parameterIndex++, lastKey);
+				}
+				if (upperBound) {
+					stmt.setObject(parameterIndex, range.getUpperBound());
+				}
+				try (ResultSet rs = stmt.executeQuery()) {
+					while (rs.next()) {
+						writer.addRecord(rs);
+						lastKey = rs.getObject(keyIndex);
+						pageRecords++;
+					}
+				}
+			}
+			long current = copied.addAndGet(pageRecords);
+			log.info("copied " + current + " record(s) for table: " + table.getName() + " (last key: " + lastKey + ")");
+		} while (pageRecords == pageSize);
+	}
+
+	private void copyConditionSlice(
+		TableCopyTask task,
+		ConditionSlice slice,
+		TransferPlan plan,
+		SourceReader reader,
+		BatchWriter writer,
+		AtomicLong copied
+	) throws SQLException {
+		DBTable table = task.getTable();
+		String select = statementBuilder.createSelectStatementString(task.getSourceTable(), slice.getCondition());
+		long sliceRecords = 0;
+		try (Statement stmt = reader.createStatement(); ResultSet rs = stmt.executeQuery(select)) {
+			while (rs.next()) {
+				writer.addRecord(rs);
+				sliceRecords++;
+			}
+		}
+		long current = copied.addAndGet(sliceRecords);
+		log.info("copied " + current + " record(s) for table: " + table.getName() + " (slice: " + slice + ")");
+	}
+}
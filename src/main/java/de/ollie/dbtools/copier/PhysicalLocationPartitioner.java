@@ -0,0 +1,141 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.utils.Dialect;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A class which splits a table by the physical location of its records. PostgreSQL tables are split into ranges of
+ * ctid pages, Oracle tables into groups of ROWID extents. Other databases are not supported. The extents of tables of
+ * other Oracle users are read from DBA_EXTENTS, which requires the SELECT privilege on this view.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class PhysicalLocationPartitioner {
+
+	static Logger log = LogManager.getLogger(PhysicalLocationPartitioner.class);
+
+	/**
+	 * Splits the passed table into the passed number of slices.
+	 *
+	 * @param table      The table to split.
+	 * @param schemeName The name of the scheme of the table or null if the table name is to resolve unqualified.
+	 * @param slices     The number of slices to create.
+	 * @param connection The connection to the database which contains the table.
+	 * @param dialect    The dialect of the database.
+	 * @return The slices of the table or an empty list if the table could not be split.
+	 * @throws SQLException If an error occurs while reading the physical locations.
+	 */
+	List<TableSlice> partition(DBTable table, String schemeName, int slices, Connection connection, Dialect dialect)
+		throws SQLException {
+		if ((dialect != Dialect.POSTGRESQL) && (dialect != Dialect.ORACLE)) {
+			return List.of();
+		}
+		// Unqualified table names are resolved by the search path in PostgreSQL, but by the current schema in Oracle.
+		List<TableSlice> result = dialect == Dialect.POSTGRESQL
+			? partitionByCtidPages(table, schemeName, slices, connection)
+			: partitionByRowidExtents(table, schemeName != null ? schemeName : connection.getSchema(), slices, connection);
+		if (result.size() < 2) {
+			log.info("table " + table.getName() + " is not split by its physical location (" + result.size() + " slice(s)).");
+		}
+		return result;
+	}
+
+	private List<TableSlice> partitionByCtidPages(DBTable table, String scheme, int slices, Connection connection)
+		throws SQLException {
+		long pages = 0;
+		String relation = scheme != null ? "quote_ident(?) || '.' || quote_ident(?)" : "quote_ident(?)";
+		try (
+			PreparedStatement stmt = connection.prepareStatement(
+				"SELECT pg_relation_size(to_regclass(" + relation + ")) / current_setting('block_size')::bigint"
+			)
+		) {
+			int parameterIndex = 1;
+			if (scheme != null) {
+				stmt.setString(parameterIndex++, scheme);
+			}
+			stmt.setString(parameterIndex, table.getName());
+			try (ResultSet rs = stmt.executeQuery()) {
+				if (rs.next()) {
+					pages = rs.getLong(1);
+				}
+			}
+		}
+		List<TableSlice> result = new ArrayList<>();
+		long pagesPerSlice = (pages + slices - 1) / slices;
+		if (pagesPerSlice == 0) {
+			return result;
+		}
+		for (long first = 0; first < pages; first += pagesPerSlice) {
+			long next = first + pagesPerSlice;
+			String condition = first == 0 ? "" : "ctid >= '(" + first + ",0)'::tid";
+			if (next < pages) {
+				condition += (condition.isEmpty() ? "" : " AND ") + "ctid < '(" + next + ",0)'::tid";
+			}
+			result.add(new ConditionSlice(condition.isEmpty() ? "1 = 1" : condition));
+		}
+		return result;
+	}
+
+	private List<TableSlice> partitionByRowidExtents(DBTable table, String scheme, int slices, Connection connection)
+		throws SQLException {
+		List<String> ranges = new ArrayList<>();
+		List<Long> blocks = new ArrayList<>();
+		long totalBlocks = 0;
+		boolean own = (scheme == null) || scheme.equalsIgnoreCase(connection.getMetaData().getUserName());
+		String extents = own
+			? "USER_EXTENTS e JOIN USER_OBJECTS o ON o.OBJECT_NAME = e.SEGMENT_NAME "
+			: "DBA_EXTENTS e JOIN ALL_OBJECTS o ON o.OWNER = e.OWNER AND o.OBJECT_NAME = e.SEGMENT_NAME ";
+		try (
+			PreparedStatement stmt = connection.prepareStatement(
+				"SELECT DBMS_ROWID.ROWID_CREATE(1, o.DATA_OBJECT_ID, e.RELATIVE_FNO, e.BLOCK_ID, 0), " +
+				"DBMS_ROWID.ROWID_CREATE(1, o.DATA_OBJECT_ID, e.RELATIVE_FNO, e.BLOCK_ID + e.BLOCKS - 1, 32767), " +
+				"e.BLOCKS FROM " +
+				extents +
+				"AND o.OBJECT_TYPE = 'TABLE' WHERE e.SEGMENT_NAME = ? AND e.SEGMENT_TYPE = 'TABLE' " +
+				(own ? "" : "AND e.OWNER = ? ") +
+				"ORDER BY e.RELATIVE_FNO, e.BLOCK_ID"
+			)
+		) {
+			stmt.setString(1, table.getName());
+			if (!own) {
+				stmt.setString(2, scheme);
+			}
+			try (ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					ranges.add("ROWID BETWEEN '" + rs.getString(1) + "' AND '" + rs.getString(2) + "'");
+					blocks.add(rs.getLong(3));
+					totalBlocks += rs.getLong(3);
+				}
+			}
+		} catch (SQLException e) {
+			if (own) {
+				throw e;
+			}
+			log.warn("extents of table " + scheme + "." + table.getName() + " could not be read: " + e.getMessage());
+			return List.of();
+		}
+		List<TableSlice> result = new ArrayList<>();
+		long blocksPerSlice = Math.max(1, totalBlocks / slices);
+		StringBuilder condition = new StringBuilder();
+		long sliceBlocks = 0;
+		for (int i = 0; i < ranges.size(); i++) {
+			condition.append(condition.isEmpty() ? "" : " OR ").append(ranges.get(i));
+			sliceBlocks += blocks.get(i);
+			if ((sliceBlocks >= blocksPerSlice) || (i == ranges.size() - 1)) {
+				result.add(new ConditionSlice("(" + condition + ")"));
+				condition.setLength(0);
+				sliceBlocks = 0;
+			}
+		}
+		return result;
+	}
+}
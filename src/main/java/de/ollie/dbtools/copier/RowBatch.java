@@ -0,0 +1,103 @@
+package de.ollie.dbtools.copier;
+
+/**
+ * A pre-allocated batch of records which is reused while copying. The values are stored column by column: Integral
+ * and boolean columns in primitive arrays, all other columns in object arrays. The arrays are overwritten when the
+ * batch is filled again.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class RowBatch {
+
+	private final long[][] longValues;
+	private final Object[][] objectValues;
+	private final boolean[][] nullValues;
+	private final int capacity;
+
+	private int size = 0;
+
+	RowBatch(int capacity, TransferPlan plan) {
+		int columnCount = plan.getColumnCount();
+		this.capacity = capacity;
+		this.longValues = new long[columnCount][];
+		this.objectValues = new Object[columnCount][];
+		this.nullValues = new boolean[columnCount][capacity];
+		for (int c = 0; c < columnCount; c++) {
+			if (plan.isPrimitive(c)) {
+				longValues[c] = new long[capacity];
+			} else {
+				objectValues[c] = new Object[capacity];
+			}
+		}
+	}
+
+	/**
+	 * Adds a record to the batch.
+	 *
+	 * @return The index of the added record.
+	 */
+	int addRow() {
+		return size++;
+	}
+
+	/**
+	 * Adds a copy of the passed row of the passed batch (which has to have the same columns) to the batch.
+	 *
+	 * @param source The batch to copy the row from.
+	 * @param row    The index of the row to copy.
+	 * @return The index of the added record.
+	 */
+	int addRow(RowBatch source, int row) {
+		int target = addRow();
+		for (int c = 0; c < nullValues.length; c++) {
+			if (longValues[c] != null) {
+				longValues[c][target] = source.longValues[c][row];
+			} else {
+				objectValues[c][target] = source.objectValues[c][row];
+			}
+			nullValues[c][target] = source.nullValues[c][row];
+		}
+		return target;
+	}
+
+	long getLong(int column, int row) {
+		return longValues[column][row];
+	}
+
+	void setLong(int column, int row, long value) {
+		longValues[column][row] = value;
+	}
+
+	Object getObject(int column, int row) {
+		return objectValues[column][row];
+	}
+
+	void setObject(int column, int row, Object value) {
+		objectValues[column][row] = value;
+	}
+
+	boolean isNull(int column, int row) {
+		return nullValues[column][row];
+	}
+
+	void setNull(int column, int row, boolean value) {
+		nullValues[column][row] = value;
+	}
+
+	int getCapacity() {
+		return capacity;
+	}
+
+	int getSize() {
+		return size;
+	}
+
+	boolean isFull() {
+		return size == capacity;
+	}
+
+	void clear() {
+		size = 0;
+	}
+}
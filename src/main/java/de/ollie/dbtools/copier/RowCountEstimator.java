@@ -0,0 +1,80 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.utils.Dialect;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A class which reads the estimated record counts of the tables of a scheme from the catalog statistics of the
+ * database with one query: pg_class.reltuples (PostgreSQL), ALL_TABLES.NUM_ROWS (Oracle) and
+ * information_schema.TABLES.TABLE_ROWS (MySQL). Tables without statistics are missing in the result. This includes
+ * the tables with an estimate of zero records, which is reported for tables which have never been analyzed and for
+ * partitioned parent tables (so these are counted exactly, even if they are empty in fact).
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class RowCountEstimator {
+
+	static Logger log = LogManager.getLogger(RowCountEstimator.class);
+
+	/**
+	 * Returns the estimated record counts of the tables of the passed scheme.
+	 *
+	 * @param connection The connection to the database.
+	 * @param schemeName The name of the scheme or null for the current scheme of the connection.
+	 * @return A map with the estimated record counts by table name (case insensitive). The map is empty if the
+	 *         database has no supported statistics.
+	 */
+	Map<String, Long> estimate(Connection connection, String schemeName) {
+		Map<String, Long> estimates = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		try {
+			String query = getQuery(Dialect.of(connection), schemeName);
+			if (query == null) {
+				return estimates;
+			}
+			try (PreparedStatement stmt = connection.prepareStatement(query)) {
+				if (schemeName != null) {
+					stmt.setString(1, schemeName);
+				}
+				try (ResultSet rs = stmt.executeQuery()) {
+					while (rs.next()) {
+						long count = rs.getLong(2);
+						if (!rs.wasNull() && (count > 0)) {
+							estimates.put(rs.getString(1), count);
+						}
+					}
+				}
+			}
+		} catch (SQLException e) {
+			log.warn("could not read the table statistics: " + e.getMessage());
+		}
+		return estimates;
+	}
+
+	String getQuery(Dialect dialect, String schemeName) {
+		if (dialect == Dialect.POSTGRESQL) {
+			return (
+				"SELECT c.relname, CAST(c.reltuples AS BIGINT) FROM pg_class c JOIN pg_namespace n ON n.oid = " +
+				"c.relnamespace WHERE c.relkind IN ('r', 'p') AND n.nspname = " +
+				(schemeName != null ? "?" : "current_schema()")
+			);
+		} else if (dialect == Dialect.ORACLE) {
+			return schemeName != null
+				? "SELECT TABLE_NAME, NUM_ROWS FROM ALL_TABLES WHERE OWNER = ?"
+				: "SELECT TABLE_NAME, NUM_ROWS FROM USER_TABLES";
+		} else if (dialect == Dialect.MYSQL) {
+			return (
+				"SELECT TABLE_NAME, TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = " +
+				(schemeName != null ? "?" : "DATABASE()")
+			);
+		}
+		return null;
+	}
+}
@@ -0,0 +1,165 @@
+package de.ollie.dbtools.copier;
+
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
+
+/**
+ * A pipeline which overlaps reading the source and writing the target. A reader thread fills the batches of a bounded
+ * ring buffer from the source result set while the calling thread drains them into the target.
+ * <p>
+ * If a buffer pool is set (and the columns of the table could be encoded), the records are encoded into direct
+ * buffers of the pool instead. The reader blocks while the budget of the pool is used up.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class RowPipeline {
+
+	private final RowRingBuffer buffer;
+	private final TransferPlan plan;
+	private final boolean virtualThreads;
+	private final int batchSize;
+
+	private BufferPool pool = null;
+	private TableCheckpoint checkpoint = null;
+	private int keyColumn = -1;
+
+	RowPipeline(int buffers, int batchSize, TransferPlan plan, boolean virtualThreads) {
+		this.buffer = new RowRingBuffer(buffers, batchSize, plan);
+		this.plan = plan;
+		this.virtualThreads = virtualThreads;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Sets a checkpoint which is to note the key of each record before it is added to the writer.
+	 *
+	 * @param checkpoint The checkpoint of the table.
+	 * @param keyColumn  The index of the key column (starting with 0).
+	 * @return The pipeline itself.
+	 */
+	RowPipeline withCheckpoint(TableCheckpoint checkpoint, int keyColumn) {
+		this.checkpoint = checkpoint;
+		this.keyColumn = keyColumn;
+		return this;
+	}
+
+	/**
+	 * Sets a pool whose direct buffers are to hold the records in flight.
+	 *
+	 * @param pool The pool to take the buffers from or null to hold the records in the ring buffer.
+	 * @return The pipeline itself.
+	 */
+	RowPipeline withBufferPool(BufferPool pool) {
+		this.pool = pool;
+		return this;
+	}
+
+	/**
+	 * Copies all records of the passed result set to the passed writer.
+	 *
+	 * @param rs       The result set to read the records from.
+	 * @param writer   The writer to write the records to.
+	 * @param progress A consumer which is called with the number of copied records after each batch.
+	 * @return The number of copied records.
+	 * @throws Exception If an error occurs while reading or writing.
+	 */
+	long run(ResultSet rs, BatchWriter writer, LongConsumer progress) throws Exception {
+		if ((pool != null) && plan.isEncodable()) {
+			return runEncoded(rs, writer, progress);
+		}
+		Thread.Builder threadBuilder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform();
+		Thread reader = threadBuilder.name("pipeline-reader").start(() -> read(rs));
+		long copied = 0;
+		try {
+			for (RowBatch batch = buffer.take(); batch != null; batch = buffer.take()) {
+				for (int i = 0, leni = batch.getSize(); i < leni; i++) {
+					if (checkpoint != null) {
+						checkpoint.setPendingKey(plan.getValue(batch, keyColumn, i));
+					}
+					writer.addRecord(batch, i);
+				}
+				copied += batch.getSize();
+				buffer.release();
+				progress.accept(copied);
+			}
+		} catch (Exception e) {
+			buffer.fail(e);
+			throw e;
+		} finally {
+			reader.join();
+		}
+		return copied;
+	}
+
+	private long runEncoded(ResultSet rs, BatchWriter writer, LongConsumer progress) throws Exception {
+		BlockingQueue<EncodedBatch> filled = new LinkedBlockingQueue<>();
+		EncodedBatch end = new EncodedBatch(ByteBuffer.allocate(0), 0);
+		AtomicReference<Exception> failure = new AtomicReference<>();
+		Thread.Builder threadBuilder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform();
+		Thread reader = threadBuilder
+			.name("pipeline-reader")
+			.start(() -> {
+				try {
+					EncodedBatch.readAll(rs, plan, pool, batchSize, filled);
+				} catch (Exception e) {
+					failure.set(e);
+				} finally {
+					filled.add(end);
+				}
+			});
+		RowBatch row = new RowBatch(1, plan);
+		long copied = 0;
+		try {
+			for (EncodedBatch batch = filled.take(); batch != end; batch = filled.take()) {
+				try {
+					for (int i = 0, leni = batch.getSize(); i < leni; i++) {
+						row.clear();
+						batch.next(plan, row);
+						if (checkpoint != null) {
+							checkpoint.setPendingKey(plan.getValue(row, keyColumn, 0));
+						}
+						writer.addRecord(row, 0);
+					}
+				} finally {
+					pool.release(batch.getBuffer());
+				}
+				copied += batch.getSize();
+				progress.accept(copied);
+			}
+		} catch (Exception e) {
+			reader.interrupt();
+			throw e;
+		} finally {
+			reader.join();
+			EncodedBatch.releaseAll(filled, pool);
+		}
+		if (failure.get() != null) {
+			throw failure.get();
+		}
+		return copied;
+	}
+
+	private void read(ResultSet rs) {
+		try {
+			RowBatch batch = buffer.claim();
+			while (rs.next()) {
+				plan.read(rs, batch);
+				if (batch.isFull()) {
+					buffer.publish();
+					batch = buffer.claim();
+				}
+			}
+			if (batch.getSize() > 0) {
+				buffer.publish();
+			}
+			buffer.finish();
+		} catch (Exception e) {
+			buffer.fail(e);
+		}
+	}
+}
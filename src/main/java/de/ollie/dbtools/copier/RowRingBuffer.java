@@ -0,0 +1,134 @@
+package de.ollie.dbtools.copier;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded ring of pre-allocated row batches which connects one producer with one consumer. The producer blocks when
+ * all batches are filled and not yet consumed (backpressure), the consumer blocks when there is no filled batch.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class RowRingBuffer {
+
+	private final RowBatch[] slots;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notFull = lock.newCondition();
+	private final Condition notEmpty = lock.newCondition();
+
+	private long head = 0;
+	private long tail = 0;
+	private boolean finished = false;
+	private Exception failure = null;
+
+	RowRingBuffer(int slots, int batchSize, TransferPlan plan) {
+		this.slots = new RowBatch[Math.max(1, slots)];
+		for (int i = 0; i < this.slots.length; i++) {
+			this.slots[i] = new RowBatch(batchSize, plan);
+		}
+	}
+
+	/**
+	 * Returns the next free batch for the producer. The batch is cleared before.
+	 *
+	 * @return The next free batch.
+	 * @throws Exception If the consumer has failed or the thread is interrupted.
+	 */
+	RowBatch claim() throws Exception {
+		lock.lockInterruptibly();
+		try {
+			while ((tail - head == slots.length) && (failure == null)) {
+				notFull.await();
+			}
+			checkFailure();
+			RowBatch batch = slots[(int) (tail % slots.length)];
+			batch.clear();
+			return batch;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Hands the last claimed batch over to the consumer.
+	 */
+	void publish() {
+		lock.lock();
+		try {
+			tail++;
+			notEmpty.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the next filled batch for the consumer.
+	 *
+	 * @return The next filled batch or null if the producer is finished and all batches are consumed.
+	 * @throws Exception If the producer has failed or the thread is interrupted.
+	 */
+	RowBatch take() throws Exception {
+		lock.lockInterruptibly();
+		try {
+			while ((tail == head) && !finished && (failure == null)) {
+				notEmpty.await();
+			}
+			checkFailure();
+			return tail == head ? null : slots[(int) (head % slots.length)];
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the last taken batch to the producer.
+	 */
+	void release() {
+		lock.lock();
+		try {
+			head++;
+			notFull.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Marks the end of the data of the producer.
+	 */
+	void finish() {
+		lock.lock();
+		try {
+			finished = true;
+			notEmpty.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Marks a failure of the producer or the consumer. Both sides are woken up and get the passed exception.
+	 *
+	 * @param e The exception which has occurred.
+	 */
+	void fail(Exception e) {
+		lock.lock();
+		try {
+			if (failure == null) {
+				failure = e;
+			}
+			notEmpty.signalAll();
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void checkFailure() throws Exception {
+		if (failure != null) {
+			throw failure;
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package de.ollie.dbtools.copier;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A spool of the records of a table in local segment files. The records are encoded by the transfer plan of the table
+ * (see {@link TransferPlan#encode(ResultSet, ByteBuffer)}) into a reused direct buffer of the segment size, which is
+ * written to a new segment file when it is full. Each segment starts with the number of its records. The segments are
+ * read back into the same buffer and deleted as soon as they are read. No file is mapped into memory, so a deleted
+ * segment frees its disk space at once.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class RowSpool implements AutoCloseable {
+
+	/**
+	 * An interface for the consumers of the records of a spool.
+	 */
+	@FunctionalInterface
+	interface RecordConsumer {
+		void accept(RowBatch batch, int row) throws SQLException;
+	}
+
+	/**
+	 * The default size of a segment file (64 MiB).
+	 */
+	static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	private static final int HEADER_SIZE = Integer.BYTES;
+
+	private final Path directory;
+	private final String name;
+	private final TransferPlan plan;
+	private final int segmentSize;
+	private final Deque<Path> segments = new ArrayDeque<>();
+
+	private ByteBuffer buffer = null;
+	private int segmentRecords = 0;
+	private long records = 0;
+
+	/**
+	 * Creates a new spool.
+	 *
+	 * @param directory   The directory to create the segment files in.
+	 * @param name        The name of the spool (a part of the names of the segment files).
+	 * @param plan        The transfer plan of the table whose records are spooled.
+	 * @param segmentSize The size of a segment file.
+	 */
+	RowSpool(Path directory, String name, TransferPlan plan, int segmentSize) {
+		this.directory = directory;
+		this.name = name;
+		this.plan = plan;
+		this.segmentSize = segmentSize;
+	}
+
+	/**
+	 * Appends the current record of the passed result set to the spool.
+	 *
+	 * @param rs The result set to read the record from.
+	 * @throws SQLException If an error occurs while reading the record.
+	 * @throws IOException  If an error occurs while creating a segment file.
+	 */
+	void write(ResultSet rs) throws SQLException, IOException {
+		if (buffer == null) {
+			buffer = ByteBuffer.allocateDirect(segmentSize);
+			startSegment();
+		}
+		int start = buffer.position();
+		try {
+			plan.encode(rs, buffer);
+		} catch (BufferOverflowException e) {
+			buffer.position(start);
+			if (segmentRecords == 0) {
+				throw new IllegalStateException("record is larger than a spool segment (" + segmentSize + " bytes).");
+			}
+			finishSegment();
+			startSegment();
+			plan.encode(rs, buffer);
+		}
+		segmentRecords++;
+		records++;
+	}
+
+	private void startSegment() {
+		buffer.clear();
+		buffer.position(HEADER_SIZE);
+		segmentRecords = 0;
+	}
+
+	private void finishSegment() throws IOException {
+		Path segment = Files.createTempFile(directory, "dbtools-spool-" + name + "-", ".seg");
+		segments.add(segment);
+		buffer.putInt(0, segmentRecords);
+		buffer.flip();
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+		segmentRecords = 0;
+	}
+
+	/**
+	 * Reads all records of the spool (in the order of writing) and passes them one by one to the passed consumer. Each
+	 * segment file is deleted after its records are consumed.
+	 *
+	 * @param consumer The consumer of the records.
+	 * @return The number of the read records.
+	 * @throws SQLException If the consumer fails.
+	 * @throws IOException  If an error occurs while reading or deleting a segment file.
+	 */
+	long read(RecordConsumer consumer) throws SQLException, IOException {
+		if (segmentRecords > 0) {
+			finishSegment();
+		}
+		RowBatch row = new RowBatch(1, plan);
+		long read = 0;
+		while (!segments.isEmpty()) {
+			buffer.clear();
+			try (FileChannel channel = FileChannel.open(segments.peek(), StandardOpenOption.READ)) {
+				while (buffer.hasRemaining()) {
+					if (channel.read(buffer) < 0) {
+						break;
+					}
+				}
+			}
+			buffer.flip();
+			for (int i = 0, leni = buffer.getInt(); i < leni; i++) {
+				row.clear();
+				plan.decode(buffer, row);
+				consumer.accept(row, 0);
+				read++;
+			}
+			Files.delete(segments.poll());
+		}
+		return read;
+	}
+
+	long getRecordCount() {
+		return records;
+	}
+
+	int getSegmentCount() {
+		return segments.size() + (segmentRecords > 0 ? 1 : 0);
+	}
+
+	/**
+	 * Deletes the segment files which are not read.
+	 */
+	@Override
+	public void close() throws IOException {
+		buffer = null;
+		segmentRecords = 0;
+		while (!segments.isEmpty()) {
+			Files.deleteIfExists(segments.poll());
+		}
+	}
+}
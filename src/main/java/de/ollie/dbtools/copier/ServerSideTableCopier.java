@@ -0,0 +1,210 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.connections.ConnectionFactory;
+import de.ollie.dbtools.modelreader.DBColumn;
+import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.utils.Dialect;
+import de.ollie.dbtools.utils.StatementBuilder;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A class which copies the data of a table by an INSERT ... SELECT on the target server, if the source table is
+ * accessible from the target connection: Either both connections are connected to the same database (the URLs are
+ * equal without their parameters) or a database link to the source is configured (Oracle style: table@link). So no
+ * data is transferred through the JVM. Partitioned tables are copied slice by slice in parallel.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class ServerSideTableCopier {
+
+	static Logger log = LogManager.getLogger(ServerSideTableCopier.class);
+	static ParallelExecutor parallelExecutor = new ParallelExecutor();
+
+	private final StatementBuilder statementBuilder;
+	private final CopyOptions options;
+
+	ServerSideTableCopier(StatementBuilder statementBuilder, CopyOptions options) {
+		this.statementBuilder = statementBuilder;
+		this.options = options;
+	}
+
+	/**
+	 * Returns the name of the source table as it is accessible from the target connection.
+	 *
+	 * @param table                   The source table.
+	 * @param targetTableName         The name of the target table.
+	 * @param schemeName              The name of the source scheme or null.
+	 * @param sourceConnection        The connection to the source database.
+	 * @param sourceConnectionFactory A factory for additional source connections or null.
+	 * @param targetConnection        The connection to the target database.
+	 * @return The qualified name of the source table or null if the source table is not accessible from the target
+	 *         connection (or is the target table itself) or the source is to read in a consistent snapshot, throttled
+	 *         or from replicas (the target connection would read from the primary database without these).
+	 * @throws SQLException If an error occurs while reading the meta data of the connections.
+	 */
+	String getSourceTableName(
+		DBTable table,
+		String targetTableName,
+		String schemeName,
+		Connection sourceConnection,
+		ConnectionFactory sourceConnectionFactory,
+		Connection targetConnection
+	) throws SQLException {
+		if (
+			!options.isServerSideCopy() ||
+			options.isConsistentSnapshot() ||
+			options.getSourceThrottle().isActive() ||
+			((sourceConnectionFactory != null) && sourceConnectionFactory.hasReplicas()) ||
+			((options.getWriteMode() != WriteMode.INSERT) && !options.isShadowLoad())
+		) {
+			return null;
+		}
+		if (options.getSourceDbLink() != null) {
+			return (schemeName != null ? schemeName + "." : "") + table.getName() + "@" + options.getSourceDbLink();
+		}
+		if (
+			(Dialect.of(sourceConnection) != Dialect.of(targetConnection)) ||
+			!getDatabaseKey(sourceConnection).equals(getDatabaseKey(targetConnection))
+		) {
+			return null;
+		}
+		String sourceSchema = schemeName != null ? schemeName : sourceConnection.getSchema();
+		String targetSchema = targetConnection.getSchema();
+		if ((sourceSchema == null) || (targetSchema == null)) {
+			return null;
+		}
+		if (sourceSchema.equalsIgnoreCase(targetSchema) && table.getName().equalsIgnoreCase(targetTableName)) {
+			return null;
+		}
+		return sourceSchema + "." + table.getName();
+	}
+
+	/**
+	 * Returns a key for the database of the passed connection: The URL without the "jdbc:" prefix, its parameters and
+	 * the user name (Oracle, e.g. "jdbc:oracle:thin:user/password@host:1521/service").
+	 */
+	static String getDatabaseKey(Connection connection) throws SQLException {
+		String url = Objects.requireNonNullElse(connection.getMetaData().getURL(), "").toLowerCase();
+		url = url.startsWith("jdbc:") ? url.substring(5) : url;
+		for (char separator : new char[] { '?', ';' }) {
+			int index = url.indexOf(separator);
+			url = index >= 0 ? url.substring(0, index) : url;
+		}
+		int at = url.lastIndexOf('@');
+		int credentials = url.lastIndexOf(':', at);
+		return (at >= 0) && (credentials >= 0) && (credentials < at) && url.substring(credentials, at).contains("/")
+			? url.substring(0, credentials + 1) + url.substring(at)
+			: url;
+	}
+
+	/**
+	 * Copies the data of the table of the passed task on the target server.
+	 *
+	 * @param task                    The task with the table to copy.
+	 * @param sourceTableName         The name of the source table as it is accessible from the target connection.
+	 * @param partitioning            The slices of the table (or NONE).
+	 * @param targetConnection        The connection to the target database (if the table is not partitioned).
+	 * @param targetConnectionFactory A factory for the target connections of the slices (if partitioned).
+	 * @return The number of copied records.
+	 * @throws Exception If an error occurs while copying the data.
+	 */
+	long copy(
+		TableCopyTask task,
+		String sourceTableName,
+		TablePartitioning partitioning,
+		Connection targetConnection,
+		ConnectionFactory targetConnectionFactory
+	) throws Exception {
+		String tableName = task.getTargetTableName();
+		String targetTableName = targetConnection.getSchema() != null
+			? targetConnection.getSchema() + "." + tableName
+			: tableName;
+		System.out.println(
+			"copying: " + tableName + " with " + task.getRecordCount() + " record(s) on the server from " + sourceTableName
+		);
+		long start = System.currentTimeMillis();
+		AtomicLong copied = new AtomicLong();
+		if (!partitioning.isPartitioned()) {
+			copied.set(copySlice(task.getTable(), sourceTableName, targetTableName, null, null, targetConnection));
+		} else {
+			List<Callable<Void>> jobs = new ArrayList<>();
+			for (TableSlice slice : partitioning.getSlices()) {
+				jobs.add(() -> {
+					try (Connection target = targetConnectionFactory.createConnection()) {
+						long records = copySlice(
+							task.getTable(),
+							sourceTableName,
+							targetTableName,
+							partitioning.getKeyColumn(),
+							slice,
+							target
+						);
+						log.info("copied " + copied.addAndGet(records) + " record(s) on the server for table: " + tableName);
+					}
+					return null;
+				});
+			}
+			parallelExecutor.run(
+				"server-side-copy",
+				Math.max(1, options.getPartitionThreads()),
+				options.isVirtualThreads(),
+				jobs
+			);
+		}
+		long millis = Math.max(1, System.currentTimeMillis() - start);
+		System.out.println("copying: " + tableName + " ready (" + copied.get() + " record(s) in " + millis + " ms).");
+		return copied.get();
+	}
+
+	private long copySlice(
+		DBTable table,
+		String sourceTableName,
+		String targetTableName,
+		DBColumn keyColumn,
+		TableSlice slice,
+		Connection targetConnection
+	) throws SQLException {
+		List<Object> parameters = new ArrayList<>();
+		String condition = null;
+		if (slice instanceof KeyRange range) {
+			List<String> conditions = new ArrayList<>();
+			if (range.getLowerBound() != null) {
+				conditions.add(keyColumn.getName() + " > ?");
+				parameters.add(range.getLowerBound());
+			}
+			if (range.getUpperBound() != null) {
+				conditions.add(keyColumn.getName() + " <= ?");
+				parameters.add(range.getUpperBound());
+			}
+			condition = conditions.isEmpty() ? null : String.join(" AND ", conditions);
+		} else if (slice instanceof ConditionSlice conditionSlice) {
+			condition = conditionSlice.getCondition();
+		}
+		String insert = statementBuilder.createInsertSelectStatementString(
+			table,
+			sourceTableName,
+			targetTableName,
+			condition
+		);
+		try (PreparedStatement statement = targetConnection.prepareStatement(insert)) {
+			for (int i = 0; i < parameters.size(); i++) {
+				statement.setObject(i + 1, parameters.get(i));
+			}
+			int records = statement.executeUpdate();
+			if (!targetConnection.getAutoCommit()) {
+				targetConnection.commit();
+			}
+			return records;
+		}
+	}
+}
@@ -0,0 +1,483 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.utils.Dialect;
+import de.ollie.dbtools.utils.StatementBuilder;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A class which loads a table into a shadow table ("&lt;name&gt;__load") and swaps it in after the load: The shadow
+ * table is created with the columns, defaults, identities and check constraints of the target table, but without its
+ * indices, so the records are written without index maintenance. Tables whose properties could not be created on the
+ * shadow table (e.g. check constraints for Oracle) or which are referenced by foreign keys of other tables or by
+ * views which are bound to the table (PostgreSQL, HSQLDB) are refused before the load. After the
+ * load, the primary key and the indices of the target table are built on the shadow table and the tables are swapped
+ * by renames (or by a partition exchange for Oracle tables with a single partition). The replaced table is dropped
+ * then.
+ * <p>
+ * The swap is atomic for PostgreSQL (renames in one transaction) and MySQL (a single RENAME TABLE) only. The other
+ * databases are committing each rename, so the table does not exist for a short time between the two renames.
+ * <p>
+ * The names of the indices of the shadow table are toggling between the original name and the name with the suffix
+ * "__load" because the index names have to be unique in the scheme. Grants and triggers of the target tables are not
+ * moved to the shadow tables.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class ShadowTableLoader {
+
+	static final String SHADOW_SUFFIX = "__load";
+	static final String OLD_SUFFIX = "__old";
+
+	private final StatementBuilder statementBuilder;
+
+	ShadowTableLoader(StatementBuilder statementBuilder) {
+		this.statementBuilder = statementBuilder;
+	}
+
+	/**
+	 * Creates the (empty) shadow table for the target table of the passed task. A shadow table which is left by a
+	 * failed copy is dropped before.
+	 *
+	 * @param task             The task whose target table is to load over a shadow table.
+	 * @param targetConnection The connection to the target database.
+	 * @return A task which writes the records to the shadow table.
+	 * @throws IllegalStateException If the target table could not be replaced by a shadow table.
+	 * @throws SQLException          If an error occurs while creating the shadow table.
+	 */
+	TableCopyTask prepare(TableCopyTask task, Connection targetConnection) throws SQLException {
+		String tableName = task.getTargetTableName();
+		String shadowTableName = tableName + SHADOW_SUFFIX;
+		Dialect dialect = Dialect.of(targetConnection);
+		checkDependencies(tableName, dialect, targetConnection);
+		dropIfExists(shadowTableName, targetConnection);
+		execute(statementBuilder.createShadowTableStatementString(tableName, shadowTableName, dialect), targetConnection);
+		try {
+			completeShadowTable(tableName, shadowTableName, dialect, targetConnection);
+		} catch (SQLException | RuntimeException e) {
+			dropIfExists(shadowTableName, targetConnection);
+			throw e;
+		}
+		return task.withTargetTableName(shadowTableName);
+	}
+
+	/**
+	 * Checks that the target table could be dropped after the swap: Foreign keys of other tables and views of
+	 * PostgreSQL and HSQLDB are bound to the table (not to its name), so they would keep the replaced table.
+	 */
+	private void checkDependencies(String tableName, Dialect dialect, Connection connection) throws SQLException {
+		DatabaseMetaData metaData = connection.getMetaData();
+		String storedTableName = getStoredName(tableName, metaData);
+		Set<String> dependencies = new LinkedHashSet<>();
+		try (ResultSet rs = metaData.getExportedKeys(null, connection.getSchema(), storedTableName)) {
+			while (rs.next()) {
+				if (!storedTableName.equalsIgnoreCase(rs.getString("FKTABLE_NAME"))) {
+					dependencies.add("foreign key " + rs.getString("FK_NAME") + " of " + rs.getString("FKTABLE_NAME"));
+				}
+			}
+		}
+		if (dialect == Dialect.POSTGRESQL) {
+			dependencies.addAll(
+				query(
+					"SELECT DISTINCT 'view ' || r.ev_class::regclass FROM pg_depend d JOIN pg_rewrite r ON r.oid = d.objid " +
+					"WHERE d.refobjid = to_regclass(?) AND r.ev_class <> d.refobjid",
+					connection,
+					tableName
+				)
+			);
+		} else if (dialect == Dialect.HSQLDB) {
+			dependencies.addAll(
+				query(
+					"SELECT 'view ' || VIEW_NAME FROM INFORMATION_SCHEMA.VIEW_TABLE_USAGE " +
+					"WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ?",
+					connection,
+					connection.getSchema(),
+					storedTableName
+				)
+			);
+		}
+		if (!dependencies.isEmpty()) {
+			throw new IllegalStateException(
+				"table " + tableName + " could not be shadow loaded, it is referenced by: " + String.join(", ", dependencies)
+			);
+		}
+	}
+
+	/**
+	 * Completes the shadow table by the properties which are not created by the statement of the dialect: The secondary
+	 * indices which are created by MySQL are dropped (except the ones of auto increment columns) and missing column
+	 * defaults are set. Lost identity or generated columns and check constraints are refused.
+	 */
+	private void completeShadowTable(String tableName, String shadowTableName, Dialect dialect, Connection connection)
+		throws SQLException {
+		Set<String> shadowGeneratedColumns = getGeneratedColumns(shadowTableName, connection);
+		if (dialect == Dialect.MYSQL) {
+			Map<String, List<String>> indexColumns = getIndexColumns(shadowTableName, connection, new HashMap<>());
+			for (Map.Entry<String, List<String>> index : indexColumns.entrySet()) {
+				if (!"PRIMARY".equalsIgnoreCase(index.getKey()) && !shadowGeneratedColumns.contains(index.getValue().get(0))) {
+					execute(
+						statementBuilder.createDropIndexStatementString(index.getKey(), shadowTableName, dialect),
+						connection
+					);
+				}
+			}
+		}
+		Map<String, String> shadowDefaults = getColumnDefaults(shadowTableName, connection);
+		for (Map.Entry<String, String> columnDefault : getColumnDefaults(tableName, connection).entrySet()) {
+			if (!shadowDefaults.containsKey(columnDefault.getKey())) {
+				execute(
+					statementBuilder.createSetDefaultStatementString(
+						shadowTableName,
+						columnDefault.getKey(),
+						columnDefault.getValue(),
+						dialect
+					),
+					connection
+				);
+			}
+		}
+		Set<String> lostColumns = new TreeSet<>(getGeneratedColumns(tableName, connection));
+		lostColumns.removeAll(shadowGeneratedColumns);
+		if (!lostColumns.isEmpty()) {
+			throw new IllegalStateException(
+				"table " +
+				tableName +
+				" could not be shadow loaded, the identity or generated column(s) " +
+				lostColumns +
+				" could not be created on the shadow table."
+			);
+		}
+		if (
+			((dialect == Dialect.HSQLDB) || (dialect == Dialect.ORACLE)) &&
+			(countCheckConstraints(tableName, dialect, connection) >
+				countCheckConstraints(shadowTableName, dialect, connection))
+		) {
+			throw new IllegalStateException(
+				"table " + tableName + " could not be shadow loaded, its check constraints could not be created on the " +
+				"shadow table."
+			);
+		}
+	}
+
+	/**
+	 * Builds the primary key and the indices of the target table of the passed task on its shadow table and swaps the
+	 * shadow table in.
+	 *
+	 * @param task             The task whose target table is to replace by its shadow table.
+	 * @param targetConnection The connection to the target database.
+	 * @throws SQLException If an error occurs while building the indices or swapping the tables.
+	 */
+	void swap(TableCopyTask task, Connection targetConnection) throws SQLException {
+		String tableName = task.getTargetTableName();
+		String shadowTableName = tableName + SHADOW_SUFFIX;
+		long start = System.currentTimeMillis();
+		for (String statement : getIndexStatements(tableName, shadowTableName, targetConnection)) {
+			execute(statement, targetConnection);
+		}
+		long indexed = System.currentTimeMillis();
+		Dialect dialect = Dialect.of(targetConnection);
+		String partitionName = dialect == Dialect.ORACLE ? getSinglePartitionName(tableName, targetConnection) : null;
+		if (partitionName != null) {
+			execute(
+				statementBuilder.createExchangePartitionStatementString(tableName, partitionName, shadowTableName),
+				targetConnection
+			);
+			dropIfExists(shadowTableName, targetConnection);
+		} else {
+			String oldTableName = tableName + OLD_SUFFIX;
+			dropIfExists(oldTableName, targetConnection);
+			List<String> statements = new ArrayList<>(
+				statementBuilder.createSwapTableStatementStrings(tableName, shadowTableName, oldTableName, dialect)
+			);
+			if (dialect == Dialect.POSTGRESQL) {
+				statements.addAll(getSequenceStatements(tableName, shadowTableName, targetConnection));
+				executeInOneTransaction(statements, targetConnection);
+			} else {
+				if (statements.size() > 1) {
+					System.out.println("swapping: " + tableName + " is not atomic (the renames are committed one by one).");
+				}
+				for (String statement : statements) {
+					execute(statement, targetConnection);
+				}
+			}
+			execute(statementBuilder.createDropTableStatementString(oldTableName), targetConnection);
+		}
+		System.out.println(
+			"swapped: " +
+			tableName +
+			" (indices built in " +
+			(indexed - start) +
+			" ms, swapped in " +
+			(System.currentTimeMillis() - indexed) +
+			" ms)."
+		);
+	}
+
+	/**
+	 * Returns the statements which are moving the sequences of the serial and identity columns of the table to the
+	 * shadow table (PostgreSQL, to run after the renames): Shared sequences of serial columns are owned by the new table,
+	 * so they are not dropped with the replaced table. The sequences of the identity columns of the shadow table are set
+	 * to the values of the sequences of the table.
+	 */
+	private List<String> getSequenceStatements(String tableName, String shadowTableName, Connection connection)
+		throws SQLException {
+		List<String> statements = new ArrayList<>();
+		for (String columnName : getGeneratedColumns(tableName, connection)) {
+			String sequenceName = getSerialSequenceName(tableName, columnName, connection);
+			String shadowSequenceName = getSerialSequenceName(shadowTableName, columnName, connection);
+			if (sequenceName == null) {
+				continue;
+			}
+			if (shadowSequenceName == null) {
+				statements.add(statementBuilder.createSequenceOwnerStatementString(sequenceName, tableName, columnName));
+			} else if (!shadowSequenceName.equals(sequenceName)) {
+				statements.add(statementBuilder.createCopySequenceValueStatementString(sequenceName, shadowSequenceName));
+			}
+		}
+		return statements;
+	}
+
+	private String getSerialSequenceName(String tableName, String columnName, Connection connection)
+		throws SQLException {
+		return query("SELECT pg_get_serial_sequence(?, ?)", connection, tableName, columnName).get(0);
+	}
+
+	private List<String> getIndexStatements(String tableName, String shadowTableName, Connection connection)
+		throws SQLException {
+		DatabaseMetaData metaData = connection.getMetaData();
+		String storedTableName = getStoredName(tableName, metaData);
+		String schema = connection.getSchema();
+		List<String> statements = new ArrayList<>();
+		String primaryKeyName = null;
+		Map<Integer, String> primaryKeyColumns = new TreeMap<>();
+		try (ResultSet rs = metaData.getPrimaryKeys(null, schema, storedTableName)) {
+			while (rs.next()) {
+				primaryKeyName = rs.getString("PK_NAME");
+				primaryKeyColumns.put(rs.getInt("KEY_SEQ"), rs.getString("COLUMN_NAME"));
+			}
+		}
+		boolean shadowPrimaryKey;
+		try (ResultSet rs = metaData.getPrimaryKeys(null, schema, getStoredName(shadowTableName, metaData))) {
+			shadowPrimaryKey = rs.next();
+		}
+		if (!primaryKeyColumns.isEmpty() && !shadowPrimaryKey) {
+			statements.add(
+				statementBuilder.createAddPrimaryKeyStatementString(
+					shadowTableName,
+					primaryKeyName != null ? toggleName(primaryKeyName) : null,
+					new ArrayList<>(primaryKeyColumns.values())
+				)
+			);
+		}
+		Map<String, Boolean> shadowUniqueIndices = new HashMap<>();
+		Set<String> shadowIndices = new HashSet<>();
+		getIndexColumns(shadowTableName, connection, shadowUniqueIndices).forEach((indexName, columnNames) ->
+			shadowIndices.add(shadowUniqueIndices.get(indexName) + " " + columnNames)
+		);
+		Map<String, Boolean> uniqueIndices = new HashMap<>();
+		List<String> keyColumnNames = new ArrayList<>(primaryKeyColumns.values());
+		getIndexColumns(tableName, connection, uniqueIndices).forEach((indexName, columnNames) -> {
+			boolean unique = uniqueIndices.get(indexName);
+			if (
+				(!unique || !columnNames.equals(keyColumnNames)) && !shadowIndices.contains(unique + " " + columnNames)
+			) {
+				statements.add(
+					statementBuilder.createIndexStatementString(toggleName(indexName), shadowTableName, unique, columnNames)
+				);
+			}
+		});
+		return statements;
+	}
+
+	/**
+	 * Returns the names of the columns of the indices of the passed table (index name -&gt; column names in the order
+	 * of the index). The unique flags of the indices are put into the passed map.
+	 */
+	private Map<String, List<String>> getIndexColumns(
+		String tableName,
+		Connection connection,
+		Map<String, Boolean> uniqueIndices
+	) throws SQLException {
+		DatabaseMetaData metaData = connection.getMetaData();
+		Map<String, Map<Integer, String>> indexColumns = new LinkedHashMap<>();
+		try (
+			ResultSet rs = metaData.getIndexInfo(
+				null,
+				connection.getSchema(),
+				getStoredName(tableName, metaData),
+				false,
+				false
+			)
+		) {
+			while (rs.next()) {
+				String indexName = rs.getString("INDEX_NAME");
+				String columnName = rs.getString("COLUMN_NAME");
+				if (
+					(indexName == null) ||
+					(columnName == null) ||
+					(rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic)
+				) {
+					continue;
+				}
+				indexColumns
+					.computeIfAbsent(indexName, name -> new TreeMap<>())
+					.put(rs.getInt("ORDINAL_POSITION"), columnName);
+				uniqueIndices.put(indexName, !rs.getBoolean("NON_UNIQUE"));
+			}
+		}
+		Map<String, List<String>> indices = new LinkedHashMap<>();
+		indexColumns.forEach((indexName, columns) -> indices.put(indexName, new ArrayList<>(columns.values())));
+		return indices;
+	}
+
+	/**
+	 * Returns the default values of the columns of the passed table (column name -&gt; default value).
+	 */
+	private Map<String, String> getColumnDefaults(String tableName, Connection connection) throws SQLException {
+		DatabaseMetaData metaData = connection.getMetaData();
+		Map<String, String> defaults = new LinkedHashMap<>();
+		try (ResultSet rs = metaData.getColumns(null, connection.getSchema(), getNamePattern(tableName, metaData), null)) {
+			while (rs.next()) {
+				String defaultValue = rs.getString("COLUMN_DEF");
+				if ((defaultValue != null) && !defaultValue.isBlank()) {
+					defaults.put(rs.getString("COLUMN_NAME"), defaultValue.trim());
+				}
+			}
+		}
+		return defaults;
+	}
+
+	/**
+	 * Returns the names of the identity (auto increment) and generated columns of the passed table.
+	 */
+	private Set<String> getGeneratedColumns(String tableName, Connection connection) throws SQLException {
+		DatabaseMetaData metaData = connection.getMetaData();
+		Set<String> columnNames = new LinkedHashSet<>();
+		try (ResultSet rs = metaData.getColumns(null, connection.getSchema(), getNamePattern(tableName, metaData), null)) {
+			while (rs.next()) {
+				if ("YES".equals(rs.getString("IS_AUTOINCREMENT")) || "YES".equals(rs.getString("IS_GENERATEDCOLUMN"))) {
+					columnNames.add(rs.getString("COLUMN_NAME"));
+				}
+			}
+		}
+		return columnNames;
+	}
+
+	/**
+	 * Returns the number of the check constraints of the passed table without the NOT NULL constraints (HSQLDB and
+	 * Oracle).
+	 */
+	private long countCheckConstraints(String tableName, Dialect dialect, Connection connection) throws SQLException {
+		String storedTableName = getStoredName(tableName, connection.getMetaData());
+		List<String> counts = dialect == Dialect.ORACLE
+			? query(
+				"SELECT COUNT(*) FROM user_constraints WHERE table_name = ? AND constraint_type = 'C' " +
+				"AND search_condition_vc NOT LIKE '% IS NOT NULL'",
+				connection,
+				storedTableName
+			)
+			: query(
+				"SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc JOIN INFORMATION_SCHEMA.CHECK_CONSTRAINTS cc " +
+				"ON cc.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA AND cc.CONSTRAINT_NAME = tc.CONSTRAINT_NAME " +
+				"WHERE tc.TABLE_SCHEMA = ? AND tc.TABLE_NAME = ? AND tc.CONSTRAINT_TYPE = 'CHECK' " +
+				"AND cc.CHECK_CLAUSE NOT LIKE '% IS NOT NULL'",
+				connection,
+				connection.getSchema(),
+				storedTableName
+			);
+		return Long.parseLong(counts.get(0));
+	}
+
+	static String toggleName(String name) {
+		return name.toLowerCase().endsWith(SHADOW_SUFFIX)
+			? name.substring(0, name.length() - SHADOW_SUFFIX.length())
+			: name + SHADOW_SUFFIX;
+	}
+
+	private String getSinglePartitionName(String tableName, Connection connection) throws SQLException {
+		List<String> partitionNames = query(
+			"SELECT partition_name FROM user_tab_partitions WHERE table_name = ?",
+			connection,
+			tableName.toUpperCase()
+		);
+		return partitionNames.size() == 1 ? partitionNames.get(0) : null;
+	}
+
+	private List<String> query(String sql, Connection connection, String... parameters) throws SQLException {
+		List<String> values = new ArrayList<>();
+		try (PreparedStatement statement = connection.prepareStatement(sql)) {
+			for (int i = 0; i < parameters.length; i++) {
+				statement.setString(i + 1, parameters[i]);
+			}
+			try (ResultSet rs = statement.executeQuery()) {
+				while (rs.next()) {
+					values.add(rs.getString(1));
+				}
+			}
+		}
+		return values;
+	}
+
+	private void dropIfExists(String tableName, Connection connection) throws SQLException {
+		DatabaseMetaData metaData = connection.getMetaData();
+		try (ResultSet rs = metaData.getTables(null, connection.getSchema(), getStoredName(tableName, metaData), null)) {
+			if (!rs.next()) {
+				return;
+			}
+		}
+		execute(statementBuilder.createDropTableStatementString(tableName), connection);
+	}
+
+	private String getNamePattern(String name, DatabaseMetaData metaData) throws SQLException {
+		String escape = metaData.getSearchStringEscape();
+		String storedName = getStoredName(name, metaData);
+		return escape == null ? storedName : storedName.replace("_", escape + "_").replace("%", escape + "%");
+	}
+
+	private String getStoredName(String name, DatabaseMetaData metaData) throws SQLException {
+		if (metaData.storesUpperCaseIdentifiers()) {
+			return name.toUpperCase();
+		} else if (metaData.storesLowerCaseIdentifiers()) {
+			return name.toLowerCase();
+		}
+		return name;
+	}
+
+	private void executeInOneTransaction(List<String> statements, Connection connection) throws SQLException {
+		boolean autoCommit = connection.getAutoCommit();
+		connection.setAutoCommit(false);
+		try {
+			for (String statement : statements) {
+				execute(statement, connection);
+			}
+			connection.commit();
+		} catch (SQLException e) {
+			connection.rollback();
+			throw e;
+		} finally {
+			connection.setAutoCommit(autoCommit);
+		}
+	}
+
+	private void execute(String sql, Connection connection) throws SQLException {
+		System.out.println("running: " + sql);
+		try (Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+}
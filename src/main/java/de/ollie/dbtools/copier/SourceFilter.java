@@ -0,0 +1,122 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.modelreader.DBColumn;
+import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.utils.Dialect;
+import de.ollie.dbtools.utils.StatementBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The selection of the records of a source table by a filter condition and a sample. The selection is pushed into the
+ * source database by a derived table which replaces the table name in the FROM clauses of the source selects, so only
+ * the selected records are read.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class SourceFilter {
+
+	static Logger log = LogManager.getLogger(SourceFilter.class);
+
+	/**
+	 * The number of buckets of the key modulo of a sample (a sample percentage is selected in steps of 0.01%).
+	 */
+	static final int SAMPLE_BUCKETS = 10000;
+
+	private final StatementBuilder statementBuilder;
+	private final String sampleClause;
+	private final String condition;
+	private final String sourceTableName;
+
+	private SourceFilter(StatementBuilder statementBuilder, String tableName, String sampleClause, String condition) {
+		this.statementBuilder = statementBuilder;
+		this.sampleClause = sampleClause;
+		this.condition = condition;
+		this.sourceTableName = apply(tableName);
+	}
+
+	/**
+	 * Creates the selection of the records of the passed table by the filter and sample percentage of the options.
+	 *
+	 * @param table            The source table.
+	 * @param integralKey      An integral single column primary key of the table or null if there is none.
+	 * @param options          The options of the copy.
+	 * @param dialect          The dialect of the source database.
+	 * @param statementBuilder A reference to a statement builder.
+	 * @return The selection of the records or null if all records of the table are to copy.
+	 */
+	static SourceFilter create(
+		DBTable table,
+		DBColumn integralKey,
+		CopyOptions options,
+		Dialect dialect,
+		StatementBuilder statementBuilder
+	) {
+		List<String> conditions = new ArrayList<>();
+		String sampleClause = null;
+		double percent = options.getSamplePercent(table.getName());
+		if ((percent > 0) && (percent < 100)) {
+			sampleClause = statementBuilder.createTableSampleString(percent, dialect);
+			if ((sampleClause == null) && (integralKey != null)) {
+				long buckets = Math.max(1, Math.round(percent * SAMPLE_BUCKETS / 100));
+				conditions.add("MOD(ABS(" + integralKey.getName() + "), " + SAMPLE_BUCKETS + ") < " + buckets);
+			} else if (sampleClause == null) {
+				log.warn("table " + table.getName() + " is not sampled (no table sampling and no integral key).");
+			}
+		}
+		String filter = options.getTableFilter(table.getName());
+		if (filter != null) {
+			conditions.add("(" + filter + ")");
+		}
+		if ((sampleClause == null) && conditions.isEmpty()) {
+			return null;
+		}
+		return new SourceFilter(
+			statementBuilder,
+			table.getName(),
+			sampleClause,
+			conditions.isEmpty() ? null : String.join(" AND ", conditions)
+		);
+	}
+
+	/**
+	 * Returns the selection of the records of the passed table.
+	 *
+	 * @param tableName The name of the table (as it is accessible from the connection which reads the records).
+	 * @return A derived table with the selected records which could be used instead of the table name.
+	 */
+	String apply(String tableName) {
+		return statementBuilder.createFilteredTableString(tableName, sampleClause, condition);
+	}
+
+	/**
+	 * Returns the selection of the records of the source table.
+	 *
+	 * @return A derived table with the selected records of the source table.
+	 */
+	String getSourceTableName() {
+		return sourceTableName;
+	}
+
+	/**
+	 * Returns "true" if the selection contains a table sample (which is read by a scan of the whole table).
+	 *
+	 * @return "true" if the selection contains a table sample.
+	 */
+	boolean isTableSample() {
+		return sampleClause != null;
+	}
+
+	/**
+	 * Returns "true" if the selection consists of a table sample only (the record count of the selection could be
+	 * estimated by the record count of the table).
+	 *
+	 * @return "true" if the selection consists of a table sample only.
+	 */
+	boolean isTableSampleOnly() {
+		return (sampleClause != null) && (condition == null);
+	}
+}
@@ -0,0 +1,137 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.utils.Dialect;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * A class which creates the statements for reading the source data. In streaming mode the statements are forward only
+ * and read only cursors which are configured for the driver of the connection to keep the heap usage flat:
+ * <ul>
+ * <li>PostgreSQL: The connection is switched to manual commit while the reader is open, because the driver fetches
+ * the rows by a cursor only in a transaction.</li>
+ * <li>MySQL: The fetch size is set to Integer.MIN_VALUE which makes the driver stream the result row by row.</li>
+ * <li>Others: The fetch size is set to the configured value.</li>
+ * </ul>
+ * If the source reads are throttled, the statements are wrapped by the throttle of the options.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class SourceReader implements AutoCloseable {
+
+	private final Connection connection;
+	private final Dialect dialect;
+	private final boolean streaming;
+	private final boolean autoCommit;
+	private final boolean transactionStarted;
+	private final SourceThrottle throttle;
+	private final String tableName;
+
+	private int fetchSize;
+
+	SourceReader(Connection connection, CopyOptions options) throws SQLException {
+		this(connection, options, null);
+	}
+
+	/**
+	 * Creates a new source reader.
+	 *
+	 * @param connection The connection to read the data from.
+	 * @param options    The options of the copy.
+	 * @param tableName  The name of the table which is read (for the table limits of the throttle) or null.
+	 * @throws SQLException If an error occurs while configuring the connection.
+	 */
+	SourceReader(Connection connection, CopyOptions options, String tableName) throws SQLException {
+		this.connection = connection;
+		this.throttle = options.getSourceThrottle().isActive() ? options.getSourceThrottle() : null;
+		this.tableName = tableName;
+		this.dialect = Dialect.of(connection);
+		this.streaming = options.isStreaming();
+		this.fetchSize = Math.max(1, options.getFetchSize());
+		this.autoCommit = connection.getAutoCommit();
+		this.transactionStarted = streaming && (dialect == Dialect.POSTGRESQL) && autoCommit;
+		if (transactionStarted) {
+			connection.setAutoCommit(false);
+		}
+	}
+
+	Connection getConnection() {
+		return connection;
+	}
+
+	Dialect getDialect() {
+		return dialect;
+	}
+
+	/**
+	 * Creates a statement for reading source data.
+	 *
+	 * @return A statement for reading source data.
+	 * @throws SQLException If an error occurs while creating the statement.
+	 */
+	Statement createStatement() throws SQLException {
+		if (!streaming) {
+			return throttle(connection.createStatement(), Statement.class);
+		}
+		return throttle(
+			configure(connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)),
+			Statement.class
+		);
+	}
+
+	/**
+	 * Creates a prepared statement for reading source data.
+	 *
+	 * @param sql The SQL statement to prepare.
+	 * @return A prepared statement for reading source data.
+	 * @throws SQLException If an error occurs while preparing the statement.
+	 */
+	PreparedStatement prepareStatement(String sql) throws SQLException {
+		if (!streaming) {
+			return throttle(connection.prepareStatement(sql), PreparedStatement.class);
+		}
+		return throttle(
+			configure(connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)),
+			PreparedStatement.class
+		);
+	}
+
+	private <T extends Statement> T throttle(T statement, Class<T> type) {
+		return throttle != null ? throttle.wrap(statement, type, tableName) : statement;
+	}
+
+	/**
+	 * Changes the fetch size of the passed result set of a streaming cursor (ignored for MySQL which is streaming row by
+	 * row).
+	 *
+	 * @param rs        The result set whose fetch size is to change.
+	 * @param fetchSize The new fetch size.
+	 * @throws SQLException If an error occurs while setting the fetch size.
+	 */
+	void adjustFetchSize(ResultSet rs, int fetchSize) throws SQLException {
+		if (streaming && (dialect != Dialect.MYSQL) && (rs.getFetchSize() != fetchSize)) {
+			rs.setFetchSize(fetchSize);
+		}
+	}
+
+	private <T extends Statement> T configure(T statement) throws SQLException {
+		statement.setFetchDirection(ResultSet.FETCH_FORWARD);
+		statement.setFetchSize(dialect == Dialect.MYSQL ? Integer.MIN_VALUE : fetchSize);
+		return statement;
+	}
+
+	@Override
+	public void close() throws SQLException {
+		if (transactionStarted) {
+			try {
+				connection.commit();
+			} finally {
+				connection.setAutoCommit(autoCommit);
+			}
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.connections.ConnectionFactory;
+import de.ollie.dbtools.utils.Dialect;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * A consistent snapshot of the source database which is shared by all source connections of a copy:
+ * <ul>
+ * <li>PostgreSQL: The snapshot of a read only repeatable read transaction of the main connection is exported by
+ * pg_export_snapshot() and imported by the other connections by SET TRANSACTION SNAPSHOT.</li>
+ * <li>Oracle: All connections are reading by a session flashback at the system change number of the start of the
+ * copy.</li>
+ * <li>Others: The main connection reads in a repeatable read (MySQL) or serializable transaction. The snapshot can not
+ * be shared, so there are no other source connections and the tables are read one after the other.</li>
+ * </ul>
+ * The connections to replicas are not used, because the snapshot is taken from the primary database.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class SourceSnapshot implements AutoCloseable {
+
+	private final Connection connection;
+	private final Dialect dialect;
+	private final ConnectionFactory connectionFactory;
+	private final boolean autoCommit;
+	private final int transactionIsolation;
+
+	private String snapshotId = null;
+	private long scn = 0;
+
+	private SourceSnapshot(Connection connection, Dialect dialect, ConnectionFactory connectionFactory)
+		throws SQLException {
+		this.connection = connection;
+		this.dialect = dialect;
+		this.connectionFactory = connectionFactory;
+		this.autoCommit = connection.getAutoCommit();
+		this.transactionIsolation = connection.getTransactionIsolation();
+	}
+
+	/**
+	 * Takes a snapshot on the passed connection.
+	 *
+	 * @param connection        The main connection to the source database which reads in the snapshot from now on.
+	 * @param connectionFactory A factory for additional source connections or null.
+	 * @return The snapshot of the source database.
+	 * @throws SQLException If an error occurs while taking the snapshot.
+	 */
+	static SourceSnapshot begin(Connection connection, ConnectionFactory connectionFactory) throws SQLException {
+		SourceSnapshot snapshot = new SourceSnapshot(connection, Dialect.of(connection), connectionFactory);
+		snapshot.begin();
+		return snapshot;
+	}
+
+	private void begin() throws SQLException {
+		if (dialect == Dialect.POSTGRESQL) {
+			connection.setAutoCommit(false);
+			execute(connection, "SET TRANSACTION ISOLATION LEVEL REPEATABLE READ, READ ONLY");
+			snapshotId = query("SELECT pg_export_snapshot()").toString();
+			System.out.println("consistent snapshot: " + snapshotId + " exported.");
+		} else if (dialect == Dialect.ORACLE) {
+			scn = ((Number) query("SELECT DBMS_FLASHBACK.GET_SYSTEM_CHANGE_NUMBER FROM DUAL")).longValue();
+			join(connection);
+			System.out.println("consistent snapshot: reading as of SCN " + scn + ".");
+		} else {
+			connection.setAutoCommit(false);
+			if (dialect == Dialect.MYSQL) {
+				connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+				execute(connection, "START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY");
+			} else {
+				connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+			}
+			System.out.println(
+				"consistent snapshot: reading in one transaction" +
+				(connectionFactory != null ? " - the tables are read one after the other." : ".")
+			);
+		}
+	}
+
+	/**
+	 * Returns true if the snapshot can be shared by other connections.
+	 *
+	 * @return true if the snapshot can be shared by other connections.
+	 */
+	boolean isShared() {
+		return (dialect == Dialect.POSTGRESQL) || (dialect == Dialect.ORACLE);
+	}
+
+	/**
+	 * Returns a factory for source connections which are reading in the snapshot.
+	 *
+	 * @return A factory for source connections which are reading in the snapshot or null if the snapshot can not be
+	 *         shared (or no connection factory is passed).
+	 */
+	ConnectionFactory getConnectionFactory() {
+		if (!isShared() || (connectionFactory == null)) {
+			return null;
+		}
+		return () -> {
+			Connection c = connectionFactory.createPrimaryConnection();
+			try {
+				join(c);
+			} catch (SQLException | RuntimeException e) {
+				c.close();
+				throw e;
+			}
+			return c;
+		};
+	}
+
+	private void join(Connection c) throws SQLException {
+		if (dialect == Dialect.POSTGRESQL) {
+			c.setAutoCommit(false);
+			execute(c, "SET TRANSACTION ISOLATION LEVEL REPEATABLE READ, READ ONLY");
+			execute(c, "SET TRANSACTION SNAPSHOT '" + snapshotId + "'");
+		} else {
+			try (
+				CallableStatement statement = c.prepareCall("BEGIN DBMS_FLASHBACK.ENABLE_AT_SYSTEM_CHANGE_NUMBER(?); END;")
+			) {
+				statement.setLong(1, scn);
+				statement.execute();
+			}
+		}
+	}
+
+	private Object query(String sql) throws SQLException {
+		try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+			rs.next();
+			return rs.getObject(1);
+		}
+	}
+
+	private void execute(Connection c, String sql) throws SQLException {
+		try (Statement statement = c.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+
+	@Override
+	public void close() throws SQLException {
+		if (dialect == Dialect.ORACLE) {
+			execute(connection, "BEGIN DBMS_FLASHBACK.DISABLE; END;");
+			return;
+		}
+		try {
+			connection.commit();
+		} finally {
+			connection.setAutoCommit(autoCommit);
+			if (connection.getTransactionIsolation() != transactionIsolation) {
+				connection.setTransactionIsolation(transactionIsolation);
+			}
+		}
+	}
+}
@@ -0,0 +1,528 @@
+package de.ollie.dbtools.copier;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.experimental.Delegate;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A throttle for the reads of the source database. The rows and the bytes which are read are limited by token buckets
+ * (globally and per table) and a latency guard backs off if the fetches of the source database take longer than the
+ * configured maximum latency. The limits are taken from the copy options when the throttle is created and are held by
+ * the throttle. If a throttle file is set, the limits are reloaded from this properties file after each change (the
+ * file is checked once in {@value #FILE_CHECK_INTERVAL_MILLIS} ms):
+ *
+ * <pre>
+ * rowsPerSecond=10000
+ * bytesPerSecond=5000000
+ * maxSourceLatencyMillis=500
+ * table.ORDERS.rowsPerSecond=1000
+ * table.ORDERS.bytesPerSecond=1000000
+ * </pre>
+ *
+ * The throttle wraps the statements of the source readers. The bytes of a row are estimated by the values which are
+ * read from the result set by column index (LOB streams are not counted). The rates of a table are cached with its
+ * buckets, so the readers of different tables only share the global buckets if global limits are set.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class SourceThrottle {
+
+	static Logger log = LogManager.getLogger(SourceThrottle.class);
+
+	static final long FILE_CHECK_INTERVAL_MILLIS = 1000;
+	static final long MAX_BACKOFF_MILLIS = 30000;
+
+	private static final long FIXED_SIZE = 8;
+
+	private static final String TABLE_PREFIX = "table.";
+	private static final String ROWS_PER_SECOND = "rowsPerSecond";
+	private static final String BYTES_PER_SECOND = "bytesPerSecond";
+	private static final String MAX_SOURCE_LATENCY_MILLIS = "maxSourceLatencyMillis";
+
+	/**
+	 * The limits of the throttle (a value less than one means no limit). Changed limits are replaced as a whole.
+	 */
+	static final class Limits {
+
+		private final long rowsPerSecond;
+		private final long bytesPerSecond;
+		private final long maxSourceLatencyMillis;
+		private final Map<String, Long> tableRowsPerSecond = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		private final Map<String, Long> tableBytesPerSecond = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+		Limits(
+			long rowsPerSecond,
+			long bytesPerSecond,
+			long maxSourceLatencyMillis,
+			Map<String, Long> tableRowsPerSecond,
+			Map<String, Long> tableBytesPerSecond
+		) {
+			this.rowsPerSecond = rowsPerSecond;
+			this.bytesPerSecond = bytesPerSecond;
+			this.maxSourceLatencyMillis = maxSourceLatencyMillis;
+			this.tableRowsPerSecond.putAll(tableRowsPerSecond);
+			this.tableBytesPerSecond.putAll(tableBytesPerSecond);
+		}
+
+		long getRowsPerSecond() {
+			return rowsPerSecond;
+		}
+
+		long getBytesPerSecond() {
+			return bytesPerSecond;
+		}
+
+		long getMaxSourceLatencyMillis() {
+			return maxSourceLatencyMillis;
+		}
+
+		long getRowsPerSecond(String tableName) {
+			return tableRowsPerSecond.getOrDefault(tableName, 0L);
+		}
+
+		long getBytesPerSecond(String tableName) {
+			return tableBytesPerSecond.getOrDefault(tableName, 0L);
+		}
+	}
+
+	/**
+	 * The rates of a table which are resolved from the limits.
+	 */
+	private static final class TableRates {
+
+		private final Limits limits;
+		private final long rowsPerSecond;
+		private final long bytesPerSecond;
+
+		TableRates(Limits limits, String tableName) {
+			this.limits = limits;
+			this.rowsPerSecond = limits.getRowsPerSecond(tableName);
+			this.bytesPerSecond = limits.getBytesPerSecond(tableName);
+		}
+	}
+
+	/**
+	 * The buckets of a table with the rates of the table which are resolved once per limits.
+	 */
+	private static final class TableBuckets {
+
+		private final String tableName;
+		private final TokenBucket rows = new TokenBucket();
+		private final TokenBucket bytes = new TokenBucket();
+
+		private volatile TableRates rates = null;
+
+		TableBuckets(String tableName) {
+			this.tableName = tableName;
+		}
+
+		TableRates getRates(Limits limits) {
+			TableRates cached = rates;
+			if ((cached == null) || (cached.limits != limits)) {
+				cached = new TableRates(limits, tableName);
+				rates = cached;
+			}
+			return cached;
+		}
+	}
+
+	private final CopyOptions options;
+	private final TokenBucket rows = new TokenBucket();
+	private final TokenBucket bytes = new TokenBucket();
+	private final Map<String, TableBuckets> tableBuckets = new ConcurrentHashMap<>();
+
+	private volatile Limits limits;
+	private volatile long nextFileCheck = 0;
+
+	private long backoffMillis = 0;
+	private long fileModifiedAt = 0;
+
+	SourceThrottle(CopyOptions options) {
+		this.options = options;
+		this.limits =
+			new Limits(
+				options.getMaxRowsPerSecond(),
+				options.getMaxBytesPerSecond(),
+				options.getMaxSourceLatencyMillis(),
+				options.getTableRowsPerSecond(),
+				options.getTableBytesPerSecond()
+			);
+	}
+
+	/**
+	 * Returns the current limits of the throttle.
+	 *
+	 * @return The current limits of the throttle.
+	 */
+	Limits getLimits() {
+		return limits;
+	}
+
+	/**
+	 * Returns true if the reads are to throttle (a limit or a throttle file is set).
+	 *
+	 * @return true if the reads are to throttle.
+	 */
+	boolean isActive() {
+		return (
+			(options.getMaxRowsPerSecond() > 0) ||
+			(options.getMaxBytesPerSecond() > 0) ||
+			!options.getTableRowsPerSecond().isEmpty() ||
+			!options.getTableBytesPerSecond().isEmpty() ||
+			(options.getMaxSourceLatencyMillis() > 0) ||
+			(options.getThrottleFile() != null)
+		);
+	}
+
+	/**
+	 * Wraps the passed statement, so the result sets of its queries are throttled.
+	 *
+	 * @param statement The statement to wrap.
+	 * @param type      The interface of the statement.
+	 * @param tableName The name of the table which is read by the statement or null if only the global limits are to
+	 *                  respect.
+	 * @return The wrapped statement.
+	 */
+	<T extends Statement> T wrap(T statement, Class<T> type, String tableName) {
+		return type.cast(
+			Proxy.newProxyInstance(
+				type.getClassLoader(),
+				new Class<?>[] { type },
+				(proxy, method, args) -> {
+					Object result = invoke(statement, method, args);
+					return result instanceof ResultSet rs ? wrap(rs, tableName) : result;
+				}
+			)
+		);
+	}
+
+	/**
+	 * Wraps the passed result set, so its rows are read by the limits of the throttle.
+	 *
+	 * @param rs        The result set to wrap.
+	 * @param tableName The name of the table which is read or null if only the global limits are to respect.
+	 * @return The wrapped result set.
+	 */
+	ResultSet wrap(ResultSet rs, String tableName) {
+		return new ThrottledResultSet(
+			rs,
+			tableName != null ? tableBuckets.computeIfAbsent(tableName.toUpperCase(), TableBuckets::new) : null
+		);
+	}
+
+	private Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	static long sizeOf(Object value) {
+		if ((value == null) || (value instanceof InputStream) || (value instanceof Reader)) {
+			return 0;
+		} else if (value instanceof String s) {
+			return s.length();
+		} else if (value instanceof byte[] b) {
+			return b.length;
+		} else if (value instanceof BigDecimal d) {
+			return (d.unscaledValue().bitLength() / 8) + 1;
+		}
+		return FIXED_SIZE;
+	}
+
+	/**
+	 * Takes the passed rows and bytes from the global buckets and the buckets of the passed table and waits until they
+	 * are available.
+	 *
+	 * @param tableName The name of the table which is read or null if only the global limits are to respect.
+	 * @param rowCount  The number of rows which are read.
+	 * @param byteCount The number of bytes which are read.
+	 * @throws SQLException If the thread is interrupted while waiting.
+	 */
+	void acquire(String tableName, long rowCount, long byteCount) throws SQLException {
+		acquire(
+			tableName != null ? tableBuckets.computeIfAbsent(tableName.toUpperCase(), TableBuckets::new) : null,
+			rowCount,
+			byteCount
+		);
+	}
+
+	private void acquire(TableBuckets buckets, long rowCount, long byteCount) throws SQLException {
+		reloadIfChanged();
+		if ((rowCount == 0) && (byteCount == 0)) {
+			return;
+		}
+		Limits current = limits;
+		long waitNanos = Math.max(
+			reserve(rows, rowCount, current.getRowsPerSecond()),
+			reserve(bytes, byteCount, current.getBytesPerSecond())
+		);
+		if (buckets != null) {
+			TableRates rates = buckets.getRates(current);
+			waitNanos =
+				Math.max(
+					waitNanos,
+					Math.max(
+						reserve(buckets.rows, rowCount, rates.rowsPerSecond),
+						reserve(buckets.bytes, byteCount, rates.bytesPerSecond)
+					)
+				);
+		}
+		sleep(TimeUnit.NANOSECONDS.toMillis(waitNanos));
+	}
+
+	/**
+	 * Reserves the permits of the bucket if a rate is set (so the readers do not share the monitors of the buckets
+	 * without limits).
+	 */
+	private long reserve(TokenBucket bucket, long permits, long rate) {
+		return rate > 0 ? bucket.reserve(permits, rate) : 0;
+	}
+
+	/**
+	 * Notes the duration of a read from the source. A read which takes at least a millisecond is considered as a fetch
+	 * from the database: If it takes longer than the maximum source latency, the reader backs off for the latency (or
+	 * twice the last back off time) up to a maximum. Fast fetches are halving the back off time.
+	 *
+	 * @param nanos The duration of the read in nanoseconds.
+	 * @throws SQLException If the thread is interrupted while backing off.
+	 */
+	void fetched(long nanos) throws SQLException {
+		long maxLatencyMillis = limits.getMaxSourceLatencyMillis();
+		long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+		if ((maxLatencyMillis < 1) || (millis < 1)) {
+			return;
+		}
+		long backoff;
+		synchronized (this) {
+			backoffMillis = millis > maxLatencyMillis
+				? Math.min(MAX_BACKOFF_MILLIS, Math.max(millis, backoffMillis * 2))
+				: backoffMillis / 2;
+			backoff = millis > maxLatencyMillis ? backoffMillis : 0;
+		}
+		if (backoff > 0) {
+			log.info("source latency " + millis + " ms exceeds " + maxLatencyMillis + " ms - backing off " + backoff + " ms");
+			sleep(backoff);
+		}
+	}
+
+	synchronized long getBackoffMillis() {
+		return backoffMillis;
+	}
+
+	private void sleep(long millis) throws SQLException {
+		if (millis < 1) {
+			return;
+		}
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("interrupted while throttling the source reads", e);
+		}
+	}
+
+	/**
+	 * Reloads the limits from the throttle file if it has been changed (checked once in the check interval). The time
+	 * of the next check is read without a lock, so only the reader which checks the file is synchronized.
+	 */
+	void reloadIfChanged() {
+		String throttleFile = options.getThrottleFile();
+		if ((throttleFile == null) || (System.currentTimeMillis() < nextFileCheck)) {
+			return;
+		}
+		synchronized (this) {
+			long now = System.currentTimeMillis();
+			if (now < nextFileCheck) {
+				return;
+			}
+			nextFileCheck = now + FILE_CHECK_INTERVAL_MILLIS;
+			load(throttleFile);
+		}
+	}
+
+	private void load(String throttleFile) {
+		Path path = Path.of(throttleFile);
+		try {
+			if (!Files.exists(path) || (Files.getLastModifiedTime(path).toMillis() == fileModifiedAt)) {
+				return;
+			}
+			fileModifiedAt = Files.getLastModifiedTime(path).toMillis();
+			Properties properties = new Properties();
+			try (Reader reader = Files.newBufferedReader(path)) {
+				properties.load(reader);
+			}
+			limits = apply(properties, limits);
+			System.out.println("throttle limits loaded from: " + throttleFile + " " + properties);
+		} catch (Exception e) {
+			log.warn("throttle file could not be read: " + throttleFile + " - " + e.getMessage());
+		}
+	}
+
+	private Limits apply(Properties properties, Limits current) {
+		long rowsPerSecond = current.getRowsPerSecond();
+		long bytesPerSecond = current.getBytesPerSecond();
+		long maxSourceLatencyMillis = current.getMaxSourceLatencyMillis();
+		Map<String, Long> tableRowsPerSecond = new HashMap<>(current.tableRowsPerSecond);
+		Map<String, Long> tableBytesPerSecond = new HashMap<>(current.tableBytesPerSecond);
+		for (String key : properties.stringPropertyNames()) {
+			long value = Long.parseLong(properties.getProperty(key).trim());
+			if (key.equals(ROWS_PER_SECOND)) {
+				rowsPerSecond = value;
+			} else if (key.equals(BYTES_PER_SECOND)) {
+				bytesPerSecond = value;
+			} else if (key.equals(MAX_SOURCE_LATENCY_MILLIS)) {
+				maxSourceLatencyMillis = value;
+			} else if (key.startsWith(TABLE_PREFIX) && key.endsWith("." + ROWS_PER_SECOND)) {
+				tableRowsPerSecond.put(getTableName(key, ROWS_PER_SECOND), value);
+			} else if (key.startsWith(TABLE_PREFIX) && key.endsWith("." + BYTES_PER_SECOND)) {
+				tableBytesPerSecond.put(getTableName(key, BYTES_PER_SECOND), value);
+			} else {
+				log.warn("unknown throttle property ignored: " + key);
+			}
+		}
+		return new Limits(rowsPerSecond, bytesPerSecond, maxSourceLatencyMillis, tableRowsPerSecond, tableBytesPerSecond);
+	}
+
+	private String getTableName(String key, String suffix) {
+		return key.substring(TABLE_PREFIX.length(), key.length() - suffix.length() - 1);
+	}
+
+	/**
+	 * The methods of the result set which are intercepted by the throttle.
+	 */
+	private interface Intercepted {
+		boolean next() throws SQLException;
+
+		String getString(int columnIndex) throws SQLException;
+
+		byte[] getBytes(int columnIndex) throws SQLException;
+
+		BigDecimal getBigDecimal(int columnIndex) throws SQLException;
+
+		Object getObject(int columnIndex) throws SQLException;
+
+		boolean getBoolean(int columnIndex) throws SQLException;
+
+		int getInt(int columnIndex) throws SQLException;
+
+		long getLong(int columnIndex) throws SQLException;
+
+		double getDouble(int columnIndex) throws SQLException;
+
+		Date getDate(int columnIndex) throws SQLException;
+
+		Timestamp getTimestamp(int columnIndex) throws SQLException;
+	}
+
+	/**
+	 * A result set which acquires the row and the bytes of the previous row before the next row is fetched. All other
+	 * methods are delegated to the wrapped result set.
+	 */
+	private final class ThrottledResultSet implements ResultSet {
+
+		@Delegate(types = ResultSet.class, excludes = Intercepted.class)
+		private final ResultSet rs;
+
+		private final TableBuckets buckets;
+
+		private long pendingRows = 0;
+		private long pendingBytes = 0;
+
+		ThrottledResultSet(ResultSet rs, TableBuckets buckets) {
+			this.rs = rs;
+			this.buckets = buckets;
+		}
+
+		@Override
+		public boolean next() throws SQLException {
+			acquire(buckets, pendingRows, pendingBytes);
+			long start = System.nanoTime();
+			boolean result = rs.next();
+			fetched(System.nanoTime() - start);
+			pendingRows = result ? 1 : 0;
+			pendingBytes = 0;
+			return result;
+		}
+
+		private <T> T count(T value) {
+			pendingBytes += sizeOf(value);
+			return value;
+		}
+
+		@Override
+		public String getString(int columnIndex) throws SQLException {
+			return count(rs.getString(columnIndex));
+		}
+
+		@Override
+		public byte[] getBytes(int columnIndex) throws SQLException {
+			return count(rs.getBytes(columnIndex));
+		}
+
+		@Override
+		public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+			return count(rs.getBigDecimal(columnIndex));
+		}
+
+		@Override
+		public Object getObject(int columnIndex) throws SQLException {
+			return count(rs.getObject(columnIndex));
+		}
+
+		@Override
+		public boolean getBoolean(int columnIndex) throws SQLException {
+			pendingBytes += FIXED_SIZE;
+			return rs.getBoolean(columnIndex);
+		}
+
+		@Override
+		public int getInt(int columnIndex) throws SQLException {
+			pendingBytes += FIXED_SIZE;
+			return rs.getInt(columnIndex);
+		}
+
+		@Override
+		public long getLong(int columnIndex) throws SQLException {
+			pendingBytes += FIXED_SIZE;
+			return rs.getLong(columnIndex);
+		}
+
+		@Override
+		public double getDouble(int columnIndex) throws SQLException {
+			pendingBytes += FIXED_SIZE;
+			return rs.getDouble(columnIndex);
+		}
+
+		@Override
+		public Date getDate(int columnIndex) throws SQLException {
+			return count(rs.getDate(columnIndex));
+		}
+
+		@Override
+		public Timestamp getTimestamp(int columnIndex) throws SQLException {
+			return count(rs.getTimestamp(columnIndex));
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.utils.StatementBuilder;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A class which copies the data of a table in two phases over a local spool: The records are streamed from the source
+ * into local spool files as fast as the source delivers them. Then the cursor and the read transaction of the
+ * source are closed. After that the target is loaded from the spool at its own pace while the spool files are deleted
+ * segment by segment.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class SpoolTableCopier {
+
+	static Logger log = LogManager.getLogger(SpoolTableCopier.class);
+
+	private final StatementBuilder statementBuilder;
+	private final CopyOptions options;
+	private final DeadLetterWriter deadLetters;
+
+	SpoolTableCopier(StatementBuilder statementBuilder, CopyOptions options, DeadLetterWriter deadLetters) {
+		this.statementBuilder = statementBuilder;
+		this.options = options;
+		this.deadLetters = deadLetters;
+	}
+
+	/**
+	 * Checks if the records of the passed table could be spooled (not for tables with LOB columns or columns of
+	 * unknown types).
+	 *
+	 * @param table The table to check.
+	 * @return "true" if the records of the table could be spooled.
+	 */
+	static boolean isSpoolable(DBTable table) {
+		return TransferPlan.compile(table).isEncodable();
+	}
+
+	/**
+	 * Copies the data of the table of the passed task over a spool.
+	 *
+	 * @param task             The task with the table to copy.
+	 * @param sourceConnection The connection to read the data from.
+	 * @param targetConnection The connection to write the data to.
+	 * @return The number of copied records.
+	 * @throws Exception If an error occurs while copying the data.
+	 */
+	long copy(TableCopyTask task, Connection sourceConnection, Connection targetConnection) throws Exception {
+		DBTable table = task.getTable();
+		String tableName = task.getTargetTableName();
+		TransferPlan plan = TransferPlan.compile(table);
+		System.out.println("copying: " + tableName + " with " + task.getRecordCount() + " record(s) over a spool started.");
+		long start = System.currentTimeMillis();
+		try (RowSpool spool = new RowSpool(getSpoolDirectory(), table.getName(), plan, RowSpool.SEGMENT_SIZE)) {
+			try (
+				SourceReader reader = new SourceReader(sourceConnection, options, table.getName());
+				Statement statement = reader.createStatement();
+				ResultSet rs = statement.executeQuery(statementBuilder.createSelectStatementString(task.getSourceTable()))
+			) {
+				while (rs.next()) {
+					spool.write(rs);
+				}
+			}
+			long spooled = spool.getRecordCount();
+			System.out.println(
+				"copying: " +
+				tableName +
+				" " +
+				spooled +
+				" record(s) spooled in " +
+				spool.getSegmentCount() +
+				" segment(s) (" +
+				(System.currentTimeMillis() - start) +
+				" ms) - source released."
+			);
+			String insert = BatchWriter.createWriteStatementString(statementBuilder, task, options, targetConnection);
+			AtomicLong loaded = new AtomicLong();
+			try (BatchWriter writer = new BatchWriter(targetConnection, insert, options, table, plan, deadLetters)) {
+				writer.setKeyFilter(task.getKeyFilter());
+				spool.read((batch, row) -> {
+					writer.addRecord(batch, row);
+					if (loaded.incrementAndGet() % options.getEffectiveBatchSize() == 0) {
+						log.info("loaded " + loaded.get() + " of " + spooled + " spooled record(s) for table: " + tableName);
+					}
+				});
+			}
+			long current = loaded.get();
+			long millis = Math.max(1, System.currentTimeMillis() - start);
+			System.out.println(
+				"copying: " +
+				tableName +
+				" ready (" +
+				current +
+				" record(s) in " +
+				millis +
+				" ms, " +
+				(current * 1000 / millis) +
+				" records/s)."
+			);
+			return current;
+		}
+	}
+
+	private Path getSpoolDirectory() {
+		return Path.of(
+			options.getSpoolDirectory() != null ? options.getSpoolDirectory() : System.getProperty("java.io.tmpdir")
+		);
+	}
+}
@@ -0,0 +1,61 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.modelreader.DBColumn;
+import lombok.Getter;
+
+/**
+ * The checkpoint of a table which is copied in the order of its key. The key of the last record which has been added
+ * to the writer is noted and stored in the copy state when the writer commits. A resumed copy continues after the
+ * stored key.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class TableCheckpoint {
+
+	private final CopyState state;
+	private final String tableName;
+
+	@Getter
+	private final DBColumn keyColumn;
+
+	@Getter
+	private final Object resumeKey;
+
+	private Object pendingKey;
+
+	/**
+	 * Creates a new checkpoint for the passed table.
+	 *
+	 * @param state     The state to store the checkpoint in.
+	 * @param tableName The name of the table.
+	 * @param keyColumn The key column which defines the order of the records.
+	 * @param resumeKey The key of the last committed record of the previous run or null if the copy starts from the
+	 *                  beginning.
+	 */
+	TableCheckpoint(CopyState state, String tableName, DBColumn keyColumn, Object resumeKey) {
+		this.state = state;
+		this.tableName = tableName;
+		this.keyColumn = keyColumn;
+		this.resumeKey = resumeKey;
+	}
+
+	/**
+	 * Notes the key of the record which is added to the writer next.
+	 *
+	 * @param key The key of the record.
+	 */
+	void setPendingKey(Object key) {
+		this.pendingKey = key;
+	}
+
+	/**
+	 * Stores the key of the last added record in the state. Called after the writer has committed.
+	 */
+	void committed() {
+		if (pendingKey != null) {
+			state.setCheckpoint(tableName, CopyState.encode(pendingKey));
+			state.saveThrottled();
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.utils.StatementBuilder;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A class which copies the data of a single table from a source connection to a target connection.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class TableCopier {
+
+	static Logger log = LogManager.getLogger(TableCopier.class);
+
+	private final StatementBuilder statementBuilder;
+	private final CopyOptions options;
+	private final boolean printProgress;
+	private final DeadLetterWriter deadLetters;
+
+	/**
+	 * Creates a new table copier with the passed parameters.
+	 *
+	 * @param statementBuilder A reference to a statement builder.
+	 * @param options          The options of the copy.
+	 * @param printProgress    Set this flag to print progress dots to the console (should be unset if more than one
+	 *                         table is copied at the same time).
+	 * @param deadLetters      A writer for the records which could not be written or null if a failing record is to
+	 *                         fail the copy.
+	 */
+	TableCopier(
+		StatementBuilder statementBuilder,
+		CopyOptions options,
+		boolean printProgress,
+		DeadLetterWriter deadLetters
+	) {
+		this.statementBuilder = statementBuilder;
+		this.options = options;
+		this.printProgress = printProgress;
+		this.deadLetters = deadLetters;
+	}
+
+	/**
+	 * Copies the data of the table of the passed task.
+	 *
+	 * @param task             The task with the table to copy.
+	 * @param sourceConnection The connection to read the data from.
+	 * @param targetConnection The connection to write the data to.
+	 * @param checkpoint       A checkpoint which is to note the key of the last committed record or null if no
+	 *                         checkpoints are to write. If set, the records are read in the order of the key starting
+	 *                         after the resume key of the checkpoint.
+	 * @return The number of copied records.
+	 * @throws Exception If an error occurs while copying the data.
+	 */
+	long copy(
+		TableCopyTask task,
+		Connection sourceConnection,
+		Connection targetConnection,
+		TableCheckpoint checkpoint
+	) throws Exception {
+		DBTable table = task.getTable();
+		String tableName = task.getTargetTableName();
+		String select = checkpoint == null
+			? statementBuilder.createSelectStatementString(task.getSourceTable())
+			: statementBuilder.createOrderedSelectStatementString(
+				task.getSourceTable(),
+				checkpoint.getKeyColumn(),
+				checkpoint.getResumeKey() != null
+			);
+		String insert = BatchWriter.createWriteStatementString(statementBuilder, task, options, targetConnection);
+		long count = task.getRecordCount();
+		String resumed = (checkpoint != null) && (checkpoint.getResumeKey() != null)
+			? " (resumed after key " + checkpoint.getResumeKey() + ")"
+			: "";
+		if (printProgress) {
+			System.out.print("copying: " + tableName + " with " + count + " record(s)" + resumed + " ");
+		} else {
+			System.out.println("copying: " + tableName + " with " + count + " record(s)" + resumed + " started.");
+		}
+		TransferPlan plan = TransferPlan.compile(table);
+		int keyIndex = checkpoint != null ? table.getColumns().indexOf(checkpoint.getKeyColumn()) : -1;
+		AdaptiveController controller = AdaptiveController.create(tableName, options, 1);
+		long start = System.currentTimeMillis();
+		long current = 0;
+		try (
+			SourceReader reader = new SourceReader(sourceConnection, options, table.getName());
+			PreparedStatement sourceStatement = reader.prepareStatement(select);
+			BatchWriter writer = new BatchWriter(targetConnection, insert, options, table, plan, deadLetters)
+		) {
+			writer.setController(controller);
+			writer.setKeyFilter(task.getKeyFilter());
+			if (checkpoint != null) {
+				writer.setCommitListener(checkpoint::committed);
+				if (checkpoint.getResumeKey() != null) {
+					sourceStatement.setObject(1, checkpoint.getResumeKey());
+				}
+			}
+			try (ResultSet rs = sourceStatement.executeQuery()) {
+				if (options.isPipelined()) {
+					current =
+						new RowPipeline(
+							options.getPipelineBuffers(),
+							options.getEffectiveBatchSize(),
+							plan,
+							options.isVirtualThreads()
+						)
+							.withCheckpoint(checkpoint, keyIndex)
+							.withBufferPool(BufferPool.of(options))
+							.run(rs, writer, copied -> reportProgress(task, copied));
+				} else {
+					while (rs.next()) {
+						if (checkpoint != null) {
+							checkpoint.setPendingKey(rs.getObject(keyIndex + 1));
+						}
+						writer.addRecord(rs);
+						current++;
+						if (current % options.getEffectiveBatchSize() == 0) {
+							reportProgress(task, current);
+							if (controller != null) {
+								reader.adjustFetchSize(rs, controller.getFetchSize());
+							}
+						}
+					}
+				}
+			}
+		}
+		long millis = Math.max(1, System.currentTimeMillis() - start);
+		String summary = current + " record(s) in " + millis + " ms, " + (current * 1000 / millis) + " records/s";
+		if (printProgress) {
+			System.out.println(" ready (" + summary + ").");
+		} else {
+			System.out.println("copying: " + tableName + " ready (" + summary + ").");
+		}
+		if (controller != null) {
+			controller.printChosenValues();
+		}
+		return current;
+	}
+
+	private void reportProgress(TableCopyTask task, long current) {
+		if (printProgress) {
+			System.out.print(".");
+		}
+		String tableName = task.getTargetTableName();
+		log.info(
+			"copied record number " +
+			current +
+			" (" +
+			task.getRecordCount() +
+			") for table: " +
+			task.getTable().getName() +
+			(tableName.equals(task.getTable().getName()) ? "" : " -> " + tableName)
+		);
+	}
+}
@@ -0,0 +1,59 @@
+package de.ollie.dbtools.copier;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * A scheduler which runs table copies in parallel. The largest tables are started first to avoid that a long running
+ * table copy is started at last and holds up the whole run.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class TableCopyScheduler {
+
+	static ParallelExecutor parallelExecutor = new ParallelExecutor();
+
+	/**
+	 * An interface for the action which is executed for each table copy task.
+	 */
+	@FunctionalInterface
+	interface TableCopyAction {
+		void copy(TableCopyTask task) throws Exception;
+	}
+
+	/**
+	 * Returns a list with the passed tasks, ordered by their record counts (largest first).
+	 *
+	 * @param tasks The tasks to order.
+	 * @return A new list with the ordered tasks.
+	 */
+	List<TableCopyTask> orderBySize(List<TableCopyTask> tasks) {
+		List<TableCopyTask> ordered = new ArrayList<>(tasks);
+		ordered.sort(Comparator.comparingLong(TableCopyTask::getRecordCount).reversed());
+		return ordered;
+	}
+
+	/**
+	 * Runs the passed tasks with the passed number of threads. The method returns when all tasks are finished. If a
+	 * task fails, all other tasks are cancelled and the exception of the failed task is thrown.
+	 *
+	 * @param tasks          The tasks to run.
+	 * @param threads        The maximum number of tasks to run at the same time.
+	 * @param virtualThreads Set this flag to run the tasks in virtual threads.
+	 * @param action         The action which is to execute for each task.
+	 * @throws Exception If a task fails.
+	 */
+	void run(List<TableCopyTask> tasks, int threads, boolean virtualThreads, TableCopyAction action) throws Exception {
+		List<Callable<Void>> jobs = new ArrayList<>();
+		for (TableCopyTask task : orderBySize(tasks)) {
+			jobs.add(() -> {
+				action.copy(task);
+				return null;
+			});
+		}
+		parallelExecutor.run("table-copy", threads, virtualThreads, jobs);
+	}
+}
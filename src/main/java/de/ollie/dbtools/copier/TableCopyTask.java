@@ -0,0 +1,59 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.modelreader.models.DBTableModel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.With;
+
+/**
+ * A container for the data of a table copy which is to run.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+@AllArgsConstructor
+@Getter
+@ToString
+@With
+class TableCopyTask {
+
+	private DBTable table;
+	private String targetTableName;
+	private long recordCount;
+
+	/**
+	 * The keys of the target table whose records are to skip or null if all records are to write.
+	 */
+	@ToString.Exclude
+	private KeyFilter keyFilter;
+
+	/**
+	 * The selection of the source records which are to copy or null if all records are to copy.
+	 */
+	@ToString.Exclude
+	private SourceFilter sourceFilter;
+
+	TableCopyTask(DBTable table, String targetTableName, long recordCount) {
+		this(table, targetTableName, recordCount, null, null);
+	}
+
+	/**
+	 * Returns the table whose name is to use in the FROM clauses of the source selects: The table itself or a view of
+	 * the table whose name is the derived table of the source filter.
+	 *
+	 * @return The table to select the source records from.
+	 */
+	DBTable getSourceTable() {
+		if (sourceFilter == null) {
+			return table;
+		}
+		return new DBTableModel(
+			sourceFilter.getSourceTableName(),
+			table.getColumns(),
+			table.getIndices(),
+			table.getPrimaryKeyColumns()
+		);
+	}
+}
@@ -0,0 +1,96 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.modelreader.DBColumn;
+import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.utils.Dialect;
+import de.ollie.dbtools.utils.StatementBuilder;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A class which selects the partition strategy for a table by its meta data and splits the table into slices. Key
+ * ranges are preferred. Tables without a usable primary key are split by the physical location of their records, if
+ * the database supports it, or by the hash of a column as fallback. Derived tables (e.g. filtered source tables) have
+ * no physical location, so they are split by key ranges or hashes only.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class TablePartitioner {
+
+	static KeyRangePartitioner keyRangePartitioner = new KeyRangePartitioner();
+	static PhysicalLocationPartitioner physicalLocationPartitioner = new PhysicalLocationPartitioner();
+	static HashPartitioner hashPartitioner = new HashPartitioner();
+
+	/**
+	 * Splits the passed table into the passed number of slices.
+	 *
+	 * @param table            The table to split.
+	 * @param slices           The number of slices to create.
+	 * @param connection       The connection to the database which contains the table.
+	 * @param statementBuilder A statement builder.
+	 * @return The partitioning of the table (with strategy NONE if the table could not be split).
+	 * @throws SQLException If an error occurs while reading the data for the split.
+	 */
+	TablePartitioning partition(DBTable table, int slices, Connection connection, StatementBuilder statementBuilder)
+		throws SQLException {
+		return partition(table, null, slices, connection, statementBuilder, false);
+	}
+
+	/**
+	 * Splits the passed table into the passed number of slices.
+	 *
+	 * @param table            The table to split.
+	 * @param schemeName       The name of the scheme of the table or null if the table name is to resolve unqualified.
+	 * @param slices           The number of slices to create.
+	 * @param connection       The connection to the database which contains the table.
+	 * @param statementBuilder A statement builder.
+	 * @param derived          Set this flag if the name of the table is a derived table (no physical location slices
+	 *                         are created then).
+	 * @return The partitioning of the table (with strategy NONE if the table could not be split).
+	 * @throws SQLException If an error occurs while reading the data for the split.
+	 */
+	TablePartitioning partition(
+		DBTable table,
+		String schemeName,
+		int slices,
+		Connection connection,
+		StatementBuilder statementBuilder,
+		boolean derived
+	) throws SQLException {
+		Optional<DBColumn> keyColumn = keyRangePartitioner.getPartitionKey(table);
+		if (keyColumn.isPresent()) {
+			List<KeyRange> ranges = keyRangePartitioner.partition(
+				table,
+				keyColumn.get(),
+				slices,
+				connection,
+				statementBuilder
+			);
+			if (ranges.size() > 1) {
+				return new TablePartitioning(PartitionStrategy.KEY_RANGE, keyColumn.get(), new ArrayList<>(ranges));
+			}
+		}
+		Dialect dialect = Dialect.of(connection);
+		if (!derived) {
+			List<TableSlice> tableSlices = physicalLocationPartitioner.partition(
+				table,
+				schemeName,
+				slices,
+				connection,
+				dialect
+			);
+			if (tableSlices.size() > 1) {
+				return new TablePartitioning(PartitionStrategy.PHYSICAL_LOCATION, null, tableSlices);
+			}
+		}
+		List<TableSlice> tableSlices = hashPartitioner.partition(table, slices, dialect);
+		if (tableSlices.size() > 1) {
+			return new TablePartitioning(PartitionStrategy.HASH, null, tableSlices);
+		}
+		return TablePartitioning.NONE;
+	}
+}
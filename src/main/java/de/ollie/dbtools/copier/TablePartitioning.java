@@ -0,0 +1,33 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.modelreader.DBColumn;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A container for the slices of a table and the strategy which has created them.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+@AllArgsConstructor
+@Getter
+@ToString
+class TablePartitioning {
+
+	static final TablePartitioning NONE = new TablePartitioning(PartitionStrategy.NONE, null, List.of());
+
+	private PartitionStrategy strategy;
+	/**
+	 * The key column which the key ranges are defined for (only set for the KEY_RANGE strategy).
+	 */
+	private DBColumn keyColumn;
+
+	private List<TableSlice> slices;
+
+	boolean isPartitioned() {
+		return slices.size() > 1;
+	}
+}
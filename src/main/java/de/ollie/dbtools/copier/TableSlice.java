@@ -0,0 +1,9 @@
+package de.ollie.dbtools.copier;
+
+/**
+ * A marker interface for a part of a table which could be copied independently from the other parts.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+sealed interface TableSlice permits ConditionSlice, KeyRange {}
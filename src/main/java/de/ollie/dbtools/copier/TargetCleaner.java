@@ -0,0 +1,217 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.connections.ConnectionFactory;
+import de.ollie.dbtools.modelreader.DBColumn;
+import de.ollie.dbtools.modelreader.DBForeignKey;
+import de.ollie.dbtools.utils.Dialect;
+import de.ollie.dbtools.utils.StatementBuilder;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * A class which removes the records of the target tables before the copy. The tables are cleared in reverse foreign
+ * key order (referencing tables before the referenced ones), so the clear works for foreign keys which are kept too.
+ * The tables of one level of this order are cleared in parallel if a connection factory is passed and the options
+ * are defining more than one thread.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class TargetCleaner {
+
+	static KeyRangePartitioner keyRangePartitioner = new KeyRangePartitioner();
+	static ParallelExecutor parallelExecutor = new ParallelExecutor();
+
+	private final StatementBuilder statementBuilder;
+	private final CopyOptions options;
+
+	TargetCleaner(StatementBuilder statementBuilder, CopyOptions options) {
+		this.statementBuilder = statementBuilder;
+		this.options = options;
+	}
+
+	/**
+	 * Clears the target tables of the passed tasks.
+	 *
+	 * @param tasks             The tasks whose target tables are to clear.
+	 * @param foreignKeys       The foreign keys of the target tables.
+	 * @param connection        A connection to the target database.
+	 * @param connectionFactory A factory for additional target connections or null if the tables are to clear one by
+	 *                          one.
+	 * @throws Exception If an error occurs while clearing the tables.
+	 */
+	void clear(
+		List<TableCopyTask> tasks,
+		List<DBForeignKey<?>> foreignKeys,
+		Connection connection,
+		ConnectionFactory connectionFactory
+	) throws Exception {
+		for (List<TableCopyTask> level : orderByForeignKeys(tasks, foreignKeys)) {
+			int threads = Math.min(options.getThreads(), level.size());
+			if ((connectionFactory != null) && (threads > 1)) {
+				List<Callable<Void>> jobs = new ArrayList<>();
+				for (TableCopyTask task : level) {
+					jobs.add(() -> {
+						try (Connection c = connectionFactory.createConnection()) {
+							clear(task, c);
+						}
+						return null;
+					});
+				}
+				parallelExecutor.run("clear", threads, options.isVirtualThreads(), jobs);
+			} else {
+				for (TableCopyTask task : level) {
+					clear(task, connection);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Orders the passed tasks into levels: A level contains the tables which are referenced only by tables of the
+	 * previous levels. Tables of foreign key cycles are put into the last level.
+	 *
+	 * @param tasks       The tasks to order.
+	 * @param foreignKeys The foreign keys of the tables.
+	 * @return A list with the levels of the tasks.
+	 */
+	List<List<TableCopyTask>> orderByForeignKeys(List<TableCopyTask> tasks, List<DBForeignKey<?>> foreignKeys) {
+		Map<String, Set<String>> referencingTables = new HashMap<>();
+		for (TableCopyTask task : tasks) {
+			referencingTables.put(task.getTable().getName().toUpperCase(), new HashSet<>());
+		}
+		for (DBForeignKey<?> foreignKey : foreignKeys) {
+			String tableName = foreignKey.getTableName().toUpperCase();
+			String referencedTableName = foreignKey.getReferencedTableName().toUpperCase();
+			if (
+				!tableName.equals(referencedTableName) &&
+				referencingTables.containsKey(tableName) &&
+				referencingTables.containsKey(referencedTableName)
+			) {
+				referencingTables.get(referencedTableName).add(tableName);
+			}
+		}
+		List<List<TableCopyTask>> levels = new ArrayList<>();
+		List<TableCopyTask> remaining = new ArrayList<>(tasks);
+		Set<String> cleared = new HashSet<>();
+		while (!remaining.isEmpty()) {
+			List<TableCopyTask> level = new ArrayList<>();
+			for (TableCopyTask task : remaining) {
+				if (cleared.containsAll(referencingTables.get(task.getTable().getName().toUpperCase()))) {
+					level.add(task);
+				}
+			}
+			if (level.isEmpty()) {
+				level.addAll(remaining);
+			}
+			level.forEach(task -> cleared.add(task.getTable().getName().toUpperCase()));
+			remaining.removeAll(level);
+			levels.add(level);
+		}
+		return levels;
+	}
+
+	private void clear(TableCopyTask task, Connection connection) throws SQLException {
+		String tableName = task.getTargetTableName();
+		Dialect dialect = Dialect.of(connection);
+		switch (options.getClearStrategy()) {
+			case TRUNCATE -> execute(statementBuilder.createTruncateStatementString(tableName, false), connection);
+			case TRUNCATE_CASCADE -> execute(
+				statementBuilder.createTruncateStatementString(
+					tableName,
+					(dialect == Dialect.POSTGRESQL) || (dialect == Dialect.ORACLE)
+				),
+				connection
+			);
+			case DELETE -> execute(statementBuilder.createDeleteStatementString(tableName), connection);
+			case CHUNKED_DELETE -> deleteChunked(task, connection);
+			default -> {
+				if (dialect == Dialect.OTHER) {
+					execute(statementBuilder.createDeleteStatementString(tableName), connection);
+				} else {
+					try {
+						execute(statementBuilder.createTruncateStatementString(tableName, false), connection);
+					} catch (SQLException e) {
+						System.out.println("truncate failed (" + e.getMessage() + ") - deleting records.");
+						deleteChunked(task, connection);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Deletes the records of the table in key order in chunks of the chunk size (keyset pagination, so sparse keys are
+	 * deleted with as few statements as dense ones). Each chunk is committed.
+	 */
+	private void deleteChunked(TableCopyTask task, Connection connection) throws SQLException {
+		String tableName = task.getTargetTableName();
+		Optional<DBColumn> keyColumn = keyRangePartitioner.getPartitionKey(task.getTable());
+		if (keyColumn.isEmpty()) {
+			execute(statementBuilder.createDeleteStatementString(tableName), connection);
+			return;
+		}
+		Dialect dialect = Dialect.of(connection);
+		int chunkSize = Math.max(1, options.getChunkSize());
+		String delete = statementBuilder.createDeleteRangeStatementString(tableName, keyColumn.get(), true);
+		System.out.println("running: " + delete + " (in chunks of " + chunkSize + " records)");
+		boolean autoCommit = connection.getAutoCommit();
+		connection.setAutoCommit(false);
+		try (
+			PreparedStatement firstBound = connection.prepareStatement(
+				statementBuilder.createKeysetBoundStatementString(tableName, keyColumn.get(), false, chunkSize, dialect)
+			);
+			PreparedStatement nextBound = connection.prepareStatement(
+				statementBuilder.createKeysetBoundStatementString(tableName, keyColumn.get(), true, chunkSize, dialect)
+			);
+			PreparedStatement firstDelete = connection.prepareStatement(
+				statementBuilder.createDeleteRangeStatementString(tableName, keyColumn.get(), false)
+			);
+			PreparedStatement nextDelete = connection.prepareStatement(delete)
+		) {
+			Object lowerBound = null;
+			while (true) {
+				PreparedStatement bound = lowerBound == null ? firstBound : nextBound;
+				PreparedStatement stmt = lowerBound == null ? firstDelete : nextDelete;
+				if (lowerBound != null) {
+					bound.setObject(1, lowerBound);
+					stmt.setObject(1, lowerBound);
+				}
+				Object upperBound;
+				try (ResultSet rs = bound.executeQuery()) {
+					upperBound = rs.next() ? rs.getObject(1) : null;
+				}
+				if (upperBound == null) {
+					break;
+				}
+				stmt.setObject(lowerBound == null ? 1 : 2, upperBound);
+				stmt.executeUpdate();
+				connection.commit();
+				lowerBound = upperBound;
+			}
+		} catch (SQLException e) {
+			connection.rollback();
+			throw e;
+		} finally {
+			connection.setAutoCommit(autoCommit);
+		}
+	}
+
+	private void execute(String sql, Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			System.out.println("running: " + sql);
+			statement.executeUpdate(sql);
+		}
+	}
+}
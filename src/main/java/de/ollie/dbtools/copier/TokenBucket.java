@@ -0,0 +1,39 @@
+package de.ollie.dbtools.copier;
+
+/**
+ * A token bucket which limits the rate of permits: The bucket is refilled continuously by the rate and holds at most
+ * the permits of one second. A reservation takes its permits from the bucket even if there are not enough, so the
+ * bucket can run into debt. The caller has to wait until the debt is paid back by the refill.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class TokenBucket {
+
+	private static final double NANOS_PER_SECOND = 1_000_000_000D;
+
+	// The first reservation finds a full bucket (the tokens are limited to the rate on each refill).
+	private double tokens = Double.MAX_VALUE;
+	private long refilledAt = System.nanoTime();
+
+	/**
+	 * Reserves the passed number of permits.
+	 *
+	 * @param permits The number of permits to reserve.
+	 * @param rate    The current rate of the permits per second. A value less than one means no limit (the rate can
+	 *                change from reservation to reservation).
+	 * @return The time in nanoseconds which the caller has to wait before using the permits.
+	 */
+	synchronized long reserve(double permits, double rate) {
+		long now = System.nanoTime();
+		if (rate < 1) {
+			tokens = Double.MAX_VALUE;
+			refilledAt = now;
+			return 0;
+		}
+		tokens = Math.min(rate, tokens + ((now - refilledAt) * rate / NANOS_PER_SECOND));
+		refilledAt = now;
+		tokens -= permits;
+		return tokens >= 0 ? 0 : (long) (-tokens * NANOS_PER_SECOND / rate);
+	}
+}
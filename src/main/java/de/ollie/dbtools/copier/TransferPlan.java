@@ -0,0 +1,840 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.modelreader.DBColumn;
+import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.modelreader.DBType;
+import de.ollie.dbtools.modelreader.DBTypeConverter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A plan for the transfer of the column values of a table, which is compiled once per table from the column types of
+ * the model. Each column is transferred by a typed accessor (e.g. getLong/setLong) and null values are set with the
+ * SQL type of the column. So the copy loop needs no meta data calls and no boxing of primitive values.
+ * <p>
+ * LOB columns (BLOB, CLOB and LONG) are read by binary or character streams through a buffer of a fixed size and are
+ * held as {@link LobValue}s which have to be released after the statement is executed (see
+ * {@link #release(RowBatch)}).
+ * <p>
+ * The values of the columns of fixed size types are encoded with a fixed width into a byte buffer. Strings and decimals
+ * are encoded length prefixed (see {@link #encode(ResultSet, ByteBuffer)}). Each value is preceded by a null flag.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class TransferPlan {
+
+	static DBTypeConverter typeConverter = new DBTypeConverter();
+
+	/**
+	 * The size of the buffer which the LOB streams are read through (and the maximum size of a LOB in the heap).
+	 */
+	static final int LOB_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The initial size of the buffer which the keys are encoded into (see {@link #getKey(RowBatch, int, int[])}).
+	 */
+	static final int KEY_BUFFER_SIZE = 256;
+
+	/**
+	 * An interface for the transfer of the values of a single column.
+	 */
+	interface ColumnTransfer {
+		/**
+		 * Transfers the value of the current record of the result set to the parameter of the statement.
+		 */
+		void transfer(ResultSet rs, PreparedStatement statement, int index) throws SQLException;
+
+		/**
+		 * Reads the value of the current record of the result set into the passed row of the batch.
+		 */
+		void read(ResultSet rs, int index, RowBatch batch, int column, int row) throws SQLException;
+
+		/**
+		 * Sets the value of the passed row of the batch as parameter of the statement.
+		 */
+		void bind(RowBatch batch, int column, int row, PreparedStatement statement, int index) throws SQLException;
+
+		/**
+		 * Returns the (not null) value of the passed row of the batch.
+		 */
+		Object getValue(RowBatch batch, int column, int row);
+
+		/**
+		 * Returns "true" if the values of the column are stored in a primitive array of the row batches.
+		 */
+		boolean isPrimitive();
+	}
+
+	/**
+	 * An interface for the transfer of the values of a column which could be encoded into a byte buffer.
+	 */
+	interface EncodableTransfer extends ColumnTransfer {
+		/**
+		 * Encodes the value of the current record of the result set into the buffer.
+		 */
+		void encode(ResultSet rs, int index, ByteBuffer buffer) throws SQLException;
+
+		/**
+		 * Decodes a value from the buffer into the passed row of the batch.
+		 */
+		void decode(ByteBuffer buffer, RowBatch batch, int column, int row);
+
+		/**
+		 * Encodes the (not null) value of the passed row of the batch as part of a key into the buffer.
+		 */
+		void encodeKey(RowBatch batch, int column, int row, ByteBuffer buffer);
+	}
+
+	/**
+	 * An interface for the encoding of the (not null) values of an object column into a byte buffer.
+	 */
+	interface Codec<T> {
+		void encode(T value, ByteBuffer buffer);
+
+		T decode(ByteBuffer buffer);
+	}
+
+	static final Codec<String> STRING_CODEC = new Codec<>() {
+		@Override
+		public void encode(String value, ByteBuffer buffer) {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			buffer.putInt(bytes.length).put(bytes);
+		}
+
+		@Override
+		public String decode(ByteBuffer buffer) {
+			byte[] bytes = new byte[buffer.getInt()];
+			buffer.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+	static final Codec<BigDecimal> DECIMAL_CODEC = new Codec<>() {
+		@Override
+		public void encode(BigDecimal value, ByteBuffer buffer) {
+			byte[] unscaled = value.unscaledValue().toByteArray();
+			buffer.putInt(value.scale()).putInt(unscaled.length).put(unscaled);
+		}
+
+		@Override
+		public BigDecimal decode(ByteBuffer buffer) {
+			int scale = buffer.getInt();
+			byte[] unscaled = new byte[buffer.getInt()];
+			buffer.get(unscaled);
+			return new BigDecimal(new BigInteger(unscaled), scale);
+		}
+	};
+
+	/**
+	 * A codec for the keys of CHAR columns which ignores the padding blanks (which depend on the column size and the
+	 * driver).
+	 */
+	static final Codec<String> CHAR_KEY_CODEC = new Codec<>() {
+		@Override
+		public void encode(String value, ByteBuffer buffer) {
+			int end = value.length();
+			while ((end > 0) && (value.charAt(end - 1) == ' ')) {
+				end--;
+			}
+			STRING_CODEC.encode(value.substring(0, end), buffer);
+		}
+
+		@Override
+		public String decode(ByteBuffer buffer) {
+			return STRING_CODEC.decode(buffer);
+		}
+	};
+
+	/**
+	 * A codec for the keys of decimal columns which ignores the scale of the values (e.g. 1.0 and 1.00 are equal).
+	 */
+	static final Codec<BigDecimal> DECIMAL_KEY_CODEC = new Codec<>() {
+		@Override
+		public void encode(BigDecimal value, ByteBuffer buffer) {
+			DECIMAL_CODEC.encode(value.stripTrailingZeros(), buffer);
+		}
+
+		@Override
+		public BigDecimal decode(ByteBuffer buffer) {
+			return DECIMAL_CODEC.decode(buffer);
+		}
+	};
+
+	static final Codec<Date> DATE_CODEC = new Codec<>() {
+		@Override
+		public void encode(Date value, ByteBuffer buffer) {
+			buffer.putLong(value.getTime());
+		}
+
+		@Override
+		public Date decode(ByteBuffer buffer) {
+			return new Date(buffer.getLong());
+		}
+	};
+
+	static final Codec<Timestamp> TIMESTAMP_CODEC = new Codec<>() {
+		@Override
+		public void encode(Timestamp value, ByteBuffer buffer) {
+			buffer.putLong(value.getTime()).putInt(value.getNanos());
+		}
+
+		@Override
+		public Timestamp decode(ByteBuffer buffer) {
+			Timestamp value = new Timestamp(buffer.getLong());
+			value.setNanos(buffer.getInt());
+			return value;
+		}
+	};
+
+	@FunctionalInterface
+	interface Getter<T> {
+		T get(ResultSet rs, int index) throws SQLException;
+	}
+
+	@FunctionalInterface
+	interface Setter<T> {
+		void set(PreparedStatement statement, int index, T value) throws SQLException;
+	}
+
+	private final ColumnTransfer[] transfers;
+	private final boolean lobs;
+	private final boolean encodable;
+
+	private TransferPlan(ColumnTransfer[] transfers) {
+		this.transfers = transfers;
+		this.lobs = Arrays.stream(transfers).anyMatch(LobTransfer.class::isInstance);
+		this.encodable = Arrays.stream(transfers).allMatch(EncodableTransfer.class::isInstance);
+	}
+
+	/**
+	 * Checks if the passed column is a LOB column whose values are transferred by streams.
+	 *
+	 * @param column The column to check.
+	 * @return "true" if the column is a LOB column.
+	 */
+	static boolean isLob(DBColumn column) {
+		DBType type = column.getType();
+		return (type == DBType.BLOB) || (type == DBType.CLOB) || (type == DBType.LONG);
+	}
+
+	/**
+	 * Compiles a transfer plan for the columns of the passed table (in the order of the columns of the model).
+	 *
+	 * @param table The table to compile the plan for.
+	 * @return A transfer plan for the passed table.
+	 */
+	static TransferPlan compile(DBTable table) {
+		return compile(table.getColumns());
+	}
+
+	/**
+	 * Compiles a transfer plan for the passed columns (e.g. the key columns of a table).
+	 *
+	 * @param columns The columns to compile the plan for.
+	 * @return A transfer plan for the passed columns.
+	 */
+	static TransferPlan compile(List<DBColumn> columns) {
+		ColumnTransfer[] transfers = new ColumnTransfer[columns.size()];
+		for (int i = 0; i < transfers.length; i++) {
+			transfers[i] = createTransfer(columns.get(i));
+		}
+		return new TransferPlan(transfers);
+	}
+
+	static ColumnTransfer createTransfer(DBColumn column) {
+		if (column.getType() == null) {
+			return new ObjectTransfer<>(Types.OTHER, ResultSet::getObject, PreparedStatement::setObject);
+		}
+		int sqlType = typeConverter.convert(column.getType());
+		return switch (column.getType()) {
+			case BIGINT -> new LongTransfer(sqlType);
+			case INTEGER -> new IntTransfer(sqlType);
+			case BIT, BOOLEAN -> new BooleanTransfer(sqlType);
+			case DECIMAL, NUMERIC -> new CodecTransfer<BigDecimal>(
+				sqlType,
+				ResultSet::getBigDecimal,
+				PreparedStatement::setBigDecimal,
+				DECIMAL_CODEC,
+				DECIMAL_KEY_CODEC
+			);
+			case DATE -> new CodecTransfer<Date>(sqlType, ResultSet::getDate, PreparedStatement::setDate, DATE_CODEC);
+			case TIMESTAMP -> new CodecTransfer<Timestamp>(
+				sqlType,
+				ResultSet::getTimestamp,
+				PreparedStatement::setTimestamp,
+				TIMESTAMP_CODEC
+			);
+			case BLOB -> new LobTransfer(sqlType, true);
+			case CLOB, LONG -> new LobTransfer(sqlType, false);
+			case CHAR -> new CodecTransfer<String>(
+				sqlType,
+				ResultSet::getString,
+				PreparedStatement::setString,
+				STRING_CODEC,
+				CHAR_KEY_CODEC
+			);
+			case VARCHAR -> new CodecTransfer<String>(
+				sqlType,
+				ResultSet::getString,
+				PreparedStatement::setString,
+				STRING_CODEC
+			);
+			default -> new ObjectTransfer<>(sqlType, ResultSet::getObject, PreparedStatement::setObject);
+		};
+	}
+
+	int getColumnCount() {
+		return transfers.length;
+	}
+
+	boolean isPrimitive(int column) {
+		return transfers[column].isPrimitive();
+	}
+
+	/**
+	 * Returns "true" if the plan contains LOB columns whose values have to be released after the statement is executed.
+	 *
+	 * @return "true" if the plan contains LOB columns.
+	 */
+	boolean hasLobs() {
+		return lobs;
+	}
+
+	/**
+	 * Returns "true" if the values of all columns could be encoded into a byte buffer (false for LOB columns and
+	 * columns of unknown types).
+	 *
+	 * @return "true" if the values of all columns could be encoded into a byte buffer.
+	 */
+	boolean isEncodable() {
+		return encodable;
+	}
+
+	/**
+	 * Encodes the values of the current record of the passed result set into the passed buffer.
+	 *
+	 * @param rs     The result set to read the values from.
+	 * @param buffer The buffer to encode the values into.
+	 * @throws SQLException                    If an error occurs while reading the values.
+	 * @throws java.nio.BufferOverflowException If the record does not fit into the buffer.
+	 * @throws ClassCastException              If the plan is not encodable (see {@link #isEncodable()}).
+	 */
+	void encode(ResultSet rs, ByteBuffer buffer) throws SQLException {
+		for (int i = 0; i < transfers.length; i++) {
+			((EncodableTransfer) transfers[i]).encode(rs, i + 1, buffer);
+		}
+	}
+
+	/**
+	 * Decodes the values of the next record of the passed buffer into a new row of the passed batch.
+	 *
+	 * @param buffer The buffer to decode the values from.
+	 * @param batch  The batch to store the values in.
+	 * @throws ClassCastException If the plan is not encodable (see {@link #isEncodable()}).
+	 */
+	void decode(ByteBuffer buffer, RowBatch batch) {
+		int row = batch.addRow();
+		for (int i = 0; i < transfers.length; i++) {
+			((EncodableTransfer) transfers[i]).decode(buffer, batch, i, row);
+		}
+	}
+
+	/**
+	 * Returns a key of the values of the passed columns of the passed row of the batch which does not depend on the
+	 * Java types and the representation which the drivers are returning for the values. The values are read by the
+	 * typed accessors of the columns and encoded by the codecs of the column types (the blanks of CHAR values and the
+	 * trailing zeros of decimals are ignored). Values of columns without a codec are taken by their string
+	 * representation.
+	 *
+	 * @param batch   The batch which contains the values.
+	 * @param row     The index of the row in the batch.
+	 * @param columns The indices of the columns of the key.
+	 * @return A key of the values of the passed columns.
+	 */
+	String getKey(RowBatch batch, int row, int[] columns) {
+		for (int size = KEY_BUFFER_SIZE;; size *= 2) {
+			ByteBuffer buffer = ByteBuffer.allocate(size);
+			try {
+				for (int column : columns) {
+					encodeKey(batch, column, row, buffer);
+				}
+				return new String(buffer.array(), 0, buffer.position(), StandardCharsets.ISO_8859_1);
+			} catch (BufferOverflowException e) {
+				// NOP - the key is encoded into a larger buffer.
+			}
+		}
+	}
+
+	private void encodeKey(RowBatch batch, int column, int row, ByteBuffer buffer) {
+		boolean isNull = batch.isNull(column, row);
+		buffer.put((byte) (isNull ? 1 : 0));
+		if (isNull) {
+			return;
+		}
+		if (transfers[column] instanceof EncodableTransfer transfer) {
+			transfer.encodeKey(batch, column, row, buffer);
+		} else if (batch.getObject(column, row) instanceof byte[] bytes) {
+			buffer.putInt(bytes.length).put(bytes);
+		} else {
+			STRING_CODEC.encode(String.valueOf(batch.getObject(column, row)), buffer);
+		}
+	}
+
+	/**
+	 * Releases the LOB values of the rows of the passed batch (closes the streams and deletes the spool files).
+	 *
+	 * @param batch The batch whose LOB values are to release.
+	 */
+	void release(RowBatch batch) {
+		for (int row = 0, leni = batch.getSize(); row < leni; row++) {
+			release(batch, row);
+		}
+	}
+
+	/**
+	 * Releases the LOB values of the passed row of the batch (closes the streams and deletes the spool files).
+	 *
+	 * @param batch The batch which contains the row.
+	 * @param row   The index of the row whose LOB values are to release.
+	 */
+	void release(RowBatch batch, int row) {
+		if (!lobs) {
+			return;
+		}
+		for (int c = 0; c < transfers.length; c++) {
+			if ((transfers[c] instanceof LobTransfer) && (batch.getObject(c, row) instanceof LobValue value)) {
+				value.release();
+				batch.setObject(c, row, null);
+			}
+		}
+	}
+
+	/**
+	 * Transfers the values of the current record of the passed result set to the parameters of the passed statement.
+	 *
+	 * The LOB values of plans with LOB columns are not released. So these should be read into a batch.
+	 *
+	 * @param rs        The result set to read the values from.
+	 * @param statement The statement whose parameters are to set.
+	 * @throws SQLException If an error occurs while transferring the values.
+	 */
+	void transfer(ResultSet rs, PreparedStatement statement) throws SQLException {
+		for (int i = 0; i < transfers.length; i++) {
+			transfers[i].transfer(rs, statement, i + 1);
+		}
+	}
+
+	/**
+	 * Reads the values of the current record of the passed result set into a new row of the passed batch.
+	 *
+	 * @param rs    The result set to read the values from.
+	 * @param batch The batch to store the values in.
+	 * @throws SQLException If an error occurs while reading the values.
+	 */
+	void read(ResultSet rs, RowBatch batch) throws SQLException {
+		int row = batch.addRow();
+		for (int i = 0; i < transfers.length; i++) {
+			transfers[i].read(rs, i + 1, batch, i, row);
+		}
+	}
+
+	/**
+	 * Sets the values of the passed row of the batch as parameters of the passed statement.
+	 *
+	 * @param batch     The batch which contains the values.
+	 * @param row       The index of the row in the batch.
+	 * @param statement The statement whose parameters are to set.
+	 * @throws SQLException If an error occurs while setting the parameters.
+	 */
+	void bind(RowBatch batch, int row, PreparedStatement statement) throws SQLException {
+		for (int i = 0; i < transfers.length; i++) {
+			transfers[i].bind(batch, i, row, statement, i + 1);
+		}
+	}
+
+	/**
+	 * Returns the value of the passed column and row of the batch.
+	 *
+	 * @param batch  The batch which contains the value.
+	 * @param column The index of the column.
+	 * @param row    The index of the row.
+	 * @return The value of the passed column and row or null if the value is null.
+	 */
+	Object getValue(RowBatch batch, int column, int row) {
+		if (batch.isNull(column, row)) {
+			return null;
+		}
+		return transfers[column].getValue(batch, column, row);
+	}
+
+	private abstract static class PrimitiveTransfer implements EncodableTransfer {
+
+		protected final int sqlType;
+
+		PrimitiveTransfer(int sqlType) {
+			this.sqlType = sqlType;
+		}
+
+		@Override
+		public Object getValue(RowBatch batch, int column, int row) {
+			return batch.getLong(column, row);
+		}
+
+		@Override
+		public boolean isPrimitive() {
+			return true;
+		}
+
+		@Override
+		public void decode(ByteBuffer buffer, RowBatch batch, int column, int row) {
+			boolean isNull = buffer.get() != 0;
+			batch.setNull(column, row, isNull);
+			if (!isNull) {
+				batch.setLong(column, row, decodeValue(buffer));
+			}
+		}
+
+		@Override
+		public void encodeKey(RowBatch batch, int column, int row, ByteBuffer buffer) {
+			encodeValue(batch.getLong(column, row), buffer);
+		}
+
+		/**
+		 * Puts the null flag and the passed value (if not null) into the passed buffer.
+		 */
+		protected void encode(boolean isNull, long value, ByteBuffer buffer) {
+			buffer.put((byte) (isNull ? 1 : 0));
+			if (!isNull) {
+				encodeValue(value, buffer);
+			}
+		}
+
+		protected abstract void encodeValue(long value, ByteBuffer buffer);
+
+		protected abstract long decodeValue(ByteBuffer buffer);
+	}
+
+	private static class LongTransfer extends PrimitiveTransfer {
+
+		LongTransfer(int sqlType) {
+			super(sqlType);
+		}
+
+		@Override
+		public void transfer(ResultSet rs, PreparedStatement statement, int index) throws SQLException {
+			long value = rs.getLong(index);
+			if (rs.wasNull()) {
+				statement.setNull(index, sqlType);
+			} else {
+				statement.setLong(index, value);
+			}
+		}
+
+		@Override
+		public void read(ResultSet rs, int index, RowBatch batch, int column, int row) throws SQLException {
+			batch.setLong(column, row, rs.getLong(index));
+			batch.setNull(column, row, rs.wasNull());
+		}
+
+		@Override
+		public void encode(ResultSet rs, int index, ByteBuffer buffer) throws SQLException {
+			long value = rs.getLong(index);
+			encode(rs.wasNull(), value, buffer);
+		}
+
+		@Override
+		protected void encodeValue(long value, ByteBuffer buffer) {
+			buffer.putLong(value);
+		}
+
+		@Override
+		protected long decodeValue(ByteBuffer buffer) {
+			return buffer.getLong();
+		}
+
+		@Override
+		public void bind(RowBatch batch, int column, int row, PreparedStatement statement, int index)
+			throws SQLException {
+			if (batch.isNull(column, row)) {
+				statement.setNull(index, sqlType);
+			} else {
+				statement.setLong(index, batch.getLong(column, row));
+			}
+		}
+	}
+
+	private static class IntTransfer extends PrimitiveTransfer {
+
+		IntTransfer(int sqlType) {
+			super(sqlType);
+		}
+
+		@Override
+		public void transfer(ResultSet rs, PreparedStatement statement, int index) throws SQLException {
+			int value = rs.getInt(index);
+			if (rs.wasNull()) {
+				statement.setNull(index, sqlType);
+			} else {
+				statement.setInt(index, value);
+			}
+		}
+
+		@Override
+		public void read(ResultSet rs, int index, RowBatch batch, int column, int row) throws SQLException {
+			batch.setLong(column, row, rs.getInt(index));
+			batch.setNull(column, row, rs.wasNull());
+		}
+
+		@Override
+		public void encode(ResultSet rs, int index, ByteBuffer buffer) throws SQLException {
+			int value = rs.getInt(index);
+			encode(rs.wasNull(), value, buffer);
+		}
+
+		@Override
+		protected void encodeValue(long value, ByteBuffer buffer) {
+			buffer.putInt((int) value);
+		}
+
+		@Override
+		protected long decodeValue(ByteBuffer buffer) {
+			return buffer.getInt();
+		}
+
+		@Override
+		public void bind(RowBatch batch, int column, int row, PreparedStatement statement, int index)
+			throws SQLException {
+			if (batch.isNull(column, row)) {
+				statement.setNull(index, sqlType);
+			} else {
+				statement.setInt(index, (int) batch.getLong(column, row));
+			}
+		}
+
+		@Override
+		public Object getValue(RowBatch batch, int column, int row) {
+			return (int) batch.getLong(column, row);
+		}
+	}
+
+	private static class BooleanTransfer extends PrimitiveTransfer {
+
+		BooleanTransfer(int sqlType) {
+			super(sqlType);
+		}
+
+		@Override
+		public void transfer(ResultSet rs, PreparedStatement statement, int index) throws SQLException {
+			boolean value = rs.getBoolean(index);
+			if (rs.wasNull()) {
+				statement.setNull(index, sqlType);
+			} else {
+				statement.setBoolean(index, value);
+			}
+		}
+
+		@Override
+		public void read(ResultSet rs, int index, RowBatch batch, int column, int row) throws SQLException {
+			batch.setLong(column, row, rs.getBoolean(index) ? 1 : 0);
+			batch.setNull(column, row, rs.wasNull());
+		}
+
+		@Override
+		public void encode(ResultSet rs, int index, ByteBuffer buffer) throws SQLException {
+			boolean value = rs.getBoolean(index);
+			encode(rs.wasNull(), value ? 1 : 0, buffer);
+		}
+
+		@Override
+		protected void encodeValue(long value, ByteBuffer buffer) {
+			buffer.put((byte) value);
+		}
+
+		@Override
+		protected long decodeValue(ByteBuffer buffer) {
+			return buffer.get();
+		}
+
+		@Override
+		public void bind(RowBatch batch, int column, int row, PreparedStatement statement, int index)
+			throws SQLException {
+			if (batch.isNull(column, row)) {
+				statement.setNull(index, sqlType);
+			} else {
+				statement.setBoolean(index, batch.getLong(column, row) != 0);
+			}
+		}
+
+		@Override
+		public Object getValue(RowBatch batch, int column, int row) {
+			return batch.getLong(column, row) != 0;
+		}
+	}
+
+	private static class ObjectTransfer<T> implements ColumnTransfer {
+
+		protected final int sqlType;
+		protected final Getter<T> getter;
+		protected final Setter<T> setter;
+
+		ObjectTransfer(int sqlType, Getter<T> getter, Setter<T> setter) {
+			this.sqlType = sqlType;
+			this.getter = getter;
+			this.setter = setter;
+		}
+
+		@Override
+		public void transfer(ResultSet rs, PreparedStatement statement, int index) throws SQLException {
+			set(statement, index, getter.get(rs, index));
+		}
+
+		@Override
+		public void read(ResultSet rs, int index, RowBatch batch, int column, int row) throws SQLException {
+			T value = getter.get(rs, index);
+			batch.setObject(column, row, value);
+			batch.setNull(column, row, value == null);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public void bind(RowBatch batch, int column, int row, PreparedStatement statement, int index)
+			throws SQLException {
+			set(statement, index, (T) batch.getObject(column, row));
+		}
+
+		private void set(PreparedStatement statement, int index, T value) throws SQLException {
+			if (value == null) {
+				statement.setNull(index, sqlType);
+			} else {
+				setter.set(statement, index, value);
+			}
+		}
+
+		@Override
+		public Object getValue(RowBatch batch, int column, int row) {
+			return batch.getObject(column, row);
+		}
+
+		@Override
+		public boolean isPrimitive() {
+			return false;
+		}
+	}
+
+	private static class CodecTransfer<T> extends ObjectTransfer<T> implements EncodableTransfer {
+
+		private final Codec<T> codec;
+		private final Codec<T> keyCodec;
+
+		CodecTransfer(int sqlType, Getter<T> getter, Setter<T> setter, Codec<T> codec) {
+			this(sqlType, getter, setter, codec, codec);
+		}
+
+		CodecTransfer(int sqlType, Getter<T> getter, Setter<T> setter, Codec<T> codec, Codec<T> keyCodec) {
+			super(sqlType, getter, setter);
+			this.codec = codec;
+			this.keyCodec = keyCodec;
+		}
+
+		@Override
+		public void encode(ResultSet rs, int index, ByteBuffer buffer) throws SQLException {
+			T value = getter.get(rs, index);
+			buffer.put((byte) (value == null ? 1 : 0));
+			if (value != null) {
+				codec.encode(value, buffer);
+			}
+		}
+
+		@Override
+		public void decode(ByteBuffer buffer, RowBatch batch, int column, int row) {
+			boolean isNull = buffer.get() != 0;
+			batch.setNull(column, row, isNull);
+			batch.setObject(column, row, isNull ? null : codec.decode(buffer));
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public void encodeKey(RowBatch batch, int column, int row, ByteBuffer buffer) {
+			keyCodec.encode((T) batch.getObject(column, row), buffer);
+		}
+	}
+
+	private static class LobTransfer implements ColumnTransfer {
+
+		private final int sqlType;
+		private final boolean binary;
+
+		LobTransfer(int sqlType, boolean binary) {
+			this.sqlType = sqlType;
+			this.binary = binary;
+		}
+
+		@Override
+		public void transfer(ResultSet rs, PreparedStatement statement, int index) throws SQLException {
+			LobValue value = get(rs, index);
+			if (value == null) {
+				statement.setNull(index, sqlType);
+			} else {
+				value.bind(statement, index);
+			}
+		}
+
+		@Override
+		public void read(ResultSet rs, int index, RowBatch batch, int column, int row) throws SQLException {
+			LobValue value = get(rs, index);
+			batch.setObject(column, row, value);
+			batch.setNull(column, row, value == null);
+		}
+
+		private LobValue get(ResultSet rs, int index) throws SQLException {
+			try {
+				if (binary) {
+					try (InputStream in = rs.getBinaryStream(index)) {
+						return in == null ? null : LobValue.readBinary(in, LOB_BUFFER_SIZE);
+					}
+				}
+				try (Reader in = rs.getCharacterStream(index)) {
+					return in == null ? null : LobValue.readCharacters(in, LOB_BUFFER_SIZE);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException("error while reading LOB column " + index, e);
+			}
+		}
+
+		@Override
+		public void bind(RowBatch batch, int column, int row, PreparedStatement statement, int index)
+			throws SQLException {
+			if (batch.isNull(column, row)) {
+				statement.setNull(index, sqlType);
+			} else {
+				((LobValue) batch.getObject(column, row)).bind(statement, index);
+			}
+		}
+
+		@Override
+		public Object getValue(RowBatch batch, int column, int row) {
+			return batch.getObject(column, row);
+		}
+
+		@Override
+		public boolean isPrimitive() {
+			return false;
+		}
+	}
+}
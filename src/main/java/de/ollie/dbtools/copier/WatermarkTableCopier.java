@@ -0,0 +1,119 @@
+package de.ollie.dbtools.copier;
+
+import de.ollie.dbtools.modelreader.DBColumn;
+import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.utils.Dialect;
+import de.ollie.dbtools.utils.StatementBuilder;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A class which copies the records of a table which have been changed since the last copy (delta copy). The changes
+ * are detected by a watermark column (e.g. an update timestamp or an increasing id): The records with a watermark
+ * greater than the one of the last copy and not greater than the current maximum are written to the target as
+ * upserts. The maximum is stored as new watermark of the table after the records are committed.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class WatermarkTableCopier {
+
+	static Logger log = LogManager.getLogger(WatermarkTableCopier.class);
+
+	private final StatementBuilder statementBuilder;
+	private final CopyOptions options;
+	private final DeadLetterWriter deadLetters;
+
+	WatermarkTableCopier(StatementBuilder statementBuilder, CopyOptions options, DeadLetterWriter deadLetters) {
+		this.statementBuilder = statementBuilder;
+		this.options = options;
+		this.deadLetters = deadLetters;
+	}
+
+	/**
+	 * Copies the changed records of the table of the passed task.
+	 *
+	 * @param task             The task with the table to copy.
+	 * @param watermarkColumn  The column with the watermarks of the records.
+	 * @param state            The state which holds the watermark of the last copy.
+	 * @param sourceConnection The connection to read the data from.
+	 * @param targetConnection The connection to write the data to.
+	 * @return The number of copied records.
+	 * @throws Exception If an error occurs while copying the data.
+	 */
+	long copy(
+		TableCopyTask task,
+		DBColumn watermarkColumn,
+		CopyState state,
+		Connection sourceConnection,
+		Connection targetConnection
+	) throws Exception {
+		DBTable table = task.getTable();
+		String tableName = task.getTargetTableName();
+		String lastWatermark = state.getWatermark(table.getName());
+		Object upperBound = readMaxWatermark(table, watermarkColumn, sourceConnection);
+		if (upperBound == null) {
+			System.out.println("copying: " + tableName + " skipped (no watermark in source).");
+			return 0;
+		}
+		System.out.println(
+			"copying: " +
+			tableName +
+			" changes of " +
+			watermarkColumn.getName() +
+			" > " +
+			(lastWatermark != null ? lastWatermark : "-") +
+			" and <= " +
+			upperBound +
+			" started."
+		);
+		String select = statementBuilder.createWatermarkSelectStatementString(
+			task.getSourceTable(),
+			watermarkColumn,
+			lastWatermark != null
+		);
+		String upsert = statementBuilder.createUpsertStatementString(table, tableName, Dialect.of(targetConnection));
+		TransferPlan plan = TransferPlan.compile(table);
+		long start = System.currentTimeMillis();
+		long current = 0;
+		try (
+			SourceReader reader = new SourceReader(sourceConnection, options, table.getName());
+			PreparedStatement sourceStatement = reader.prepareStatement(select);
+			BatchWriter writer = new BatchWriter(targetConnection, upsert, options, table, plan, deadLetters)
+		) {
+			sourceStatement.setObject(1, upperBound);
+			if (lastWatermark != null) {
+				sourceStatement.setObject(2, CopyState.decode(lastWatermark, watermarkColumn));
+			}
+			try (ResultSet rs = sourceStatement.executeQuery()) {
+				while (rs.next()) {
+					writer.addRecord(rs);
+					current++;
+					if (current % options.getEffectiveBatchSize() == 0) {
+						log.info("copied record number " + current + " for table: " + table.getName());
+					}
+				}
+			}
+		}
+		state.setWatermark(table.getName(), CopyState.encode(upperBound));
+		state.save();
+		long millis = Math.max(1, System.currentTimeMillis() - start);
+		System.out.println("copying: " + tableName + " ready (" + current + " changed record(s) in " + millis + " ms).");
+		return current;
+	}
+
+	private Object readMaxWatermark(DBTable table, DBColumn watermarkColumn, Connection connection)
+		throws SQLException {
+		try (
+			Statement stmt = connection.createStatement();
+			ResultSet rs = stmt.executeQuery(statementBuilder.createMinMaxStatementString(table, watermarkColumn))
+		) {
+			return rs.next() ? rs.getObject(2) : null;
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package de.ollie.dbtools.copier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * A set of work queues, one for each worker. The items are distributed round robin to the queues. A worker takes the
+ * items from the head of its own queue and steals from the tail of the fullest other queue when its own queue is
+ * empty.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+class WorkStealingQueues<T> {
+
+	private final List<ConcurrentLinkedDeque<T>> queues = new ArrayList<>();
+
+	WorkStealingQueues(List<T> items, int workers) {
+		for (int i = 0; i < workers; i++) {
+			queues.add(new ConcurrentLinkedDeque<>());
+		}
+		for (int i = 0; i < items.size(); i++) {
+			queues.get(i % workers).addLast(items.get(i));
+		}
+	}
+
+	/**
+	 * Returns the next item for the passed worker.
+	 *
+	 * @param worker The index of the worker.
+	 * @return The next item for the worker or null if there are no more items.
+	 */
+	T next(int worker) {
+		T item = queues.get(worker).pollFirst();
+		while (item == null) {
+			ConcurrentLinkedDeque<T> victim = getFullestQueue();
+			if (victim == null) {
+				return null;
+			}
+			item = victim.pollLast();
+		}
+		return item;
+	}
+
+	private ConcurrentLinkedDeque<T> getFullestQueue() {
+		ConcurrentLinkedDeque<T> fullest = null;
+		int max = 0;
+		for (ConcurrentLinkedDeque<T> queue : queues) {
+			int size = queue.size();
+			if (size > max) {
+				max = size;
+				fullest = queue;
+			}
+		}
+		return fullest;
+	}
+
+	int getWorkers() {
+		return queues.size();
+	}
+}
@@ -0,0 +1,29 @@
+package de.ollie.dbtools.copier;
+
+/**
+ * The modes for writing the records to the target tables.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+public enum WriteMode {
+	/**
+	 * INSERT statements (a record which exists in the target already fails the copy).
+	 */
+	INSERT,
+	/**
+	 * Upserts by the primary key (INSERT ... ON CONFLICT DO UPDATE for PostgreSQL, INSERT ... ON DUPLICATE KEY UPDATE
+	 * for MySQL and MERGE for the others). Tables without a primary key are refused before the copy is started.
+	 */
+	UPSERT,
+	/**
+	 * Upserts like UPSERT which are skipping the update of records whose values are identical to those of the source.
+	 */
+	UPSERT_CHANGED,
+	/**
+	 * INSERT statements for the records whose primary key does not exist in the target table: The keys of the target
+	 * table are read into memory before the copy and the source records with these keys are skipped. Tables without a
+	 * primary key are written like INSERT.
+	 */
+	INSERT_MISSING;
+}
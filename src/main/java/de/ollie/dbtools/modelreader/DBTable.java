@@ -31,4 +31,12 @@ public interface DBTable {
 	 * @return The name of the table.
 	 */
 	String getName();
+
+	/**
+	 * Returns a list with the columns of the primary key of the table in key sequence order. The list is empty if the
+	 * table has no primary key.
+	 *
+	 * @return A list with the columns of the primary key of the table.
+	 */
+	List<DBColumn> getPrimaryKeyColumns();
 }
@@ -51,4 +51,34 @@ public class DBTypeConverter {
 		}
 		throw new IllegalArgumentException("there is no mapping for data type value: " + dataType);
 	}
+
+	/**
+	 * Converts the passed DBType to a Types value.
+	 *
+	 * @param dbType A DBType.
+	 * @return The Types constant for the passed DBType.
+	 * @throws IllegalArgumentException Passing a null value.
+	 */
+	public int convert(DBType dbType) {
+		if (dbType == null) {
+			throw new IllegalArgumentException("data type cannot be null!");
+		}
+		return switch (dbType) {
+			case BIGINT -> Types.BIGINT;
+			case BIT -> Types.BIT;
+			case BLOB -> Types.BLOB;
+			case BOOLEAN -> Types.BOOLEAN;
+			case CHAR -> Types.CHAR;
+			case CLOB -> Types.CLOB;
+			case DATE -> Types.DATE;
+			case DECIMAL -> Types.DECIMAL;
+			case INTEGER -> Types.INTEGER;
+			case LONG -> Types.LONGVARCHAR;
+			case NUMERIC -> Types.NUMERIC;
+			case RAW -> Types.OTHER;
+			case ROWID -> Types.ROWID;
+			case TIMESTAMP -> Types.TIMESTAMP;
+			case VARCHAR -> Types.VARCHAR;
+		};
+	}
 }
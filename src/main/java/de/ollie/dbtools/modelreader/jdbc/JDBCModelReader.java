@@ -23,6 +23,8 @@ import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class JDBCModelReader implements ModelReader {
 
@@ -65,6 +67,7 @@ public class JDBCModelReader implements ModelReader {
 		List<DBTable> tables = readTables(dbmd);
 		loadColumns(dbmd, tables);
 		loadIndices(dbmd, tables);
+		loadPrimaryKeys(dbmd, tables);
 		return new ArrayList<>(tables);
 	}
 
@@ -179,6 +182,24 @@ public class JDBCModelReader implements ModelReader {
 		}
 	}
 
+	private void loadPrimaryKeys(DatabaseMetaData dbmd, List<DBTable> tables) throws SQLException {
+		for (DBTable table : tables) {
+			System.out.println(LocalDateTime.now() + " - reading primary key for table: " + table.getName());
+			Map<Integer, DBColumn> keyColumns = new TreeMap<>();
+			try (ResultSet rs = dbmd.getPrimaryKeys(null, schemeName, table.getName())) {
+				while (rs.next()) {
+					String columnName = rs.getString("COLUMN_NAME");
+					try {
+						keyColumns.put(rs.getInt("KEY_SEQ"), getColumnByName(columnName, table));
+					} catch (IllegalArgumentException iae) {
+						System.out.println(LocalDateTime.now() + " - Primary key column not added: " + iae.getMessage());
+					}
+				}
+			}
+			table.getPrimaryKeyColumns().addAll(keyColumns.values());
+		}
+	}
+
 	private DBIndex getIndexByName(String name, DBTable table) {
 		for (DBIndex index : table.getIndices()) {
 			if (index.getName().equals(name)) {
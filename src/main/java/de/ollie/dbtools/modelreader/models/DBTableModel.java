@@ -28,6 +28,11 @@ public class DBTableModel implements DBTable {
 
 	private List<DBColumn> columns = new ArrayList<>();
 	private List<DBIndex> indices;
+	private List<DBColumn> primaryKeyColumns = new ArrayList<>();
+
+	public DBTableModel(String name, List<DBColumn> columns, List<DBIndex> indices) {
+		this(name, columns, indices, new ArrayList<>());
+	}
 
 	@Override
 	public void addColumns(DBColumn... dbColumns) {
@@ -0,0 +1,51 @@
+package de.ollie.dbtools.utils;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+/**
+ * An enum with the SQL dialects which are handled specifically by the tools.
+ *
+ * @author Oliver.Lieshoff
+ *
+ */
+public enum Dialect {
+	HSQLDB,
+	MYSQL,
+	ORACLE,
+	POSTGRESQL,
+	OTHER;
+
+	/**
+	 * Returns the dialect of the database which is linked to the passed connection.
+	 *
+	 * @param connection The connection whose dialect is to detect.
+	 * @return The dialect of the database or OTHER if the database is not known.
+	 * @throws SQLException If an error occurs while reading the meta data of the connection.
+	 */
+	public static Dialect of(Connection connection) throws SQLException {
+		return of(connection.getMetaData());
+	}
+
+	/**
+	 * Returns the dialect of the database which is described by the passed meta data.
+	 *
+	 * @param dbmd The meta data of the database whose dialect is to detect.
+	 * @return The dialect of the database or OTHER if the database is not known.
+	 * @throws SQLException If an error occurs while reading the meta data.
+	 */
+	public static Dialect of(DatabaseMetaData dbmd) throws SQLException {
+		String productName = dbmd.getDatabaseProductName().toLowerCase();
+		if (productName.contains("hsql")) {
+			return HSQLDB;
+		} else if (productName.contains("mysql") || productName.contains("mariadb")) {
+			return MYSQL;
+		} else if (productName.contains("oracle")) {
+			return ORACLE;
+		} else if (productName.contains("postgre")) {
+			return POSTGRESQL;
+		}
+		return OTHER;
+	}
+}
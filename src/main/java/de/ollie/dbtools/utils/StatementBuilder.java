@@ -5,6 +5,11 @@ import static de.ollie.dbtools.utils.Check.ensure;
 import de.ollie.dbtools.modelreader.DBColumn;
 import de.ollie.dbtools.modelreader.DBForeignKey;
 import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.modelreader.DBType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 public class StatementBuilder {
@@ -52,6 +57,559 @@ public class StatementBuilder {
 		return sb.toString();
 	}
 
+	/**
+	 * Creates a select statement which reads the records of the passed table which are matching the passed condition.
+	 *
+	 * @param table     The table whose data are to read.
+	 * @param condition A SQL condition for the records to read.
+	 * @return A select statement which reads the matching records of the table.
+	 */
+	public String createSelectStatementString(DBTable table, String condition) {
+		Objects.requireNonNull(condition);
+		return createSelectStatementString(table) + " WHERE " + condition;
+	}
+
+	/**
+	 * Creates a derived table which contains the records of the passed table selected by the passed sample clause and
+	 * condition. The derived table has the name of the table (without scheme) as alias, so it can be used instead of the
+	 * table name in the FROM clauses of the select statements.
+	 *
+	 * @param tableName    The name of the table whose records are to select.
+	 * @param sampleClause A sample clause for the table (see createTableSampleString) or null.
+	 * @param condition    A SQL condition for the records to select or null.
+	 * @return A derived table with the selected records of the table.
+	 */
+	public String createFilteredTableString(String tableName, String sampleClause, String condition) {
+		Objects.requireNonNull(tableName);
+		String alias = tableName.contains("@") ? tableName.substring(0, tableName.indexOf('@')) : tableName;
+		alias = alias.substring(alias.lastIndexOf('.') + 1);
+		return (
+			"(SELECT * FROM " +
+			tableName +
+			(sampleClause != null ? " " + sampleClause : "") +
+			(condition != null ? " WHERE " + condition : "") +
+			") " +
+			alias
+		);
+	}
+
+	/**
+	 * Creates a clause which samples the passed percentage of the records of a table. The clause is to append to the
+	 * table name in a FROM clause. The samples are repeatable, so the same records are selected by each statement.
+	 *
+	 * @param percent The percentage of the records to select.
+	 * @param dialect The dialect of the database which the clause is for.
+	 * @return A sample clause or null if the database has no table sampling.
+	 */
+	public String createTableSampleString(double percent, Dialect dialect) {
+		String value = BigDecimal.valueOf(percent).stripTrailingZeros().toPlainString();
+		if (dialect == Dialect.POSTGRESQL) {
+			return "TABLESAMPLE BERNOULLI (" + value + ") REPEATABLE (0)";
+		} else if (dialect == Dialect.ORACLE) {
+			return "SAMPLE (" + value + ") SEED (0)";
+		}
+		return null;
+	}
+
+	/**
+	 * Creates a select statement which reads one page of the table data in the order of the passed key column (keyset
+	 * pagination). The statement has a parameter for the lower bound (exclusive) and one for the upper bound (inclusive)
+	 * of the key, if the corresponding flags are set.
+	 *
+	 * @param table      The table whose data are to read.
+	 * @param keyColumn  The column whose values are limiting the page.
+	 * @param lowerBound Set this flag to add a parameter for an exclusive lower bound of the key.
+	 * @param upperBound Set this flag to add a parameter for an inclusive upper bound of the key.
+	 * @param pageSize   The maximum number of records to read with the statement.
+	 * @param dialect    The dialect of the database which the statement is for.
+	 * @return A select statement which reads one page of the table data.
+	 */
+	public String createKeysetSelectStatementString(
+		DBTable table,
+		DBColumn keyColumn,
+		boolean lowerBound,
+		boolean upperBound,
+		int pageSize,
+		Dialect dialect
+	) {
+		Objects.requireNonNull(keyColumn);
+		StringBuilder sb = new StringBuilder(createSelectStatementString(table));
+		if (lowerBound) {
+			sb.append(" WHERE ").append(keyColumn.getName()).append(" > ?");
+		}
+		if (upperBound) {
+			sb.append(lowerBound ? " AND " : " WHERE ").append(keyColumn.getName()).append(" <= ?");
+		}
+		sb.append(" ORDER BY ").append(keyColumn.getName());
+		return appendLimit(sb, pageSize, dialect).toString();
+	}
+
+	/**
+	 * Creates a select statement which reads the records of the passed table whose watermark column value is not
+	 * greater than an upper bound (first parameter). If the lower bound flag is set, the value has to be greater than
+	 * the lower bound (second parameter) too. Otherwise records with null watermark are read also.
+	 *
+	 * @param table           The table whose data are to read.
+	 * @param watermarkColumn The column with the watermarks of the records.
+	 * @param lowerBound      Set this flag to add a parameter for an exclusive lower bound of the watermark.
+	 * @return A select statement which reads the records of a watermark window.
+	 */
+	public String createWatermarkSelectStatementString(DBTable table, DBColumn watermarkColumn, boolean lowerBound) {
+		Objects.requireNonNull(watermarkColumn);
+		String name = watermarkColumn.getName();
+		return createSelectStatementString(
+			table,
+			lowerBound ? name + " <= ? AND " + name + " > ?" : "(" + name + " <= ? OR " + name + " IS NULL)"
+		);
+	}
+
+	/**
+	 * Creates a select statement which reads the records of the passed table in the order of the passed key column. The
+	 * statement has a parameter for an exclusive lower bound of the key if the corresponding flag is set.
+	 *
+	 * @param table      The table whose data are to read.
+	 * @param keyColumn  The column which defines the order of the records.
+	 * @param lowerBound Set this flag to add a parameter for an exclusive lower bound of the key.
+	 * @return A select statement which reads the records in key order.
+	 */
+	public String createOrderedSelectStatementString(DBTable table, DBColumn keyColumn, boolean lowerBound) {
+		Objects.requireNonNull(keyColumn);
+		StringBuilder sb = new StringBuilder(createSelectStatementString(table));
+		if (lowerBound) {
+			sb.append(" WHERE ").append(keyColumn.getName()).append(" > ?");
+		}
+		return sb.append(" ORDER BY ").append(keyColumn.getName()).toString();
+	}
+
+	private StringBuilder appendLimit(StringBuilder sb, int limit, Dialect dialect) {
+		if ((dialect == Dialect.ORACLE) || (dialect == Dialect.OTHER)) {
+			return sb.append(" FETCH FIRST ").append(limit).append(" ROWS ONLY");
+		}
+		return sb.append(" LIMIT ").append(limit);
+	}
+
+	/**
+	 * Creates a statement which reads the values of the passed key columns of all records of the passed table.
+	 *
+	 * @param tableName  The name of the table whose keys are to read.
+	 * @param keyColumns The columns of the key.
+	 * @return A statement which reads the keys of the table.
+	 */
+	public String createKeySelectStatementString(String tableName, List<DBColumn> keyColumns) {
+		Objects.requireNonNull(tableName);
+		ensure(!keyColumns.isEmpty(), "no key columns for table '" + tableName + "'!");
+		return "SELECT " + String.join(", ", getColumnNames(keyColumns)) + " FROM " + tableName;
+	}
+
+	/**
+	 * Creates a statement which reads the keys of the records of the passed table whose keys are passed as parameters
+	 * (the values of the key columns of each key one after another).
+	 *
+	 * @param tableName  The name of the table to check.
+	 * @param keyColumns The columns of the key.
+	 * @param keys       The number of the keys to look up.
+	 * @return A statement which returns the keys which exist in the table.
+	 */
+	public String createKeysExistStatementString(String tableName, List<DBColumn> keyColumns, int keys) {
+		Objects.requireNonNull(tableName);
+		ensure(!keyColumns.isEmpty(), "no key columns for table '" + tableName + "'!");
+		ensure(keys > 0, "keys must be greater than zero!");
+		List<String> columnNames = getColumnNames(keyColumns);
+		String select = "SELECT " + String.join(", ", columnNames) + " FROM " + tableName + " WHERE ";
+		if (columnNames.size() == 1) {
+			return select + columnNames.get(0) + " IN (" + String.join(", ", Collections.nCopies(keys, "?")) + ")";
+		}
+		String condition = "(" + String.join(" AND ", columnNames.stream().map(name -> name + " = ?").toList()) + ")";
+		return select + String.join(" OR ", Collections.nCopies(keys, condition));
+	}
+
+	public String createMinMaxStatementString(DBTable table, DBColumn column) {
+		Objects.requireNonNull(table);
+		return createMinMaxStatementString(table.getName(), column);
+	}
+
+	public String createMinMaxStatementString(String tableName, DBColumn column) {
+		Objects.requireNonNull(tableName);
+		Objects.requireNonNull(column);
+		return "SELECT MIN(" + column.getName() + "), MAX(" + column.getName() + ") FROM " + tableName;
+	}
+
+	/**
+	 * Creates a statement which reads the upper bounds of the passed number of equally filled buckets of the passed
+	 * column values. Note that the statement requires a database with window function support.
+	 *
+	 * @param table   The table whose column values are to read.
+	 * @param column  The column whose values are to split into buckets.
+	 * @param buckets The number of the buckets.
+	 * @return A statement which reads the upper bounds of the buckets in ascending order.
+	 */
+	public String createBucketBoundsStatementString(DBTable table, DBColumn column, int buckets) {
+		Objects.requireNonNull(table);
+		Objects.requireNonNull(column);
+		ensure(buckets > 0, "buckets must be greater than zero!");
+		return (
+			"SELECT MAX(" +
+			column.getName() +
+			") FROM (SELECT " +
+			column.getName() +
+			", NTILE(" +
+			buckets +
+			") OVER (ORDER BY " +
+			column.getName() +
+			") AS bucket FROM " +
+			table.getName() +
+			") buckets GROUP BY bucket ORDER BY 1"
+		);
+	}
+
+	/**
+	 * Creates a statement which removes all records of the passed table by a truncate.
+	 *
+	 * @param tableName The name of the table to truncate.
+	 * @param cascade   Set this flag to truncate the referencing tables too (PostgreSQL, Oracle).
+	 * @return A statement which truncates the table.
+	 */
+	public String createTruncateStatementString(String tableName, boolean cascade) {
+		Objects.requireNonNull(tableName);
+		return "TRUNCATE TABLE " + tableName + (cascade ? " CASCADE" : "");
+	}
+
+	public String createDeleteStatementString(String tableName) {
+		Objects.requireNonNull(tableName);
+		return "DELETE FROM " + tableName;
+	}
+
+	/**
+	 * Creates a statement which deletes the records of the passed table whose key is not greater than an upper bound
+	 * (last parameter). If the lower bound flag is set, the key has to be greater than a lower bound (first parameter).
+	 *
+	 * @param tableName  The name of the table whose records are to delete.
+	 * @param keyColumn  The key column of the table.
+	 * @param lowerBound Set this flag to add a parameter for an exclusive lower bound of the key.
+	 * @return A statement which deletes the records of a key range.
+	 */
+	public String createDeleteRangeStatementString(String tableName, DBColumn keyColumn, boolean lowerBound) {
+		Objects.requireNonNull(keyColumn);
+		return (
+			createDeleteStatementString(tableName) +
+			" WHERE " +
+			(lowerBound ? keyColumn.getName() + " > ? AND " : "") +
+			keyColumn.getName() +
+			" <= ?"
+		);
+	}
+
+	/**
+	 * Creates a statement which reads the greatest key of the next page of the passed size in the order of the passed
+	 * key column (keyset pagination). The statement has a parameter for an exclusive lower bound of the key if the
+	 * corresponding flag is set. It returns NULL if there are no more keys.
+	 *
+	 * @param tableName  The name of the table whose keys are to read.
+	 * @param keyColumn  The key column of the table.
+	 * @param lowerBound Set this flag to add a parameter for an exclusive lower bound of the key.
+	 * @param pageSize   The number of the keys of a page.
+	 * @param dialect    The dialect of the database which the statement is for.
+	 * @return A statement which reads the upper bound of the next page.
+	 */
+	public String createKeysetBoundStatementString(
+		String tableName,
+		DBColumn keyColumn,
+		boolean lowerBound,
+		int pageSize,
+		Dialect dialect
+	) {
+		Objects.requireNonNull(tableName);
+		Objects.requireNonNull(keyColumn);
+		String keyName = keyColumn.getName();
+		StringBuilder sb = new StringBuilder("SELECT ").append(keyName).append(" FROM ").append(tableName);
+		if (lowerBound) {
+			sb.append(" WHERE ").append(keyName).append(" > ?");
+		}
+		sb.append(" ORDER BY ").append(keyName);
+		return "SELECT MAX(" + keyName + ") FROM (" + appendLimit(sb, pageSize, dialect) + ") page";
+	}
+
+	/**
+	 * Creates a statement which deletes the records of the passed table whose key is greater than a parameter.
+	 *
+	 * @param tableName The name of the table whose records are to delete.
+	 * @param keyColumn The key column of the table.
+	 * @return A statement which deletes the records after a key.
+	 */
+	public String createDeleteAfterKeyStatementString(String tableName, DBColumn keyColumn) {
+		Objects.requireNonNull(tableName);
+		Objects.requireNonNull(keyColumn);
+		return "DELETE FROM " + tableName + " WHERE " + keyColumn.getName() + " > ?";
+	}
+
+	/**
+	 * Creates a statement which updates the passed columns of the record of a table with the passed key. The parameters
+	 * are the values of the columns followed by the values of the key columns.
+	 *
+	 * @param tableName  The name of the table whose record is to update.
+	 * @param columns    The columns to update.
+	 * @param keyColumns The columns of the key of the record.
+	 * @return A statement which updates the passed columns of a record.
+	 */
+	public String createUpdateStatementString(String tableName, List<DBColumn> columns, List<DBColumn> keyColumns) {
+		Objects.requireNonNull(tableName);
+		ensure(!columns.isEmpty(), "no columns to update for table '" + tableName + "'!");
+		ensure(!keyColumns.isEmpty(), "no key columns for table '" + tableName + "'!");
+		return (
+			"UPDATE " +
+			tableName +
+			" SET " +
+			String.join(", ", getColumnNames(columns).stream().map(name -> name + " = ?").toList()) +
+			" WHERE " +
+			String.join(" AND ", getColumnNames(keyColumns).stream().map(name -> name + " = ?").toList())
+		);
+	}
+
+	/**
+	 * Creates a statement which creates an empty table with the columns of the passed table but without its indices:
+	 * <ul>
+	 * <li>PostgreSQL: LIKE with all column properties and constraints, but without the indices.</li>
+	 * <li>HSQLDB: LIKE with the defaults, identity and generated columns (no check constraints).</li>
+	 * <li>MySQL: LIKE with all column properties, constraints and indices (the secondary indices are to drop).</li>
+	 * <li>Others: CREATE TABLE ... AS SELECT with the columns and NOT NULL constraints only.</li>
+	 * </ul>
+	 *
+	 * @param tableName       The name of the table whose columns are to take.
+	 * @param shadowTableName The name of the table to create.
+	 * @param dialect         The dialect of the database which the statement is for.
+	 * @return A statement which creates an empty copy of the table.
+	 */
+	public String createShadowTableStatementString(String tableName, String shadowTableName, Dialect dialect) {
+		Objects.requireNonNull(tableName);
+		Objects.requireNonNull(shadowTableName);
+		if (dialect == Dialect.POSTGRESQL) {
+			return "CREATE TABLE " + shadowTableName + " (LIKE " + tableName + " INCLUDING ALL EXCLUDING INDEXES)";
+		} else if (dialect == Dialect.HSQLDB) {
+			return (
+				"CREATE TABLE " +
+				shadowTableName +
+				" (LIKE " +
+				tableName +
+				" INCLUDING DEFAULTS INCLUDING IDENTITY INCLUDING GENERATED)"
+			);
+		} else if (dialect == Dialect.MYSQL) {
+			return "CREATE TABLE " + shadowTableName + " LIKE " + tableName;
+		}
+		return "CREATE TABLE " + shadowTableName + " AS SELECT * FROM " + tableName + " WHERE 1 = 0";
+	}
+
+	/**
+	 * Creates a statement which sets the default value of a column.
+	 *
+	 * @param tableName    The name of the table.
+	 * @param columnName   The name of the column.
+	 * @param defaultValue The SQL expression of the default value.
+	 * @param dialect      The dialect of the database which the statement is for.
+	 * @return A statement which sets the default value of the column.
+	 */
+	public String createSetDefaultStatementString(
+		String tableName,
+		String columnName,
+		String defaultValue,
+		Dialect dialect
+	) {
+		Objects.requireNonNull(tableName);
+		Objects.requireNonNull(columnName);
+		Objects.requireNonNull(defaultValue);
+		if (dialect == Dialect.ORACLE) {
+			return "ALTER TABLE " + tableName + " MODIFY (" + columnName + " DEFAULT " + defaultValue + ")";
+		}
+		return "ALTER TABLE " + tableName + " ALTER COLUMN " + columnName + " SET DEFAULT " + defaultValue;
+	}
+
+	/**
+	 * Creates a statement which drops an index.
+	 *
+	 * @param indexName The name of the index.
+	 * @param tableName The name of the indexed table.
+	 * @param dialect   The dialect of the database which the statement is for.
+	 * @return A statement which drops the index.
+	 */
+	public String createDropIndexStatementString(String indexName, String tableName, Dialect dialect) {
+		Objects.requireNonNull(indexName);
+		Objects.requireNonNull(tableName);
+		return "DROP INDEX " + indexName + (dialect == Dialect.MYSQL ? " ON " + tableName : "");
+	}
+
+	public String createDropTableStatementString(String tableName) {
+		Objects.requireNonNull(tableName);
+		return "DROP TABLE " + tableName;
+	}
+
+	/**
+	 * Creates a statement which creates an index.
+	 *
+	 * @param indexName   The name of the index.
+	 * @param tableName   The name of the table to index.
+	 * @param unique      Set this flag to create a unique index.
+	 * @param columnNames The names of the indexed columns (in the order of the index).
+	 * @return A statement which creates the index.
+	 */
+	public String createIndexStatementString(
+		String indexName,
+		String tableName,
+		boolean unique,
+		List<String> columnNames
+	) {
+		Objects.requireNonNull(indexName);
+		Objects.requireNonNull(tableName);
+		ensure(!columnNames.isEmpty(), "no columns for index '" + indexName + "'!");
+		return (
+			"CREATE " +
+			(unique ? "UNIQUE " : "") +
+			"INDEX " +
+			indexName +
+			" ON " +
+			tableName +
+			" (" +
+			String.join(", ", columnNames) +
+			")"
+		);
+	}
+
+	/**
+	 * Creates a statement which adds a primary key to a table.
+	 *
+	 * @param tableName      The name of the table.
+	 * @param constraintName The name of the primary key constraint or null if the database is to name it.
+	 * @param columnNames    The names of the key columns.
+	 * @return A statement which adds the primary key.
+	 */
+	public String createAddPrimaryKeyStatementString(String tableName, String constraintName, List<String> columnNames) {
+		Objects.requireNonNull(tableName);
+		ensure(!columnNames.isEmpty(), "no key columns for table '" + tableName + "'!");
+		return (
+			"ALTER TABLE " +
+			tableName +
+			" ADD " +
+			(constraintName != null ? "CONSTRAINT " + constraintName + " " : "") +
+			"PRIMARY KEY (" +
+			String.join(", ", columnNames) +
+			")"
+		);
+	}
+
+	/**
+	 * Creates the statements which are swapping a shadow table in: The table is renamed to the old table name and the
+	 * shadow table to the table name (by one atomic statement for MySQL). Note that the renames are committed
+	 * implicitly by databases without transactional DDL (e.g. Oracle).
+	 *
+	 * @param tableName       The name of the table to replace.
+	 * @param shadowTableName The name of the table which replaces the table.
+	 * @param oldTableName    The name for the replaced table.
+	 * @param dialect         The dialect of the database which the statements are for.
+	 * @return The statements which are swapping the tables (in the order of their execution).
+	 */
+	public List<String> createSwapTableStatementStrings(
+		String tableName,
+		String shadowTableName,
+		String oldTableName,
+		Dialect dialect
+	) {
+		Objects.requireNonNull(tableName);
+		Objects.requireNonNull(shadowTableName);
+		Objects.requireNonNull(oldTableName);
+		if (dialect == Dialect.MYSQL) {
+			return List.of(
+				"RENAME TABLE " + tableName + " TO " + oldTableName + ", " + shadowTableName + " TO " + tableName
+			);
+		}
+		return List.of(
+			"ALTER TABLE " + tableName + " RENAME TO " + oldTableName,
+			"ALTER TABLE " + shadowTableName + " RENAME TO " + tableName
+		);
+	}
+
+	/**
+	 * Creates a statement which lets a sequence be owned by a column, so it is dropped with the table of the column
+	 * (PostgreSQL).
+	 *
+	 * @param sequenceName The name of the sequence.
+	 * @param tableName    The name of the table which is to own the sequence.
+	 * @param columnName   The name of the column which is to own the sequence.
+	 * @return A statement which changes the owner of the sequence.
+	 */
+	public String createSequenceOwnerStatementString(String sequenceName, String tableName, String columnName) {
+		Objects.requireNonNull(sequenceName);
+		Objects.requireNonNull(tableName);
+		Objects.requireNonNull(columnName);
+		return "ALTER SEQUENCE " + sequenceName + " OWNED BY " + tableName + "." + columnName;
+	}
+
+	/**
+	 * Creates a statement which sets a sequence to the current value of another sequence (PostgreSQL).
+	 *
+	 * @param sequenceName       The name of the sequence whose value is to take.
+	 * @param targetSequenceName The name of the sequence to set.
+	 * @return A statement which sets the value of the target sequence.
+	 */
+	public String createCopySequenceValueStatementString(String sequenceName, String targetSequenceName) {
+		Objects.requireNonNull(sequenceName);
+		Objects.requireNonNull(targetSequenceName);
+		return "SELECT setval('" + targetSequenceName + "', last_value, is_called) FROM " + sequenceName;
+	}
+
+	/**
+	 * Creates a statement which exchanges the passed partition of a table with a shadow table (Oracle).
+	 *
+	 * @param tableName       The name of the partitioned table.
+	 * @param partitionName   The name of the partition to exchange.
+	 * @param shadowTableName The name of the table to exchange the partition with.
+	 * @return A statement which exchanges the partition.
+	 */
+	public String createExchangePartitionStatementString(String tableName, String partitionName, String shadowTableName) {
+		Objects.requireNonNull(tableName);
+		Objects.requireNonNull(partitionName);
+		Objects.requireNonNull(shadowTableName);
+		return (
+			"ALTER TABLE " +
+			tableName +
+			" EXCHANGE PARTITION " +
+			partitionName +
+			" WITH TABLE " +
+			shadowTableName +
+			" INCLUDING INDEXES WITHOUT VALIDATION UPDATE GLOBAL INDEXES"
+		);
+	}
+
+	/**
+	 * Creates a statement which copies the records of a source table into a target table on the server (both tables
+	 * have to be accessible by the connection which executes the statement).
+	 *
+	 * @param table           The table whose columns are to copy.
+	 * @param sourceTableName The (qualified) name of the source table.
+	 * @param targetTableName The (qualified) name of the target table.
+	 * @param condition       A SQL condition for the records to copy or null if all records are to copy.
+	 * @return A statement which copies the records on the server.
+	 */
+	public String createInsertSelectStatementString(
+		DBTable table,
+		String sourceTableName,
+		String targetTableName,
+		String condition
+	) {
+		Objects.requireNonNull(table);
+		Objects.requireNonNull(sourceTableName);
+		Objects.requireNonNull(targetTableName);
+		String columnNames = String.join(", ", getColumnNames(table.getColumns()));
+		return (
+			"INSERT INTO " +
+			targetTableName +
+			" (" +
+			columnNames +
+			") SELECT " +
+			columnNames +
+			" FROM " +
+			sourceTableName +
+			(condition != null ? " WHERE " + condition : "")
+		);
+	}
+
 	public String createInsertStatementString(DBTable table) {
 		return createInsertStatementString(table, null);
 	}
@@ -77,6 +635,153 @@ public class StatementBuilder {
 		return sb.toString();
 	}
 
+	/**
+	 * Creates a statement which inserts a record into the passed table or updates the record with the same primary key
+	 * if there is one already. The parameters are in the same order as of the insert statement.
+	 *
+	 * @param table                The table to write the record to.
+	 * @param alternativeTableName A name for the table to write or null if the name of the table is to use.
+	 * @param dialect              The dialect of the database which the statement is for.
+	 * @return A statement which inserts or updates a record of the table.
+	 */
+	public String createUpsertStatementString(DBTable table, String alternativeTableName, Dialect dialect) {
+		return createUpsertStatementString(table, alternativeTableName, dialect, false);
+	}
+
+	/**
+	 * Creates a statement which inserts a record into the passed table or updates the record with the same primary key
+	 * if there is one already. The parameters are in the same order as of the insert statement.
+	 * <p>
+	 * If unchanged records are to skip, the update is restricted to records whose values are distinct from the passed
+	 * ones. MySQL skips these records by itself and tables with LOB columns are always updated.
+	 *
+	 * @param table                The table to write the record to.
+	 * @param alternativeTableName A name for the table to write or null if the name of the table is to use.
+	 * @param dialect              The dialect of the database which the statement is for.
+	 * @param skipUnchanged        Set this flag to skip the update of records whose values are identical.
+	 * @return A statement which inserts or updates a record of the table.
+	 */
+	public String createUpsertStatementString(
+		DBTable table,
+		String alternativeTableName,
+		Dialect dialect,
+		boolean skipUnchanged
+	) {
+		Objects.requireNonNull(table);
+		ensure(!table.getPrimaryKeyColumns().isEmpty(), "table '" + table.getName() + "' has no primary key!");
+		String tableName = alternativeTableName != null ? alternativeTableName : table.getName();
+		List<String> keyColumnNames = getColumnNames(table.getPrimaryKeyColumns());
+		List<String> valueColumnNames = getColumnNames(table.getColumns());
+		valueColumnNames.removeAll(keyColumnNames);
+		boolean compareValues = skipUnchanged && !valueColumnNames.isEmpty() && !hasLobColumns(table);
+		if (dialect == Dialect.MYSQL) {
+			List<String> updates = (valueColumnNames.isEmpty() ? keyColumnNames : valueColumnNames)
+				.stream()
+				.map(name -> name + " = VALUES(" + name + ")")
+				.toList();
+			return createInsertStatementString(table, tableName) + " ON DUPLICATE KEY UPDATE " + String.join(", ", updates);
+		} else if (dialect == Dialect.POSTGRESQL) {
+			List<String> updates = valueColumnNames.stream().map(name -> name + " = EXCLUDED." + name).toList();
+			return (
+				createInsertStatementString(table, tableName) +
+				" ON CONFLICT (" +
+				String.join(", ", keyColumnNames) +
+				") DO " +
+				(updates.isEmpty() ? "NOTHING" : "UPDATE SET " + String.join(", ", updates)) +
+				(compareValues
+						? " WHERE (" +
+						String.join(", ", valueColumnNames.stream().map(name -> tableName + "." + name).toList()) +
+						") IS DISTINCT FROM (" +
+						String.join(", ", valueColumnNames.stream().map(name -> "EXCLUDED." + name).toList()) +
+						")"
+						: "")
+			);
+		}
+		return createMergeStatementString(table, tableName, keyColumnNames, valueColumnNames, dialect, compareValues);
+	}
+
+	private boolean hasLobColumns(DBTable table) {
+		return table
+			.getColumns()
+			.stream()
+			.anyMatch(column ->
+				(column.getType() == DBType.BLOB) || (column.getType() == DBType.CLOB) || (column.getType() == DBType.LONG)
+			);
+	}
+
+	private String createMergeStatementString(
+		DBTable table,
+		String tableName,
+		List<String> keyColumnNames,
+		List<String> valueColumnNames,
+		Dialect dialect,
+		boolean compareValues
+	) {
+		List<String> columnNames = getColumnNames(table.getColumns());
+		StringBuilder sb = new StringBuilder("MERGE INTO ").append(tableName).append(" t USING (");
+		if (dialect == Dialect.ORACLE) {
+			sb
+				.append("SELECT ")
+				.append(String.join(", ", columnNames.stream().map(name -> "? AS " + name).toList()))
+				.append(" FROM DUAL) s");
+		} else {
+			sb
+				.append("VALUES (")
+				.append(createPlaceHolders(table))
+				.append(")) AS s (")
+				.append(String.join(", ", columnNames))
+				.append(")");
+		}
+		sb
+			.append(" ON (")
+			.append(String.join(" AND ", keyColumnNames.stream().map(name -> "t." + name + " = s." + name).toList()))
+			.append(")");
+		if (!valueColumnNames.isEmpty()) {
+			String changed = String.join(" OR ", valueColumnNames.stream().map(this::createChangedCondition).toList());
+			sb
+				.append(compareValues && (dialect != Dialect.ORACLE) ? " WHEN MATCHED AND (" + changed + ")" : " WHEN MATCHED")
+				.append(" THEN UPDATE SET ")
+				.append(String.join(", ", valueColumnNames.stream().map(name -> "t." + name + " = s." + name).toList()));
+			if (compareValues && (dialect == Dialect.ORACLE)) {
+				sb.append(" WHERE ").append(changed);
+			}
+		}
+		return sb
+			.append(" WHEN NOT MATCHED THEN INSERT (")
+			.append(String.join(", ", columnNames))
+			.append(") VALUES (")
+			.append(String.join(", ", columnNames.stream().map(name -> "s." + name).toList()))
+			.append(")")
+			.toString();
+	}
+
+	/**
+	 * Null safe comparison of the target and the source value of the passed column ("IS DISTINCT FROM" is not known by
+	 * Oracle and fails for untyped parameters with HSQLDB).
+	 */
+	private String createChangedCondition(String columnName) {
+		String target = "t." + columnName;
+		String source = "s." + columnName;
+		return (
+			target +
+			" <> " +
+			source +
+			" OR (" +
+			target +
+			" IS NULL AND " +
+			source +
+			" IS NOT NULL) OR (" +
+			target +
+			" IS NOT NULL AND " +
+			source +
+			" IS NULL)"
+		);
+	}
+
+	private List<String> getColumnNames(List<DBColumn> columns) {
+		return new ArrayList<>(columns.stream().map(DBColumn::getName).toList());
+	}
+
 	private String createPlaceHolders(DBTable table) {
 		StringBuilder sb = new StringBuilder("");
 		for (int i = 0, leni = table.getColumns().size(); i < leni; i++) {
@@ -0,0 +1,122 @@
+package de.ollie.dbtools.connections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaConnectionFactoryTest {
+
+	@Mock
+	private Connection connection0;
+
+	@Mock
+	private Connection connection1;
+
+	@Mock
+	private Connection primaryConnection;
+
+	private ReplicaConnectionFactory createUnitUnderTest(ReplicaSelection selection) {
+		return new ReplicaConnectionFactory(
+			() -> primaryConnection,
+			List.of(() -> connection0, () -> connection1),
+			selection
+		);
+	}
+
+	@Nested
+	class constructor_ConnectionFactory_ListConnectionFactory_ReplicaSelection {
+
+		@Test
+		void throwsAnException_passingNoReplicas() {
+			assertThrows(
+				IllegalArgumentException.class,
+				() -> new ReplicaConnectionFactory(() -> primaryConnection, List.of(), ReplicaSelection.ROUND_ROBIN)
+			);
+		}
+	}
+
+	@Nested
+	class createConnection {
+
+		@Test
+		void returnsConnectionsOfTheReplicasOneAfterTheOther_passingRoundRobin() throws Exception {
+			// Prepare
+			ReplicaConnectionFactory unitUnderTest = createUnitUnderTest(ReplicaSelection.ROUND_ROBIN);
+			when(connection0.getCatalog()).thenReturn("0");
+			when(connection1.getCatalog()).thenReturn("1");
+			// Run
+			String catalogs = "";
+			for (int i = 0; i < 3; i++) {
+				catalogs += unitUnderTest.createConnection().getCatalog();
+			}
+			// Check
+			assertEquals("010", catalogs);
+			assertEquals(2, unitUnderTest.getOpenConnections(0));
+			assertEquals(1, unitUnderTest.getOpenConnections(1));
+		}
+
+		@Test
+		void returnsAConnectionOfTheReplicaWithTheLeastOpenConnections_passingLeastLoaded() throws Exception {
+			// Prepare
+			ReplicaConnectionFactory unitUnderTest = createUnitUnderTest(ReplicaSelection.LEAST_LOADED);
+			when(connection0.getCatalog()).thenReturn("0");
+			Connection first = unitUnderTest.createConnection();
+			unitUnderTest.createConnection().close();
+			// Run
+			unitUnderTest.createConnection();
+			// Check
+			assertEquals("0", first.getCatalog());
+			assertEquals(1, unitUnderTest.getOpenConnections(0));
+			assertEquals(1, unitUnderTest.getOpenConnections(1));
+			verify(connection1).close();
+		}
+
+		@Test
+		void countsAClosedConnectionOnlyOnce() throws Exception {
+			// Prepare
+			ReplicaConnectionFactory unitUnderTest = createUnitUnderTest(ReplicaSelection.LEAST_LOADED);
+			Connection connection = unitUnderTest.createConnection();
+			// Run
+			connection.close();
+			connection.close();
+			// Check
+			assertEquals(0, unitUnderTest.getOpenConnections(0));
+		}
+
+		@Test
+		void releasesTheReplica_throwingAnExceptionOnOpeningAConnection() {
+			// Prepare
+			ReplicaConnectionFactory unitUnderTest = new ReplicaConnectionFactory(
+				() -> primaryConnection,
+				List.of(() -> {
+					throw new SQLException("down");
+				}),
+				ReplicaSelection.LEAST_LOADED
+			);
+			// Run & Check
+			assertThrows(SQLException.class, () -> unitUnderTest.createConnection());
+			assertEquals(0, unitUnderTest.getOpenConnections(0));
+		}
+	}
+
+	@Nested
+	class createPrimaryConnection {
+
+		@Test
+		void returnsAConnectionOfThePrimaryFactory() throws Exception {
+			assertSame(primaryConnection, createUnitUnderTest(ReplicaSelection.ROUND_ROBIN).createPrimaryConnection());
+		}
+	}
+}
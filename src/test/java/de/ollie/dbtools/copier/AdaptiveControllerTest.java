@@ -0,0 +1,122 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveControllerTest {
+
+	private static final String TABLE_NAME = "TABLE";
+	private static final long FAST = 1_000_000L;
+	private static final long SLOW = 5_000_000_000L;
+
+	private static CopyOptions createOptions() {
+		return new CopyOptions()
+			.setAdaptive(true)
+			.setBatchSize(1000)
+			.setMinBatchSize(100)
+			.setMaxBatchSize(1200)
+			.setMaxBatchLatencyMillis(1000);
+	}
+
+	@Nested
+	class create_String_CopyOptions_int {
+
+		@Test
+		void returnsNull_passingOptionsWithoutAdaptiveMode() {
+			assertNull(AdaptiveController.create(TABLE_NAME, new CopyOptions(), 1));
+		}
+
+		@Test
+		void returnsAController_passingOptionsWithAdaptiveMode() {
+			assertNotNull(AdaptiveController.create(TABLE_NAME, createOptions(), 1));
+		}
+	}
+
+	@Nested
+	class batchExecuted_int_long {
+
+		@Test
+		void increasesTheBatchSizeByTheMinimumBatchSize_passingAFastBatch() {
+			// Prepare
+			AdaptiveController unitUnderTest = new AdaptiveController(TABLE_NAME, createOptions(), 1);
+			// Run
+			unitUnderTest.batchExecuted(1000, FAST);
+			// Check
+			assertEquals(1100, unitUnderTest.getBatchSize());
+			assertEquals(1100, unitUnderTest.getFetchSize());
+		}
+
+		@Test
+		void increasesTheBatchSizeUpToTheMaximumBatchSize_passingFastBatches() {
+			// Prepare
+			AdaptiveController unitUnderTest = new AdaptiveController(TABLE_NAME, createOptions(), 1);
+			// Run
+			for (int i = 0; i < 5; i++) {
+				unitUnderTest.batchExecuted(unitUnderTest.getBatchSize(), FAST);
+			}
+			// Check
+			assertEquals(1200, unitUnderTest.getBatchSize());
+		}
+
+		@Test
+		void halvesTheBatchSize_passingABatchWhichExceedsTheMaximumLatency() {
+			// Prepare
+			AdaptiveController unitUnderTest = new AdaptiveController(TABLE_NAME, createOptions(), 1);
+			// Run
+			unitUnderTest.batchExecuted(1000, SLOW);
+			// Check
+			assertEquals(500, unitUnderTest.getBatchSize());
+		}
+
+		@Test
+		void halvesTheBatchSize_passingABatchWithAThroughputDrop() {
+			// Prepare
+			AdaptiveController unitUnderTest = new AdaptiveController(TABLE_NAME, createOptions(), 1);
+			unitUnderTest.batchExecuted(1000, FAST);
+			// Run
+			unitUnderTest.batchExecuted(1100, FAST * 10);
+			// Check
+			assertEquals(550, unitUnderTest.getBatchSize());
+		}
+
+		@Test
+		void doesNotDecreaseTheBatchSizeBelowTheMinimumBatchSize_passingSlowBatches() {
+			// Prepare
+			AdaptiveController unitUnderTest = new AdaptiveController(TABLE_NAME, createOptions(), 1);
+			// Run
+			for (int i = 0; i < 10; i++) {
+				unitUnderTest.batchExecuted(unitUnderTest.getBatchSize(), SLOW);
+			}
+			// Check
+			assertEquals(100, unitUnderTest.getBatchSize());
+		}
+
+		@Test
+		void changesTheNumberOfTheActiveWorkers_passingTheBatchesOfAnEvaluationInterval() {
+			// Prepare
+			AdaptiveController unitUnderTest = new AdaptiveController(TABLE_NAME, createOptions(), 4);
+			// Run
+			for (int i = 0; i < AdaptiveController.EVALUATION_BATCHES * 4; i++) {
+				unitUnderTest.batchExecuted(1000, FAST);
+			}
+			// Check
+			assertEquals(3, unitUnderTest.getWorkers());
+		}
+
+		@Test
+		void keepsOneWorker_passingASingleWorker() {
+			// Prepare
+			AdaptiveController unitUnderTest = new AdaptiveController(TABLE_NAME, createOptions(), 1);
+			// Run
+			for (int i = 0; i < AdaptiveController.EVALUATION_BATCHES * 4; i++) {
+				unitUnderTest.batchExecuted(1000, FAST);
+			}
+			// Check
+			assertEquals(1, unitUnderTest.getWorkers());
+		}
+	}
+}
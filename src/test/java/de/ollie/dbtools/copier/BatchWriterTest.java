@@ -0,0 +1,156 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.ollie.dbtools.modelreader.DBTable;
+import de.ollie.dbtools.modelreader.DBType;
+import de.ollie.dbtools.modelreader.models.DBColumnModel;
+import de.ollie.dbtools.modelreader.models.DBTableModel;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BatchWriterTest {
+
+	private static final String INSERT = "insert-statement-string";
+
+	@Mock
+	private Connection connection;
+
+	@Mock
+	private PreparedStatement statement;
+
+	@Mock
+	private KeyFilter keyFilter;
+
+	@Mock
+	private LobValue lobValue;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		when(connection.getAutoCommit()).thenReturn(true);
+		when(connection.prepareStatement(INSERT)).thenReturn(statement);
+	}
+
+	@Nested
+	class addRecord {
+
+		@Test
+		void executesABatch_whenTheBatchSizeIsReached() throws Exception {
+			// Prepare
+			BatchWriter unitUnderTest = new BatchWriter(connection, INSERT, new CopyOptions().setBatchSize(2));
+			// Run
+			for (int i = 0; i < 5; i++) {
+				unitUnderTest.addRecord();
+			}
+			// Check
+			verify(statement, times(5)).addBatch();
+			verify(statement, times(2)).executeBatch();
+			verify(connection, times(2)).commit();
+			assertEquals(4, unitUnderTest.getRecordsWritten());
+		}
+
+		@Test
+		void commitsAfterTheCommitInterval() throws Exception {
+			// Prepare
+			BatchWriter unitUnderTest = new BatchWriter(
+				connection,
+				INSERT,
+				new CopyOptions().setBatchSize(2).setCommitInterval(6)
+			);
+			// Run
+			for (int i = 0; i < 10; i++) {
+				unitUnderTest.addRecord();
+			}
+			// Check
+			verify(statement, times(5)).executeBatch();
+			verify(connection, times(1)).commit();
+		}
+
+		@Test
+		void releasesTheLobValuesOfARowWhichIsSkippedByTheKeyFilter() throws Exception {
+			// Prepare
+			DBTable table = new DBTableModel(
+				"TABLE",
+				List.of(
+					new DBColumnModel("ID", "BIGINT", DBType.BIGINT, 0, 0),
+					new DBColumnModel("DOC", "CLOB", DBType.CLOB, 0, 0)
+				),
+				List.of()
+			);
+			TransferPlan plan = TransferPlan.compile(table);
+			RowBatch batch = new RowBatch(1, plan);
+			int row = batch.addRow();
+			batch.setLong(0, row, 42);
+			batch.setObject(1, row, lobValue);
+			when(keyFilter.contains(plan, batch, row)).thenReturn(true);
+			BatchWriter unitUnderTest = new BatchWriter(connection, INSERT, new CopyOptions(), table, plan, null);
+			unitUnderTest.setKeyFilter(keyFilter);
+			// Run
+			unitUnderTest.addRecord(batch, row);
+			// Check
+			verify(lobValue).release();
+			verify(statement, never()).addBatch();
+		}
+	}
+
+	@Nested
+	class close {
+
+		@Test
+		void flushesAndCommitsTheRestAndRestoresTheAutoCommitMode() throws Exception {
+			// Prepare
+			BatchWriter unitUnderTest = new BatchWriter(connection, INSERT, new CopyOptions().setBatchSize(10));
+			unitUnderTest.addRecord();
+			// Run
+			unitUnderTest.close();
+			// Check
+			verify(statement, times(1)).executeBatch();
+			verify(connection, times(1)).commit();
+			verify(connection, times(1)).setAutoCommit(false);
+			verify(connection, times(1)).setAutoCommit(true);
+			verify(statement, times(1)).close();
+			assertEquals(1, unitUnderTest.getRecordsWritten());
+		}
+
+		@Test
+		void rollsBack_whenABatchHasFailed() throws Exception {
+			// Prepare
+			when(statement.executeBatch()).thenThrow(new SQLException("failed"));
+			BatchWriter unitUnderTest = new BatchWriter(connection, INSERT, new CopyOptions().setBatchSize(1));
+			assertThrows(SQLException.class, () -> unitUnderTest.addRecord());
+			// Run
+			unitUnderTest.close();
+			// Check
+			verify(connection, times(1)).rollback();
+			verify(connection, never()).commit();
+		}
+
+		@Test
+		void callsTheCommitListenerAfterTheCommit() throws Exception {
+			// Prepare
+			AtomicInteger commits = new AtomicInteger();
+			BatchWriter unitUnderTest = new BatchWriter(connection, INSERT, new CopyOptions().setBatchSize(10));
+			unitUnderTest.setCommitListener(commits::incrementAndGet);
+			unitUnderTest.addRecord();
+			// Run
+			unitUnderTest.close();
+			// Check
+			assertEquals(1, commits.get());
+		}
+	}
+}
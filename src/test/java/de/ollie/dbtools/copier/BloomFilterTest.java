@@ -0,0 +1,46 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+	private static final int KEYS = 10_000;
+
+	private BloomFilter unitUnderTest = new BloomFilter(KEYS, 0.01);
+
+	@Nested
+	class mightContain_String {
+
+		@Test
+		void returnsTrue_passingAddedKeys() {
+			// Prepare
+			for (int i = 0; i < KEYS; i++) {
+				unitUnderTest.add("key-" + i);
+			}
+			// Run & Check
+			for (int i = 0; i < KEYS; i++) {
+				assertTrue(unitUnderTest.mightContain("key-" + i), "key: " + i);
+			}
+		}
+
+		@Test
+		void returnsFalseForMostKeys_passingKeysWhichAreNotAdded() {
+			// Prepare
+			for (int i = 0; i < KEYS; i++) {
+				unitUnderTest.add("key-" + i);
+			}
+			// Run
+			int falsePositives = 0;
+			for (int i = 0; i < KEYS; i++) {
+				if (unitUnderTest.mightContain("other-" + i)) {
+					falsePositives++;
+				}
+			}
+			// Check
+			assertTrue(falsePositives < KEYS * 0.03, "false positives: " + falsePositives);
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class BufferPoolTest {
+
+	@Nested
+	class of_CopyOptions {
+
+		@Test
+		void returnsNull_passingOptionsWithoutBudget() {
+			assertNull(BufferPool.of(new CopyOptions()));
+		}
+
+		@Test
+		void returnsTheSamePool_passingOptionsWithTheSameBudget() {
+			assertSame(
+				BufferPool.of(new CopyOptions().setMaxBufferMemory(3)),
+				BufferPool.of(new CopyOptions().setMaxBufferMemory(3))
+			);
+		}
+	}
+
+	@Nested
+	class acquire {
+
+		@Test
+		void returnsDirectBuffersOfTheSegmentSize() throws Exception {
+			// Prepare
+			BufferPool unitUnderTest = new BufferPool(1, 16);
+			// Run
+			ByteBuffer segment = unitUnderTest.acquire();
+			// Check
+			assertTrue(segment.isDirect());
+			assertEquals(16, segment.capacity());
+		}
+
+		@Test
+		void blocksUntilASegmentIsReleased_passingAPoolWhoseBudgetIsUsedUp() throws Exception {
+			// Prepare
+			BufferPool unitUnderTest = new BufferPool(1, 16);
+			ByteBuffer segment = unitUnderTest.acquire();
+			segment.put((byte) 1);
+			CompletableFuture<ByteBuffer> waiting = CompletableFuture.supplyAsync(() -> {
+				try {
+					return unitUnderTest.acquire();
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			// Run
+			boolean blocked = isBlocked(waiting);
+			unitUnderTest.release(segment);
+			// Check
+			assertTrue(blocked);
+			ByteBuffer reused = waiting.get(5, TimeUnit.SECONDS);
+			assertSame(segment, reused);
+			assertEquals(0, reused.position());
+			assertFalse(unitUnderTest.getAvailableSegments() > 0);
+		}
+
+		private boolean isBlocked(CompletableFuture<ByteBuffer> future) throws Exception {
+			try {
+				future.get(100, TimeUnit.MILLISECONDS);
+				return false;
+			} catch (TimeoutException e) {
+				return true;
+			}
+		}
+	}
+}
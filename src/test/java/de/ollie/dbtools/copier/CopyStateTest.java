@@ -0,0 +1,79 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CopyStateTest {
+
+	private static final String TABLE_NAME = "TABLE";
+
+	@TempDir
+	private File temp;
+
+	@Nested
+	class load_Path {
+
+		@Test
+		void returnsAnEmptyState_passingAFileWhichDoesNotExist() {
+			assertNull(CopyState.load(Path.of(temp.getAbsolutePath(), "missing.state")).getWatermark(TABLE_NAME));
+		}
+
+		@Test
+		void returnsTheSavedWatermarks_passingAFileWhichHasBeenSaved() {
+			// Prepare
+			Path file = Path.of(temp.getAbsolutePath(), "copy.state");
+			CopyState state = CopyState.load(file);
+			state.setWatermark(TABLE_NAME, "2024-01-02 03:04:05.0");
+			state.save();
+			// Run & Check
+			assertEquals("2024-01-02 03:04:05.0", CopyState.load(file).getWatermark(TABLE_NAME));
+		}
+	}
+
+	@Nested
+	class clearCheckpoints {
+
+		@Test
+		void removesCheckpointsAndCompletionsButKeepsTheWatermarks() {
+			// Prepare
+			CopyState unitUnderTest = CopyState.load(Path.of(temp.getAbsolutePath(), "copy.state"));
+			unitUnderTest.setWatermark(TABLE_NAME, "42");
+			unitUnderTest.setCheckpoint(TABLE_NAME, "4711");
+			unitUnderTest.setCompleted("ANOTHER_TABLE");
+			unitUnderTest.setStarted("THIRD_TABLE");
+			// Run
+			unitUnderTest.clearCheckpoints();
+			// Check
+			assertNull(unitUnderTest.getCheckpoint(TABLE_NAME));
+			assertFalse(unitUnderTest.isCompleted("ANOTHER_TABLE"));
+			assertFalse(unitUnderTest.isStarted("THIRD_TABLE"));
+			assertEquals("42", unitUnderTest.getWatermark(TABLE_NAME));
+		}
+	}
+
+	@Nested
+	class setCompleted_String {
+
+		@Test
+		void removesTheCheckpointAndTheStartMarkOfTheTable() {
+			// Prepare
+			CopyState unitUnderTest = CopyState.load(Path.of(temp.getAbsolutePath(), "copy.state"));
+			unitUnderTest.setStarted(TABLE_NAME);
+			unitUnderTest.setCheckpoint(TABLE_NAME, "4711");
+			// Run
+			unitUnderTest.setCompleted(TABLE_NAME);
+			// Check
+			assertNull(unitUnderTest.getCheckpoint(TABLE_NAME));
+			assertFalse(unitUnderTest.isStarted(TABLE_NAME));
+			assertTrue(unitUnderTest.isCompleted(TABLE_NAME));
+		}
+	}
+}
@@ -1,17 +1,29 @@
 package de.ollie.dbtools.copier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import de.ollie.dbtools.connections.ReplicaConnectionFactory;
+import de.ollie.dbtools.connections.ReplicaSelection;
 import de.ollie.dbtools.utils.StatementBuilder;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Files;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -23,6 +35,8 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -75,7 +89,7 @@ class DataCopierTest {
 		unitUnderTest.sequenceUpater = sequenceUpater;
 	}
 
-	private Connection getConnection(String dbName) throws Exception {
+	private Connection getConnection(String dbName) throws SQLException {
 		return DriverManager.getConnection(
 			"jdbc:hsqldb:file:" + temp.getAbsolutePath() + "/" + dbName + ";shutdown=true",
 			"SA",
@@ -159,6 +173,1101 @@ class DataCopierTest {
 			return count;
 		}
 
+		@Test
+		void passSourceAndTargetConnectionWithBatchOptions_DatabaseContentCopied() throws Exception {
+			// Prepare
+			createDatabase(connectionSource, TABLE_NAME_1);
+			createDatabase(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 5; i++) {
+				insertData(connectionSource, i, "name" + i, i * 1.5F);
+			}
+			CopyOptions options = new CopyOptions().setBatchSize(2).setCommitInterval(3);
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, true, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			assertEquals(5, count(connectionTarget, TABLE_NAME_1));
+			assertTrue(connectionTarget.getAutoCommit());
+		}
+
+		@Test
+		void passSourceAndTargetConnectionFactoriesWithThreads_DatabaseContentOfAllTablesCopied() throws Exception {
+			// Prepare
+			String tableName2 = "AnotherTable";
+			createDatabase(connectionSource, TABLE_NAME_1);
+			createDatabase(connectionSource, tableName2);
+			createDatabase(connectionTarget, TABLE_NAME_1);
+			createDatabase(connectionTarget, tableName2);
+			insertData(connectionSource, 1, "eins", 1.11111F);
+			insertData(connectionSource, 2, "zwei", 2.2F);
+			connectionSource.createStatement().execute("INSERT INTO " + tableName2 + " SELECT * FROM " + TABLE_NAME_1);
+			CopyOptions options = new CopyOptions().setThreads(2).setVirtualThreads(true);
+			// Run
+			unitUnderTest.copy(
+				() -> getConnection(dbNameSource),
+				() -> getConnection(dbNameTarget),
+				true,
+				Arrays.asList("*"),
+				List.of(),
+				null,
+				null,
+				options
+			);
+			// Check
+			assertEquals(2, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(2, count(connectionTarget, tableName2));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionFactoriesWithPartitionThreads_DatabaseContentCopiedInKeyRanges()
+			throws Exception {
+			// Prepare
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			createDatabaseWithPrimaryKey(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 50; i++) {
+				insertData(connectionSource, i * 3, "name" + i, i * 1.5F);
+			}
+			CopyOptions options = new CopyOptions().setBatchSize(4).setPartitionThreads(3).setChunkSize(7);
+			// Run
+			unitUnderTest.copy(
+				() -> getConnection(dbNameSource),
+				() -> getConnection(dbNameTarget),
+				true,
+				Arrays.asList("*"),
+				List.of(),
+				null,
+				null,
+				options
+			);
+			// Check
+			assertEquals(50, count(connectionTarget, TABLE_NAME_1));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionFactoriesWithPartitionThreadsAndAFilteredTableWithoutKey_FilteredRecordsCopied()
+			throws Exception {
+			// Prepare
+			createDatabase(connectionSource, TABLE_NAME_1);
+			createDatabase(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 50; i++) {
+				insertData(connectionSource, i % 3 == 0 ? null : i, "name" + i, i * 1.5F);
+			}
+			CopyOptions options = new CopyOptions()
+				.setPartitionThreads(3)
+				.setChunkSize(7)
+				.setTableFilters(Map.of(TABLE_NAME_1.toUpperCase(), COLUMN_NAME_2 + " <> 'name5'"));
+			// Run
+			unitUnderTest.copy(
+				() -> getConnection(dbNameSource),
+				() -> getConnection(dbNameTarget),
+				true,
+				Arrays.asList("*"),
+				List.of(),
+				null,
+				null,
+				options
+			);
+			// Check
+			assertEquals(49, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(0, countName(connectionTarget, "name5"));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionFactoriesWithPartitionThreadsAndATableWithoutKey_DatabaseContentCopiedInSlices()
+			throws Exception {
+			// Prepare
+			createDatabase(connectionSource, TABLE_NAME_1);
+			createDatabase(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 50; i++) {
+				insertData(connectionSource, i % 3 == 0 ? null : i, "name" + i, i * 1.5F);
+			}
+			CopyOptions options = new CopyOptions().setPartitionThreads(3).setChunkSize(7);
+			// Run
+			unitUnderTest.copy(
+				() -> getConnection(dbNameSource),
+				() -> getConnection(dbNameTarget),
+				true,
+				Arrays.asList("*"),
+				List.of(),
+				null,
+				null,
+				options
+			);
+			// Check
+			assertEquals(50, count(connectionTarget, TABLE_NAME_1));
+		}
+
+		private void createDatabaseWithPrimaryKey(Connection connection, String tableName) throws Exception {
+			Statement stmt = connection.createStatement();
+			stmt.execute(
+				"CREATE TABLE " +
+				tableName +
+				" (" +
+				COLUMN_NAME_1 +
+				" INTEGER PRIMARY KEY, " +
+				COLUMN_NAME_2 +
+				" VARCHAR(100), " +
+				COLUMN_NAME_3 +
+				" NUMERIC(10,2))"
+			);
+			stmt.close();
+		}
+
+		private void createDatabaseWithLobs(Connection connection) throws Exception {
+			try (Statement stmt = connection.createStatement()) {
+				stmt.execute("CREATE TABLE " + TABLE_NAME_1 + " (Id INTEGER PRIMARY KEY, Doc CLOB, Data BLOB)");
+			}
+		}
+
+		private void insertLobs(Connection connection, int records) throws Exception {
+			try (
+				PreparedStatement stmt = connection.prepareStatement("INSERT INTO " + TABLE_NAME_1 + " VALUES (?, ?, ?)")
+			) {
+				for (int i = 0; i < records; i++) {
+					int length = i % 2 == 0 ? TransferPlan.LOB_BUFFER_SIZE * 2 + i : i;
+					stmt.setInt(1, i);
+					stmt.setString(2, i == 1 ? null : "x".repeat(length));
+					stmt.setBytes(3, new byte[length]);
+					stmt.execute();
+				}
+			}
+		}
+
+		private String getLobLengths(Connection connection) throws Exception {
+			try (
+				Statement stmt = connection.createStatement();
+				ResultSet rs = stmt.executeQuery(
+					"SELECT SUM(LENGTH(Doc)), SUM(OCTET_LENGTH(Data)), COUNT(Doc) FROM " + TABLE_NAME_1
+				)
+			) {
+				rs.next();
+				return rs.getLong(1) + "/" + rs.getLong(2) + "/" + rs.getLong(3);
+			}
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithLobColumns_LobsCopiedByStreams() throws Exception {
+			// Prepare
+			createDatabaseWithLobs(connectionSource);
+			createDatabaseWithLobs(connectionTarget);
+			insertLobs(connectionSource, 6);
+			CopyOptions options = new CopyOptions().setBatchSize(4);
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, true, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			assertEquals(6, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(getLobLengths(connectionSource), getLobLengths(connectionTarget));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionFactoriesWithTwoPhaseLobs_LobsCopiedByUpdates() throws Exception {
+			// Prepare
+			createDatabaseWithLobs(connectionSource);
+			createDatabaseWithLobs(connectionTarget);
+			insertLobs(connectionSource, 6);
+			CopyOptions options = new CopyOptions().setBatchSize(4).setTwoPhaseLobs(true).setPartitionThreads(2);
+			// Run
+			unitUnderTest.copy(
+				() -> getConnection(dbNameSource),
+				() -> getConnection(dbNameTarget),
+				true,
+				Arrays.asList("*"),
+				List.of(),
+				null,
+				null,
+				options
+			);
+			// Check
+			assertEquals(6, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(getLobLengths(connectionSource), getLobLengths(connectionTarget));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionPipelined_DatabaseContentCopied() throws Exception {
+			// Prepare
+			createDatabase(connectionSource, TABLE_NAME_1);
+			createDatabase(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 25; i++) {
+				insertData(connectionSource, i, "name" + i, i * 1.5F);
+			}
+			CopyOptions options = new CopyOptions().setBatchSize(3).setPipelined(true).setPipelineBuffers(2);
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, true, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			assertEquals(25, count(connectionTarget, TABLE_NAME_1));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionPipelinedWithMemoryBudget_DatabaseContentCopiedByDirectBuffers()
+			throws Exception {
+			// Prepare
+			createDatabase(connectionSource, TABLE_NAME_1);
+			createDatabase(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 25; i++) {
+				insertData(connectionSource, i, i % 5 == 0 ? null : "name" + i, i * 1.5F);
+			}
+			CopyOptions options = new CopyOptions().setBatchSize(3).setPipelined(true).setMaxBufferMemory(1);
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, true, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			assertEquals(25, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(1, countName(connectionTarget, "name24"));
+			assertEquals(1, BufferPool.shared(1).getAvailableSegments());
+		}
+
+		@Test
+		void passSourceAndTargetConnectionFactoriesWithWritersAndMemoryBudget_DatabaseContentCopiedByDirectBuffers()
+			throws Exception {
+			// Prepare
+			createDatabase(connectionSource, TABLE_NAME_1);
+			createDatabase(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 50; i++) {
+				insertData(connectionSource, i, "name" + i, i * 1.5F);
+			}
+			CopyOptions options = new CopyOptions().setBatchSize(4).setWriters(3).setMaxBufferMemory(2);
+			// Run
+			unitUnderTest.copy(
+				() -> getConnection(dbNameSource),
+				() -> getConnection(dbNameTarget),
+				true,
+				Arrays.asList("*"),
+				List.of(),
+				null,
+				null,
+				options
+			);
+			// Check
+			assertEquals(50, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(2, BufferPool.shared(2).getAvailableSegments());
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithSpool_DatabaseContentCopiedOverTheSpool() throws Exception {
+			// Prepare
+			createDatabase(connectionSource, TABLE_NAME_1);
+			createDatabase(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 25; i++) {
+				insertData(connectionSource, i, i % 5 == 0 ? null : "name" + i, i * 1.5F);
+			}
+			File spoolDirectory = new File(temp, "spool");
+			spoolDirectory.mkdirs();
+			CopyOptions options = new CopyOptions()
+				.setBatchSize(4)
+				.setSpool(true)
+				.setSpoolDirectory(spoolDirectory.getAbsolutePath());
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, true, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			assertEquals(25, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(1, countName(connectionTarget, "name24"));
+			assertEquals(0, spoolDirectory.list().length);
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithWatermarkColumn_OnlyChangedRecordsCopiedAsUpserts() throws Exception {
+			// Prepare
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			createDatabaseWithPrimaryKey(connectionTarget, TABLE_NAME_1);
+			for (int i = 1; i <= 3; i++) {
+				insertData(connectionSource, i, "name" + i, i * 1.5F);
+			}
+			CopyOptions options = new CopyOptions()
+				.setWatermarkColumns(Map.of(TABLE_NAME_1, COLUMN_NAME_1))
+				.setStateFile(new File(temp, "copy.state").getAbsolutePath());
+			unitUnderTest.copy(connectionSource, connectionTarget, true, Arrays.asList("*"), List.of(), null, null, options);
+			connectionTarget.createStatement().execute("UPDATE " + TABLE_NAME_1 + " SET " + COLUMN_NAME_2 + " = 'changed'");
+			insertData(connectionTarget, 4, "old", 0F);
+			insertData(connectionSource, 4, "name4", 6F);
+			insertData(connectionSource, 5, "name5", 7.5F);
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, true, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			assertEquals(5, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(3, countName(connectionTarget, "changed"));
+			assertEquals(1, countName(connectionTarget, "name4"));
+		}
+
+		private int countName(Connection connection, String name) throws Exception {
+			try (
+				Statement stmt = connection.createStatement();
+				ResultSet rs = stmt.executeQuery(
+					"SELECT COUNT(*) FROM " + TABLE_NAME_1 + " WHERE " + COLUMN_NAME_2 + " = '" + name + "'"
+				)
+			) {
+				rs.next();
+				return rs.getInt(1);
+			}
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithResume_CompletedTablesSkippedAndTableInProgressContinued()
+			throws Exception {
+			// Prepare
+			String tableName2 = "AnotherTable";
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			createDatabaseWithPrimaryKey(connectionTarget, TABLE_NAME_1);
+			createDatabaseWithPrimaryKey(connectionSource, tableName2);
+			createDatabaseWithPrimaryKey(connectionTarget, tableName2);
+			for (int i = 1; i <= 10; i++) {
+				insertData(connectionSource, i, "name" + i, i * 1.5F);
+			}
+			for (int i = 1; i <= 7; i++) {
+				insertData(connectionTarget, i, "name" + i, i * 1.5F);
+			}
+			File stateFile = new File(temp, "copy.state");
+			CopyState state = CopyState.load(stateFile.toPath());
+			state.setCheckpoint(TABLE_NAME_1.toUpperCase(), "5");
+			state.setCompleted(tableName2.toUpperCase());
+			state.save();
+			CopyOptions options = new CopyOptions()
+				.setBatchSize(2)
+				.setResume(true)
+				.setStateFile(stateFile.getAbsolutePath());
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, true, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			assertEquals(10, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(0, count(connectionTarget, tableName2));
+			assertNull(CopyState.load(stateFile.toPath()).getCheckpoint(TABLE_NAME_1.toUpperCase()));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionFactoriesWithResume_TableStartedWithoutCheckpointClearedAndCopiedAgain()
+			throws Exception {
+			// Prepare
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			createDatabaseWithPrimaryKey(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 50; i++) {
+				insertData(connectionSource, i * 3, "name" + i, i * 1.5F);
+			}
+			for (int i = 0; i < 7; i++) {
+				insertData(connectionTarget, i * 3, "name" + i, i * 1.5F);
+			}
+			File stateFile = new File(temp, "copy.state");
+			CopyState state = CopyState.load(stateFile.toPath());
+			state.setStarted(TABLE_NAME_1.toUpperCase());
+			state.save();
+			CopyOptions options = new CopyOptions()
+				.setPartitionThreads(3)
+				.setChunkSize(7)
+				.setResume(true)
+				.setStateFile(stateFile.getAbsolutePath());
+			// Run
+			unitUnderTest.copy(
+				() -> getConnection(dbNameSource),
+				() -> getConnection(dbNameTarget),
+				false,
+				Arrays.asList("*"),
+				List.of(),
+				null,
+				null,
+				options
+			);
+			// Check
+			assertEquals(50, count(connectionTarget, TABLE_NAME_1));
+			assertFalse(CopyState.load(stateFile.toPath()).isStarted(TABLE_NAME_1.toUpperCase()));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionFactoriesWithTableWriters_DatabaseContentCopiedByMoreThanOneWriter()
+			throws Exception {
+			// Prepare
+			createDatabase(connectionSource, TABLE_NAME_1);
+			createDatabase(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 50; i++) {
+				insertData(connectionSource, i, i % 7 == 0 ? null : "name" + i, i * 1.5F);
+			}
+			CopyOptions options = new CopyOptions().setBatchSize(3).setTableWriters(Map.of(TABLE_NAME_1, 3));
+			// Run
+			unitUnderTest.copy(
+				() -> getConnection(dbNameSource),
+				() -> getConnection(dbNameTarget),
+				true,
+				Arrays.asList("*"),
+				List.of(),
+				null,
+				null,
+				options
+			);
+			// Check
+			assertEquals(50, count(connectionTarget, TABLE_NAME_1));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionFactoriesAdaptive_DatabaseContentCopied() throws Exception {
+			// Prepare
+			createDatabase(connectionSource, TABLE_NAME_1);
+			createDatabase(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 50; i++) {
+				insertData(connectionSource, i, "name" + i, i * 1.5F);
+			}
+			CopyOptions options = new CopyOptions()
+				.setAdaptive(true)
+				.setBatchSize(4)
+				.setMinBatchSize(2)
+				.setMaxBatchSize(16)
+				.setWriters(2);
+			// Run
+			unitUnderTest.copy(
+				() -> getConnection(dbNameSource),
+				() -> getConnection(dbNameTarget),
+				true,
+				Arrays.asList("*"),
+				List.of(),
+				null,
+				null,
+				options
+			);
+			// Check
+			assertEquals(50, count(connectionTarget, TABLE_NAME_1));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithDeadLetterFile_FailingRecordsWrittenToTheDeadLetterFile() throws Exception {
+			// Prepare
+			createDatabase(connectionSource, TABLE_NAME_1);
+			connectionTarget
+				.createStatement()
+				.execute(
+					"CREATE TABLE " +
+					TABLE_NAME_1 +
+					" (" +
+					COLUMN_NAME_1 +
+					" INTEGER, " +
+					COLUMN_NAME_2 +
+					" VARCHAR(5), " +
+					COLUMN_NAME_3 +
+					" NUMERIC(10,2))"
+				);
+			for (int i = 0; i < 20; i++) {
+				insertData(connectionSource, i, i % 7 == 3 ? "too long name" : "n" + i, i * 1.5F);
+			}
+			File deadLetterFile = new File(temp, "dead-letters.jsonl");
+			CopyOptions options = new CopyOptions().setBatchSize(8).setDeadLetterFile(deadLetterFile.getAbsolutePath());
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, true, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			assertEquals(17, count(connectionTarget, TABLE_NAME_1));
+			List<String> deadLetters = Files.readAllLines(deadLetterFile.toPath());
+			assertEquals(3, deadLetters.size());
+			assertTrue(deadLetters.get(0).contains("\"NAME\":\"too long name\""), deadLetters.get(0));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithChunkedDeleteClearStrategy_TargetClearedBeforeCopy() throws Exception {
+			// Prepare
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			createDatabaseWithPrimaryKey(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 10; i++) {
+				insertData(connectionSource, i, "name" + i, i * 1.5F);
+				insertData(connectionTarget, i * 2, "old" + i, 0F);
+			}
+			CopyOptions options = new CopyOptions().setClearStrategy(ClearStrategy.CHUNKED_DELETE).setChunkSize(3);
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, true, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			assertEquals(10, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(0, countName(connectionTarget, "old1"));
+		}
+
+		@ParameterizedTest
+		@EnumSource(value = WriteMode.class, names = { "UPSERT", "UPSERT_CHANGED" })
+		void passSourceAndTargetConnectionWithUpsertWriteMode_ExistingRecordsUpdated(WriteMode writeMode)
+			throws Exception {
+			// Prepare
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			createDatabaseWithPrimaryKey(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 10; i++) {
+				insertData(connectionSource, i, "name" + i, i * 1.5F);
+			}
+			for (int i = 0; i < 5; i++) {
+				insertData(connectionTarget, i * 3, i == 0 ? "name0" : "old" + i, 0F);
+			}
+			CopyOptions options = new CopyOptions().setBatchSize(4).setWriteMode(writeMode);
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, false, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			assertEquals(11, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(0, countName(connectionTarget, "old1"));
+			assertEquals(1, countName(connectionTarget, "name3"));
+			assertEquals(1, countName(connectionTarget, "old4"));
+		}
+
+		@ParameterizedTest
+		@EnumSource(value = WriteMode.class, names = { "UPSERT", "UPSERT_CHANGED" })
+		void passSourceAndTargetConnectionWithUpsertWriteMode_ThrowsAnException_passingATableWithoutPrimaryKey(
+			WriteMode writeMode
+		) throws Exception {
+			// Prepare
+			String tableName2 = "AnotherTable";
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			createDatabaseWithPrimaryKey(connectionTarget, TABLE_NAME_1);
+			createDatabase(connectionSource, tableName2);
+			createDatabase(connectionTarget, tableName2);
+			insertData(connectionSource, 1, "name1", 1.5F);
+			CopyOptions options = new CopyOptions().setWriteMode(writeMode);
+			// Run & Check
+			IllegalStateException thrown = assertThrows(
+				IllegalStateException.class,
+				() ->
+					unitUnderTest.copy(
+						connectionSource,
+						connectionTarget,
+						false,
+						Arrays.asList("*"),
+						List.of(),
+						null,
+						null,
+						options
+					)
+			);
+			assertTrue(thrown.getMessage().contains(tableName2.toUpperCase()));
+			assertFalse(thrown.getMessage().contains(TABLE_NAME_1.toUpperCase()));
+			assertEquals(0, count(connectionTarget, TABLE_NAME_1));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithWatermarkColumn_ThrowsAnException_passingATableWithoutPrimaryKey()
+			throws Exception {
+			// Prepare
+			String tableName2 = "AnotherTable";
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			createDatabaseWithPrimaryKey(connectionTarget, TABLE_NAME_1);
+			createDatabase(connectionSource, tableName2);
+			createDatabase(connectionTarget, tableName2);
+			insertData(connectionSource, 1, "name1", 1.5F);
+			CopyOptions options = new CopyOptions()
+				.setWatermarkColumns(Map.of(tableName2, COLUMN_NAME_1))
+				.setStateFile(new File(temp, "copy.state").getAbsolutePath());
+			// Run & Check
+			IllegalStateException thrown = assertThrows(
+				IllegalStateException.class,
+				() ->
+					unitUnderTest.copy(
+						connectionSource,
+						connectionTarget,
+						true,
+						Arrays.asList("*"),
+						List.of(),
+						null,
+						null,
+						options
+					)
+			);
+			assertTrue(thrown.getMessage().contains(tableName2.toUpperCase()));
+			assertEquals(0, count(connectionTarget, TABLE_NAME_1));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithInsertMissingWriteMode_OnlyMissingRecordsInserted() throws Exception {
+			// Prepare
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			createDatabaseWithPrimaryKey(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 10; i++) {
+				insertData(connectionSource, i, "name" + i, i * 1.5F);
+			}
+			for (int i = 0; i < 4; i++) {
+				insertData(connectionTarget, i * 3, "old" + i, 0F);
+			}
+			CopyOptions options = new CopyOptions().setBatchSize(4).setWriteMode(WriteMode.INSERT_MISSING);
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, false, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			assertEquals(10, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(1, countName(connectionTarget, "old1"));
+			assertEquals(0, countName(connectionTarget, "name3"));
+			assertEquals(1, countName(connectionTarget, "name4"));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithInsertMissingWriteModeAndACompositeKey_OnlyMissingRecordsInserted()
+			throws Exception {
+			// Prepare
+			for (Connection connection : List.of(connectionSource, connectionTarget)) {
+				connection
+					.createStatement()
+					.execute(
+						"CREATE TABLE " +
+						TABLE_NAME_1 +
+						" (Code VARCHAR(10), " +
+						COLUMN_NAME_1 +
+						" INTEGER, " +
+						COLUMN_NAME_2 +
+						" VARCHAR(100), PRIMARY KEY (Code, " +
+						COLUMN_NAME_1 +
+						"))"
+					);
+			}
+			for (int i = 0; i < 20; i++) {
+				insertCodeData(connectionSource, "c" + (i % 3), i, "name" + i);
+			}
+			for (int i = 0; i < 20; i += 4) {
+				insertCodeData(connectionTarget, "c" + (i % 3), i, "old" + i);
+			}
+			insertCodeData(connectionTarget, "c9", 1, "other");
+			CopyOptions options = new CopyOptions()
+				.setBatchSize(3)
+				.setPipelined(true)
+				.setWriteMode(WriteMode.INSERT_MISSING);
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, false, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			assertEquals(21, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(1, countName(connectionTarget, "old4"));
+			assertEquals(0, countName(connectionTarget, "name4"));
+			assertEquals(1, countName(connectionTarget, "name5"));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithInsertMissingWriteModeAndManyTargetKeys_OnlyMissingRecordsInserted()
+			throws Exception {
+			// Prepare
+			for (Connection connection : List.of(connectionSource, connectionTarget)) {
+				connection
+					.createStatement()
+					.execute(
+						"CREATE TABLE " +
+						TABLE_NAME_1 +
+						" (Code VARCHAR(10), " +
+						COLUMN_NAME_1 +
+						" INTEGER, " +
+						COLUMN_NAME_2 +
+						" VARCHAR(100), PRIMARY KEY (Code, " +
+						COLUMN_NAME_1 +
+						"))"
+					);
+			}
+			for (int i = 0; i < 300; i++) {
+				insertCodeData(connectionSource, "c" + (i % 2), i, "name" + i);
+			}
+			for (int i = 0; i < 1000; i += 2) {
+				insertCodeData(connectionTarget, "c" + (i % 2), i, "old" + i);
+			}
+			CopyOptions options = new CopyOptions().setBatchSize(250).setWriteMode(WriteMode.INSERT_MISSING);
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, false, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			assertEquals(650, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(1, countName(connectionTarget, "old298"));
+			assertEquals(0, countName(connectionTarget, "name298"));
+			assertEquals(1, countName(connectionTarget, "name299"));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithInsertMissingWriteModeAndPaddedCharKeys_OnlyMissingRecordsInserted()
+			throws Exception {
+			// Prepare
+			for (Connection connection : List.of(connectionSource, connectionTarget)) {
+				connection
+					.createStatement()
+					.execute(
+						"CREATE TABLE " +
+						TABLE_NAME_1 +
+						" (Code CHAR(" +
+						(connection == connectionSource ? 4 : 8) +
+						"), " +
+						COLUMN_NAME_1 +
+						" INTEGER, " +
+						COLUMN_NAME_2 +
+						" VARCHAR(100), PRIMARY KEY (Code, " +
+						COLUMN_NAME_1 +
+						"))"
+					);
+			}
+			for (int i = 0; i < 10; i++) {
+				insertCodeData(connectionSource, "c" + (i % 2), i, "name" + i);
+			}
+			for (int i = 0; i < 10; i += 3) {
+				insertCodeData(connectionTarget, "c" + (i % 2), i, "old" + i);
+			}
+			CopyOptions options = new CopyOptions().setBatchSize(4).setWriteMode(WriteMode.INSERT_MISSING);
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, false, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			assertEquals(10, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(1, countName(connectionTarget, "old3"));
+			assertEquals(0, countName(connectionTarget, "name3"));
+			assertEquals(1, countName(connectionTarget, "name4"));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithATableFilter_OnlyTheFilteredRecordsCopied() throws Exception {
+			// Prepare
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			createDatabaseWithPrimaryKey(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 30; i++) {
+				insertData(connectionSource, i, "name" + i, i * 1.5F);
+			}
+			CopyOptions options = new CopyOptions()
+				.setPartitionThreads(3)
+				.setChunkSize(4)
+				.setTableFilters(Map.of(TABLE_NAME_1.toUpperCase(), COLUMN_NAME_1 + " < 10 OR " + COLUMN_NAME_1 + " >= 25"));
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, false, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			assertEquals(15, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(0, countName(connectionTarget, "name10"));
+			assertEquals(1, countName(connectionTarget, "name27"));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithASamplePercentage_RecordsSampledByTheModuloOfTheKey() throws Exception {
+			// Prepare
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			createDatabaseWithPrimaryKey(connectionTarget, TABLE_NAME_1);
+			try (
+				PreparedStatement statement = connectionSource.prepareStatement(
+					"INSERT INTO " + TABLE_NAME_1 + " (" + COLUMN_NAME_1 + ", " + COLUMN_NAME_2 + ") VALUES (?, ?)"
+				)
+			) {
+				for (int i = 0; i < 20000; i += 5) {
+					statement.setInt(1, i);
+					statement.setString(2, "name" + i);
+					statement.addBatch();
+				}
+				statement.executeBatch();
+			}
+			CopyOptions options = new CopyOptions().setSamplePercent(10);
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, false, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			assertEquals(400, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(1, countName(connectionTarget, "name10995"));
+			assertEquals(0, countName(connectionTarget, "name1000"));
+		}
+
+		private void insertCodeData(Connection connection, String code, int id, String name) throws Exception {
+			try (
+				PreparedStatement statement = connection.prepareStatement(
+					"INSERT INTO " + TABLE_NAME_1 + " (Code, " + COLUMN_NAME_1 + ", " + COLUMN_NAME_2 + ") VALUES (?, ?, ?)"
+				)
+			) {
+				statement.setString(1, code);
+				statement.setInt(2, id);
+				statement.setString(3, name);
+				statement.executeUpdate();
+			}
+		}
+
+		@Test
+		void passSourceAndTargetConnectionFactoriesOfTheSameDatabase_DatabaseContentCopiedOnTheServer()
+			throws Exception {
+			// Prepare
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			connectionSource.createStatement().execute("CREATE SCHEMA TARGET");
+			connectionTarget.close();
+			connectionTarget = getConnectionToTargetScheme();
+			createDatabaseWithPrimaryKey(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 50; i++) {
+				insertData(connectionSource, i, "name" + i, i * 1.5F);
+			}
+			CopyOptions options = new CopyOptions().setServerSideCopy(true).setPartitionThreads(3).setChunkSize(7);
+			// Run
+			unitUnderTest.copy(
+				() -> getConnection(dbNameSource),
+				this::getConnectionToTargetScheme,
+				true,
+				Arrays.asList("*"),
+				List.of(),
+				null,
+				"PUBLIC",
+				options
+			);
+			// Check
+			assertEquals(50, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(50, count(connectionSource, TABLE_NAME_1));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionOfTheSameDatabaseWithConsistentSnapshot_DatabaseContentCopiedThroughTheJVM()
+			throws Exception {
+			// Prepare
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			connectionSource.createStatement().execute("CREATE SCHEMA TARGET");
+			connectionTarget.close();
+			connectionTarget = getConnectionToTargetScheme();
+			createDatabaseWithPrimaryKey(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 20; i++) {
+				insertData(connectionSource, i, "name" + i, i * 1.5F);
+			}
+			CopyOptions options = new CopyOptions().setServerSideCopy(true).setConsistentSnapshot(true);
+			PrintStream out = System.out;
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			System.setOut(new PrintStream(output, true));
+			// Run
+			try {
+				unitUnderTest.copy(
+					connectionSource,
+					connectionTarget,
+					false,
+					Arrays.asList("*"),
+					List.of(),
+					null,
+					"PUBLIC",
+					options
+				);
+			} finally {
+				System.setOut(out);
+			}
+			// Check
+			assertEquals(20, count(connectionTarget, TABLE_NAME_1));
+			assertTrue(output.toString().contains("consistent snapshot"));
+			assertFalse(output.toString().contains("on the server"));
+		}
+
+		private Connection getConnectionToTargetScheme() throws SQLException {
+			Connection connection = getConnection(dbNameSource);
+			connection.setSchema("TARGET");
+			return connection;
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithShadowLoad_TargetTableReplacedWithItsIndices() throws Exception {
+			// Prepare
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			createDatabaseWithPrimaryKey(connectionTarget, TABLE_NAME_1);
+			connectionTarget
+				.createStatement()
+				.execute("CREATE INDEX IDX_NAME ON " + TABLE_NAME_1 + " (" + COLUMN_NAME_2 + ")");
+			insertData(connectionTarget, 100, "old", 1.0F);
+			for (int i = 0; i < 5; i++) {
+				insertData(connectionSource, i, "name" + i, i * 1.5F);
+			}
+			CopyOptions options = new CopyOptions().setShadowLoad(true);
+			// Run
+			for (int run = 0; run < 2; run++) {
+				unitUnderTest.copy(
+					connectionSource,
+					connectionTarget,
+					true,
+					Arrays.asList("*"),
+					List.of(),
+					null,
+					null,
+					options
+				);
+			}
+			// Check
+			assertEquals(5, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(List.of("IDX_NAME"), getIndexNames(connectionTarget, false));
+			assertEquals(1, getIndexNames(connectionTarget, true).size());
+			try (ResultSet rs = connectionTarget.getMetaData().getTables(null, null, "%__LOAD", null)) {
+				assertFalse(rs.next());
+			}
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithShadowLoad_ColumnDefaultsAndIdentityOfTheTargetTableKept()
+			throws Exception {
+			// Prepare
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			connectionTarget
+				.createStatement()
+				.execute(
+					"CREATE TABLE " +
+					TABLE_NAME_1 +
+					" (" +
+					COLUMN_NAME_1 +
+					" INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+					COLUMN_NAME_2 +
+					" VARCHAR(100) DEFAULT 'none', " +
+					COLUMN_NAME_3 +
+					" NUMERIC(10,2))"
+				);
+			for (int i = 0; i < 5; i++) {
+				insertData(connectionSource, i, "name" + i, i * 1.5F);
+			}
+			CopyOptions options = new CopyOptions().setShadowLoad(true);
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, true, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			connectionTarget
+				.createStatement()
+				.execute("INSERT INTO " + TABLE_NAME_1 + " (" + COLUMN_NAME_1 + ", " + COLUMN_NAME_3 + ") VALUES (10, 1)");
+			assertEquals(6, count(connectionTarget, TABLE_NAME_1));
+			assertEquals(1, countName(connectionTarget, "none"));
+			try (
+				ResultSet rs = connectionTarget
+					.getMetaData()
+					.getColumns(null, null, TABLE_NAME_1.toUpperCase(), COLUMN_NAME_1.toUpperCase())
+			) {
+				assertTrue(rs.next());
+				assertEquals("YES", rs.getString("IS_AUTOINCREMENT"));
+			}
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithShadowLoad_ThrowsAnException_passingATableWithACheckConstraint()
+			throws Exception {
+			// Prepare
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			createDatabaseWithPrimaryKey(connectionTarget, TABLE_NAME_1);
+			connectionTarget
+				.createStatement()
+				.execute("ALTER TABLE " + TABLE_NAME_1 + " ADD CONSTRAINT CK_SALARY CHECK (" + COLUMN_NAME_3 + " >= 0)");
+			insertData(connectionTarget, 100, "old", 1.0F);
+			insertData(connectionSource, 1, "name1", 1.5F);
+			CopyOptions options = new CopyOptions().setShadowLoad(true);
+			// Run & Check
+			assertThrows(
+				IllegalStateException.class,
+				() ->
+					unitUnderTest.copy(
+						connectionSource,
+						connectionTarget,
+						true,
+						Arrays.asList("*"),
+						List.of(),
+						null,
+						null,
+						options
+					)
+			);
+			assertEquals(1, countName(connectionTarget, "old"));
+			try (ResultSet rs = connectionTarget.getMetaData().getTables(null, null, "%__LOAD", null)) {
+				assertFalse(rs.next());
+			}
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithShadowLoad_ThrowsAnException_passingATableReferencedByAnotherTable()
+			throws Exception {
+			// Prepare
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			createDatabaseWithPrimaryKey(connectionTarget, TABLE_NAME_1);
+			connectionTarget
+				.createStatement()
+				.execute(
+					"CREATE TABLE OtherTable (Id INTEGER PRIMARY KEY, Ref INTEGER REFERENCES " +
+					TABLE_NAME_1 +
+					" (" +
+					COLUMN_NAME_1 +
+					"))"
+				);
+			insertData(connectionTarget, 100, "old", 1.0F);
+			insertData(connectionSource, 1, "name1", 1.5F);
+			CopyOptions options = new CopyOptions().setShadowLoad(true);
+			// Run & Check
+			IllegalStateException thrown = assertThrows(
+				IllegalStateException.class,
+				() ->
+					unitUnderTest.copy(
+						connectionSource,
+						connectionTarget,
+						true,
+						Arrays.asList("*"),
+						List.of(),
+						null,
+						null,
+						options
+					)
+			);
+			assertTrue(thrown.getMessage().contains("OTHERTABLE"));
+			assertEquals(1, countName(connectionTarget, "old"));
+		}
+
+		private List<String> getIndexNames(Connection connection, boolean unique) throws Exception {
+			List<String> indexNames = new ArrayList<>();
+			try (
+				ResultSet rs = connection.getMetaData().getIndexInfo(null, null, TABLE_NAME_1.toUpperCase(), unique, false)
+			) {
+				while (rs.next()) {
+					if (rs.getBoolean("NON_UNIQUE") != unique) {
+						indexNames.add(rs.getString("INDEX_NAME"));
+					}
+				}
+			}
+			return indexNames;
+		}
+
+		@Test
+		void passASourceConnectionFactoryWithReplicas_TablesReadFromTheReplicas() throws Exception {
+			// Prepare
+			List<Connection> replicaConnections = List.of(getConnection("replica0"), getConnection("replica1"));
+			createDatabase(connectionSource, TABLE_NAME_1);
+			createDatabase(connectionSource, "OtherTable");
+			createDatabase(connectionTarget, TABLE_NAME_1);
+			createDatabase(connectionTarget, "OtherTable");
+			insertData(connectionSource, 1, "primary", 1.0F);
+			for (Connection replicaConnection : replicaConnections) {
+				createDatabase(replicaConnection, TABLE_NAME_1);
+				createDatabase(replicaConnection, "OtherTable");
+				insertData(replicaConnection, 1, "replica", 1.0F);
+				replicaConnection.close();
+			}
+			ReplicaConnectionFactory sourceConnectionFactory = new ReplicaConnectionFactory(
+				() -> getConnection(dbNameSource),
+				List.of(() -> getConnection("replica0"), () -> getConnection("replica1")),
+				ReplicaSelection.ROUND_ROBIN
+			);
+			// Run
+			unitUnderTest.copy(
+				sourceConnectionFactory,
+				() -> getConnection(dbNameTarget),
+				true,
+				Arrays.asList("*"),
+				List.of(),
+				null,
+				null,
+				new CopyOptions()
+			);
+			// Check
+			try (
+				Statement stmt = connectionTarget.createStatement();
+				ResultSet rs = stmt.executeQuery("SELECT " + COLUMN_NAME_2 + " FROM " + TABLE_NAME_1)
+			) {
+				assertTrue(rs.next());
+				assertEquals("replica", rs.getString(1));
+			}
+			assertEquals(0, sourceConnectionFactory.getOpenConnections(0));
+			assertEquals(0, sourceConnectionFactory.getOpenConnections(1));
+		}
+
+		@Test
+		void passSourceAndTargetConnectionWithRowLimit_DatabaseContentCopiedThrottled() throws Exception {
+			// Prepare
+			createDatabase(connectionSource, TABLE_NAME_1);
+			createDatabase(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 30; i++) {
+				insertData(connectionSource, i, "name" + i, i * 1.5F);
+			}
+			CopyOptions options = new CopyOptions().setMaxRowsPerSecond(20);
+			long start = System.currentTimeMillis();
+			// Run
+			unitUnderTest.copy(connectionSource, connectionTarget, true, Arrays.asList("*"), List.of(), null, null, options);
+			// Check
+			assertEquals(30, count(connectionTarget, TABLE_NAME_1));
+			assertTrue(System.currentTimeMillis() - start >= 400);
+		}
+
+		@Test
+		void passSourceAndTargetConnectionFactoriesWithConsistentSnapshot_DatabaseContentCopiedInOneTransaction()
+			throws Exception {
+			// Prepare
+			createDatabaseWithPrimaryKey(connectionSource, TABLE_NAME_1);
+			createDatabaseWithPrimaryKey(connectionTarget, TABLE_NAME_1);
+			for (int i = 0; i < 50; i++) {
+				insertData(connectionSource, i, "name" + i, i * 1.5F);
+			}
+			CopyOptions options = new CopyOptions()
+				.setConsistentSnapshot(true)
+				.setThreads(2)
+				.setPartitionThreads(3)
+				.setChunkSize(7);
+			// Run
+			unitUnderTest.copy(
+				() -> getConnection(dbNameSource),
+				() -> getConnection(dbNameTarget),
+				true,
+				Arrays.asList("*"),
+				List.of(),
+				null,
+				null,
+				options
+			);
+			// Check
+			assertEquals(50, count(connectionTarget, TABLE_NAME_1));
+		}
+
 		@Test
 		void passSourceAndTargetConnectionWithTableNameMapping_DatabaseContentCopied() throws Exception {
 			// Prepare
@@ -0,0 +1,23 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class DeadLetterWriterTest {
+
+	@Nested
+	class quote_String {
+
+		@Test
+		void returnsNull_passingANullValue() {
+			assertEquals("null", DeadLetterWriter.quote(null));
+		}
+
+		@Test
+		void returnsAnEscapedJSONString_passingAStringWithSpecialCharacters() {
+			assertEquals("\"a\\\"b\\\\c\\nd\\u0001\"", DeadLetterWriter.quote("a\"b\\c\nd\u0001"));
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.ollie.dbtools.modelreader.DBColumn;
+import de.ollie.dbtools.modelreader.DBType;
+import de.ollie.dbtools.modelreader.models.DBColumnModel;
+import de.ollie.dbtools.modelreader.models.DBTableModel;
+import de.ollie.dbtools.utils.Dialect;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class HashPartitionerTest {
+
+	private HashPartitioner unitUnderTest = new HashPartitioner();
+
+	private static DBTableModel createTable(DBColumn... columns) {
+		return new DBTableModel("TABLE", new ArrayList<>(List.of(columns)), new ArrayList<>());
+	}
+
+	@Nested
+	class partition_DBTable_int_Dialect {
+
+		@Test
+		void returnsModuloSlices_passingATableWithAnIntegralColumn() {
+			// Prepare
+			DBTableModel table = createTable(
+				new DBColumnModel("NAME", "VARCHAR", DBType.VARCHAR, 100, -1),
+				new DBColumnModel("ID", "INTEGER", DBType.INTEGER, -1, -1)
+			);
+			// Run & Check
+			assertEquals(
+				List.of(
+					new ConditionSlice("(MOD(ABS(ID), 3) = 0 OR ID IS NULL)"),
+					new ConditionSlice("MOD(ABS(ID), 3) = 1"),
+					new ConditionSlice("MOD(ABS(ID), 3) = 2")
+				),
+				unitUnderTest.partition(table, 3, Dialect.HSQLDB)
+			);
+		}
+
+		@Test
+		void returnsOraHashSlices_passingATableWithAVarcharColumnForOracle() {
+			// Prepare
+			DBTableModel table = createTable(new DBColumnModel("NAME", "VARCHAR2", DBType.VARCHAR, 100, -1));
+			// Run & Check
+			assertEquals(
+				List.of(
+					new ConditionSlice("(ORA_HASH(NAME, 1) = 0 OR NAME IS NULL)"),
+					new ConditionSlice("ORA_HASH(NAME, 1) = 1")
+				),
+				unitUnderTest.partition(table, 2, Dialect.ORACLE)
+			);
+		}
+
+		@Test
+		void returnsAnEmptyList_passingATableWithAVarcharColumnForHSQLDB() {
+			// Prepare
+			DBTableModel table = createTable(new DBColumnModel("NAME", "VARCHAR", DBType.VARCHAR, 100, -1));
+			// Run & Check
+			assertTrue(unitUnderTest.partition(table, 2, Dialect.HSQLDB).isEmpty());
+		}
+	}
+}
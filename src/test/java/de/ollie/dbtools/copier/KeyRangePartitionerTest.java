@@ -0,0 +1,71 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import de.ollie.dbtools.modelreader.DBColumn;
+import de.ollie.dbtools.modelreader.DBType;
+import de.ollie.dbtools.modelreader.models.DBColumnModel;
+import de.ollie.dbtools.modelreader.models.DBTableModel;
+import de.ollie.dbtools.utils.StatementBuilder;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class KeyRangePartitionerTest {
+
+	@Mock
+	private Connection connection;
+
+	@Mock
+	private ResultSet resultSet;
+
+	@Mock
+	private Statement statement;
+
+	private KeyRangePartitioner unitUnderTest = new KeyRangePartitioner();
+
+	@Nested
+	class partition_DBTable_DBColumn_int_Connection_StatementBuilder {
+
+		private List<KeyRange> partition(DBColumn keyColumn, String min, String max) throws Exception {
+			DBTableModel table = new DBTableModel("TABLE", new ArrayList<>(List.of(keyColumn)), new ArrayList<>());
+			when(connection.createStatement()).thenReturn(statement);
+			when(statement.executeQuery("SELECT MIN(ID), MAX(ID) FROM TABLE")).thenReturn(resultSet);
+			when(resultSet.next()).thenReturn(true);
+			when(resultSet.getObject(1)).thenReturn(new BigDecimal(min));
+			when(resultSet.getBigDecimal(1)).thenReturn(new BigDecimal(min));
+			when(resultSet.getBigDecimal(2)).thenReturn(new BigDecimal(max));
+			return unitUnderTest.partition(table, keyColumn, 2, connection, new StatementBuilder());
+		}
+
+		@Test
+		void returnsRangesWithLongBounds_passingAnIntegerKey() throws Exception {
+			// Prepare
+			DBColumn keyColumn = new DBColumnModel("ID", "INTEGER", DBType.INTEGER, -1, -1);
+			// Run & Check
+			assertEquals(List.of(new KeyRange(null, 50L), new KeyRange(50L, null)), partition(keyColumn, "1", "100"));
+		}
+
+		@Test
+		void returnsRangesWithExactBounds_passingANumericKeyBeyondTheRangeOfALong() throws Exception {
+			// Prepare
+			DBColumn keyColumn = new DBColumnModel("ID", "NUMERIC", DBType.NUMERIC, 38, 0);
+			BigDecimal bound = new BigDecimal("50000000000000000000000000000000000000");
+			// Run & Check
+			assertEquals(
+				List.of(new KeyRange(null, bound), new KeyRange(bound, null)),
+				partition(keyColumn, "1", "99999999999999999999999999999999999999")
+			);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.PreparedStatement;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class LobValueTest {
+
+	private static final int BUFFER_SIZE = 8;
+
+	@Nested
+	class readBinary_InputStream_int {
+
+		@Test
+		void keepsTheValueInTheHeap_passingAValueWhichFitsIntoTheBuffer() throws Exception {
+			// Prepare
+			PreparedStatement statement = mock(PreparedStatement.class);
+			// Run
+			LobValue value = LobValue.readBinary(new ByteArrayInputStream(new byte[] { 1, 2, 3 }), BUFFER_SIZE);
+			// Check
+			assertFalse(value.isSpooled());
+			value.bind(statement, 1);
+			verify(statement).setBytes(1, new byte[] { 1, 2, 3 });
+		}
+
+		@Test
+		void spoolsTheValueToAFile_passingAValueWhichIsLargerThanTheBuffer() throws Exception {
+			// Prepare
+			PreparedStatement statement = mock(PreparedStatement.class);
+			// Run
+			LobValue value = LobValue.readBinary(new ByteArrayInputStream(new byte[20]), BUFFER_SIZE);
+			// Check
+			assertTrue(value.isSpooled());
+			assertEquals(20, value.getLength());
+			value.bind(statement, 2);
+			verify(statement).setBinaryStream(eq(2), any(InputStream.class), eq(20L));
+			value.release();
+		}
+	}
+
+	@Nested
+	class readCharacters_Reader_int {
+
+		@Test
+		void keepsTheValueInTheHeap_passingAValueWhichFitsIntoTheBuffer() throws Exception {
+			// Prepare
+			PreparedStatement statement = mock(PreparedStatement.class);
+			// Run
+			LobValue value = LobValue.readCharacters(new StringReader("abc"), BUFFER_SIZE);
+			// Check
+			assertFalse(value.isSpooled());
+			assertEquals("abc", value.toString());
+			value.bind(statement, 1);
+			verify(statement).setString(1, "abc");
+		}
+
+		@Test
+		void spoolsTheValueToAFile_passingAValueWhichIsLargerThanTheBuffer() throws Exception {
+			// Prepare
+			PreparedStatement statement = mock(PreparedStatement.class);
+			// Run
+			LobValue value = LobValue.readCharacters(new StringReader("äbcdefghijklmnop"), BUFFER_SIZE);
+			// Check
+			assertTrue(value.isSpooled());
+			assertEquals(16, value.getLength());
+			value.bind(statement, 3);
+			verify(statement).setCharacterStream(eq(3), any(Reader.class), anyLong());
+			value.release();
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class LongHashSetTest {
+
+	private LongHashSet unitUnderTest = new LongHashSet(4);
+
+	@Nested
+	class add_long {
+
+		@Test
+		void returnsFalse_passingAValueWhichIsContainedAlready() {
+			// Prepare
+			unitUnderTest.add(42);
+			// Run & Check
+			assertFalse(unitUnderTest.add(42));
+			assertEquals(1, unitUnderTest.size());
+		}
+
+		@Test
+		void keepsAllValues_passingMoreValuesThanExpected() {
+			// Run
+			for (long value = -1000; value <= 1000; value++) {
+				assertTrue(unitUnderTest.add(value * 7919));
+			}
+			// Check
+			assertEquals(2001, unitUnderTest.size());
+			for (long value = -1000; value <= 1000; value++) {
+				assertTrue(unitUnderTest.contains(value * 7919), "value: " + value);
+			}
+			assertTrue(unitUnderTest.getMemoryBytes() >= 2001 * 2 * Long.BYTES);
+		}
+	}
+
+	@Nested
+	class contains_long {
+
+		@Test
+		void returnsFalse_passingAValueWhichIsNotAdded() {
+			// Prepare
+			unitUnderTest.add(1);
+			unitUnderTest.add(Long.MAX_VALUE);
+			// Run & Check
+			assertFalse(unitUnderTest.contains(2));
+			assertFalse(unitUnderTest.contains(Long.MIN_VALUE));
+		}
+
+		@Test
+		void returnsTheMembershipOfZero() {
+			// Prepare
+			assertFalse(unitUnderTest.contains(0));
+			unitUnderTest.add(0);
+			// Run & Check
+			assertTrue(unitUnderTest.contains(0));
+			assertEquals(1, unitUnderTest.size());
+		}
+	}
+}
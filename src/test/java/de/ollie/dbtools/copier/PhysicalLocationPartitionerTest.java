@@ -0,0 +1,80 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.ollie.dbtools.modelreader.models.DBTableModel;
+import de.ollie.dbtools.utils.Dialect;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PhysicalLocationPartitionerTest {
+
+	private static final DBTableModel TABLE = new DBTableModel("orders", List.of(), List.of());
+
+	@Mock
+	private Connection connection;
+
+	@Mock
+	private DatabaseMetaData databaseMetaData;
+
+	@Mock
+	private PreparedStatement statement;
+
+	@Mock
+	private ResultSet resultSet;
+
+	private PhysicalLocationPartitioner unitUnderTest = new PhysicalLocationPartitioner();
+
+	@Nested
+	class partition_DBTable_String_int_Connection_Dialect {
+
+		@Test
+		void returnsCtidSlicesOfTheQualifiedTable_passingASchemeForPostgreSQL() throws Exception {
+			// Prepare
+			when(connection.prepareStatement(contains("to_regclass(quote_ident(?) || '.' || quote_ident(?))")))
+				.thenReturn(statement);
+			when(statement.executeQuery()).thenReturn(resultSet);
+			when(resultSet.next()).thenReturn(true);
+			when(resultSet.getLong(1)).thenReturn(10L);
+			// Run
+			List<TableSlice> returned = unitUnderTest.partition(TABLE, "sales", 2, connection, Dialect.POSTGRESQL);
+			// Check
+			assertEquals(
+				List.of(new ConditionSlice("ctid < '(5,0)'::tid"), new ConditionSlice("ctid >= '(5,0)'::tid")),
+				returned
+			);
+			verify(statement).setString(1, "sales");
+			verify(statement).setString(2, "orders");
+		}
+
+		@Test
+		void returnsAnEmptyList_passingASchemeOfAnotherUserWithoutAccessToTheExtentsForOracle() throws Exception {
+			// Prepare
+			when(connection.getMetaData()).thenReturn(databaseMetaData);
+			when(databaseMetaData.getUserName()).thenReturn("SCOTT");
+			when(connection.prepareStatement(contains("FROM DBA_EXTENTS e JOIN ALL_OBJECTS o ON o.OWNER = e.OWNER")))
+				.thenReturn(statement);
+			when(statement.executeQuery()).thenThrow(new SQLException("ORA-00942: table or view does not exist"));
+			// Run
+			List<TableSlice> returned = unitUnderTest.partition(TABLE, "SALES", 2, connection, Dialect.ORACLE);
+			// Check
+			assertTrue(returned.isEmpty());
+			verify(statement).setString(1, "orders");
+			verify(statement).setString(2, "SALES");
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.ollie.dbtools.utils.Dialect;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Map;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RowCountEstimatorTest {
+
+	private static final String SCHEME_NAME = "scheme";
+
+	@Mock
+	private Connection connection;
+
+	@Mock
+	private DatabaseMetaData databaseMetaData;
+
+	@Mock
+	private PreparedStatement statement;
+
+	@Mock
+	private ResultSet resultSet;
+
+	private RowCountEstimator unitUnderTest = new RowCountEstimator();
+
+	@Nested
+	class estimate_Connection_String {
+
+		@Test
+		void returnsTheEstimatesOfTheTablesWithStatistics_passingAPostgreSQLConnection() throws Exception {
+			// Prepare
+			when(connection.getMetaData()).thenReturn(databaseMetaData);
+			when(databaseMetaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+			when(connection.prepareStatement(unitUnderTest.getQuery(Dialect.POSTGRESQL, SCHEME_NAME))).thenReturn(statement);
+			when(statement.executeQuery()).thenReturn(resultSet);
+			when(resultSet.next()).thenReturn(true, true, true, false);
+			when(resultSet.getString(1)).thenReturn("table", "unanalyzed", "partitioned");
+			when(resultSet.getLong(2)).thenReturn(4711L, -1L, 0L);
+			// Run
+			Map<String, Long> returned = unitUnderTest.estimate(connection, SCHEME_NAME);
+			// Check
+			verify(statement).setString(1, SCHEME_NAME);
+			assertEquals(4711L, returned.get("TABLE"));
+			assertNull(returned.get("unanalyzed"));
+			assertNull(returned.get("partitioned"));
+		}
+
+		@Test
+		void returnsAnEmptyMap_passingAConnectionOfADatabaseWithoutSupportedStatistics() throws Exception {
+			// Prepare
+			when(connection.getMetaData()).thenReturn(databaseMetaData);
+			when(databaseMetaData.getDatabaseProductName()).thenReturn("HSQL Database Engine");
+			// Run & Check
+			assertTrue(unitUnderTest.estimate(connection, SCHEME_NAME).isEmpty());
+		}
+	}
+
+	@Nested
+	class getQuery_Dialect_String {
+
+		@Test
+		void returnsAQueryForTheCurrentScheme_passingNoSchemeName() {
+			assertEquals(
+				"SELECT TABLE_NAME, TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE()",
+				unitUnderTest.getQuery(Dialect.MYSQL, null)
+			);
+			assertEquals("SELECT TABLE_NAME, NUM_ROWS FROM USER_TABLES", unitUnderTest.getQuery(Dialect.ORACLE, null));
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.ollie.dbtools.modelreader.DBType;
+import de.ollie.dbtools.modelreader.models.DBColumnModel;
+import de.ollie.dbtools.modelreader.models.DBTableModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class RowRingBufferTest {
+
+	private static final TransferPlan PLAN = TransferPlan.compile(
+		new DBTableModel("TABLE", List.of(new DBColumnModel("ID", "BIGINT", DBType.BIGINT, 0, 0)), List.of())
+	);
+
+	@Nested
+	class claim_publish_take_release {
+
+		@Test
+		void passesTheBatchesInOrderFromProducerToConsumer() throws Exception {
+			// Prepare
+			RowRingBuffer unitUnderTest = new RowRingBuffer(2, 1, PLAN);
+			List<Long> consumed = new ArrayList<>();
+			Thread producer = Thread.ofPlatform()
+				.start(() -> {
+					try {
+						for (int i = 0; i < 10; i++) {
+							RowBatch batch = unitUnderTest.claim();
+							batch.setLong(0, batch.addRow(), i);
+							unitUnderTest.publish();
+						}
+						unitUnderTest.finish();
+					} catch (Exception e) {
+						unitUnderTest.fail(e);
+					}
+				});
+			// Run
+			for (RowBatch batch = unitUnderTest.take(); batch != null; batch = unitUnderTest.take()) {
+				consumed.add(batch.getLong(0, 0));
+				unitUnderTest.release();
+			}
+			producer.join();
+			// Check
+			assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), consumed);
+		}
+
+		@Test
+		void blocksTheProducer_whenAllBatchesAreFilled() throws Exception {
+			// Prepare
+			RowRingBuffer unitUnderTest = new RowRingBuffer(1, 1, PLAN);
+			unitUnderTest.claim();
+			unitUnderTest.publish();
+			Thread producer = Thread.ofPlatform()
+				.start(() -> {
+					try {
+						unitUnderTest.claim();
+					} catch (Exception e) {
+						// NOP
+					}
+				});
+			// Run
+			producer.join(200);
+			// Check
+			assertTrue(producer.isAlive());
+			unitUnderTest.take();
+			unitUnderTest.release();
+			producer.join(TimeUnit.SECONDS.toMillis(5));
+			assertFalse(producer.isAlive());
+		}
+
+		@Test
+		void returnsNull_whenTheProducerIsFinished() throws Exception {
+			// Prepare
+			RowRingBuffer unitUnderTest = new RowRingBuffer(1, 1, PLAN);
+			unitUnderTest.finish();
+			// Run & Check
+			assertNull(unitUnderTest.take());
+		}
+
+		@Test
+		void throwsTheFailure_afterAFailure() throws Exception {
+			// Prepare
+			RowRingBuffer unitUnderTest = new RowRingBuffer(1, 1, PLAN);
+			Exception failure = new Exception("failed");
+			unitUnderTest.fail(failure);
+			// Run & Check
+			assertSame(failure, assertThrows(Exception.class, () -> unitUnderTest.take()));
+			assertSame(failure, assertThrows(Exception.class, () -> unitUnderTest.claim()));
+		}
+	}
+}
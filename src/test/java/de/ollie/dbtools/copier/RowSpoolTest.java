@@ -0,0 +1,129 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import de.ollie.dbtools.modelreader.DBType;
+import de.ollie.dbtools.modelreader.models.DBColumnModel;
+import de.ollie.dbtools.modelreader.models.DBTableModel;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RowSpoolTest {
+
+	private static final TransferPlan PLAN = TransferPlan.compile(
+		new DBTableModel(
+			"TABLE",
+			List.of(
+				new DBColumnModel("ID", "BIGINT", DBType.BIGINT, 0, 0),
+				new DBColumnModel("NAME", "VARCHAR", DBType.VARCHAR, 0, 0)
+			),
+			List.of()
+		)
+	);
+
+	@TempDir
+	private File temp;
+
+	@Mock
+	private ResultSet rs;
+
+	@Nested
+	class read_RecordConsumer {
+
+		@Test
+		void returnsTheWrittenRecordsInTheOrderOfWritingAndDeletesTheSegments() throws Exception {
+			// Prepare
+			when(rs.getLong(1)).thenReturn(1L, 2L, 3L, 4L, 5L);
+			when(rs.getString(2)).thenReturn("a", "b", "c", "d", "e");
+			List<String> records = new ArrayList<>();
+			try (RowSpool unitUnderTest = new RowSpool(temp.toPath(), "TABLE", PLAN, 64)) {
+				for (int i = 0; i < 5; i++) {
+					unitUnderTest.write(rs);
+				}
+				// Run
+				long read = unitUnderTest.read((batch, row) ->
+					records.add(PLAN.getValue(batch, 0, row) + "=" + PLAN.getValue(batch, 1, row))
+				);
+				// Check
+				assertEquals(5, read);
+				assertEquals(0, unitUnderTest.getSegmentCount());
+			}
+			assertEquals(List.of("1=a", "2=b", "3=c", "4=d", "5=e"), records);
+			try (var files = Files.list(temp.toPath())) {
+				assertEquals(0, files.count());
+			}
+		}
+
+		@Test
+		void deletesEachSegmentBeforeTheRecordsOfTheNextSegmentAreConsumed() throws Exception {
+			// Prepare
+			when(rs.getLong(1)).thenReturn(1L, 2L, 3L);
+			when(rs.getString(2)).thenReturn("a".repeat(10), "b".repeat(10), "c".repeat(10));
+			List<Long> files = new ArrayList<>();
+			try (RowSpool unitUnderTest = new RowSpool(temp.toPath(), "TABLE", PLAN, 64)) {
+				for (int i = 0; i < 3; i++) {
+					unitUnderTest.write(rs);
+				}
+				// Run
+				unitUnderTest.read((batch, row) -> {
+					try (var segments = Files.list(temp.toPath())) {
+						files.add(segments.count());
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			}
+			// Check
+			assertEquals(List.of(2L, 2L, 1L), files);
+		}
+
+		@Test
+		void throwsAnException_passingARecordWhichIsLargerThanASegment() throws Exception {
+			// Prepare
+			when(rs.getLong(1)).thenReturn(1L);
+			when(rs.getString(2)).thenReturn("x".repeat(100));
+			try (RowSpool unitUnderTest = new RowSpool(temp.toPath(), "TABLE", PLAN, 64)) {
+				// Run & Check
+				assertThrows(IllegalStateException.class, () -> unitUnderTest.write(rs));
+			}
+		}
+	}
+
+	@Nested
+	class write_ResultSet {
+
+		@Test
+		void startsANewSegment_passingARecordWhichDoesNotFitIntoTheCurrentSegment() throws Exception {
+			// Prepare
+			when(rs.getLong(1)).thenReturn(1L, 2L, 3L);
+			when(rs.getString(2)).thenReturn("a".repeat(10), "b".repeat(10), "c".repeat(10));
+			try (RowSpool unitUnderTest = new RowSpool(temp.toPath(), "TABLE", PLAN, 64)) {
+				// Run
+				for (int i = 0; i < 3; i++) {
+					unitUnderTest.write(rs);
+				}
+				// Check
+				assertEquals(3, unitUnderTest.getRecordCount());
+				assertEquals(2, unitUnderTest.getSegmentCount());
+			}
+			try (var files = Files.list(Path.of(temp.getAbsolutePath()))) {
+				assertEquals(0, files.count());
+			}
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+import de.ollie.dbtools.connections.ConnectionFactory;
+import de.ollie.dbtools.modelreader.models.DBTableModel;
+import de.ollie.dbtools.utils.StatementBuilder;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ServerSideTableCopierTest {
+
+	private static final String TABLE_NAME = "TestTable";
+
+	@Mock
+	private Connection connection;
+
+	@Mock
+	private DatabaseMetaData databaseMetaData;
+
+	@Mock
+	private ConnectionFactory sourceConnectionFactory;
+
+	@Nested
+	class getDatabaseKey_Connection {
+
+		@Test
+		void returnsTheURLWithoutParameters_passingAPostgreSQLConnection() throws Exception {
+			// Prepare
+			when(connection.getMetaData()).thenReturn(databaseMetaData);
+			when(databaseMetaData.getURL()).thenReturn("jdbc:postgresql://Host:5432/db?currentSchema=staging");
+			// Run & Check
+			assertEquals("postgresql://host:5432/db", ServerSideTableCopier.getDatabaseKey(connection));
+		}
+
+		@Test
+		void returnsTheURLWithoutCredentials_passingAnOracleConnection() throws Exception {
+			// Prepare
+			when(connection.getMetaData()).thenReturn(databaseMetaData);
+			when(databaseMetaData.getURL()).thenReturn("jdbc:oracle:thin:scott/tiger@host:1521/service");
+			// Run & Check
+			assertEquals("oracle:thin:@host:1521/service", ServerSideTableCopier.getDatabaseKey(connection));
+		}
+
+		@Test
+		void returnsTheURLWithoutProperties_passingAnHSQLDBConnection() throws Exception {
+			// Prepare
+			when(connection.getMetaData()).thenReturn(databaseMetaData);
+			when(databaseMetaData.getURL()).thenReturn("jdbc:hsqldb:file:/tmp/db;shutdown=true");
+			// Run & Check
+			assertEquals("hsqldb:file:/tmp/db", ServerSideTableCopier.getDatabaseKey(connection));
+		}
+	}
+
+	@Nested
+	class getSourceTableName_DBTable_String_String_Connection_ConnectionFactory_Connection {
+
+		private final DBTableModel table = new DBTableModel(TABLE_NAME, List.of(), List.of());
+
+		@Test
+		void returnsNull_passingOptionsWithoutServerSideCopy() throws Exception {
+			// Prepare
+			ServerSideTableCopier unitUnderTest = new ServerSideTableCopier(
+				new StatementBuilder(),
+				new CopyOptions().setServerSideCopy(false).setSourceDbLink("link")
+			);
+			// Run & Check
+			assertNull(unitUnderTest.getSourceTableName(table, TABLE_NAME, "scheme", connection, null, connection));
+		}
+
+		@Test
+		void returnsNull_passingOptionsWithAConsistentSnapshot() throws Exception {
+			// Prepare
+			ServerSideTableCopier unitUnderTest = new ServerSideTableCopier(
+				new StatementBuilder(),
+				new CopyOptions().setServerSideCopy(true).setConsistentSnapshot(true).setSourceDbLink("link")
+			);
+			// Run & Check
+			assertNull(unitUnderTest.getSourceTableName(table, TABLE_NAME, "scheme", connection, null, connection));
+		}
+
+		@Test
+		void returnsNull_passingOptionsWithAThrottle() throws Exception {
+			// Prepare
+			ServerSideTableCopier unitUnderTest = new ServerSideTableCopier(
+				new StatementBuilder(),
+				new CopyOptions().setServerSideCopy(true).setMaxRowsPerSecond(100).setSourceDbLink("link")
+			);
+			// Run & Check
+			assertNull(unitUnderTest.getSourceTableName(table, TABLE_NAME, "scheme", connection, null, connection));
+		}
+
+		@Test
+		void returnsNull_passingASourceConnectionFactoryWithReplicas() throws Exception {
+			// Prepare
+			ServerSideTableCopier unitUnderTest = new ServerSideTableCopier(
+				new StatementBuilder(),
+				new CopyOptions().setServerSideCopy(true).setSourceDbLink("link")
+			);
+			when(sourceConnectionFactory.hasReplicas()).thenReturn(true);
+			// Run & Check
+			assertNull(
+				unitUnderTest.getSourceTableName(table, TABLE_NAME, "scheme", connection, sourceConnectionFactory, connection)
+			);
+		}
+
+		@Test
+		void returnsNull_passingDefaultOptions() throws Exception {
+			// Prepare
+			ServerSideTableCopier unitUnderTest = new ServerSideTableCopier(
+				new StatementBuilder(),
+				new CopyOptions().setSourceDbLink("link")
+			);
+			// Run & Check
+			assertNull(unitUnderTest.getSourceTableName(table, TABLE_NAME, "scheme", connection, null, connection));
+		}
+
+		@Test
+		void returnsTheTableNameOverTheDbLink_passingOptionsWithASourceDbLink() throws Exception {
+			// Prepare
+			ServerSideTableCopier unitUnderTest = new ServerSideTableCopier(
+				new StatementBuilder(),
+				new CopyOptions().setServerSideCopy(true).setSourceDbLink("link")
+			);
+			// Run & Check
+			assertEquals(
+				"scheme." + TABLE_NAME + "@link",
+				unitUnderTest.getSourceTableName(table, TABLE_NAME, "scheme", connection, null, connection)
+			);
+		}
+
+		@Test
+		void returnsNull_passingTheSameTableOfTheSameDatabase() throws Exception {
+			// Prepare
+			ServerSideTableCopier unitUnderTest = new ServerSideTableCopier(
+				new StatementBuilder(),
+				new CopyOptions().setServerSideCopy(true)
+			);
+			when(connection.getMetaData()).thenReturn(databaseMetaData);
+			when(databaseMetaData.getDatabaseProductName()).thenReturn("HSQL Database Engine");
+			when(databaseMetaData.getURL()).thenReturn("jdbc:hsqldb:mem:db");
+			when(connection.getSchema()).thenReturn("PUBLIC");
+			// Run & Check
+			assertNull(unitUnderTest.getSourceTableName(table, TABLE_NAME, null, connection, null, connection));
+		}
+	}
+}
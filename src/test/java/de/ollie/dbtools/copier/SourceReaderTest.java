@@ -0,0 +1,85 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SourceReaderTest {
+
+	@Mock
+	private Connection connection;
+
+	@Mock
+	private DatabaseMetaData dbmd;
+
+	@Mock
+	private Statement statement;
+
+	private void prepareConnection(String productName) throws Exception {
+		when(connection.getMetaData()).thenReturn(dbmd);
+		when(dbmd.getDatabaseProductName()).thenReturn(productName);
+		when(connection.getAutoCommit()).thenReturn(true);
+	}
+
+	@Nested
+	class createStatement {
+
+		@Test
+		void returnsACursorInATransactionWithTheFetchSize_forPostgreSQL() throws Exception {
+			// Prepare
+			prepareConnection("PostgreSQL");
+			when(connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).thenReturn(statement);
+			// Run
+			try (SourceReader unitUnderTest = new SourceReader(connection, new CopyOptions().setFetchSize(500))) {
+				assertSame(statement, unitUnderTest.createStatement());
+			}
+			// Check
+			verify(statement, times(1)).setFetchSize(500);
+			verify(connection, times(1)).setAutoCommit(false);
+			verify(connection, times(1)).commit();
+			verify(connection, times(1)).setAutoCommit(true);
+		}
+
+		@Test
+		void returnsAStreamingResultSet_forMySQL() throws Exception {
+			// Prepare
+			prepareConnection("MySQL");
+			when(connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).thenReturn(statement);
+			// Run
+			try (SourceReader unitUnderTest = new SourceReader(connection, new CopyOptions())) {
+				assertSame(statement, unitUnderTest.createStatement());
+			}
+			// Check
+			verify(statement, times(1)).setFetchSize(Integer.MIN_VALUE);
+			verify(connection, never()).setAutoCommit(false);
+		}
+
+		@Test
+		void returnsADefaultStatement_withStreamingSwitchedOff() throws Exception {
+			// Prepare
+			prepareConnection("PostgreSQL");
+			when(connection.createStatement()).thenReturn(statement);
+			// Run
+			try (SourceReader unitUnderTest = new SourceReader(connection, new CopyOptions().setStreaming(false))) {
+				assertSame(statement, unitUnderTest.createStatement());
+			}
+			// Check
+			verify(statement, never()).setFetchSize(anyInt());
+			verify(connection, never()).setAutoCommit(false);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SourceSnapshotTest {
+
+	private static final String SNAPSHOT_ID = "00000003-0000001B-1";
+
+	@Mock
+	private Connection connection;
+
+	@Mock
+	private Connection otherConnection;
+
+	@Mock
+	private DatabaseMetaData dbmd;
+
+	@Mock
+	private Statement statement;
+
+	@Mock
+	private Statement otherStatement;
+
+	@Mock
+	private CallableStatement callableStatement;
+
+	@Mock
+	private ResultSet resultSet;
+
+	private void prepareConnection(String productName) throws Exception {
+		when(connection.getMetaData()).thenReturn(dbmd);
+		when(dbmd.getDatabaseProductName()).thenReturn(productName);
+		when(connection.getAutoCommit()).thenReturn(true);
+		when(connection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+	}
+
+	@Nested
+	class begin_Connection_ConnectionFactory {
+
+		@Test
+		void exportsTheSnapshotAndImportsItToTheOtherConnections_passingAPostgreSQLConnection() throws Exception {
+			// Prepare
+			prepareConnection("PostgreSQL");
+			when(connection.createStatement()).thenReturn(statement);
+			when(statement.executeQuery("SELECT pg_export_snapshot()")).thenReturn(resultSet);
+			when(resultSet.getObject(1)).thenReturn(SNAPSHOT_ID);
+			when(otherConnection.createStatement()).thenReturn(otherStatement);
+			// Run
+			try (SourceSnapshot unitUnderTest = SourceSnapshot.begin(connection, () -> otherConnection)) {
+				assertTrue(unitUnderTest.isShared());
+				assertSame(otherConnection, unitUnderTest.getConnectionFactory().createConnection());
+			}
+			// Check
+			verify(connection).setAutoCommit(false);
+			verify(statement).execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ, READ ONLY");
+			verify(otherConnection).setAutoCommit(false);
+			verify(otherStatement).execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ, READ ONLY");
+			verify(otherStatement).execute("SET TRANSACTION SNAPSHOT '" + SNAPSHOT_ID + "'");
+			verify(connection).commit();
+			verify(connection).setAutoCommit(true);
+		}
+
+		@Test
+		void readsAllConnectionsAsOfTheSCN_passingAnOracleConnection() throws Exception {
+			// Prepare
+			prepareConnection("Oracle");
+			when(connection.createStatement()).thenReturn(statement);
+			when(statement.executeQuery("SELECT DBMS_FLASHBACK.GET_SYSTEM_CHANGE_NUMBER FROM DUAL")).thenReturn(resultSet);
+			when(resultSet.getObject(1)).thenReturn(4711L);
+			String enable = "BEGIN DBMS_FLASHBACK.ENABLE_AT_SYSTEM_CHANGE_NUMBER(?); END;";
+			when(connection.prepareCall(enable)).thenReturn(callableStatement);
+			when(otherConnection.prepareCall(enable)).thenReturn(callableStatement);
+			// Run
+			try (SourceSnapshot unitUnderTest = SourceSnapshot.begin(connection, () -> otherConnection)) {
+				unitUnderTest.getConnectionFactory().createConnection();
+			}
+			// Check
+			verify(callableStatement, times(2)).setLong(1, 4711L);
+			verify(statement).execute("BEGIN DBMS_FLASHBACK.DISABLE; END;");
+		}
+
+		@Test
+		void readsInOneSerializableTransactionWithoutOtherConnections_passingAnHSQLDBConnection() throws Exception {
+			// Prepare
+			prepareConnection("HSQL Database Engine");
+			// Run
+			try (SourceSnapshot unitUnderTest = SourceSnapshot.begin(connection, () -> otherConnection)) {
+				assertFalse(unitUnderTest.isShared());
+				assertNull(unitUnderTest.getConnectionFactory());
+			}
+			// Check
+			verify(connection).setAutoCommit(false);
+			verify(connection).setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+			verify(connection).commit();
+			verify(connection).setAutoCommit(true);
+		}
+	}
+}
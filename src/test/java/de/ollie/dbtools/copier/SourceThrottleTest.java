@@ -0,0 +1,168 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.sql.ResultSet;
+import java.util.Map;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SourceThrottleTest {
+
+	private static final String TABLE_NAME = "TestTable";
+
+	@TempDir
+	private File temp;
+
+	@Mock
+	private ResultSet resultSet;
+
+	@Nested
+	class isActive {
+
+		@Test
+		void returnsFalse_passingNoLimits() {
+			assertFalse(new SourceThrottle(new CopyOptions()).isActive());
+		}
+
+		@Test
+		void returnsTrue_passingATableLimit() {
+			assertTrue(new SourceThrottle(new CopyOptions().setTableRowsPerSecond(Map.of(TABLE_NAME, 10L))).isActive());
+		}
+	}
+
+	@Nested
+	class wrap_ResultSet_String {
+
+		@Test
+		void readsTheRowsByTheRowLimitOfTheTable() throws Exception {
+			// Prepare
+			CopyOptions options = new CopyOptions().setTableRowsPerSecond(Map.of(TABLE_NAME.toUpperCase(), 100L));
+			when(resultSet.next()).thenReturn(true);
+			ResultSet rs = new SourceThrottle(options).wrap(resultSet, TABLE_NAME);
+			long start = System.currentTimeMillis();
+			// Run
+			for (int i = 0; i < 151; i++) {
+				rs.next();
+			}
+			// Check
+			long millis = System.currentTimeMillis() - start;
+			assertTrue(millis >= 400, "millis: " + millis);
+		}
+
+		@Test
+		void readsTheRowsWithoutDelay_passingTheLimitOfAnotherTable() throws Exception {
+			// Prepare
+			CopyOptions options = new CopyOptions().setTableRowsPerSecond(Map.of("OtherTable", 1L));
+			when(resultSet.next()).thenReturn(true);
+			ResultSet rs = new SourceThrottle(options).wrap(resultSet, TABLE_NAME);
+			long start = System.currentTimeMillis();
+			// Run
+			for (int i = 0; i < 100; i++) {
+				rs.next();
+			}
+			// Check
+			long millis = System.currentTimeMillis() - start;
+			assertTrue(millis < 400, "millis: " + millis);
+		}
+
+		@Test
+		void readsTheRowsByTheByteLimit() throws Exception {
+			// Prepare
+			CopyOptions options = new CopyOptions().setMaxBytesPerSecond(1000);
+			when(resultSet.next()).thenReturn(true);
+			when(resultSet.getString(1)).thenReturn("x".repeat(500));
+			ResultSet rs = new SourceThrottle(options).wrap(resultSet, null);
+			long start = System.currentTimeMillis();
+			// Run
+			for (int i = 0; i < 4; i++) {
+				rs.next();
+				rs.getString(1);
+			}
+			rs.next();
+			// Check
+			long millis = System.currentTimeMillis() - start;
+			assertTrue(millis >= 900, "millis: " + millis);
+		}
+	}
+
+	@Nested
+	class fetched_long {
+
+		@Test
+		void backsOff_passingALatencyAboveTheMaximum() throws Exception {
+			// Prepare
+			SourceThrottle unitUnderTest = new SourceThrottle(new CopyOptions().setMaxSourceLatencyMillis(10));
+			long start = System.currentTimeMillis();
+			// Run
+			unitUnderTest.fetched(50_000_000L);
+			// Check
+			assertTrue(System.currentTimeMillis() - start >= 50);
+			assertEquals(50, unitUnderTest.getBackoffMillis());
+		}
+
+		@Test
+		void halvesTheBackOff_passingALatencyBelowTheMaximum() throws Exception {
+			// Prepare
+			SourceThrottle unitUnderTest = new SourceThrottle(new CopyOptions().setMaxSourceLatencyMillis(10));
+			unitUnderTest.fetched(20_000_000L);
+			// Run
+			unitUnderTest.fetched(5_000_000L);
+			// Check
+			assertEquals(10, unitUnderTest.getBackoffMillis());
+		}
+	}
+
+	@Nested
+	class reloadIfChanged {
+
+		@Test
+		void replacesTheLimitsOfTheThrottleByTheLimitsOfTheThrottleFile() throws Exception {
+			// Prepare
+			File file = new File(temp, "throttle.properties");
+			Files.writeString(
+				file.toPath(),
+				"rowsPerSecond=100\nbytesPerSecond=2000\nmaxSourceLatencyMillis=300\ntable.ORDERS.rowsPerSecond=10\n"
+			);
+			CopyOptions options = new CopyOptions()
+				.setThrottleFile(file.getAbsolutePath())
+				.setMaxRowsPerSecond(50)
+				.setTableBytesPerSecond(Map.of("ORDERS", 500L));
+			SourceThrottle unitUnderTest = new SourceThrottle(options);
+			// Run
+			unitUnderTest.reloadIfChanged();
+			// Check
+			SourceThrottle.Limits limits = unitUnderTest.getLimits();
+			assertEquals(100, limits.getRowsPerSecond());
+			assertEquals(2000, limits.getBytesPerSecond());
+			assertEquals(300, limits.getMaxSourceLatencyMillis());
+			assertEquals(10, limits.getRowsPerSecond("orders"));
+			assertEquals(500, limits.getBytesPerSecond("orders"));
+			assertEquals(50, options.getMaxRowsPerSecond());
+		}
+	}
+
+	@Nested
+	class sizeOf_Object {
+
+		@Test
+		void returnsTheSizesOfTheValues() {
+			assertEquals(0, SourceThrottle.sizeOf(null));
+			assertEquals(3, SourceThrottle.sizeOf("abc"));
+			assertEquals(5, SourceThrottle.sizeOf(new byte[5]));
+			assertEquals(2, SourceThrottle.sizeOf(new BigDecimal("1000")));
+			assertEquals(8, SourceThrottle.sizeOf(42L));
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class TableCopySchedulerTest {
+
+	private TableCopyScheduler unitUnderTest = new TableCopyScheduler();
+
+	private static TableCopyTask task(String name, long recordCount) {
+		return new TableCopyTask(null, name, recordCount);
+	}
+
+	@Nested
+	class orderBySize_ListTableCopyTask {
+
+		@Test
+		void returnsTheLargestTablesFirst() {
+			// Prepare
+			TableCopyTask small = task("small", 10);
+			TableCopyTask large = task("large", 1000);
+			TableCopyTask medium = task("medium", 100);
+			// Run & Check
+			assertEquals(List.of(large, medium, small), unitUnderTest.orderBySize(List.of(small, large, medium)));
+		}
+	}
+
+	@Nested
+	class run_ListTableCopyTask_int_boolean_TableCopyAction {
+
+		@Test
+		void runsAllTasks() throws Exception {
+			// Prepare
+			List<TableCopyTask> tasks = List.of(task("a", 1), task("b", 2), task("c", 3), task("d", 4));
+			List<String> copied = Collections.synchronizedList(new ArrayList<>());
+			// Run
+			unitUnderTest.run(tasks, 2, false, task -> copied.add(task.getTargetTableName()));
+			// Check
+			assertEquals(4, copied.size());
+		}
+
+		@Test
+		void startsTheLargestTaskFirst_withOneThread() throws Exception {
+			// Prepare
+			List<TableCopyTask> tasks = List.of(task("a", 1), task("b", 3), task("c", 2));
+			List<String> copied = Collections.synchronizedList(new ArrayList<>());
+			// Run
+			unitUnderTest.run(tasks, 1, true, task -> copied.add(task.getTargetTableName()));
+			// Check
+			assertEquals(List.of("b", "c", "a"), copied);
+		}
+
+		@Test
+		void throwsTheExceptionOfAFailedTask() {
+			// Prepare
+			SQLException exception = new SQLException("failed");
+			// Run & Check
+			assertSame(
+				exception,
+				assertThrows(
+					SQLException.class,
+					() ->
+						unitUnderTest.run(
+							List.of(task("a", 1)),
+							2,
+							false,
+							task -> {
+								throw exception;
+							}
+						)
+				)
+			);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import de.ollie.dbtools.modelreader.DBColumn;
+import de.ollie.dbtools.modelreader.DBForeignKey;
+import de.ollie.dbtools.modelreader.DBType;
+import de.ollie.dbtools.modelreader.models.DBColumnModel;
+import de.ollie.dbtools.modelreader.models.DBForeignKeyModel;
+import de.ollie.dbtools.modelreader.models.DBTableModel;
+import de.ollie.dbtools.utils.StatementBuilder;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class TargetCleanerTest {
+
+	private TargetCleaner unitUnderTest = new TargetCleaner(new StatementBuilder(), new CopyOptions());
+
+	private static TableCopyTask task(String tableName) {
+		return new TableCopyTask(new DBTableModel(tableName, List.of(), List.of()), tableName, 0);
+	}
+
+	private static DBForeignKey<?> foreignKey(String tableName, String referencedTableName) {
+		return new DBForeignKeyModel("FK_" + tableName, tableName, "ID", referencedTableName, "ID");
+	}
+
+	@Nested
+	class orderByForeignKeys_ListTableCopyTask_ListDBForeignKey {
+
+		@Test
+		void returnsTheReferencingTablesBeforeTheReferencedOnes() {
+			// Prepare
+			TableCopyTask parent = task("PARENT");
+			TableCopyTask child = task("CHILD");
+			TableCopyTask grandChild = task("GRAND_CHILD");
+			TableCopyTask other = task("OTHER");
+			// Run
+			List<List<TableCopyTask>> returned = unitUnderTest.orderByForeignKeys(
+				List.of(parent, child, grandChild, other),
+				List.of(foreignKey("CHILD", "PARENT"), foreignKey("grand_child", "child"), foreignKey("OTHER", "OTHER"))
+			);
+			// Check
+			assertEquals(List.of(List.of(grandChild, other), List.of(child), List.of(parent)), returned);
+		}
+
+		@Test
+		void returnsTheTablesOfACycleInTheLastLevel() {
+			// Prepare
+			TableCopyTask a = task("A");
+			TableCopyTask b = task("B");
+			TableCopyTask c = task("C");
+			// Run
+			List<List<TableCopyTask>> returned = unitUnderTest.orderByForeignKeys(
+				List.of(a, b, c),
+				List.of(foreignKey("A", "B"), foreignKey("B", "A"), foreignKey("C", "UNKNOWN"))
+			);
+			// Check
+			assertEquals(List.of(List.of(c), List.of(a, b)), returned);
+		}
+	}
+
+	@Nested
+	class clear_ListTableCopyTask_ListDBForeignKey_Connection_ConnectionFactory {
+
+		private final DBColumn key = new DBColumnModel("ID", "BIGINT", DBType.BIGINT, -1, -1);
+		private final TableCopyTask task = new TableCopyTask(
+			new DBTableModel("TEST_TABLE", List.of(key), List.of(), List.of(key)),
+			"TEST_TABLE",
+			0
+		);
+		private final TargetCleaner unitUnderTest = new TargetCleaner(
+			new StatementBuilder(),
+			new CopyOptions().setClearStrategy(ClearStrategy.CHUNKED_DELETE).setChunkSize(3)
+		);
+
+		@Test
+		void removesAllRecords_passingAChunkedDeleteAndNonPositiveKeys() throws Exception {
+			assertEquals(0, clear("nonPositive", -7, -6, -5, -4, -3, -2, -1, 0));
+		}
+
+		@Test
+		void removesAllRecords_passingAChunkedDeleteAndASingleRecordWithKeyZero() throws Exception {
+			assertEquals(0, clear("zero", 0));
+		}
+
+		@Test
+		void removesAllRecords_passingAChunkedDeleteAndSparseKeysOfTheWholeRange() throws Exception {
+			assertEquals(0, clear("sparse", Long.MIN_VALUE, -1, 1, 1_000_000_000_000L, Long.MAX_VALUE - 1, Long.MAX_VALUE));
+		}
+
+		private long clear(String dbName, long... ids) throws Exception {
+			try (Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:" + dbName, "SA", "")) {
+				connection.createStatement().execute("CREATE TABLE TEST_TABLE (ID BIGINT PRIMARY KEY)");
+				try (PreparedStatement insert = connection.prepareStatement("INSERT INTO TEST_TABLE (ID) VALUES (?)")) {
+					for (long id : ids) {
+						insert.setLong(1, id);
+						insert.addBatch();
+					}
+					insert.executeBatch();
+				}
+				unitUnderTest.clear(List.of(task), List.of(), connection, null);
+				try (ResultSet rs = connection.createStatement().executeQuery("SELECT COUNT(*) FROM TEST_TABLE")) {
+					rs.next();
+					return rs.getLong(1);
+				} finally {
+					connection.createStatement().execute("SHUTDOWN");
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+	private TokenBucket unitUnderTest = new TokenBucket();
+
+	@Nested
+	class reserve_double_double {
+
+		@Test
+		void returnsZero_passingNoRate() {
+			assertEquals(0, unitUnderTest.reserve(1_000_000, 0));
+		}
+
+		@Test
+		void returnsZero_passingPermitsOfTheFullBucket() {
+			assertEquals(0, unitUnderTest.reserve(100, 100));
+		}
+
+		@Test
+		void returnsTheTimeToPayTheDebtBack_passingMorePermitsThanAvailable() {
+			// Prepare
+			unitUnderTest.reserve(100, 100);
+			// Run
+			long returned = unitUnderTest.reserve(50, 100);
+			// Check
+			assertTrue(returned > 400_000_000L, "returned: " + returned);
+			assertTrue(returned <= 500_000_000L, "returned: " + returned);
+		}
+
+		@Test
+		void limitsTheTokensToTheRate_passingAHigherRateAfterALowerOne() {
+			// Prepare
+			unitUnderTest.reserve(10, 10);
+			// Run
+			long returned = unitUnderTest.reserve(100, 10);
+			// Check
+			assertTrue(returned > 9_000_000_000L, "returned: " + returned);
+		}
+	}
+}
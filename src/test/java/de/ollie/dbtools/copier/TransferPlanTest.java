@@ -0,0 +1,221 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.ollie.dbtools.modelreader.DBType;
+import de.ollie.dbtools.modelreader.models.DBColumnModel;
+import de.ollie.dbtools.modelreader.models.DBTableModel;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TransferPlanTest {
+
+	private static final TransferPlan PLAN = TransferPlan.compile(
+		new DBTableModel(
+			"TABLE",
+			List.of(
+				new DBColumnModel("ID", "BIGINT", DBType.BIGINT, 0, 0),
+				new DBColumnModel("NAME", "VARCHAR", DBType.VARCHAR, 0, 0)
+			),
+			List.of()
+		)
+	);
+
+	@Mock
+	private PreparedStatement statement;
+
+	@Mock
+	private ResultSet rs;
+
+	@Nested
+	class transfer_ResultSet_PreparedStatement {
+
+		@Test
+		void setsTheValuesByTypedAccessors() throws Exception {
+			// Prepare
+			when(rs.getLong(1)).thenReturn(42L);
+			when(rs.wasNull()).thenReturn(false);
+			when(rs.getString(2)).thenReturn("name");
+			// Run
+			PLAN.transfer(rs, statement);
+			// Check
+			verify(statement).setLong(1, 42L);
+			verify(statement).setString(2, "name");
+		}
+
+		@Test
+		void setsNullsWithTheSQLTypeOfTheColumn() throws Exception {
+			// Prepare
+			when(rs.getLong(1)).thenReturn(0L);
+			when(rs.wasNull()).thenReturn(true);
+			when(rs.getString(2)).thenReturn(null);
+			// Run
+			PLAN.transfer(rs, statement);
+			// Check
+			verify(statement).setNull(1, Types.BIGINT);
+			verify(statement).setNull(2, Types.VARCHAR);
+		}
+	}
+
+	@Nested
+	class read_ResultSet_RowBatch {
+
+		@Test
+		void storesIntegralValuesInPrimitiveArrays() {
+			assertTrue(PLAN.isPrimitive(0));
+			assertFalse(PLAN.isPrimitive(1));
+		}
+
+		@Test
+		void bindsTheReadValues() throws Exception {
+			// Prepare
+			RowBatch batch = new RowBatch(2, PLAN);
+			when(rs.getLong(1)).thenReturn(42L, 0L);
+			when(rs.wasNull()).thenReturn(false, true);
+			when(rs.getString(2)).thenReturn("name", (String) null);
+			PLAN.read(rs, batch);
+			PLAN.read(rs, batch);
+			// Run
+			PLAN.bind(batch, 0, statement);
+			PLAN.bind(batch, 1, statement);
+			// Check
+			verify(statement).setLong(1, 42L);
+			verify(statement).setString(2, "name");
+			verify(statement).setNull(1, Types.BIGINT);
+			verify(statement).setNull(2, Types.VARCHAR);
+		}
+	}
+
+	@Nested
+	class getKey_RowBatch_int_intArr {
+
+		private final TransferPlan plan = TransferPlan.compile(
+			List.of(
+				new DBColumnModel("CODE", "CHAR", DBType.CHAR, 10, 0),
+				new DBColumnModel("AMOUNT", "NUMERIC", DBType.NUMERIC, 10, 2),
+				new DBColumnModel("CREATED", "TIMESTAMP", DBType.TIMESTAMP, 0, 0),
+				new DBColumnModel("ID", "BIGINT", DBType.BIGINT, 0, 0)
+			)
+		);
+
+		private String getKey(String code, BigDecimal amount, Timestamp created, Long id) {
+			RowBatch batch = new RowBatch(1, plan);
+			int row = batch.addRow();
+			Object[] values = { code, amount, created };
+			for (int c = 0; c < values.length; c++) {
+				batch.setObject(c, row, values[c]);
+				batch.setNull(c, row, values[c] == null);
+			}
+			batch.setLong(3, row, id != null ? id : 0);
+			batch.setNull(3, row, id == null);
+			return plan.getKey(batch, row, new int[] { 0, 1, 2, 3 });
+		}
+
+		@Test
+		void returnsEqualKeys_passingPaddedCharValuesAndDecimalsOfDifferentScales() {
+			assertEquals(
+				getKey("A1", new BigDecimal("1.5"), Timestamp.valueOf("2024-01-02 03:04:05.123456789"), 42L),
+				getKey("A1        ", new BigDecimal("1.50"), Timestamp.valueOf("2024-01-02 03:04:05.123456789"), 42L)
+			);
+		}
+
+		@Test
+		void returnsDifferentKeys_passingDifferentValues() {
+			Timestamp created = Timestamp.valueOf("2024-01-02 03:04:05.123456789");
+			assertNotEquals(
+				getKey("A1", BigDecimal.ONE, created, 42L),
+				getKey("A2", BigDecimal.ONE, created, 42L)
+			);
+			assertNotEquals(
+				getKey("A1", BigDecimal.ONE, created, 42L),
+				getKey("A1", BigDecimal.ONE, Timestamp.valueOf("2024-01-02 03:04:05.123456788"), 42L)
+			);
+			assertNotEquals(getKey("A1", BigDecimal.ONE, created, 42L), getKey("A1", BigDecimal.ONE, created, null));
+			assertNotEquals(getKey(" A1", null, null, 0L), getKey("A1", null, null, 0L));
+		}
+	}
+
+	@Nested
+	class encode_ResultSet_ByteBuffer {
+
+		@Test
+		void decodesTheEncodedValues() throws Exception {
+			// Prepare
+			TransferPlan plan = TransferPlan.compile(
+				new DBTableModel(
+					"TABLE",
+					List.of(
+						new DBColumnModel("ID", "INTEGER", DBType.INTEGER, 0, 0),
+						new DBColumnModel("NAME", "VARCHAR", DBType.VARCHAR, 0, 0),
+						new DBColumnModel("AMOUNT", "NUMERIC", DBType.NUMERIC, 10, 2),
+						new DBColumnModel("CREATED", "TIMESTAMP", DBType.TIMESTAMP, 0, 0)
+					),
+					List.of()
+				)
+			);
+			Timestamp timestamp = Timestamp.valueOf("2024-01-02 03:04:05.123456789");
+			when(rs.getInt(1)).thenReturn(42, 0);
+			when(rs.wasNull()).thenReturn(false, true);
+			when(rs.getString(2)).thenReturn("näme", (String) null);
+			when(rs.getBigDecimal(3)).thenReturn(new BigDecimal("-1234.56"), (BigDecimal) null);
+			when(rs.getTimestamp(4)).thenReturn(timestamp, (Timestamp) null);
+			ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+			RowBatch batch = new RowBatch(2, plan);
+			// Run
+			plan.encode(rs, buffer);
+			plan.encode(rs, buffer);
+			buffer.flip();
+			plan.decode(buffer, batch);
+			plan.decode(buffer, batch);
+			// Check
+			assertTrue(plan.isEncodable());
+			assertEquals(42, plan.getValue(batch, 0, 0));
+			assertEquals("näme", plan.getValue(batch, 1, 0));
+			assertEquals(new BigDecimal("-1234.56"), plan.getValue(batch, 2, 0));
+			assertEquals(timestamp, plan.getValue(batch, 3, 0));
+			for (int c = 0; c < 4; c++) {
+				assertNull(plan.getValue(batch, c, 1));
+			}
+			assertFalse(buffer.hasRemaining());
+		}
+
+		@Test
+		void isNotEncodable_passingATableWithALobColumn() {
+			assertFalse(
+				TransferPlan
+					.compile(
+						new DBTableModel("TABLE", List.of(new DBColumnModel("DOC", "CLOB", DBType.CLOB, 0, 0)), List.of())
+					)
+					.isEncodable()
+			);
+		}
+
+		@Test
+		void isNotEncodable_passingATableWithAColumnWithoutCodec() {
+			assertFalse(
+				TransferPlan
+					.compile(
+						new DBTableModel("TABLE", List.of(new DBColumnModel("ID", "ROWID", DBType.ROWID, 0, 0)), List.of())
+					)
+					.isEncodable()
+			);
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package de.ollie.dbtools.copier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class WorkStealingQueuesTest {
+
+	@Nested
+	class next_int {
+
+		@Test
+		void returnsTheItemsOfTheOwnQueueFirst() {
+			// Prepare
+			WorkStealingQueues<String> unitUnderTest = new WorkStealingQueues<>(List.of("a", "b", "c", "d"), 2);
+			// Run & Check
+			assertEquals("a", unitUnderTest.next(0));
+			assertEquals("c", unitUnderTest.next(0));
+			assertEquals("b", unitUnderTest.next(1));
+		}
+
+		@Test
+		void stealsFromTheTailOfAnotherQueue_whenTheOwnQueueIsEmpty() {
+			// Prepare
+			WorkStealingQueues<String> unitUnderTest = new WorkStealingQueues<>(List.of("a", "b", "c", "d", "e"), 3);
+			unitUnderTest.next(2);
+			// Run & Check
+			assertEquals("d", unitUnderTest.next(2));
+			assertEquals("e", unitUnderTest.next(2));
+			assertEquals("a", unitUnderTest.next(0));
+			assertEquals("b", unitUnderTest.next(2));
+		}
+
+		@Test
+		void returnsNull_whenAllQueuesAreEmpty() {
+			// Prepare
+			WorkStealingQueues<String> unitUnderTest = new WorkStealingQueues<>(List.of("a"), 2);
+			unitUnderTest.next(1);
+			// Run & Check
+			assertNull(unitUnderTest.next(0));
+			assertNull(unitUnderTest.next(1));
+		}
+	}
+}
@@ -6,6 +6,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.hsqldb.types.Types;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -95,4 +97,15 @@ class DBTypeConverterTest {
 		// Check
 		assertEquals(expected, returned);
 	}
+
+	@ParameterizedTest
+	@EnumSource(DBType.class)
+	void convertDBType_PassADBType_ReturnsATypesValueWhichIsConvertedBackToThePassedDBType(DBType passed) {
+		assertEquals(passed, unitUnderTest.convert(unitUnderTest.convert(passed)));
+	}
+
+	@Test
+	void convertDBType_PassANullValue_ThrowsException() {
+		assertThrows(IllegalArgumentException.class, () -> unitUnderTest.convert((DBType) null));
+	}
 }
@@ -311,4 +311,36 @@ class JDBCModelReaderTest {
 			index.getColumns().get(1)
 		);
 	}
+
+	@Test
+	void readModel_ValidConnectionWithAPrimaryKeyOnTable_ReturnsTheModelWithThePrimaryKeyColumns() throws Exception {
+		// Prepare
+		Statement stmt = connectionSource.createStatement();
+		stmt.execute(
+			"CREATE TABLE " +
+			TABLE_NAME_1 +
+			" (" +
+			COLUMN_NAME_1 +
+			" INTEGER, " +
+			COLUMN_NAME_2 +
+			" VARCHAR(100), " +
+			COLUMN_NAME_3 +
+			" NUMERIC(10,2), PRIMARY KEY (" +
+			COLUMN_NAME_2 +
+			", " +
+			COLUMN_NAME_1 +
+			"))"
+		);
+		stmt.close();
+		// Run
+		DBDataScheme returned = unitUnderTest.readModel();
+		// Check
+		assertEquals(
+			List.of(
+				new DBColumnModel(COLUMN_NAME_2.toUpperCase(), "VARCHAR", DBType.VARCHAR, 100, -1),
+				new DBColumnModel(COLUMN_NAME_1.toUpperCase(), "INTEGER", DBType.INTEGER, -1, -1)
+			),
+			returned.getTables().get(0).getPrimaryKeyColumns()
+		);
+	}
 }
@@ -10,6 +10,7 @@ import de.ollie.dbtools.modelreader.DBForeignKey;
 import de.ollie.dbtools.modelreader.DBType;
 import de.ollie.dbtools.modelreader.models.DBColumnModel;
 import de.ollie.dbtools.modelreader.models.DBTableModel;
+import de.ollie.dbtools.utils.Dialect;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.Nested;
@@ -172,4 +173,634 @@ class StatementBuilderTest {
 		);
 		assertEquals("Table '" + TABLE_NAME_1 + "' has no columns.", thrown.getMessage());
 	}
+
+	@Nested
+	class createKeysetSelectStatementString_DBTable_DBColumn_boolean_boolean_int_Dialect {
+
+		private DBTableModel createTable() {
+			List<DBColumn> columns = new ArrayList<>();
+			columns.add(new DBColumnModel(COLUMN_NAME_1, "INTEGER", DBType.INTEGER, -1, -1));
+			columns.add(new DBColumnModel(COLUMN_NAME_2, "VARCHAR", DBType.VARCHAR, 100, -1));
+			return new DBTableModel(TABLE_NAME_1, columns, new ArrayList<>());
+		}
+
+		@Test
+		void returnsAStatementWithBothBoundsAndLimit_passingPostgreSQL() {
+			// Prepare
+			DBTableModel table = createTable();
+			String expected =
+				"SELECT Id, Name FROM " + TABLE_NAME_1 + " WHERE Id > ? AND Id <= ? ORDER BY Id LIMIT 100";
+			// Run & Check
+			assertEquals(
+				expected,
+				unitUnderTest.createKeysetSelectStatementString(
+					table,
+					table.getColumns().get(0),
+					true,
+					true,
+					100,
+					Dialect.POSTGRESQL
+				)
+			);
+		}
+
+		@Test
+		void returnsAStatementWithUpperBoundAndFetchFirst_passingOracle() {
+			// Prepare
+			DBTableModel table = createTable();
+			String expected =
+				"SELECT Id, Name FROM " + TABLE_NAME_1 + " WHERE Id <= ? ORDER BY Id FETCH FIRST 10 ROWS ONLY";
+			// Run & Check
+			assertEquals(
+				expected,
+				unitUnderTest.createKeysetSelectStatementString(
+					table,
+					table.getColumns().get(0),
+					false,
+					true,
+					10,
+					Dialect.ORACLE
+				)
+			);
+		}
+
+		@Test
+		void returnsAStatementWithoutBounds_passingNoBounds() {
+			// Prepare
+			DBTableModel table = createTable();
+			String expected = "SELECT Id, Name FROM " + TABLE_NAME_1 + " ORDER BY Id LIMIT 10";
+			// Run & Check
+			assertEquals(
+				expected,
+				unitUnderTest.createKeysetSelectStatementString(
+					table,
+					table.getColumns().get(0),
+					false,
+					false,
+					10,
+					Dialect.HSQLDB
+				)
+			);
+		}
+	}
+
+	@Nested
+	class createUpsertStatementString_DBTable_String_Dialect {
+
+		private DBTableModel createTable() {
+			List<DBColumn> columns = new ArrayList<>();
+			columns.add(new DBColumnModel(COLUMN_NAME_1, "INTEGER", DBType.INTEGER, -1, -1));
+			columns.add(new DBColumnModel(COLUMN_NAME_2, "VARCHAR", DBType.VARCHAR, 100, -1));
+			return new DBTableModel(TABLE_NAME_1, columns, new ArrayList<>(), List.of(columns.get(0)));
+		}
+
+		@Test
+		void throwsAnException_passingATableWithoutPrimaryKey() {
+			// Prepare
+			List<DBColumn> columns = List.of(new DBColumnModel(COLUMN_NAME_1, "INTEGER", DBType.INTEGER, -1, -1));
+			DBTableModel table = new DBTableModel(TABLE_NAME_1, columns, new ArrayList<>());
+			// Run & Check
+			assertThrows(
+				IllegalArgumentException.class,
+				() -> unitUnderTest.createUpsertStatementString(table, null, Dialect.POSTGRESQL)
+			);
+		}
+
+		@Test
+		void returnsAnInsertOnConflict_passingPostgreSQL() {
+			// Prepare
+			String expected =
+				"INSERT INTO " +
+				TABLE_NAME_1 +
+				" (Id, Name) VALUES (?, ?) ON CONFLICT (Id) DO UPDATE SET Name = EXCLUDED.Name";
+			// Run & Check
+			assertEquals(expected, unitUnderTest.createUpsertStatementString(createTable(), null, Dialect.POSTGRESQL));
+		}
+
+		@Test
+		void returnsAnInsertOnDuplicateKeyUpdate_passingMySQL() {
+			// Prepare
+			String expected = "INSERT INTO target (Id, Name) VALUES (?, ?) ON DUPLICATE KEY UPDATE Name = VALUES(Name)";
+			// Run & Check
+			assertEquals(expected, unitUnderTest.createUpsertStatementString(createTable(), "target", Dialect.MYSQL));
+		}
+
+		@Test
+		void returnsAMergeFromDual_passingOracle() {
+			// Prepare
+			String expected =
+				"MERGE INTO " +
+				TABLE_NAME_1 +
+				" t USING (SELECT ? AS Id, ? AS Name FROM DUAL) s ON (t.Id = s.Id) WHEN MATCHED THEN UPDATE SET " +
+				"t.Name = s.Name WHEN NOT MATCHED THEN INSERT (Id, Name) VALUES (s.Id, s.Name)";
+			// Run & Check
+			assertEquals(expected, unitUnderTest.createUpsertStatementString(createTable(), null, Dialect.ORACLE));
+		}
+
+		@Test
+		void returnsAMergeFromValues_passingHSQLDB() {
+			// Prepare
+			String expected =
+				"MERGE INTO " +
+				TABLE_NAME_1 +
+				" t USING (VALUES (?, ?)) AS s (Id, Name) ON (t.Id = s.Id) WHEN MATCHED THEN UPDATE SET " +
+				"t.Name = s.Name WHEN NOT MATCHED THEN INSERT (Id, Name) VALUES (s.Id, s.Name)";
+			// Run & Check
+			assertEquals(expected, unitUnderTest.createUpsertStatementString(createTable(), null, Dialect.HSQLDB));
+		}
+	}
+
+	@Nested
+	class createUpsertStatementString_DBTable_String_Dialect_boolean {
+
+		private DBTableModel createTable() {
+			List<DBColumn> columns = new ArrayList<>();
+			columns.add(new DBColumnModel(COLUMN_NAME_1, "INTEGER", DBType.INTEGER, -1, -1));
+			columns.add(new DBColumnModel(COLUMN_NAME_2, "VARCHAR", DBType.VARCHAR, 100, -1));
+			return new DBTableModel(TABLE_NAME_1, columns, new ArrayList<>(), List.of(columns.get(0)));
+		}
+
+		@Test
+		void returnsAnInsertOnConflictWithDistinctCondition_passingPostgreSQL() {
+			// Prepare
+			String expected =
+				"INSERT INTO target (Id, Name) VALUES (?, ?) ON CONFLICT (Id) DO UPDATE SET Name = EXCLUDED.Name " +
+				"WHERE (target.Name) IS DISTINCT FROM (EXCLUDED.Name)";
+			// Run & Check
+			assertEquals(
+				expected,
+				unitUnderTest.createUpsertStatementString(createTable(), "target", Dialect.POSTGRESQL, true)
+			);
+		}
+
+		@Test
+		void returnsAnInsertOnDuplicateKeyUpdateWithoutCondition_passingMySQL() {
+			// Prepare
+			String expected = "INSERT INTO target (Id, Name) VALUES (?, ?) ON DUPLICATE KEY UPDATE Name = VALUES(Name)";
+			// Run & Check
+			assertEquals(expected, unitUnderTest.createUpsertStatementString(createTable(), "target", Dialect.MYSQL, true));
+		}
+
+		@Test
+		void returnsAMergeWithUpdateCondition_passingOracle() {
+			// Prepare
+			String expected =
+				"MERGE INTO " +
+				TABLE_NAME_1 +
+				" t USING (SELECT ? AS Id, ? AS Name FROM DUAL) s ON (t.Id = s.Id) WHEN MATCHED THEN UPDATE SET " +
+				"t.Name = s.Name WHERE t.Name <> s.Name OR (t.Name IS NULL AND s.Name IS NOT NULL) OR (t.Name IS NOT " +
+				"NULL AND s.Name IS NULL) WHEN NOT MATCHED THEN INSERT (Id, Name) VALUES (s.Id, s.Name)";
+			// Run & Check
+			assertEquals(expected, unitUnderTest.createUpsertStatementString(createTable(), null, Dialect.ORACLE, true));
+		}
+
+		@Test
+		void returnsAMergeWithMatchedCondition_passingHSQLDB() {
+			// Prepare
+			String expected =
+				"MERGE INTO " +
+				TABLE_NAME_1 +
+				" t USING (VALUES (?, ?)) AS s (Id, Name) ON (t.Id = s.Id) WHEN MATCHED AND (t.Name <> s.Name OR " +
+				"(t.Name IS NULL AND s.Name IS NOT NULL) OR (t.Name IS NOT NULL AND s.Name IS NULL)) THEN UPDATE SET " +
+				"t.Name = s.Name WHEN NOT MATCHED THEN INSERT (Id, Name) VALUES (s.Id, s.Name)";
+			// Run & Check
+			assertEquals(expected, unitUnderTest.createUpsertStatementString(createTable(), null, Dialect.HSQLDB, true));
+		}
+
+		@Test
+		void returnsAMergeWithoutCondition_passingATableWithLobColumns() {
+			// Prepare
+			DBTableModel table = createTable();
+			table.addColumns(new DBColumnModel("Data", "BLOB", DBType.BLOB, -1, -1));
+			String expected =
+				"MERGE INTO " +
+				TABLE_NAME_1 +
+				" t USING (VALUES (?, ?, ?)) AS s (Id, Name, Data) ON (t.Id = s.Id) WHEN MATCHED THEN UPDATE SET " +
+				"t.Name = s.Name, t.Data = s.Data WHEN NOT MATCHED THEN INSERT (Id, Name, Data) VALUES (s.Id, s.Name, " +
+				"s.Data)";
+			// Run & Check
+			assertEquals(expected, unitUnderTest.createUpsertStatementString(table, null, Dialect.HSQLDB, true));
+		}
+	}
+
+	@Nested
+	class createWatermarkSelectStatementString_DBTable_DBColumn_boolean {
+
+		@Test
+		void returnsAStatementWithUpperAndLowerBound_passingLowerBoundTrue() {
+			// Prepare
+			List<DBColumn> columns = List.of(new DBColumnModel(COLUMN_NAME_1, "INTEGER", DBType.INTEGER, -1, -1));
+			DBTableModel table = new DBTableModel(TABLE_NAME_1, columns, new ArrayList<>());
+			String expected = "SELECT Id FROM " + TABLE_NAME_1 + " WHERE Id <= ? AND Id > ?";
+			// Run & Check
+			assertEquals(expected, unitUnderTest.createWatermarkSelectStatementString(table, columns.get(0), true));
+		}
+
+		@Test
+		void returnsAStatementWithUpperBoundAndNulls_passingLowerBoundFalse() {
+			// Prepare
+			List<DBColumn> columns = List.of(new DBColumnModel(COLUMN_NAME_1, "INTEGER", DBType.INTEGER, -1, -1));
+			DBTableModel table = new DBTableModel(TABLE_NAME_1, columns, new ArrayList<>());
+			String expected = "SELECT Id FROM " + TABLE_NAME_1 + " WHERE (Id <= ? OR Id IS NULL)";
+			// Run & Check
+			assertEquals(expected, unitUnderTest.createWatermarkSelectStatementString(table, columns.get(0), false));
+		}
+	}
+
+	@Nested
+	class createDeleteRangeStatementString_String_DBColumn_boolean {
+
+		@Test
+		void returnsADeleteWithAnUpperBound_passingNoLowerBound() {
+			// Prepare
+			DBColumn column = new DBColumnModel(COLUMN_NAME_1, "INTEGER", DBType.INTEGER, -1, -1);
+			// Run & Check
+			assertEquals(
+				"DELETE FROM " + TABLE_NAME_1 + " WHERE Id <= ?",
+				unitUnderTest.createDeleteRangeStatementString(TABLE_NAME_1, column, false)
+			);
+		}
+
+		@Test
+		void returnsADeleteWithBothBounds_passingALowerBound() {
+			// Prepare
+			DBColumn column = new DBColumnModel(COLUMN_NAME_1, "INTEGER", DBType.INTEGER, -1, -1);
+			// Run & Check
+			assertEquals(
+				"DELETE FROM " + TABLE_NAME_1 + " WHERE Id > ? AND Id <= ?",
+				unitUnderTest.createDeleteRangeStatementString(TABLE_NAME_1, column, true)
+			);
+		}
+	}
+
+	@Nested
+	class createKeysetBoundStatementString_String_DBColumn_boolean_int_Dialect {
+
+		@Test
+		void returnsTheMaximumKeyOfTheFirstPage_passingNoLowerBound() {
+			// Prepare
+			DBColumn column = new DBColumnModel(COLUMN_NAME_1, "INTEGER", DBType.INTEGER, -1, -1);
+			// Run & Check
+			assertEquals(
+				"SELECT MAX(Id) FROM (SELECT Id FROM " + TABLE_NAME_1 + " ORDER BY Id LIMIT 100) page",
+				unitUnderTest.createKeysetBoundStatementString(TABLE_NAME_1, column, false, 100, Dialect.POSTGRESQL)
+			);
+		}
+
+		@Test
+		void returnsTheMaximumKeyOfTheNextPage_passingALowerBoundForOracle() {
+			// Prepare
+			DBColumn column = new DBColumnModel(COLUMN_NAME_1, "INTEGER", DBType.INTEGER, -1, -1);
+			// Run & Check
+			assertEquals(
+				"SELECT MAX(Id) FROM (SELECT Id FROM " +
+				TABLE_NAME_1 +
+				" WHERE Id > ? ORDER BY Id FETCH FIRST 100 ROWS ONLY) page",
+				unitUnderTest.createKeysetBoundStatementString(TABLE_NAME_1, column, true, 100, Dialect.ORACLE)
+			);
+		}
+	}
+
+	@Nested
+	class createKeySelectStatementString_String_ListDBColumn {
+
+		@Test
+		void returnsASelectOfTheKeyColumns() {
+			// Prepare
+			DBColumn key1 = new DBColumnModel(COLUMN_NAME_1, "INTEGER", DBType.INTEGER, -1, -1);
+			DBColumn key2 = new DBColumnModel(COLUMN_NAME_2, "VARCHAR", DBType.VARCHAR, 100, -1);
+			// Run & Check
+			assertEquals(
+				"SELECT Id, Name FROM " + TABLE_NAME_1,
+				unitUnderTest.createKeySelectStatementString(TABLE_NAME_1, List.of(key1, key2))
+			);
+		}
+
+		@Test
+		void throwsAnException_passingNoKeyColumns() {
+			assertThrows(
+				IllegalArgumentException.class,
+				() -> unitUnderTest.createKeySelectStatementString(TABLE_NAME_1, List.of())
+			);
+		}
+	}
+
+	@Nested
+	class createKeysExistStatementString_String_ListDBColumn_int {
+
+		@Test
+		void returnsASelectOfTheKeysInTheList_passingASingleKeyColumn() {
+			// Prepare
+			DBColumn key = new DBColumnModel(COLUMN_NAME_1, "INTEGER", DBType.INTEGER, -1, -1);
+			// Run & Check
+			assertEquals(
+				"SELECT Id FROM " + TABLE_NAME_1 + " WHERE Id IN (?, ?, ?)",
+				unitUnderTest.createKeysExistStatementString(TABLE_NAME_1, List.of(key), 3)
+			);
+		}
+
+		@Test
+		void returnsASelectOfTheKeysWithTheConditionsOfEachKey_passingACompositeKey() {
+			// Prepare
+			DBColumn key1 = new DBColumnModel(COLUMN_NAME_1, "INTEGER", DBType.INTEGER, -1, -1);
+			DBColumn key2 = new DBColumnModel(COLUMN_NAME_2, "VARCHAR", DBType.VARCHAR, 100, -1);
+			// Run & Check
+			assertEquals(
+				"SELECT Id, Name FROM " + TABLE_NAME_1 + " WHERE (Id = ? AND Name = ?) OR (Id = ? AND Name = ?)",
+				unitUnderTest.createKeysExistStatementString(TABLE_NAME_1, List.of(key1, key2), 2)
+			);
+		}
+
+		@Test
+		void throwsAnException_passingNoKeys() {
+			// Prepare
+			DBColumn key = new DBColumnModel(COLUMN_NAME_1, "INTEGER", DBType.INTEGER, -1, -1);
+			// Run & Check
+			assertThrows(
+				IllegalArgumentException.class,
+				() -> unitUnderTest.createKeysExistStatementString(TABLE_NAME_1, List.of(key), 0)
+			);
+		}
+	}
+
+	@Nested
+	class createFilteredTableString_String_String_String {
+
+		@Test
+		void returnsADerivedTableWithTheConditionAndTheTableNameAsAlias() {
+			assertEquals(
+				"(SELECT * FROM " + TABLE_NAME_1 + " WHERE Id < 5) " + TABLE_NAME_1,
+				unitUnderTest.createFilteredTableString(TABLE_NAME_1, null, "Id < 5")
+			);
+		}
+
+		@Test
+		void returnsADerivedTableWithTheSampleClauseAndTheCondition() {
+			assertEquals(
+				"(SELECT * FROM " + TABLE_NAME_1 + " SAMPLE (10) SEED (0) WHERE (Id < 5)) " + TABLE_NAME_1,
+				unitUnderTest.createFilteredTableString(TABLE_NAME_1, "SAMPLE (10) SEED (0)", "(Id < 5)")
+			);
+		}
+
+		@Test
+		void returnsADerivedTableWithoutSchemaAndDatabaseLinkInTheAlias() {
+			assertEquals(
+				"(SELECT * FROM SRC." + TABLE_NAME_1 + "@LINK WHERE Id < 5) " + TABLE_NAME_1,
+				unitUnderTest.createFilteredTableString("SRC." + TABLE_NAME_1 + "@LINK", null, "Id < 5")
+			);
+		}
+	}
+
+	@Nested
+	class createTableSampleString_double_Dialect {
+
+		@Test
+		void returnsARepeatableBernoulliSample_passingPostgreSQL() {
+			assertEquals(
+				"TABLESAMPLE BERNOULLI (12.5) REPEATABLE (0)",
+				unitUnderTest.createTableSampleString(12.5, Dialect.POSTGRESQL)
+			);
+		}
+
+		@Test
+		void returnsASeededSample_passingOracle() {
+			assertEquals("SAMPLE (10) SEED (0)", unitUnderTest.createTableSampleString(10, Dialect.ORACLE));
+		}
+
+		@Test
+		void returnsNull_passingADatabaseWithoutTableSampling() {
+			assertEquals(null, unitUnderTest.createTableSampleString(10, Dialect.HSQLDB));
+		}
+	}
+
+	@Nested
+	class createUpdateStatementString_String_ListDBColumn_ListDBColumn {
+
+		@Test
+		void returnsAnUpdateOfTheColumnsByTheKey() {
+			// Prepare
+			DBColumn key = new DBColumnModel(COLUMN_NAME_1, "INTEGER", DBType.INTEGER, -1, -1);
+			DBColumn column2 = new DBColumnModel(COLUMN_NAME_2, "VARCHAR", DBType.VARCHAR, 100, -1);
+			DBColumn column3 = new DBColumnModel(COLUMN_NAME_3, "NUMERIC", DBType.NUMERIC, 10, 2);
+			// Run & Check
+			assertEquals(
+				"UPDATE " + TABLE_NAME_1 + " SET Name = ?, Salary = ? WHERE Id = ?",
+				unitUnderTest.createUpdateStatementString(TABLE_NAME_1, List.of(column2, column3), List.of(key))
+			);
+		}
+
+		@Test
+		void throwsAnException_passingNoKeyColumns() {
+			// Prepare
+			DBColumn column = new DBColumnModel(COLUMN_NAME_2, "VARCHAR", DBType.VARCHAR, 100, -1);
+			// Run & Check
+			assertThrows(
+				IllegalArgumentException.class,
+				() -> unitUnderTest.createUpdateStatementString(TABLE_NAME_1, List.of(column), List.of())
+			);
+		}
+	}
+
+	@Nested
+	class createInsertSelectStatementString_DBTable_String_String_String {
+
+		private DBTableModel createTable() {
+			List<DBColumn> columns = new ArrayList<>();
+			columns.add(new DBColumnModel(COLUMN_NAME_1, "INTEGER", DBType.INTEGER, -1, -1));
+			columns.add(new DBColumnModel(COLUMN_NAME_2, "VARCHAR", DBType.VARCHAR, 100, -1));
+			return new DBTableModel(TABLE_NAME_1, columns, new ArrayList<>());
+		}
+
+		@Test
+		void returnsAnInsertSelectOfAllRecords_passingNoCondition() {
+			assertEquals(
+				"INSERT INTO target.TestTable (Id, Name) SELECT Id, Name FROM source.TestTable",
+				unitUnderTest.createInsertSelectStatementString(createTable(), "source.TestTable", "target.TestTable", null)
+			);
+		}
+
+		@Test
+		void returnsAnInsertSelectWithACondition_passingACondition() {
+			assertEquals(
+				"INSERT INTO target.TestTable (Id, Name) SELECT Id, Name FROM source.TestTable WHERE Id > ? AND Id <= ?",
+				unitUnderTest.createInsertSelectStatementString(
+					createTable(),
+					"source.TestTable",
+					"target.TestTable",
+					"Id > ? AND Id <= ?"
+				)
+			);
+		}
+	}
+
+	@Nested
+	class createShadowTableStatementString_String_String_Dialect {
+
+		@Test
+		void returnsACreateTableLikeWithoutIndices_passingPostgreSQL() {
+			assertEquals(
+				"CREATE TABLE t__load (LIKE t INCLUDING ALL EXCLUDING INDEXES)",
+				unitUnderTest.createShadowTableStatementString("t", "t__load", Dialect.POSTGRESQL)
+			);
+		}
+
+		@Test
+		void returnsACreateTableLikeWithDefaultsAndIdentity_passingHSQLDB() {
+			assertEquals(
+				"CREATE TABLE t__load (LIKE t INCLUDING DEFAULTS INCLUDING IDENTITY INCLUDING GENERATED)",
+				unitUnderTest.createShadowTableStatementString("t", "t__load", Dialect.HSQLDB)
+			);
+		}
+
+		@Test
+		void returnsACreateTableLike_passingMySQL() {
+			assertEquals(
+				"CREATE TABLE t__load LIKE t",
+				unitUnderTest.createShadowTableStatementString("t", "t__load", Dialect.MYSQL)
+			);
+		}
+
+		@Test
+		void returnsACreateTableAsAnEmptySelect_passingOracle() {
+			assertEquals(
+				"CREATE TABLE t__load AS SELECT * FROM t WHERE 1 = 0",
+				unitUnderTest.createShadowTableStatementString("t", "t__load", Dialect.ORACLE)
+			);
+		}
+	}
+
+	@Nested
+	class createSetDefaultStatementString_String_String_String_Dialect {
+
+		@Test
+		void returnsAnAlterColumn_passingPostgreSQL() {
+			assertEquals(
+				"ALTER TABLE t ALTER COLUMN c SET DEFAULT 'x'",
+				unitUnderTest.createSetDefaultStatementString("t", "c", "'x'", Dialect.POSTGRESQL)
+			);
+		}
+
+		@Test
+		void returnsAModify_passingOracle() {
+			assertEquals(
+				"ALTER TABLE t MODIFY (c DEFAULT 'x')",
+				unitUnderTest.createSetDefaultStatementString("t", "c", "'x'", Dialect.ORACLE)
+			);
+		}
+	}
+
+	@Nested
+	class createDropIndexStatementString_String_String_Dialect {
+
+		@Test
+		void returnsADropIndexOnTheTable_passingMySQL() {
+			assertEquals("DROP INDEX idx ON t", unitUnderTest.createDropIndexStatementString("idx", "t", Dialect.MYSQL));
+		}
+
+		@Test
+		void returnsADropIndex_passingPostgreSQL() {
+			assertEquals("DROP INDEX idx", unitUnderTest.createDropIndexStatementString("idx", "t", Dialect.POSTGRESQL));
+		}
+	}
+
+	@Nested
+	class createSequenceOwnerStatementString_String_String_String {
+
+		@Test
+		void returnsAnAlterSequenceOwnedBy() {
+			assertEquals(
+				"ALTER SEQUENCE public.t_id_seq OWNED BY t.id",
+				unitUnderTest.createSequenceOwnerStatementString("public.t_id_seq", "t", "id")
+			);
+		}
+	}
+
+	@Nested
+	class createCopySequenceValueStatementString_String_String {
+
+		@Test
+		void returnsASetvalWithTheValueOfTheSequence() {
+			assertEquals(
+				"SELECT setval('public.t__load_id_seq', last_value, is_called) FROM public.t_id_seq",
+				unitUnderTest.createCopySequenceValueStatementString("public.t_id_seq", "public.t__load_id_seq")
+			);
+		}
+	}
+
+	@Nested
+	class createIndexStatementString_String_String_boolean_ListString {
+
+		@Test
+		void returnsAUniqueIndex_passingUniqueTrue() {
+			assertEquals(
+				"CREATE UNIQUE INDEX idx ON t (a, b)",
+				unitUnderTest.createIndexStatementString("idx", "t", true, List.of("a", "b"))
+			);
+		}
+
+		@Test
+		void returnsAnIndex_passingUniqueFalse() {
+			assertEquals(
+				"CREATE INDEX idx ON t (a)",
+				unitUnderTest.createIndexStatementString("idx", "t", false, List.of("a"))
+			);
+		}
+	}
+
+	@Nested
+	class createAddPrimaryKeyStatementString_String_String_ListString {
+
+		@Test
+		void returnsANamedPrimaryKey_passingAConstraintName() {
+			assertEquals(
+				"ALTER TABLE t ADD CONSTRAINT pk PRIMARY KEY (a, b)",
+				unitUnderTest.createAddPrimaryKeyStatementString("t", "pk", List.of("a", "b"))
+			);
+		}
+
+		@Test
+		void returnsAnUnnamedPrimaryKey_passingNoConstraintName() {
+			assertEquals(
+				"ALTER TABLE t ADD PRIMARY KEY (a)",
+				unitUnderTest.createAddPrimaryKeyStatementString("t", null, List.of("a"))
+			);
+		}
+	}
+
+	@Nested
+	class createSwapTableStatementStrings_String_String_String_Dialect {
+
+		@Test
+		void returnsOneRenameTable_passingMySQL() {
+			assertEquals(
+				List.of("RENAME TABLE t TO t__old, t__load TO t"),
+				unitUnderTest.createSwapTableStatementStrings("t", "t__load", "t__old", Dialect.MYSQL)
+			);
+		}
+
+		@Test
+		void returnsTwoAlterTableRenames_passingPostgreSQL() {
+			assertEquals(
+				List.of("ALTER TABLE t RENAME TO t__old", "ALTER TABLE t__load RENAME TO t"),
+				unitUnderTest.createSwapTableStatementStrings("t", "t__load", "t__old", Dialect.POSTGRESQL)
+			);
+		}
+	}
+
+	@Nested
+	class createTruncateStatementString_String_boolean {
+
+		@Test
+		void returnsATruncateWithCascade_passingCascadeTrue() {
+			assertEquals(
+				"TRUNCATE TABLE " + TABLE_NAME_1 + " CASCADE",
+				unitUnderTest.createTruncateStatementString(TABLE_NAME_1, true)
+			);
+		}
+
+		@Test
+		void returnsATruncateWithoutCascade_passingCascadeFalse() {
+			assertEquals("TRUNCATE TABLE " + TABLE_NAME_1, unitUnderTest.createTruncateStatementString(TABLE_NAME_1, false));
+		}
+	}
 }